@@ -1,21 +1,26 @@
   package com.oxygenxml.git;
 
+import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
 
+import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.JCheckBox;
 import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
+import javax.swing.JSpinner;
 import javax.swing.JTextArea;
+import javax.swing.SpinnerNumberModel;
 import javax.xml.bind.annotation.XmlEnum;
 
 import com.oxygenxml.git.options.OptionTags;
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.options.TagBasedOptions;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.view.components.SectionPane;
@@ -102,6 +107,21 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
    */
   private JCheckBox notifyAboutRemoteCommitsCheckBox;
   
+  /**
+   * The maximum number of added or deleted files for which the renames are detected by content similarity.
+   */
+  private JSpinner renameDetectionLimit;
+  
+  /**
+   * The largest value accepted for the rename detection limit.
+   */
+  private static final int MAX_RENAME_DETECTION_LIMIT = 100_000;
+  
+  /**
+   * The step of the rename detection limit spinner.
+   */
+  private static final int RENAME_DETECTION_LIMIT_STEP = 100;
+  
   /**
    * The OptionsManager instance
    */
@@ -173,6 +193,10 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     askToCreateNewRepoIfNotCreated = new JCheckBox(TRANSLATOR.getTranslation(Tags.ASK_USER_TO_CREATE_NEW_REPOSITORY));
     askToCreateNewRepoIfNotCreated.setToolTipText(TRANSLATOR.getTranslation(Tags.ASK_USER_TO_CREATE_NEW_REPOSITORY_TOOLTIP));
     mainPanel.add(askToCreateNewRepoIfNotCreated, constraints);
+    
+    // Option that limits the rename detection by content similarity
+    constraints.gridy ++;
+    mainPanel.add(createRenameDetectionLimitPanel(), constraints);
 
     addValidationSection(mainPanel, constraints);
     
@@ -283,6 +307,8 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     
     askToCreateNewRepoIfNotCreated.setSelected(OPTIONS_MANAGER.getAskUserToCreateNewRepoIfNotExist());
     
+    renameDetectionLimit.setValue(OPTIONS_MANAGER.getRenameDetectionLimit());
+    
     WhenRepoDetectedInProject whatToDo = OPTIONS_MANAGER.getWhenRepoDetectedInProject();
     switch (whatToDo) {
       case ASK_TO_SWITCH_TO_WC:
@@ -299,6 +325,27 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     }
   }
 
+  /**
+   * Create the panel that contains the rename detection limit.
+   * 
+   * @return the panel.
+   */
+  private JPanel createRenameDetectionLimitPanel() {
+    JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEADING, 0, 0));
+    JLabel label = new JLabel(TRANSLATOR.getTranslation(Tags.RENAME_DETECTION_LIMIT));
+    label.setBorder(BorderFactory.createEmptyBorder(0, COMBO_LEFT_INSET, 0, COMBO_LEFT_INSET));
+    panel.add(label);
+    
+    renameDetectionLimit = new JSpinner(new SpinnerNumberModel(
+        TagBasedOptions.DEFAULT_RENAME_DETECTION_LIMIT, 1, MAX_RENAME_DETECTION_LIMIT, RENAME_DETECTION_LIMIT_STEP));
+    panel.add(renameDetectionLimit);
+    
+    String tooltip = TRANSLATOR.getTranslation(Tags.RENAME_DETECTION_LIMIT_TOOLTIP);
+    label.setToolTipText(tooltip);
+    renameDetectionLimit.setToolTipText(tooltip);
+    return panel;
+  }
+
   /**
    * Create the panel that contains the settings related to what should happen
    * when a repository is detected at project-loading time.
@@ -336,6 +383,7 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     OPTIONS_MANAGER.setUpdateSubmodulesOnPull(updateSubmodulesOnPull.isSelected());
     OPTIONS_MANAGER.setDetectAndOpenXprFiles(detectAndOpenXprFiles.isSelected());
     OPTIONS_MANAGER.setAskUserToCreateNewRepoIfNotExist(askToCreateNewRepoIfNotCreated.isSelected());
+    OPTIONS_MANAGER.setRenameDetectionLimit((Integer) renameDetectionLimit.getValue());
     OPTIONS_MANAGER.setValidateFilesBeforeCommit(validateBeforeCommit.isSelected());
     OPTIONS_MANAGER.setRejectCommitOnValidationProblems(rejectCommitOnValidationProblems.isSelected());
     OPTIONS_MANAGER.setValidateMainFilesBeforePush(validateBeforePush.isSelected());
@@ -363,6 +411,7 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
     validateBeforePush.setSelected(false);
     rejectPushOnValidationProblems.setSelected(false);
     askToCreateNewRepoIfNotCreated.setSelected(false);
+    renameDetectionLimit.setValue(TagBasedOptions.DEFAULT_RENAME_DETECTION_LIMIT);
   }
 
   /**
@@ -394,6 +443,7 @@ public class OxygenGitOptionPagePluginExtension extends OptionPagePluginExtensio
         OptionTags.NOTIFY_ABOUT_NEW_REMOTE_COMMITS,
         OptionTags.WHEN_REPO_DETECTED_IN_PROJECT,
         OptionTags.UPDATE_SUBMODULES_ON_PULL,
+        OptionTags.RENAME_DETECTION_LIMIT,
         OptionTags.VALIDATE_FILES_BEFORE_COMMIT,
         OptionTags.REJECT_COMMIT_ON_VALIDATION_PROBLEMS,
         OptionTags.VALIDATE_MAIN_FILES_BEFORE_PUSH,
@@ -217,8 +217,9 @@ public class OxygenGitPluginExtension implements WorkspaceAccessPluginExtension,
 
 		@Override
 		public void windowActivated(WindowEvent e) {
-			// Reset when you leave oxygen. Subsequent calls will recompute it.
-			gitController.getGitAccess().getStatusCache().resetCache();
+			// Reset when you leave oxygen. Subsequent calls will recompute it, 
+			// or only update the files changed in the meantime, if they are watched.
+			gitController.getGitAccess().getStatusCache().resetCacheIfNotWatching();
 			super.windowActivated(e);
 			final boolean isStagingPanelShowing = stagingPanel != null && stagingPanel.isShowing();
 			final boolean isHistoryPanelShowing = historyView != null && historyView.isShowing();
@@ -175,5 +175,10 @@ public class OptionTags {
    * The tag option for current branch.
    */
   public static final String CURRENT_BRANCH = "com.oxygenxml.git.current.branch";
+  
+  /**
+   * The tag option for the maximum number of added or deleted files for which the renames are detected by content similarity.
+   */
+  public static final String RENAME_DETECTION_LIMIT = "com.oxygenxml.git.rename.detection.limit";
 
 }
@@ -374,4 +374,15 @@ public interface Options {
    * @param currentBranch The new current branch to be set.
    */
   public void setCurrentBranch(final String currentBranch);
+  
+  /**
+   * @return The maximum number of added or deleted files for which the renames are detected by content similarity.
+   */
+  public int getRenameDetectionLimit();
+  
+  /**
+   * @param renameDetectionLimit The maximum number of added or deleted files for which the renames 
+   * are detected by content similarity.
+   */
+  public void setRenameDetectionLimit(final int renameDetectionLimit);
 }
@@ -851,6 +851,21 @@ public class OptionsManager {
     return getOptions().getAskUserToCreateNewRepoIfNotExist();
   }
   
+  /**
+   * @param renameDetectionLimit The maximum number of added or deleted files for which the renames 
+   * are detected by content similarity.
+   */
+  public void setRenameDetectionLimit(final int renameDetectionLimit) {
+    getOptions().setRenameDetectionLimit(renameDetectionLimit);
+  }
+  
+  /**
+   * @return The maximum number of added or deleted files for which the renames are detected by content similarity.
+   */
+  public int getRenameDetectionLimit() {
+    return getOptions().getRenameDetectionLimit();
+  }
+  
   /**
    * Remove credentials from a given host. 
    * The credentials will be removed for both, token and user + password authentication.
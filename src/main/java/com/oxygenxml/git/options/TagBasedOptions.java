@@ -44,6 +44,12 @@ public class TagBasedOptions implements Options {
    */
   private static final String FALSE = "false";
   
+  /**
+   * The default maximum number of added or deleted files for which the renames are detected by content similarity.
+   * The same as the JGit default for "diff.renameLimit".
+   */
+  public static final int DEFAULT_RENAME_DETECTION_LIMIT = 400;
+  
   /**
    * WSOptionsStorage supports for saving and retrieving custom options in the Oxygen common preferences.
    */
@@ -615,4 +621,21 @@ public class TagBasedOptions implements Options {
     wsOptionsStorage.setOption(OptionTags.CURRENT_BRANCH, currentBranch);
   }
 
+  @Override
+  public int getRenameDetectionLimit() {
+    int renameDetectionLimit = DEFAULT_RENAME_DETECTION_LIMIT;
+    try {
+      renameDetectionLimit = Integer.parseInt(wsOptionsStorage.getOption(
+          OptionTags.RENAME_DETECTION_LIMIT, String.valueOf(DEFAULT_RENAME_DETECTION_LIMIT)));
+    } catch (NumberFormatException e) {
+      // Keep the default.
+    }
+    return renameDetectionLimit > 0 ? renameDetectionLimit : DEFAULT_RENAME_DETECTION_LIMIT;
+  }
+
+  @Override
+  public void setRenameDetectionLimit(final int renameDetectionLimit) {
+    wsOptionsStorage.setOption(OptionTags.RENAME_DETECTION_LIMIT, String.valueOf(renameDetectionLimit));
+  }
+
 }
@@ -13,10 +13,12 @@ import java.net.URLStreamHandler;
 
 import org.eclipse.jgit.errors.NoWorkTreeException;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.service.Commit;
+import com.oxygenxml.git.service.FileVersionCache;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.RevCommitUtil;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
@@ -139,7 +141,13 @@ public class GitRevisionURLHandler extends URLStreamHandler {
 			  default:
 	        // Probably an ID.
 	        try {
-	          fileObject = RevCommitUtil.getObjectID(gitAccess.getRepository(), currentHost, path);
+	          Repository repository = gitAccess.getRepository();
+	          if (ObjectId.isId(currentHost)) {
+	            // The version of a file from a commit never changes.
+	            fileObject = FileVersionCache.getInstance().getCommitVersion(repository, ObjectId.fromString(currentHost), path);
+	          } else {
+	            fileObject = RevCommitUtil.getObjectID(repository, currentHost, path);
+	          }
 	        } catch (IOException | NoRepositorySelected e) {
 	          throw new IOException("Unable to extract GIT data from: " + getURL(), e);
 	        }
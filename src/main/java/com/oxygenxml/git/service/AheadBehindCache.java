@@ -0,0 +1,381 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.BranchConfig;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Computes how many commits a local branch is ahead and behind its upstream branch, and keeps the
+ * result for the tips of the two branches, so that the push, the toolbar and the history share it.
+ * <br><br>
+ * When the tips only move forward, like after a commit, a fetch or a push, the result is computed
+ * from the previous one by walking only the new commits. The lists of commits are read only when requested.
+ */
+public class AheadBehindCache {
+
+  /**
+   * The maximum number of branches for which a result is kept.
+   */
+  private static final int MAX_BRANCHES = 32;
+
+  /**
+   * The commits a local branch is ahead and behind its upstream, for given tips. Immutable,
+   * except for the lists of commits, which are read when first requested.
+   */
+  public static class AheadBehind {
+    /**
+     * The repository.
+     */
+    private final Repository repository;
+    /**
+     * The tip of the local branch.
+     */
+    private final ObjectId localTip;
+    /**
+     * The tip of the upstream branch.
+     */
+    private final ObjectId upstreamTip;
+    /**
+     * The commits reachable from the local tip and not from the upstream tip, newest first.
+     */
+    private final List<ObjectId> ahead;
+    /**
+     * The commits reachable from the upstream tip and not from the local tip, newest first.
+     */
+    private final List<ObjectId> behind;
+    /**
+     * The commits ahead, read when first requested.
+     */
+    private List<RevCommit> commitsAhead;
+    /**
+     * The commits behind, read when first requested.
+     */
+    private List<RevCommit> commitsBehind;
+
+    /**
+     * Constructor.
+     *
+     * @param repository  The repository.
+     * @param localTip    The tip of the local branch.
+     * @param upstreamTip The tip of the upstream branch.
+     * @param ahead       The commits ahead.
+     * @param behind      The commits behind.
+     */
+    private AheadBehind(Repository repository, ObjectId localTip, ObjectId upstreamTip, List<ObjectId> ahead, List<ObjectId> behind) {
+      this.repository = repository;
+      this.localTip = localTip;
+      this.upstreamTip = upstreamTip;
+      this.ahead = ahead;
+      this.behind = behind;
+    }
+
+    /**
+     * @return The tip of the local branch.
+     */
+    public ObjectId getLocalTip() {
+      return localTip;
+    }
+
+    /**
+     * @return The tip of the upstream branch.
+     */
+    public ObjectId getUpstreamTip() {
+      return upstreamTip;
+    }
+
+    /**
+     * @return The number of local commits that are not in the upstream branch.
+     */
+    public int getAheadCount() {
+      return ahead.size();
+    }
+
+    /**
+     * @return The number of upstream commits that are not in the local branch.
+     */
+    public int getBehindCount() {
+      return behind.size();
+    }
+
+    /**
+     * @return The local commits that are not in the upstream branch, newest first.
+     *
+     * @throws IOException When the commits cannot be read.
+     */
+    public synchronized List<RevCommit> getCommitsAhead() throws IOException {
+      if (commitsAhead == null) {
+        commitsAhead = parse(repository, ahead);
+      }
+      return commitsAhead;
+    }
+
+    /**
+     * @return The upstream commits that are not in the local branch, newest first.
+     *
+     * @throws IOException When the commits cannot be read.
+     */
+    public synchronized List<RevCommit> getCommitsBehind() throws IOException {
+      if (commitsBehind == null) {
+        commitsBehind = parse(repository, behind);
+      }
+      return commitsBehind;
+    }
+
+    /**
+     * @return <code>true</code> if this result is for the given tips.
+     *
+     * @param localTip    The tip of the local branch.
+     * @param upstreamTip The tip of the upstream branch.
+     */
+    boolean isFor(AnyObjectId localTip, AnyObjectId upstreamTip) {
+      return this.localTip.equals(localTip) && this.upstreamTip.equals(upstreamTip);
+    }
+  }
+
+  /**
+   * Singleton instance.
+   */
+  private static final AheadBehindCache INSTANCE = new AheadBehindCache();
+
+  /**
+   * The repository for which the results are kept.
+   */
+  private Repository repository;
+
+  /**
+   * The last result of each local branch. The key is the full branch name.
+   * The least recently used branch is removed first.
+   */
+  private final Map<String, AheadBehind> results = new LinkedHashMap<String, AheadBehind>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, AheadBehind> eldest) {
+      return size() > MAX_BRANCHES;
+    }
+  };
+
+  /**
+   * Hidden constructor.
+   */
+  private AheadBehindCache() {
+    // Singleton.
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static AheadBehindCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Get how many commits a local branch is ahead and behind its upstream branch.
+   *
+   * @param repository The repository.
+   * @param branchName The short or full name of the local branch.
+   *
+   * @return The commits ahead and behind, or <code>null</code> if the branch or its upstream branch do not exist.
+   *
+   * @throws IOException When the commits cannot be walked.
+   */
+  public synchronized AheadBehind getAheadBehind(Repository repository, String branchName) throws IOException {
+    if (this.repository != repository) {
+      clear();
+      this.repository = repository;
+    }
+
+    String shortBranchName = Repository.shortenRefName(branchName);
+    String fullBranchName = Constants.R_HEADS + shortBranchName;
+    String trackingBranch = new BranchConfig(repository.getConfig(), shortBranchName).getTrackingBranch();
+    Ref tracking = trackingBranch != null ? repository.exactRef(trackingBranch) : null;
+    Ref local = repository.exactRef(fullBranchName);
+    if (tracking == null || tracking.getObjectId() == null || local == null || local.getObjectId() == null) {
+      return null;
+    }
+
+    ObjectId localTip = local.getObjectId();
+    ObjectId upstreamTip = tracking.getObjectId();
+    AheadBehind previous = results.get(fullBranchName);
+    AheadBehind result;
+    if (previous != null && previous.isFor(localTip, upstreamTip)) {
+      result = previous;
+    } else {
+      result = previous != null ? computeFrom(previous, localTip, upstreamTip) : null;
+      if (result == null) {
+        result = compute(repository, localTip, upstreamTip);
+      }
+      results.put(fullBranchName, result);
+    }
+    return result;
+  }
+
+  /**
+   * Forgets all the results.
+   */
+  public synchronized void clear() {
+    repository = null;
+    results.clear();
+  }
+
+  /**
+   * Computes the commits ahead and behind by walking from both tips.
+   *
+   * @param repository  The repository.
+   * @param localTip    The tip of the local branch.
+   * @param upstreamTip The tip of the upstream branch.
+   *
+   * @return The result.
+   *
+   * @throws IOException When the commits cannot be walked.
+   */
+  private static AheadBehind compute(Repository repository, ObjectId localTip, ObjectId upstreamTip) throws IOException {
+    try (RevWalk walk = new RevWalk(repository)) {
+      walk.setRetainBody(false);
+      List<ObjectId> ahead = walk(walk, localTip, upstreamTip, null);
+      List<ObjectId> behind = walk(walk, upstreamTip, localTip, null);
+      return new AheadBehind(repository, localTip, upstreamTip, ahead, behind);
+    }
+  }
+
+  /**
+   * Computes the commits ahead and behind from a previous result, walking only the new commits.
+   *
+   * @param previous    The previous result for the same branch.
+   * @param localTip    The new tip of the local branch.
+   * @param upstreamTip The new tip of the upstream branch.
+   *
+   * @return The result, or <code>null</code> if one of the tips did not move forward
+   * or if one of the previous tips no longer exists, like after a rewritten branch was pruned.
+   *
+   * @throws IOException When the commits cannot be walked.
+   */
+  private static AheadBehind computeFrom(AheadBehind previous, ObjectId localTip, ObjectId upstreamTip) throws IOException {
+    try {
+      return computeFromExisting(previous, localTip, upstreamTip);
+    } catch (MissingObjectException | IncorrectObjectTypeException e) {
+      // The previous tips cannot be walked. The result is computed again.
+      return null;
+    }
+  }
+
+  /**
+   * Computes the commits ahead and behind from a previous result whose tips exist, walking only the new commits.
+   *
+   * @param previous    The previous result for the same branch.
+   * @param localTip    The new tip of the local branch.
+   * @param upstreamTip The new tip of the upstream branch.
+   *
+   * @return The result, or <code>null</code> if one of the tips did not move forward.
+   *
+   * @throws IOException When the commits cannot be walked.
+   */
+  private static AheadBehind computeFromExisting(AheadBehind previous, ObjectId localTip, ObjectId upstreamTip) throws IOException {
+    try (RevWalk walk = new RevWalk(previous.repository)) {
+      walk.setRetainBody(false);
+      // The commits added to each branch. A tip moved forward if the previous tip is a parent of a new commit.
+      List<ObjectId> newLocal = walk(walk, localTip, previous.localTip, previous.localTip);
+      List<ObjectId> newUpstream = walk(walk, upstreamTip, previous.upstreamTip, previous.upstreamTip);
+      if (newLocal == null || newUpstream == null) {
+        return null;
+      }
+
+      // The new commits that are only in one branch, followed by the previous ones that were not merged in the other.
+      List<ObjectId> ahead = walk(walk, localTip, previous.localTip, upstreamTip);
+      ahead.addAll(subtract(previous.ahead, newUpstream));
+      List<ObjectId> behind = walk(walk, upstreamTip, previous.upstreamTip, localTip);
+      behind.addAll(subtract(previous.behind, newLocal));
+      return new AheadBehind(previous.repository, localTip, upstreamTip, ahead, behind);
+    }
+  }
+
+  /**
+   * Walks the commits reachable from a tip and not from the given commits.
+   *
+   * @param walk         The walk, reset before use.
+   * @param start        The tip.
+   * @param uninteresting The commit whose ancestors are excluded.
+   * @param other        Another commit whose ancestors are excluded. <code>null</code> to exclude only
+   *                     the ancestors of the first one. If it is the same as the first one, the walk checks that the
+   *                     tip is a descendant of it.
+   *
+   * @return The commits, newest first, or <code>null</code> if the walk had to check the tip is a descendant and it is not.
+   *
+   * @throws IOException When the commits cannot be walked.
+   */
+  private static List<ObjectId> walk(RevWalk walk, AnyObjectId start, AnyObjectId uninteresting, AnyObjectId other) throws IOException {
+    walk.reset();
+    walk.markStart(walk.parseCommit(start));
+    walk.markUninteresting(walk.parseCommit(uninteresting));
+    boolean checkDescendant = uninteresting.equals(other);
+    if (other != null && !checkDescendant) {
+      walk.markUninteresting(walk.parseCommit(other));
+    }
+
+    List<ObjectId> commits = new ArrayList<>();
+    boolean isDescendant = start.equals(uninteresting);
+    for (RevCommit commit : walk) {
+      commits.add(commit.copy());
+      if (checkDescendant && !isDescendant) {
+        for (RevCommit parent : commit.getParents()) {
+          isDescendant |= parent.equals(uninteresting);
+        }
+      }
+    }
+    return !checkDescendant || isDescendant ? commits : null;
+  }
+
+  /**
+   * @param commits The commits.
+   * @param removed The commits to remove.
+   *
+   * @return The commits that are not removed, in the same order.
+   */
+  private static List<ObjectId> subtract(List<ObjectId> commits, List<ObjectId> removed) {
+    List<ObjectId> remaining = commits;
+    if (!removed.isEmpty()) {
+      Set<ObjectId> removedSet = new HashSet<>(removed);
+      remaining = new ArrayList<>(commits.size());
+      for (ObjectId commit : commits) {
+        if (!removedSet.contains(commit)) {
+          remaining.add(commit);
+        }
+      }
+    }
+    return remaining;
+  }
+
+  /**
+   * Reads the commits.
+   *
+   * @param repository The repository.
+   * @param ids        The commit IDs.
+   *
+   * @return The parsed commits, in the same order.
+   *
+   * @throws IOException When a commit cannot be read.
+   */
+  private static List<RevCommit> parse(Repository repository, List<ObjectId> ids) throws IOException {
+    List<RevCommit> commits = new ArrayList<>(ids.size());
+    try (RevWalk walk = new RevWalk(repository)) {
+      for (ObjectId id : ids) {
+        commits.add(walk.parseCommit(id));
+      }
+    }
+    return Collections.unmodifiableList(commits);
+  }
+}
@@ -0,0 +1,119 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+
+import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.entities.FileStatus;
+
+/**
+ * Keeps the files changed by the recently presented commits of the current repository,
+ * so that selecting a commit again, even after the history was refreshed, does not compare its trees again.
+ * <br><br>
+ * The files changed by a commit never change, so they are kept for the commit ID.
+ * The kept files are forgotten when the repository is closed and when the rename detection limit
+ * from the options changes, because the limit decides which files are presented as renamed.
+ */
+public class ChangedFilesCache {
+
+  /**
+   * The maximum number of commits whose changed files are kept.
+   */
+  private static final int MAX_COMMITS = 100;
+
+  /**
+   * Singleton instance.
+   */
+  private static final ChangedFilesCache INSTANCE = new ChangedFilesCache();
+
+  /**
+   * The files changed by the commits. The key is the commit ID.
+   * The least recently used commit is removed first.
+   */
+  private final Map<String, List<FileStatus>> changedFiles = new LinkedHashMap<String, List<FileStatus>>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, List<FileStatus>> eldest) {
+      return size() > MAX_COMMITS;
+    }
+  };
+
+  /**
+   * The rename detection limit from the options for which the kept files were computed.
+   */
+  private int renameLimit = -1;
+
+  /**
+   * Hidden constructor.
+   */
+  private ChangedFilesCache() {
+    // Singleton.
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static ChangedFilesCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Get the files changed by a commit of the current repository. They are computed only if they are not kept.
+   *
+   * @param commitId The commit ID.
+   *
+   * @return The changed files. A new list.
+   *
+   * @throws IOException     When the commit cannot be read.
+   * @throws GitAPIException When the trees of the commit cannot be compared.
+   */
+  public List<FileStatus> getChangedFiles(String commitId) throws IOException, GitAPIException {
+    List<FileStatus> files = getCachedChangedFiles(commitId);
+    if (files == null) {
+      int computedForLimit = OptionsManager.getInstance().getRenameDetectionLimit();
+      // Computed outside the lock, so the other commits are still served meanwhile.
+      files = RevCommitUtil.getChangedFiles(commitId);
+      synchronized (this) {
+        forgetIfRenameLimitChanged();
+        if (renameLimit == computedForLimit) {
+          changedFiles.put(commitId, Collections.unmodifiableList(new ArrayList<>(files)));
+        }
+      }
+    }
+    return files;
+  }
+
+  /**
+   * @param commitId The commit ID.
+   *
+   * @return The kept changed files of the commit, as a new list, or <code>null</code> if they were not computed yet.
+   */
+  public synchronized List<FileStatus> getCachedChangedFiles(String commitId) {
+    forgetIfRenameLimitChanged();
+    List<FileStatus> cached = changedFiles.get(commitId);
+    return cached != null ? new ArrayList<>(cached) : null;
+  }
+
+  /**
+   * Forgets all the kept changed files.
+   */
+  public synchronized void clear() {
+    changedFiles.clear();
+  }
+
+  /**
+   * Forgets the kept changed files if they were computed for another rename detection limit.
+   */
+  private void forgetIfRenameLimitChanged() {
+    int currentLimit = OptionsManager.getInstance().getRenameDetectionLimit();
+    if (currentLimit != renameLimit) {
+      changedFiles.clear();
+      renameLimit = currentLimit;
+    }
+  }
+}
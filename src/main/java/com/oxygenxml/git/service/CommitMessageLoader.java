@@ -0,0 +1,97 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared by the rows of a history, so that each row keeps only a small fixed amount of data.
+ * <br><br>
+ * The commit messages are not kept by the rows. They are read from the object database when
+ * a row needs them, usually when it becomes visible, and only the recently used ones are cached.
+ * The author and committer names are interned, so a name is kept once for all its commits.
+ */
+public class CommitMessageLoader {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(CommitMessageLoader.class);
+
+  /**
+   * The maximum number of cached messages.
+   */
+  private static final int MESSAGES_CACHE_SIZE = 1000;
+
+  /**
+   * The repository.
+   */
+  private final Repository repository;
+
+  /**
+   * The recently used messages. The key is the commit ID.
+   * The least recently used message is removed first.
+   */
+  private final Map<ObjectId, String> messagesCache = new LinkedHashMap<ObjectId, String>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<ObjectId, String> eldest) {
+      return size() > MESSAGES_CACHE_SIZE;
+    }
+  };
+
+  /**
+   * The interned names.
+   */
+  private final Map<String, String> names = new HashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param repository The repository that contains the commits.
+   */
+  public CommitMessageLoader(Repository repository) {
+    this.repository = repository;
+  }
+
+  /**
+   * Get the full message of a commit.
+   *
+   * @param commitId The commit ID.
+   *
+   * @return The message. Empty if the commit cannot be read.
+   */
+  public synchronized String getMessage(AnyObjectId commitId) {
+    String message = messagesCache.get(commitId);
+    if (message == null) {
+      try (ObjectReader reader = repository.newObjectReader()) {
+        byte[] raw = reader.open(commitId, Constants.OBJ_COMMIT).getCachedBytes();
+        message = RevCommit.parse(raw).getFullMessage();
+      } catch (IOException e) {
+        LOGGER.debug(e.getMessage(), e);
+        message = "";
+      }
+      messagesCache.put(commitId.copy(), message);
+    }
+    return message;
+  }
+
+  /**
+   * Get the shared instance of a name.
+   *
+   * @param name An author or committer name.
+   *
+   * @return The instance kept for all the commits with this name.
+   */
+  public synchronized String intern(String name) {
+    return names.computeIfAbsent(name, k -> k);
+  }
+}
@@ -0,0 +1,77 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Keeps the index of a repository, as last read, so that it is shared by the operations that only look into it.
+ * <br><br>
+ * The index is read again only when the modification time, the size or the identity of its file changed.
+ * The kept index must not be modified.
+ */
+public class DirCacheSnapshot {
+
+  /**
+   * Singleton instance.
+   */
+  private static final DirCacheSnapshot INSTANCE = new DirCacheSnapshot();
+
+  /**
+   * The repository whose index is kept.
+   */
+  private Repository repository;
+
+  /**
+   * The index, as last read. <code>null</code> if it was not read yet.
+   */
+  private DirCache index;
+
+  /**
+   * Hidden constructor.
+   */
+  private DirCacheSnapshot() {
+    // Singleton.
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static DirCacheSnapshot getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Get the index of a repository, reading it again only if its file changed since it was last read.
+   * If the index of another repository was kept before, it is forgotten.
+   * <br><br>
+   * The same instance is returned while the index file does not change, so it can be used to identify
+   * the version of the index.
+   *
+   * @param repository The repository.
+   *
+   * @return The index. Must not be modified.
+   *
+   * @throws IOException When the index cannot be read.
+   */
+  public synchronized DirCache getIndex(Repository repository) throws IOException {
+    if (this.repository != repository) {
+      clear();
+      this.repository = repository;
+    }
+
+    if (index == null || index.isOutdated()) {
+      index = repository.readDirCache();
+    }
+    return index;
+  }
+
+  /**
+   * Forgets the kept index.
+   */
+  public synchronized void clear() {
+    repository = null;
+    index = null;
+  }
+}
@@ -0,0 +1,361 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.service.annotation.TestOnly;
+import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
+import com.oxygenxml.git.service.exceptions.PrivateRepositoryException;
+import com.oxygenxml.git.service.exceptions.RepositoryUnavailableException;
+import com.oxygenxml.git.service.exceptions.SSHPassphraseRequiredException;
+
+/**
+ * Central point for the fetches done automatically: on refresh, when an editor is opened,
+ * when the history is presented.
+ * <br><br>
+ * <ul>
+ * <li>A fetch is not repeated if the repository was fetched recently (the freshness window).</li>
+ * <li>A fetch requested while another one is running for the same repository waits for that one and shares its result.</li>
+ * <li>When the remote is unreachable, the fetches are skipped for a while, and that interval doubles after each failure.</li>
+ * </ul>
+ * The fetches explicitly requested by the user should call {@link GitAccess#fetch()} directly.
+ */
+public class FetchCoordinator {
+
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(FetchCoordinator.class);
+
+  /**
+   * A repository fetched more recently than this is considered up to date. Milliseconds.
+   */
+  private static final long DEFAULT_FRESHNESS_WINDOW = 10_000;
+
+  /**
+   * How long to wait before contacting an unreachable remote again, after the first failure. Milliseconds.
+   */
+  private static final long DEFAULT_INITIAL_BACKOFF = 5_000;
+
+  /**
+   * The maximum time to wait before contacting an unreachable remote again. Milliseconds.
+   */
+  private static final long MAX_BACKOFF = 5 * 60 * 1000L;
+
+  /**
+   * Performs a fetch.
+   */
+  @FunctionalInterface
+  interface FetchAction {
+    /**
+     * Fetches the current repository.
+     *
+     * @throws SSHPassphraseRequiredException
+     * @throws PrivateRepositoryException
+     * @throws RepositoryUnavailableException
+     */
+    void fetch() throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException;
+  }
+
+  /**
+   * Helper class to manage the singleton instance.
+   */
+  private static class SingletonHelper {
+    static final FetchCoordinator INSTANCE = new FetchCoordinator(
+        () -> GitAccess.getInstance().fetch(),
+        FetchCoordinator::getCurrentRepositoryDirectory,
+        System::currentTimeMillis);
+  }
+
+  /**
+   * Does the actual fetch.
+   */
+  private final FetchAction fetchAction;
+
+  /**
+   * Identifies the current repository. Gives <code>null</code> when no repository is loaded.
+   */
+  private final Supplier<File> repositoryProvider;
+
+  /**
+   * Gives the current time, in milliseconds.
+   */
+  private final LongSupplier clock;
+
+  /**
+   * A repository fetched more recently than this is considered up to date. Milliseconds.
+   */
+  private long freshnessWindow = DEFAULT_FRESHNESS_WINDOW;
+
+  /**
+   * How long to wait before contacting an unreachable remote again, after the first failure. Milliseconds.
+   */
+  private long initialBackoff = DEFAULT_INITIAL_BACKOFF;
+
+  /**
+   * The repository of the last completed fetch.
+   */
+  private File lastRepository;
+
+  /**
+   * When the last successful fetch of {@link #lastRepository} ended.
+   * <code>0</code> if the last fetch failed.
+   */
+  private long lastFetchTime;
+
+  /**
+   * The failure of the last fetch, if the remote was unreachable.
+   */
+  private RepositoryUnavailableException lastFailure;
+
+  /**
+   * The current interval during which an unreachable remote is not contacted again.
+   */
+  private long backoff;
+
+  /**
+   * The unreachable remote is not contacted again before this time.
+   */
+  private long retryTime;
+
+  /**
+   * The running fetch, if any.
+   */
+  private CompletableFuture<Void> inFlight;
+
+  /**
+   * The repository for which the running fetch was started.
+   */
+  private File inFlightRepository;
+
+  /**
+   * The number of fetches that actually contacted the remote.
+   */
+  private final AtomicLong performedFetches = new AtomicLong();
+
+  /**
+   * The number of fetches that were not needed: the repository was fresh, another fetch was
+   * running or the remote was known to be unreachable.
+   */
+  private final AtomicLong savedFetches = new AtomicLong();
+
+  /**
+   * Constructor.
+   *
+   * @param fetchAction        Does the actual fetch.
+   * @param repositoryProvider Identifies the current repository.
+   * @param clock              Gives the current time, in milliseconds.
+   */
+  FetchCoordinator(FetchAction fetchAction, Supplier<File> repositoryProvider, LongSupplier clock) {
+    this.fetchAction = fetchAction;
+    this.repositoryProvider = repositoryProvider;
+    this.clock = clock;
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static FetchCoordinator getInstance() {
+    return SingletonHelper.INSTANCE;
+  }
+
+  /**
+   * Fetches the current repository, unless it was fetched recently.
+   * If a fetch is already running, waits for it.
+   *
+   * @throws SSHPassphraseRequiredException When the SSH passphrase is needed.
+   * @throws PrivateRepositoryException When the credentials are needed.
+   * @throws RepositoryUnavailableException When the remote cannot be reached.
+   * While in backoff, the last such failure is thrown again without contacting the remote.
+   */
+  public void fetch() throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    File repository = repositoryProvider.get();
+    CompletableFuture<Void> runningFetch = null;
+    CompletableFuture<Void> newFetch = null;
+    synchronized (this) {
+      long now = clock.getAsLong();
+      if (repository != null && repository.equals(lastRepository)) {
+        if (lastFailure != null && now < retryTime) {
+          countSavedFetch("the remote is unreachable");
+          throw lastFailure;
+        }
+        if (lastFailure == null && lastFetchTime > 0 && now - lastFetchTime < freshnessWindow) {
+          countSavedFetch("the repository was fetched recently");
+          return;
+        }
+      }
+
+      if (inFlight != null && Objects.equals(repository, inFlightRepository)) {
+        countSavedFetch("another fetch is running");
+        runningFetch = inFlight;
+      } else {
+        newFetch = new CompletableFuture<>();
+        inFlight = newFetch;
+        inFlightRepository = repository;
+      }
+    }
+
+    if (runningFetch != null) {
+      await(runningFetch);
+    } else {
+      doFetch(repository, newFetch);
+    }
+  }
+
+  /**
+   * Contacts the remote.
+   *
+   * @param repository The fetched repository.
+   * @param future     Notifies the requests that wait for this fetch.
+   *
+   * @throws SSHPassphraseRequiredException
+   * @throws PrivateRepositoryException
+   * @throws RepositoryUnavailableException
+   */
+  private void doFetch(File repository, CompletableFuture<Void> future)
+      throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    performedFetches.incrementAndGet();
+    Exception failure = null;
+    try {
+      fetchAction.fetch();
+    } catch (SSHPassphraseRequiredException | PrivateRepositoryException | RepositoryUnavailableException | RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      fetchEnded(repository, future, failure);
+      if (failure == null) {
+        future.complete(null);
+      } else {
+        future.completeExceptionally(failure);
+      }
+    }
+  }
+
+  /**
+   * Records the outcome of a fetch.
+   *
+   * @param repository The fetched repository.
+   * @param future     The future of the ended fetch.
+   * @param failure    The failure. <code>null</code> if the fetch succeeded.
+   */
+  private synchronized void fetchEnded(File repository, CompletableFuture<Void> future, Exception failure) {
+    if (inFlight == future) {
+      inFlight = null;
+      inFlightRepository = null;
+    }
+    if (!Objects.equals(repository, lastRepository)) {
+      backoff = 0;
+    }
+    lastRepository = repository;
+    lastFailure = null;
+    lastFetchTime = 0;
+
+    long now = clock.getAsLong();
+    if (failure == null) {
+      lastFetchTime = now;
+      backoff = 0;
+    } else if (failure instanceof RepositoryUnavailableException) {
+      lastFailure = (RepositoryUnavailableException) failure;
+      backoff = backoff == 0 ? initialBackoff : Math.min(2 * backoff, MAX_BACKOFF);
+      retryTime = now + backoff;
+    }
+    // For the authentication problems, the next fetch can be retried right away, with other credentials.
+  }
+
+  /**
+   * Waits for a running fetch.
+   *
+   * @param future The running fetch.
+   *
+   * @throws SSHPassphraseRequiredException
+   * @throws PrivateRepositoryException
+   * @throws RepositoryUnavailableException
+   */
+  private static void await(CompletableFuture<Void> future)
+      throws SSHPassphraseRequiredException, PrivateRepositoryException, RepositoryUnavailableException {
+    try {
+      future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SSHPassphraseRequiredException) {
+        throw (SSHPassphraseRequiredException) cause;
+      } else if (cause instanceof PrivateRepositoryException) {
+        throw (PrivateRepositoryException) cause;
+      } else if (cause instanceof RepositoryUnavailableException) {
+        throw (RepositoryUnavailableException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else {
+        throw new RepositoryUnavailableException(cause);
+      }
+    }
+  }
+
+  /**
+   * Counts a fetch that didn't contact the remote.
+   *
+   * @param reason Why the fetch was not needed.
+   */
+  private void countSavedFetch(String reason) {
+    long saved = savedFetches.incrementAndGet();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Fetch skipped because {}. Fetches performed: {}, skipped: {}", reason, performedFetches.get(), saved);
+    }
+  }
+
+  /**
+   * @return The directory of the current repository, or <code>null</code> if there is no repository loaded.
+   */
+  private static File getCurrentRepositoryDirectory() {
+    File directory = null;
+    try {
+      directory = GitAccess.getInstance().getRepository().getDirectory();
+    } catch (NoRepositorySelected e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+    return directory;
+  }
+
+  /**
+   * @return The number of fetches that actually contacted the remote.
+   */
+  public long getPerformedFetchesCount() {
+    return performedFetches.get();
+  }
+
+  /**
+   * @return The number of fetches that didn't need to contact the remote.
+   */
+  public long getSavedFetchesCount() {
+    return savedFetches.get();
+  }
+
+  /**
+   * Forgets when the repository was last fetched, so the next fetch contacts the remote.
+   */
+  public synchronized void invalidate() {
+    lastRepository = null;
+    lastFetchTime = 0;
+    lastFailure = null;
+    backoff = 0;
+  }
+
+  /**
+   * @param freshnessWindow A repository fetched more recently than this is considered up to date. Milliseconds.
+   * @param initialBackoff  How long to wait before contacting an unreachable remote again. Milliseconds.
+   */
+  @TestOnly
+  public synchronized void setIntervals(long freshnessWindow, long initialBackoff) {
+    this.freshnessWindow = freshnessWindow;
+    this.initialBackoff = initialBackoff;
+    invalidate();
+  }
+}
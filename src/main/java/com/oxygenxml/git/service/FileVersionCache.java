@@ -0,0 +1,235 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the IDs of the versions of the files presented in the diff and compare views,
+ * so that opening the same versions again does not read the index or walk the trees again.
+ * <br><br>
+ * The version of a file from a commit never changes, so it is kept for the commit ID and the file path.
+ * The versions of a file in conflict (MINE, THEIRS and BASE) are read together from the index
+ * and kept while the index and the file in the working tree do not change.
+ */
+public class FileVersionCache {
+
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileVersionCache.class);
+
+  /**
+   * The maximum number of file versions kept from the commits and from the index.
+   */
+  private static final int MAX_ENTRIES = 128;
+
+  /**
+   * The IDs from the index entries of a file that differ from the file in the working tree. Immutable.
+   */
+  private static class IndexVersions {
+    /**
+     * The index from which the IDs were read.
+     */
+    private final DirCache index;
+    /**
+     * Identifies the file in the working tree, when the IDs were read.
+     */
+    private final String workingTreeFileStamp;
+    /**
+     * The IDs, in the order of the index entries.
+     */
+    private final List<ObjectId> ids;
+
+    /**
+     * Constructor.
+     *
+     * @param index                The index.
+     * @param workingTreeFileStamp Identifies the file in the working tree.
+     * @param ids                  The IDs.
+     */
+    IndexVersions(DirCache index, String workingTreeFileStamp, List<ObjectId> ids) {
+      this.index = index;
+      this.workingTreeFileStamp = workingTreeFileStamp;
+      this.ids = ids;
+    }
+  }
+
+  /**
+   * Singleton instance.
+   */
+  private static final FileVersionCache INSTANCE = new FileVersionCache();
+
+  /**
+   * The repository whose file versions are kept.
+   */
+  private Repository repository;
+
+  /**
+   * The IDs of the files from commits. The key is the commit ID followed by the file path.
+   * The value is <code>null</code> if the commit does not contain the file.
+   */
+  private final Map<String, ObjectId> commitVersions = new LinkedHashMap<String, ObjectId>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, ObjectId> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+
+  /**
+   * The IDs from the index entries of the files. The key is the file path.
+   */
+  private final Map<String, IndexVersions> indexVersions = new LinkedHashMap<String, IndexVersions>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, IndexVersions> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+
+  /**
+   * Hidden constructor.
+   */
+  private FileVersionCache() {
+    // Singleton.
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static FileVersionCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Get the ID of a file from a commit.
+   *
+   * @param repository The repository.
+   * @param commitId   The commit.
+   * @param path       The file path, relative to the working tree.
+   *
+   * @return The file ID or <code>null</code> if the commit does not contain the file.
+   *
+   * @throws IOException When the commit cannot be read.
+   */
+  public synchronized ObjectId getCommitVersion(Repository repository, ObjectId commitId, String path) throws IOException {
+    useRepository(repository);
+
+    String key = commitId.name() + path;
+    ObjectId fileId = commitVersions.get(key);
+    if (fileId == null && !commitVersions.containsKey(key)) {
+      fileId = RevCommitUtil.getObjectIdInCommit(repository, commitId, path);
+      commitVersions.put(key, fileId);
+    }
+    return fileId;
+  }
+
+  /**
+   * Get the ID of a file from the last commit of the current branch.
+   *
+   * @param git  Git access.
+   * @param path The file path, relative to the working tree.
+   *
+   * @return The file ID or <code>null</code> if the last commit does not contain the file.
+   *
+   * @throws IOException When the commit cannot be read.
+   */
+  public ObjectId getLastCommitVersion(Git git, String path) throws IOException {
+    ObjectId toReturn = null;
+    if (git != null) {
+      ObjectId lastLocalCommit = RevCommitUtil.getLastLocalCommitInRepo(git);
+      if (lastLocalCommit != null) {
+        toReturn = getCommitVersion(git.getRepository(), lastLocalCommit, path);
+      }
+    }
+    return toReturn;
+  }
+
+  /**
+   * Get the ID of a version of a file in conflict. If the file is not in conflict,
+   * the version from the last commit is returned.
+   *
+   * @param git     Git access.
+   * @param version {@link Commit#MINE}, {@link Commit#THEIRS} or {@link Commit#BASE}.
+   * @param path    The file path, relative to the working tree.
+   *
+   * @return The file ID or <code>null</code>.
+   *
+   * @throws IOException     When the index or the last commit cannot be read.
+   * @throws GitAPIException When the index cannot be compared with the working tree.
+   */
+  public ObjectId getIndexVersion(Git git, Commit version, String path) throws IOException, GitAPIException {
+    ObjectId toReturn = null;
+    if (git != null) {
+      toReturn = RevCommitUtil.getIndexVersion(getIndexIds(git, path), version);
+      if (toReturn == null) {
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("No {} version available for: '{}'. Falling back to the last commit for this path.", version, path);
+        }
+        toReturn = getLastCommitVersion(git, path);
+      }
+    }
+    return toReturn;
+  }
+
+  /**
+   * Forgets all the kept file versions.
+   */
+  public synchronized void clear() {
+    repository = null;
+    commitVersions.clear();
+    indexVersions.clear();
+  }
+
+  /**
+   * Get the IDs from the index entries of a file that differ from the file in the working tree,
+   * comparing them again only if the index or the file changed.
+   *
+   * @param git  Git access.
+   * @param path The file path, relative to the working tree.
+   *
+   * @return The IDs.
+   *
+   * @throws IOException     When the index cannot be read.
+   * @throws GitAPIException When the index cannot be compared with the working tree.
+   */
+  private synchronized List<ObjectId> getIndexIds(Git git, String path) throws IOException, GitAPIException {
+    Repository repo = git.getRepository();
+    useRepository(repo);
+
+    DirCache index = DirCacheSnapshot.getInstance().getIndex(repo);
+    File workingTreeFile = new File(repo.getWorkTree(), path);
+    // Computed before the comparison, so that a change made meanwhile is detected next time.
+    String workingTreeFileStamp = workingTreeFile.lastModified() + ":" + workingTreeFile.length();
+    IndexVersions versions = indexVersions.get(path);
+    if (versions == null || versions.index != index || !workingTreeFileStamp.equals(versions.workingTreeFileStamp)) {
+      versions = new IndexVersions(
+          index,
+          workingTreeFileStamp,
+          RevCommitUtil.getIndexIdsDifferentFromWorkingTree(git, index, path));
+      indexVersions.put(path, versions);
+    }
+    return versions.ids;
+  }
+
+  /**
+   * Forgets the kept file versions if they belong to another repository.
+   *
+   * @param repository The repository.
+   */
+  private void useRepository(Repository repository) {
+    if (this.repository != repository) {
+      clear();
+      this.repository = repository;
+    }
+  }
+}
@@ -19,7 +19,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.stream.Collectors;
@@ -39,8 +38,6 @@ import org.eclipse.jgit.api.CreateBranchCommand;
 import org.eclipse.jgit.api.CreateBranchCommand.SetupUpstreamMode;
 import org.eclipse.jgit.api.DeleteBranchCommand;
 import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.ListBranchCommand.ListMode;
-import org.eclipse.jgit.api.LogCommand;
 import org.eclipse.jgit.api.MergeCommand;
 import org.eclipse.jgit.api.MergeResult;
 import org.eclipse.jgit.api.MergeResult.MergeStatus;
@@ -77,7 +74,6 @@ import org.eclipse.jgit.errors.RevisionSyntaxException;
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.lib.AnyObjectId;
 import org.eclipse.jgit.lib.BranchConfig;
-import org.eclipse.jgit.lib.BranchTrackingStatus;
 import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.Constants;
@@ -747,6 +743,15 @@ public class GitAccess {
 	 * Frees resources associated with the git instance.
 	 */
 	public void closeRepo() {
+	  statusCache.stopWatching();
+	  SubmoduleRepositoryCache.getInstance().clear();
+	  RefDecorationIndex.getInstance().clear();
+	  HeadState.getInstance().clear();
+	  AheadBehindCache.getInstance().clear();
+	  RefSnapshotCache.getInstance().clear();
+	  DirCacheSnapshot.getInstance().clear();
+	  FileVersionCache.getInstance().clear();
+	  ChangedFilesCache.getInstance().clear();
 		if (git != null) {
 		  AuthenticationInterceptor.unbind(getHostName());
 			git.close();
@@ -754,7 +759,7 @@ public class GitAccess {
 	}
 
 	/**
-	 * Gets all the local branches.
+	 * Gets all the local branches. A detached HEAD is not listed (EXM-47153).
 	 * 
 	 * @return All the local branches from the repository or an empty list.
 	 */
@@ -762,18 +767,8 @@ public class GitAccess {
 		List<Ref> branches = Collections.emptyList();
 		if(git != null) {
 			try {
-				branches = git.branchList().call();
-				// EXM-47153: if we are on a detached HEAD, 
-				// remove it from the list of local branches
-				Iterator<Ref> iterator = branches.iterator();
-				while (iterator.hasNext()) {
-					Ref ref = iterator.next();
-					if (Constants.HEAD.equals(ref.getName())) {
-						iterator.remove();
-						break;
-					}
-				}
-			} catch (GitAPIException e) {
+				branches = RefSnapshotCache.getInstance().update(git.getRepository()).getLocalBranches();
+			} catch (IOException e) {
 				LOGGER.error(e.getMessage(), e);
 			}
 		}
@@ -789,8 +784,8 @@ public class GitAccess {
     List<Ref> branches = Collections.emptyList();
     if(git != null) {
     	try {
-    		branches = git.branchList().setListMode(ListMode.REMOTE).call();
-    	} catch (GitAPIException e) {
+    		branches = RefSnapshotCache.getInstance().update(git.getRepository()).getRemoteBranches();
+    	} catch (IOException e) {
     		LOGGER.error(e.getMessage(), e);
     	}
     }
@@ -1804,9 +1799,9 @@ public class GitAccess {
 	  try {
 	    String branchName = getBranchInfo().getBranchName();
 	    if (branchName != null && branchName.length() > 0) {
-	      BranchTrackingStatus bts = BranchTrackingStatus.of(getRepository(), branchName);
-	      if (bts != null) {
-	        numberOfCommits = bts.getAheadCount();
+	      AheadBehindCache.AheadBehind aheadBehind = AheadBehindCache.getInstance().getAheadBehind(getRepository(), branchName);
+	      if (aheadBehind != null) {
+	        numberOfCommits = aheadBehind.getAheadCount();
 	      } else {
 	        throw new RepoNotInitializedException();
 	      }
@@ -1830,9 +1825,9 @@ public class GitAccess {
 	  try {
 	    String branchName = getBranchInfo().getBranchName();
 	    if (branchName != null && branchName.length() > 0) {
-	      BranchTrackingStatus bts = BranchTrackingStatus.of(getRepository(), branchName);
-	      if (bts != null) {
-	        numberOfCommits = bts.getBehindCount();
+	      AheadBehindCache.AheadBehind aheadBehind = AheadBehindCache.getInstance().getAheadBehind(getRepository(), branchName);
+	      if (aheadBehind != null) {
+	        numberOfCommits = aheadBehind.getBehindCount();
 	      }
 	    }
 	  } catch (IOException | NoRepositorySelected e) {
@@ -1959,33 +1954,18 @@ public class GitAccess {
 	 * stores the state and the name of the commit on which it is. If the branch is
 	 * not detached then it stores the branch name. After this it returns this
 	 * information
+	 * <br><br>
+	 * The state of HEAD is kept between calls and read again only when it changes.
 	 * 
 	 * @return An object specifying the branch name and if it is detached or not
 	 */
 	public BranchInfo getBranchInfo() {
 	  BranchInfo branchInfo = new BranchInfo("", false);
 		if (git != null) {
-			branchInfo = new BranchInfo();
-			String branchName = "";
 			try {
-				branchName = git.getRepository().getBranch();
-				branchInfo.setBranchName(branchName);
-				LogCommand log = git.log();
-				if(log != null) {
-					Iterable<RevCommit> results = log.call();
-					for (RevCommit revCommit : results) {
-						if (revCommit.getId().name().equals(branchName)) {
-							branchInfo.setDetached(true);
-							branchInfo.setShortBranchName(
-									revCommit.getId().abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name());
-							break;
-						}
-					}
-				}
-			} catch (NoHeadException e) {
-			  branchInfo = new BranchInfo(branchName, false);
-			  LOGGER.debug(e.getMessage(), e);
-			} catch (IOException | GitAPIException e) {
+				branchInfo = HeadState.getInstance().getSnapshot(git.getRepository()).toBranchInfo();
+			} catch (IOException e) {
+			  branchInfo = new BranchInfo();
 			  LOGGER.error(e.getMessage(), e);
 			}
 		}
@@ -2117,7 +2097,7 @@ public class GitAccess {
 	 * @throws IOException Unable to read the index.
 	 */
 	public ObjectId locateObjectIdInIndex(String path)  throws IOException {
-	  DirCache dc = git.getRepository().readDirCache();
+	  DirCache dc = DirCacheSnapshot.getInstance().getIndex(git.getRepository());
 	  int firstIndex = dc.findEntry(path);
 	  if (firstIndex < 0) {
 	    return null;
@@ -2243,6 +2223,7 @@ public class GitAccess {
    */
   public void cleanUp() {
     listeners.clear();
+    statusCache.stopWatching();
     statusCache = new StatusCache(listeners, () -> git);
     closeRepo();
   }
@@ -2419,21 +2400,8 @@ public class GitAccess {
 				revisions.add(UNCOMMITED_CHANGES);
 			}
             
-			switch (strategy) {
-			case ALL_BRANCHES:
-				RevCommitUtil.collectAllBranchesRevisions(filePath, revisions, repository, renameTracker);
-				break;
-			case ALL_LOCAL_BRANCHES:
-				RevCommitUtil.collectLocalBranchesRevisions(filePath, revisions, repository, renameTracker);
-				break;
-			case CURRENT_BRANCH:
-				RevCommitUtil.collectCurrentBranchRevisions(filePath, revisions, repository, renameTracker);
-				break;
-			case CURRENT_LOCAL_BRANCH:
-				RevCommitUtil.collectCurrentLocalBranchRevisions(filePath, revisions, repository, renameTracker);
-				break;
-			default:
-			  break;
+			try (PagedCommitsLoader loader = RevCommitUtil.createCommitsLoader(strategy, filePath, repository, renameTracker)) {
+			  revisions.addAll(loader.loadAll());
 			}
 			
 			fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.SHOW_HISTORY));
@@ -2445,6 +2413,42 @@ public class GitAccess {
 		return revisions;
 	}
 
+	/**
+	 * Creates a loader that presents the characteristics of the commits page by page. 
+	 * Only the first commits are computed up-front, so the history can be shown right away.
+	 * 
+	 * @param strategy      Which branches to present.
+	 * @param filePath      A resource for which we are interested in its history. If <code>null</code>, 
+	 * the repository history will be computed.
+	 * @param renameTracker The rename tracker to follow rename path changes.
+	 * 
+	 * @return The loader. Must be closed when no longer needed.
+	 */
+	public PagedCommitsLoader createCommitsLoader(HistoryStrategy strategy, String filePath, RenameTracker renameTracker) {
+	  try {
+	    fireOperationAboutToStart(new GitEventInfo(GitOperation.SHOW_HISTORY));
+	  } catch (IndexLockExistsException e) {
+	    // Ignore. The history can be shown.
+	  }
+	  
+	  PagedCommitsLoader loader = PagedCommitsLoader.empty();
+	  try {
+	    Repository repository = this.getRepository();
+	    boolean showUncommittedChanges = filePath == null && statusCache.getStatus().hasUncommittedChanges();
+	    loader = RevCommitUtil.createCommitsLoader(strategy, filePath, repository, renameTracker);
+	    if (showUncommittedChanges) {
+	      loader.addLeadingCommit(UNCOMMITED_CHANGES);
+	    }
+	    
+	    fireOperationSuccessfullyEnded(new GitEventInfo(GitOperation.SHOW_HISTORY));
+	  } catch (NoWorkTreeException | NoRepositorySelected | IOException e) {
+	    LOGGER.error(e.getMessage(), e);
+	    fireOperationFailed(new GitEventInfo(GitOperation.SHOW_HISTORY), e);
+	  }
+	  
+	  return loader;
+	}
+
 	/**
 	 * Get a LinkedHashMap with all tag names in current repository.
 	 * Map shows: key = commitID, value = list of tag names.
@@ -2460,30 +2464,10 @@ public class GitAccess {
 			throws GitAPIException, IOException {
 		Map<String, List<String>> commitTagMap = new LinkedHashMap<>();
 		if(git != null) {
-			List<Ref> call = git.tagList().call();
-
-			// search through all commits for tags
-			for (Ref ref : call) {
-				List<String> tagList = new ArrayList<>();
-				String tagName = ref.getName();
-				StringTokenizer st = new StringTokenizer(tagName, "/");
-				while (st.hasMoreTokens()) {
-					tagName = st.nextToken();
-				}
-				LogCommand log = git.log();
-
-				Ref peeledRef = repository.getRefDatabase().peel(ref);
-				if (peeledRef.getPeeledObjectId() != null) {
-					log.add(peeledRef.getPeeledObjectId());
-				} else {
-					log.add(ref.getObjectId());
-				}
-				Iterable<RevCommit> logs = log.call();
-				tagList.add(tagName);
-				String commitToPut = logs.iterator().next().getId().abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name();
-				List<String> tags = commitTagMap.computeIfAbsent(commitToPut, key -> new ArrayList<>());
-				tags.addAll(tagList);
-			}
+		  // The tags are peeled once and then only when they change.
+		  RefDecorationIndex.getInstance().update(repository).getAllTags().forEach(
+		      (commit, tags) -> commitTagMap.computeIfAbsent(
+		          commit.abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name(), key -> new ArrayList<>()).addAll(tags));
 		}
 		return commitTagMap;
 	}
@@ -2499,30 +2483,21 @@ public class GitAccess {
 	public Map<String, List<String>> getBranchMap(Repository repository, String branchType) {
 		Map<String, List<String>> branchMap = new LinkedHashMap<>();
 		
-		List<Ref> localBranchList = null;
-		String prefix = "";
-		if (branchType.equals(ConfigConstants.CONFIG_KEY_LOCAL)) {
-			localBranchList = getLocalBranchList();
-			prefix = "heads/";
-		} else if (branchType.equals(ConfigConstants.CONFIG_KEY_REMOTE)) {
-			localBranchList = getRemoteBrachListForCurrentRepo();
-			prefix = "remotes/";
+		if (git != null) {
+		  try {
+		    RefDecorationIndex.Decorations decorations = RefDecorationIndex.getInstance().update(repository);
+		    Map<ObjectId, List<String>> branches = Collections.emptyMap();
+		    if (branchType.equals(ConfigConstants.CONFIG_KEY_LOCAL)) {
+		      branches = decorations.getAllLocalBranches();
+		    } else if (branchType.equals(ConfigConstants.CONFIG_KEY_REMOTE)) {
+		      branches = decorations.getAllRemoteBranches();
+		    }
+		    branches.forEach((commit, names) -> branchMap.computeIfAbsent(
+		        commit.getName().substring(0, SHORT_COMMIT_ID_LENGTH), t -> new ArrayList<>()).addAll(names));
+		  } catch (IOException e) {
+		    LOGGER.error(e.getMessage(), e);
+		  }
 		}
-		
-		for (Ref ref : localBranchList) {
-      // refresh and populate local branch list for each commit
-      int indexOfPrefix = ref.getName().indexOf(prefix);
-      if (indexOfPrefix != -1) {
-        int refIdx = indexOfPrefix + prefix.length();
-        String branchName = ref.getName().substring(refIdx);
-        
-        ObjectId objectId = ref.getObjectId();
-        if (objectId != null) {
-          String commit = objectId.getName().substring(0, SHORT_COMMIT_ID_LENGTH);
-          branchMap.computeIfAbsent(commit, t -> new ArrayList<>()).add(branchName);
-        }
-      }
-    }
 
 		return branchMap;
 	}
@@ -2565,9 +2540,9 @@ public class GitAccess {
    */
   public RevCommit getLatestCommitForBranch (String branchNAme) throws GitAPIException, IOException, NoRepositorySelected {
     Repository repo = getRepository();
-    RevWalk revWalk = (RevWalk) git.log().add(repo.resolve(branchNAme)).call();
-    revWalk.sort(RevSort.COMMIT_TIME_DESC);
-    return revWalk.next();
+    try (RevWalk revWalk = new RevWalk(repo)) {
+      return revWalk.parseCommit(repo.resolve(branchNAme));
+    }
   }
 
   /**
@@ -3236,7 +3211,9 @@ public class GitAccess {
 			String branchName,
 			Optional<IGitViewProgressMonitor> pm) throws GitAPIException {
 		CheckoutCommand checkoutCommand = this.git.checkout();
-		checkoutCommand.setStartPoint(startPoint);
+		// The commits from the history have no body, but creating a branch reads the message.
+		// The commit is parsed again from its ID.
+		checkoutCommand.setStartPoint(startPoint.name());
 		doCheckoutCommit(checkoutCommand, branchName, pm);
 	}
 	
@@ -1,12 +1,22 @@
 package com.oxygenxml.git.service;
 
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import org.eclipse.jgit.annotations.NonNull;
@@ -15,7 +25,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Schedules git operations on a thread. The same thread is being used. 
+ * Schedules git operations on two lanes:
+ * <ul>
+ * <li>The write lane, used by {@link #schedule(Runnable)} and the other <code>schedule</code> methods.
+ * The operations that change the references, the index or the working tree (commit, pull, checkout, stash) 
+ * are executed one at a time, on the same thread, after the running read operations end.</li>
+ * <li>The read lane, used by the <code>scheduleRead</code> methods. The operations that only read the repository
+ * (status, history, blame, diff, branch listing) are executed in parallel, on a pool of threads.</li>
+ * </ul>
+ * The low priority read operations, used by the <code>scheduleLowPriorityRead</code> methods, are started only 
+ * when no write operation is due, so they do not delay the write operations scheduled before they start.
+ * The operations are started in the order in which they become due: a write operation sees the effects of 
+ * the read operations scheduled before it and a read operation scheduled after a write one waits for it.
+ * An operation whose lane is not known should be scheduled on the write lane.
  */
 public class GitOperationScheduler {
   
@@ -30,29 +52,294 @@ public class GitOperationScheduler {
   private static final int OPERATION_SHUTDOWN_TIMEOUT_MS = 2000;
   
   /**
-   * Refresh executor.
+   * The maximum number of read operations executed in parallel.
    */
-  private ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1) {
+  private static final int MAX_READ_THREADS = 4;
+  
+  /**
+   * The minimum number of read operations executed in parallel. Some read operations, like 
+   * loading the history, take long, so they should not block the others even on a single processor.
+   */
+  private static final int MIN_READ_THREADS = 2;
+  
+  /**
+   * An operation that waited more than this in the queue is logged. Milliseconds.
+   */
+  private static final long SLOW_QUEUE_WAIT_MS = 1000;
+  
+  /**
+   * Queue depth and latency statistics for a lane.
+   */
+  public static class LaneMetrics {
+    /**
+     * The name of the lane.
+     */
+    private final String name;
+    /**
+     * The number of operations scheduled and not yet started.
+     */
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    /**
+     * The number of executed operations.
+     */
+    private final AtomicLong executedCount = new AtomicLong();
+    /**
+     * The total time spent by the executed operations in the queue, after they became due. Nanoseconds.
+     */
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    /**
+     * The longest time spent by an operation in the queue, after it became due. Nanoseconds.
+     */
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    /**
+     * The total execution time of the executed operations. Nanoseconds.
+     */
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    
+    /**
+     * Constructor.
+     * 
+     * @param name The name of the lane.
+     */
+    LaneMetrics(String name) {
+      this.name = name;
+    }
+    
+    /**
+     * An operation was scheduled.
+     */
+    void queued() {
+      queueDepth.incrementAndGet();
+    }
+    
+    /**
+     * An operation left the queue without being executed.
+     */
+    void dropped() {
+      queueDepth.decrementAndGet();
+    }
+    
+    /**
+     * An operation left the queue and started.
+     * 
+     * @param waitNanos The time spent in the queue, after the operation became due.
+     */
+    void started(long waitNanos) {
+      queueDepth.decrementAndGet();
+      long wait = Math.max(0, waitNanos);
+      totalWaitNanos.addAndGet(wait);
+      maxWaitNanos.accumulateAndGet(wait, Math::max);
+      if (LOGGER.isDebugEnabled() && TimeUnit.NANOSECONDS.toMillis(wait) > SLOW_QUEUE_WAIT_MS) {
+        LOGGER.debug("Operation waited {} ms in the {} lane. {}", TimeUnit.NANOSECONDS.toMillis(wait), name, this);
+      }
+    }
+    
+    /**
+     * An operation ended.
+     * 
+     * @param runNanos The execution time.
+     */
+    void executed(long runNanos) {
+      executedCount.incrementAndGet();
+      totalRunNanos.addAndGet(runNanos);
+    }
+    
+    /**
+     * @return The number of operations scheduled and not yet started.
+     */
+    public int getQueueDepth() {
+      return queueDepth.get();
+    }
+    
+    /**
+     * @return The number of executed operations.
+     */
+    public long getExecutedCount() {
+      return executedCount.get();
+    }
+    
+    /**
+     * @return The average time spent by an operation in the queue, after it became due. Milliseconds.
+     */
+    public long getAverageWaitMillis() {
+      long count = executedCount.get();
+      return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / count);
+    }
+    
+    /**
+     * @return The longest time spent by an operation in the queue, after it became due. Milliseconds.
+     */
+    public long getMaxWaitMillis() {
+      return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+    
+    /**
+     * @return The average execution time of an operation. Milliseconds.
+     */
+    public long getAverageRunMillis() {
+      long count = executedCount.get();
+      return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalRunNanos.get() / count);
+    }
+    
     @Override
-    protected void afterExecute(Runnable r, Throwable t) {
-      if (t != null) {
-        LOGGER.error(t.getMessage(), t);
+    public String toString() {
+      return name + " lane: queued " + getQueueDepth() 
+          + ", executed " + getExecutedCount() 
+          + ", average wait " + getAverageWaitMillis() + " ms"
+          + ", max wait " + getMaxWaitMillis() + " ms"
+          + ", average run " + getAverageRunMillis() + " ms";
+    }
+  }
+  
+  /**
+   * An operation scheduled on a lane.
+   *
+   * @param <V> The result type.
+   */
+  private final class Operation<V> extends FutureTask<V> implements ScheduledFuture<V> {
+    /**
+     * <code>true</code> for the read lane.
+     */
+    private final boolean read;
+    /**
+     * <code>true</code> for a read operation that yields to the due write operations.
+     */
+    private final boolean lowPriority;
+    /**
+     * When the operation becomes due, as given by {@link System#nanoTime()}.
+     */
+    private final long dueTime;
+    /**
+     * <code>true</code> after the operation left the queue.
+     */
+    private final AtomicBoolean dequeued = new AtomicBoolean();
+    /**
+     * The task that starts the operation in order. 
+     */
+    private volatile Future<?> trigger;
+    
+    /**
+     * Constructor.
+     * 
+     * @param task        The code to execute.
+     * @param read        <code>true</code> for the read lane.
+     * @param lowPriority <code>true</code> for a read operation that yields to the due write operations.
+     * @param delayMillis Milliseconds after which to execute the operation.
+     */
+    Operation(Runnable task, boolean read, boolean lowPriority, long delayMillis) {
+      super(task, null);
+      this.read = read;
+      this.lowPriority = lowPriority;
+      this.dueTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+    }
+    
+    /**
+     * @return The statistics of the operation's lane.
+     */
+    private LaneMetrics getMetrics() {
+      return read ? readMetrics : writeMetrics;
+    }
+    
+    @Override
+    public void run() {
+      try {
+        if (dequeued.compareAndSet(false, true)) {
+          queuedWrites.remove(this);
+          getMetrics().started(System.nanoTime() - dueTime);
+          long start = System.nanoTime();
+          super.run();
+          getMetrics().executed(System.nanoTime() - start);
+        }
+      } finally {
+        if (read) {
+          readEnded();
+        }
       }
-
-      if (r instanceof Future) {
+    }
+    
+    @Override
+    protected void done() {
+      if (!isCancelled()) {
         try {
-          ((Future<?>) r).get();
-        } catch (CancellationException e) {
-          LOGGER.debug(e.getMessage(), e);
-        } catch (InterruptedException e) { 
+          // Report the exceptions encountered during execution.
+          get();
+        } catch (ExecutionException e) {
+          LOGGER.error(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
           LOGGER.error(e.getMessage(), e);
           Thread.currentThread().interrupt();
-        } catch (Exception e) {
-          LOGGER.error(e.getMessage(), e);
         }
       }
     }
-  };
+    
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled && dequeued.compareAndSet(false, true)) {
+        queuedWrites.remove(this);
+        getMetrics().dropped();
+        if (trigger != null) {
+          trigger.cancel(false);
+        }
+      }
+      return cancelled;
+    }
+    
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(dueTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+    
+    @Override
+    public int compareTo(Delayed o) {
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), o.getDelay(TimeUnit.NANOSECONDS));
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+      return super.equals(obj);
+    }
+    
+    @Override
+    public int hashCode() {
+      return super.hashCode();
+    }
+  }
+  
+  /**
+   * Executes the write operations and starts the read ones, in order.
+   */
+  private ScheduledThreadPoolExecutor executor = createOrderingExecutor();
+  
+  /**
+   * Executes the read operations.
+   */
+  private ThreadPoolExecutor readExecutor = createReadExecutor();
+  
+  /**
+   * The number of read operations that were started and didn't end yet. Guarded by {@link #readersLock}.
+   */
+  private int runningReaders;
+  
+  /**
+   * Guards the number of running read operations.
+   */
+  private final Object readersLock = new Object();
+  
+  /**
+   * The write operations that did not start yet.
+   */
+  private final Set<Operation<?>> queuedWrites = ConcurrentHashMap.newKeySet();
+  
+  /**
+   * Statistics for the read lane.
+   */
+  private final LaneMetrics readMetrics = new LaneMetrics("Read");
+  
+  /**
+   * Statistics for the write lane.
+   */
+  private final LaneMetrics writeMetrics = new LaneMetrics("Write");
   
   /**
    * Singleton instance.
@@ -75,6 +362,151 @@ public class GitOperationScheduler {
     return instance;
   }
   
+  /**
+   * @return The executor that executes the write operations and starts the read ones, in order.
+   */
+  private static ScheduledThreadPoolExecutor createOrderingExecutor() {
+    ScheduledThreadPoolExecutor orderingExecutor = new ScheduledThreadPoolExecutor(1) {
+      @Override
+      protected void afterExecute(Runnable r, Throwable t) {
+        if (t != null) {
+          LOGGER.error(t.getMessage(), t);
+        }
+
+        if (r instanceof Future) {
+          try {
+            ((Future<?>) r).get();
+          } catch (CancellationException e) {
+            LOGGER.debug(e.getMessage(), e);
+          } catch (InterruptedException e) { 
+            LOGGER.error(e.getMessage(), e);
+            Thread.currentThread().interrupt();
+          } catch (Exception e) {
+            LOGGER.error(e.getMessage(), e);
+          }
+        }
+      }
+    };
+    orderingExecutor.setRemoveOnCancelPolicy(true);
+    return orderingExecutor;
+  }
+  
+  /**
+   * @return The executor for the read operations.
+   */
+  private static ThreadPoolExecutor createReadExecutor() {
+    int threads = Math.max(MIN_READ_THREADS, Math.min(MAX_READ_THREADS, Runtime.getRuntime().availableProcessors()));
+    AtomicInteger counter = new AtomicInteger();
+    return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+      Thread thread = new Thread(r, "Git Read Operation " + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+  
+  /**
+   * Recreates the executors if a shutdown operation was canceled.
+   */
+  private synchronized void ensureRunning() {
+    if (executor.isShutdown()) {
+      // A shutdown operation was canceled.
+      executor = createOrderingExecutor();
+    }
+    if (readExecutor.isShutdown()) {
+      readExecutor = createReadExecutor();
+    }
+  }
+  
+  /**
+   * Schedules an operation.
+   * 
+   * @param operation   The operation.
+   * @param delayMillis Milliseconds after which to execute the operation.
+   * 
+   * @return The operation.
+   */
+  private <V> Operation<V> enqueue(Operation<V> operation, long delayMillis) {
+    ensureRunning();
+    operation.getMetrics().queued();
+    if (!operation.read) {
+      queuedWrites.add(operation);
+    }
+    Runnable trigger = operation.read ? () -> startRead(operation) : () -> {
+      awaitRunningReaders();
+      operation.run();
+    };
+    operation.trigger = executor.schedule(trigger, delayMillis, TimeUnit.MILLISECONDS);
+    return operation;
+  }
+  
+  /**
+   * Hands a read operation to the read pool. Called on the ordering thread.
+   * 
+   * @param operation The read operation.
+   */
+  private void startRead(Operation<?> operation) {
+    if (operation.lowPriority && isWriteDue()) {
+      // Started again after the due write operations, which are already in the queue.
+      try {
+        operation.trigger = executor.schedule(() -> startRead(operation), 0, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug(e.getMessage(), e);
+        operation.cancel(false);
+      }
+      return;
+    }
+    synchronized (readersLock) {
+      runningReaders++;
+    }
+    try {
+      readExecutor.execute(operation);
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug(e.getMessage(), e);
+      operation.cancel(false);
+      readEnded();
+    }
+  }
+  
+  /**
+   * @return <code>true</code> if a write operation is due and did not start yet.
+   */
+  private boolean isWriteDue() {
+    for (Operation<?> write : queuedWrites) {
+      if (write.getDelay(TimeUnit.NANOSECONDS) <= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+  
+  /**
+   * Notifies that a read operation ended.
+   */
+  private void readEnded() {
+    synchronized (readersLock) {
+      runningReaders--;
+      readersLock.notifyAll();
+    }
+  }
+  
+  /**
+   * Waits for the running read operations to end. Called on the ordering thread, before a write operation.
+   * No read operation is started while waiting.
+   */
+  private void awaitRunningReaders() {
+    synchronized (readersLock) {
+      while (runningReaders > 0) {
+        try {
+          readersLock.wait();
+        } catch (InterruptedException e) {
+          LOGGER.debug(e.getMessage(), e);
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+  }
+  
   /**
    * Schedules a runnable for immediate execution.
    * 
@@ -85,12 +517,7 @@ public class GitOperationScheduler {
    */
   @SuppressWarnings("java:S1452")
   public ScheduledFuture<?> schedule(Runnable r) {
-    if (executor.isShutdown()) {
-      // A shutdown operation was canceled.
-      executor = new ScheduledThreadPoolExecutor(1);
-    }
-    
-    return executor.schedule(r, 0, TimeUnit.MILLISECONDS);
+    return schedule(r, 0);
   }
   
   /**
@@ -166,12 +593,51 @@ public class GitOperationScheduler {
    */
   @SuppressWarnings("java:S1452")
   public ScheduledFuture<?> schedule(Runnable r, int delayMillis) {
-    if (executor.isShutdown()) {
-      // A shutdown operation was canceled.
-      executor = new ScheduledThreadPoolExecutor(1);
-    }
-    
-    return executor.schedule(r, delayMillis, TimeUnit.MILLISECONDS);
+    return enqueue(new Operation<>(r, false, false, delayMillis), delayMillis);
+  }
+  
+  /**
+   * Schedules an operation that only reads the repository, for immediate execution. 
+   * It can run in parallel with other read operations.
+   * 
+   * @param r Code to be executed on thread.
+   * 
+   * @return a ScheduledFuture representing pending completion of the task 
+   * and whose get() method will return null upon completion.
+   */
+  @SuppressWarnings("java:S1452")
+  public ScheduledFuture<?> scheduleRead(Runnable r) {
+    return scheduleRead(r, 0);
+  }
+  
+  /**
+   * Schedules an operation that only reads the repository. 
+   * It can run in parallel with other read operations.
+   * 
+   * @param r Code to be executed on thread.
+   * @param delayMillis Milliseconds after which to execute the runnable.
+   * 
+   * @return a ScheduledFuture representing pending completion of the task 
+   * and whose get() method will return null upon completion.
+   */
+  @SuppressWarnings("java:S1452")
+  public ScheduledFuture<?> scheduleRead(Runnable r, int delayMillis) {
+    return enqueue(new Operation<>(r, true, false, delayMillis), delayMillis);
+  }
+  
+  /**
+   * Schedules an operation that only reads the repository and is not needed right away, like computing 
+   * in advance what will probably be presented next, for immediate execution. 
+   * It can run in parallel with other read operations, but it is started only when no write operation is due.
+   * 
+   * @param r Code to be executed on thread.
+   * 
+   * @return a ScheduledFuture representing pending completion of the task 
+   * and whose get() method will return null upon completion.
+   */
+  @SuppressWarnings("java:S1452")
+  public ScheduledFuture<?> scheduleLowPriorityRead(Runnable r) {
+    return enqueue(new Operation<>(r, true, true, 0), 0);
   }
   
   /**
@@ -182,8 +648,12 @@ public class GitOperationScheduler {
    */
   public boolean shutdown() {
     executor.shutdown();
+    readExecutor.shutdown();
     try {
-      return executor.awaitTermination(OPERATION_SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      long deadline = System.currentTimeMillis() + OPERATION_SHUTDOWN_TIMEOUT_MS;
+      return executor.awaitTermination(OPERATION_SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+          && readExecutor.awaitTermination(
+              Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
     } catch (InterruptedException e) {
       LOGGER.warn("Unable to stop task thread: " + e.getMessage(), e);
       // Restore interrupted state...
@@ -200,6 +670,20 @@ public class GitOperationScheduler {
    * @return the number of threads
    */
   public int getActiveCount() {
-    return executor.getActiveCount();
+    return executor.getActiveCount() + readExecutor.getActiveCount();
+  }
+  
+  /**
+   * @return Queue depth and latency statistics for the read operations.
+   */
+  public LaneMetrics getReadLaneMetrics() {
+    return readMetrics;
+  }
+  
+  /**
+   * @return Queue depth and latency statistics for the write operations.
+   */
+  public LaneMetrics getWriteLaneMetrics() {
+    return writeMetrics;
   }
 }
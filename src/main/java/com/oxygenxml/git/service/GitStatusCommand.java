@@ -1,19 +1,32 @@
 package com.oxygenxml.git.service;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.StatusCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.ConfigInvalidException;
 import org.eclipse.jgit.errors.NoWorkTreeException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.submodule.SubmoduleStatus;
+import org.eclipse.jgit.submodule.SubmoduleStatusType;
+import org.eclipse.jgit.submodule.SubmoduleWalk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +46,14 @@ public class GitStatusCommand {
    * Logger for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(GitAccess.class);
+  /**
+   * The maximum number of threads used to describe the changed submodules.
+   */
+  private static final int MAX_SUBMODULE_THREADS = 4;
+  /**
+   * Describes the changed submodules in parallel. Created when first needed.
+   */
+  private static ExecutorService submoduleExecutor;
   /**
    * A provider for the JGit API.
    */
@@ -52,13 +73,34 @@ public class GitStatusCommand {
    * @return A status of the Working Copy, with the unstaged and staged files.
    */
   public GitStatus getStatus() {
+    return getStatus(Collections.emptyList());
+  }
+  
+  /**
+   * Computes the status only for some of the files. 
+   * 
+   * @param paths The files and directories of interest. Empty for the entire working copy.
+   * 
+   * @return A status of the given paths from the Working Copy, with the unstaged and staged files. 
+   * The submodules are always included.
+   */
+  public GitStatus getStatus(Collection<String> paths) {
     GitStatus gitStatus = null;
     if (git != null && git.get() != null) {
       try {
         LOGGER.debug("-- Compute our GitStatus -> getStatus() --");
-        Status status = git.get().status().call();
+        StatusCommand statusCmd = git.get().status();
+        for (String path : paths) {
+          statusCmd.addPath(path);
+        }
+        Status status = statusCmd.call();
         LOGGER.debug("-- Get JGit status -> git.status().call() --");
-        gitStatus = new GitStatus(getUnstagedFiles(status), getStagedFiles(status), status.hasUncommittedChanges());
+        // Computed only once, for both the staged and the unstaged files.
+        Map<String, SubmoduleStatus> submodulesStatus = getSubmodulesStatus();
+        gitStatus = new GitStatus(
+            getUnstagedFiles(status, submodulesStatus),
+            getStagedFiles(status, submodulesStatus.keySet()),
+            status.hasUncommittedChanges());
       } catch (GitAPIException e) {
         LOGGER.error(e.getMessage(), e);
       }
@@ -102,7 +144,7 @@ public class GitStatusCommand {
       try {
         Status status = statusCmd.call();
         LOGGER.debug("JGit Status computed: {}", status);
-        return getUnstagedFiles(status);
+        return getUnstagedFiles(status, getSubmodulesStatus());
       } catch (GitAPIException e) {
         LOGGER.error(e.getMessage(), e);
       }
@@ -115,28 +157,88 @@ public class GitStatusCommand {
    * Makes a diff between the files from the last commit and the files from the
    * working directory. If there are diffs, they will be saved and returned.
    * 
-   * @param status The repository's status.
+   * @param status           The repository's status.
+   * @param submodulesStatus The status of each submodule, by path.
    * 
    * @return The unstaged files and their states.
    */
-  private List<FileStatus> getUnstagedFiles(Status status) {
+  private List<FileStatus> getUnstagedFiles(Status status, Map<String, SubmoduleStatus> submodulesStatus) {
     LOGGER.debug("PRIVATE - GET UNSTAGE FOR GIVEN STATUS: {}", status);
     List<FileStatus> unstagedFiles = new ArrayList<>();
     if (git != null) {
       try {
-        Set<String> submodules = getSubmoduleAccess().getSubmodules();
-        addSubmodulesToUnstaged(unstagedFiles, submodules);
+        Set<String> submodules = submodulesStatus.keySet();
+        addSubmodulesToUnstaged(unstagedFiles, submodulesStatus);
         addUntrackedFilesToUnstaged(status, unstagedFiles, submodules);
         addModifiedFilesToUnstaged(status, unstagedFiles, submodules);
         addMissingFilesToUnstaged(status, unstagedFiles, submodules);
         addConflictingFilesToUnstaged(status, unstagedFiles);
-      } catch (NoWorkTreeException | GitAPIException e1) {
+      } catch (NoWorkTreeException e1) {
         LOGGER.error(e1.getMessage(), e1);
       }
     }
     return unstagedFiles;
   }
 
+  /**
+   * Computes the status of all the submodules, like the submodule status command, but reading the 
+   * HEAD of each submodule from the repositories kept open between refreshes. 
+   * It walks the index, so it should be called only once for a status computation.
+   * 
+   * @return The status of each submodule, by path. Empty if there are no submodules.
+   */
+  private Map<String, SubmoduleStatus> getSubmodulesStatus() {
+    Map<String, SubmoduleStatus> submodulesStatus = Collections.emptyMap();
+    if (git.get() != null) {
+      Repository main = git.get().getRepository();
+      try (SubmoduleWalk walk = SubmoduleWalk.forIndex(main)) {
+        while (walk.next()) {
+          if (submodulesStatus.isEmpty()) {
+            submodulesStatus = new LinkedHashMap<>();
+          }
+          submodulesStatus.put(walk.getPath(), getSubmoduleStatus(main, walk));
+        }
+      } catch (IOException | ConfigInvalidException e) {
+        LOGGER.error(e.getMessage(), e);
+      }
+    }
+    return submodulesStatus;
+  }
+  
+  /**
+   * Computes the status of the current submodule of a walk.
+   * 
+   * @param main The main repository.
+   * @param walk The walk over the submodules of the index.
+   * 
+   * @return The status of the submodule.
+   * 
+   * @throws IOException            When the submodule cannot be read.
+   * @throws ConfigInvalidException When the submodules configuration cannot be read.
+   */
+  private static SubmoduleStatus getSubmoduleStatus(Repository main, SubmoduleWalk walk) throws IOException, ConfigInvalidException {
+    ObjectId indexId = walk.getObjectId();
+    String path = walk.getPath();
+    SubmoduleStatus submoduleStatus;
+    if (walk.getModulesPath() == null) {
+      submoduleStatus = new SubmoduleStatus(SubmoduleStatusType.MISSING, path, indexId);
+    } else if (walk.getConfigUrl() == null) {
+      submoduleStatus = new SubmoduleStatus(SubmoduleStatusType.UNINITIALIZED, path, indexId);
+    } else {
+      try (Repository submoduleRepository = SubmoduleRepositoryCache.getInstance().getRepository(main, path)) {
+        ObjectId headId = submoduleRepository != null ? submoduleRepository.resolve(Constants.HEAD) : null;
+        if (headId == null) {
+          submoduleStatus = new SubmoduleStatus(SubmoduleStatusType.UNINITIALIZED, path, indexId, headId);
+        } else if (!headId.equals(indexId)) {
+          submoduleStatus = new SubmoduleStatus(SubmoduleStatusType.REV_CHECKED_OUT, path, indexId, headId);
+        } else {
+          submoduleStatus = new SubmoduleStatus(SubmoduleStatusType.INITIALIZED, path, indexId, headId);
+        }
+      }
+    }
+    return submoduleStatus;
+  }
+
   /**
    * Add conflicting files to the list of resources that are not staged.
    * 
@@ -211,29 +313,73 @@ public class GitStatusCommand {
   }
 
   /**
-   * Add submodules to the list of resources that are not staged.
-   * 
-   * @param unstagedFiles The list of unstaged (not in the INDEX) files.
-   * @param submodules    The set of submodules.
+   * Add submodules to the list of resources that are not staged. The descriptions of the 
+   * changed submodules are computed in parallel, because each one reads commits from another repository.
    * 
-   * @throws GitAPIException When an error occurs when trying to check the
-   *                         submodules status.
+   * @param unstagedFiles    The list of unstaged (not in the INDEX) files.
+   * @param submodulesStatus The status of each submodule, by path.
    */
-  private void addSubmodulesToUnstaged(List<FileStatus> unstagedFiles, Set<String> submodules) throws GitAPIException {
+  private void addSubmodulesToUnstaged(List<FileStatus> unstagedFiles, Map<String, SubmoduleStatus> submodulesStatus) {
     if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("addSubmodulesToUnstaged: {}", submodules);
+      LOGGER.debug("addSubmodulesToUnstaged: {}", submodulesStatus.keySet());
     }
-    for (String submodulePath : submodules) {
-      SubmoduleStatus submoduleStatus = git.get().submoduleStatus().call().get(submodulePath);
+    List<SubmoduleStatus> changedSubmodules = new ArrayList<>();
+    for (SubmoduleStatus submoduleStatus : submodulesStatus.values()) {
       if (submoduleStatus != null && submoduleStatus.getHeadId() != null
           && !submoduleStatus.getHeadId().equals(submoduleStatus.getIndexId())) {
-        
-        unstagedFiles.add(
-            new FileStatus(GitChangeType.SUBMODULE, submodulePath).setDescription(
-                RepoUtil.extractSubmoduleChangeDescription(git.get().getRepository(), submoduleStatus)));
-        
+        changedSubmodules.add(submoduleStatus);
+      }
+    }
+    
+    if (changedSubmodules.size() == 1) {
+      unstagedFiles.add(createSubmoduleFileStatus(changedSubmodules.get(0)));
+    } else if (!changedSubmodules.isEmpty()) {
+      List<CompletableFuture<FileStatus>> descriptions = new ArrayList<>(changedSubmodules.size());
+      ExecutorService executor = getSubmoduleExecutor();
+      for (SubmoduleStatus submoduleStatus : changedSubmodules) {
+        descriptions.add(CompletableFuture.supplyAsync(() -> createSubmoduleFileStatus(submoduleStatus), executor));
+      }
+      // Keep the order of the submodules.
+      for (CompletableFuture<FileStatus> description : descriptions) {
+        unstagedFiles.add(description.join());
+      }
+    }
+  }
+  
+  /**
+   * Creates the status of a changed submodule.
+   * 
+   * @param submoduleStatus The submodule status.
+   * 
+   * @return The file status, with a description of the tracked commits.
+   */
+  private FileStatus createSubmoduleFileStatus(SubmoduleStatus submoduleStatus) {
+    Repository main = git.get().getRepository();
+    String description = null;
+    try (Repository submoduleRepository = SubmoduleRepositoryCache.getInstance().getRepository(main, submoduleStatus.getPath())) {
+      if (submoduleRepository != null) {
+        description = RepoUtil.extractSubmoduleChangeDescription(main, submoduleRepository, submoduleStatus);
       }
+    } catch (IOException e) {
+      LOGGER.error(e.getMessage(), e);
+    }
+    return new FileStatus(GitChangeType.SUBMODULE, submoduleStatus.getPath()).setDescription(description);
+  }
+  
+  /**
+   * @return The executor that describes the changed submodules in parallel.
+   */
+  private static synchronized ExecutorService getSubmoduleExecutor() {
+    if (submoduleExecutor == null) {
+      int threads = Math.min(MAX_SUBMODULE_THREADS, Runtime.getRuntime().availableProcessors());
+      AtomicInteger counter = new AtomicInteger();
+      submoduleExecutor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+        Thread thread = new Thread(r, "Git Submodule Status " + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
     }
+    return submoduleExecutor;
   }
 
   /**
@@ -273,7 +419,7 @@ public class GitStatusCommand {
 
      try {
        Status status = statusCmd.call();
-       return getStagedFiles(status);
+       return getStagedFiles(status, getSubmodulesStatus().keySet());
      } catch (GitAPIException e) {
        LOGGER.error(e.getMessage(), e);
      }
@@ -286,13 +432,13 @@ public class GitStatusCommand {
   * Checks which files from the given subset are in the Index and returns their
   * state.
   * 
-  * @param status The current status.
+  * @param status     The current status.
+  * @param submodules The submodules paths.
   * 
   * @return - a set containing the subset of files present in the INDEX.
   */
- private List<FileStatus> getStagedFiles(Status status) {
+ private List<FileStatus> getStagedFiles(Status status, Set<String> submodules) {
    List<FileStatus> stagedFiles = new ArrayList<>();
-   Set<String> submodules = getSubmoduleAccess().getSubmodules();
 
    for (String fileName : status.getChanged()) {
      // File from INDEX, modified from HEAD
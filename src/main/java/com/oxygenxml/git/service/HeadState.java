@@ -0,0 +1,252 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.jgit.events.ListenerHandle;
+import org.eclipse.jgit.lib.BranchConfig;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Keeps the state of the HEAD of a repository: the current branch, if HEAD is detached,
+ * the current commit and the upstream branch.
+ * <br><br>
+ * The state is read once and read again only when the repository notifies that its references or
+ * its configuration changed, or when the HEAD file or its reflog change on disk. Reading the
+ * state does not walk the history.
+ */
+public class HeadState {
+
+  /**
+   * The state of HEAD at a given moment. Immutable.
+   */
+  public static class Snapshot {
+    /**
+     * The state of a repository without HEAD.
+     */
+    static final Snapshot EMPTY = new Snapshot("", null, false, null, null);
+
+    /**
+     * The short name of the current branch, or the current commit ID if HEAD is detached.
+     */
+    private final String branchName;
+    /**
+     * The full name of the current branch, like "refs/heads/main". <code>null</code> if HEAD is detached.
+     */
+    private final String fullBranchName;
+    /**
+     * <code>true</code> if HEAD is detached.
+     */
+    private final boolean detached;
+    /**
+     * The current commit. <code>null</code> if the current branch has no commits yet.
+     */
+    private final ObjectId headId;
+    /**
+     * The full name of the remote-tracking branch of the current branch, like "refs/remotes/origin/main".
+     * <code>null</code> if the current branch has no upstream.
+     */
+    private final String upstreamBranch;
+
+    /**
+     * Constructor.
+     *
+     * @param branchName     The short name of the current branch, or the current commit ID.
+     * @param fullBranchName The full name of the current branch, or <code>null</code> if HEAD is detached.
+     * @param detached       <code>true</code> if HEAD is detached.
+     * @param headId         The current commit, or <code>null</code>.
+     * @param upstreamBranch The full name of the remote-tracking branch, or <code>null</code>.
+     */
+    private Snapshot(String branchName, String fullBranchName, boolean detached, ObjectId headId, String upstreamBranch) {
+      this.branchName = branchName;
+      this.fullBranchName = fullBranchName;
+      this.detached = detached;
+      this.headId = headId;
+      this.upstreamBranch = upstreamBranch;
+    }
+
+    /**
+     * @return The short name of the current branch, or the current commit ID if HEAD is detached.
+     */
+    public String getBranchName() {
+      return branchName;
+    }
+
+    /**
+     * @return The full name of the current branch, like "refs/heads/main", or <code>null</code> if HEAD is detached.
+     */
+    public String getFullBranchName() {
+      return fullBranchName;
+    }
+
+    /**
+     * @return <code>true</code> if HEAD is detached.
+     */
+    public boolean isDetached() {
+      return detached;
+    }
+
+    /**
+     * @return The current commit, or <code>null</code> if the current branch has no commits yet.
+     */
+    public ObjectId getHeadId() {
+      return headId;
+    }
+
+    /**
+     * @return The full name of the remote-tracking branch of the current branch,
+     * or <code>null</code> if it has no upstream.
+     */
+    public String getUpstreamBranch() {
+      return upstreamBranch;
+    }
+
+    /**
+     * @return A new branch info with the state of HEAD.
+     */
+    public BranchInfo toBranchInfo() {
+      BranchInfo branchInfo = new BranchInfo(branchName, detached);
+      if (detached && headId != null) {
+        branchInfo.setShortBranchName(headId.abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name());
+      }
+      return branchInfo;
+    }
+  }
+
+  /**
+   * Singleton instance.
+   */
+  private static final HeadState INSTANCE = new HeadState();
+
+  /**
+   * The repository whose HEAD is kept.
+   */
+  private Repository repository;
+
+  /**
+   * The registration of the listener notified when the references of the repository change.
+   */
+  private ListenerHandle refsChangedHandle;
+
+  /**
+   * The registration of the listener notified when the configuration of the repository changes.
+   */
+  private ListenerHandle configChangedHandle;
+
+  /**
+   * <code>true</code> if the state must be read again.
+   */
+  private volatile boolean changed = true;
+
+  /**
+   * Identifies the HEAD file and its reflog, when the state was read. 
+   * <code>null</code> if the state was not read yet.
+   */
+  private String headFilesStamp;
+
+  /**
+   * The current state.
+   */
+  private Snapshot snapshot = Snapshot.EMPTY;
+
+  /**
+   * Hidden constructor.
+   */
+  private HeadState() {
+    // Singleton.
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static HeadState getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Get the state of HEAD, reading it again only if something changed since it was last read.
+   * If the state of another repository was kept before, it is forgotten.
+   *
+   * @param repository The repository.
+   *
+   * @return The state of HEAD. Never <code>null</code>.
+   *
+   * @throws IOException When HEAD cannot be read.
+   */
+  public synchronized Snapshot getSnapshot(Repository repository) throws IOException {
+    if (this.repository != repository) {
+      clear();
+      this.repository = repository;
+      refsChangedHandle = repository.getListenerList().addRefsChangedListener(event -> changed = true);
+      configChangedHandle = repository.getListenerList().addConfigChangedListener(event -> changed = true);
+    }
+
+    // Reloads the configuration, if it was modified on disk.
+    repository.getConfig();
+    File headFile = new File(repository.getDirectory(), Constants.HEAD);
+    File headLogFile = new File(repository.getDirectory(), Constants.LOGS + File.separator + Constants.HEAD);
+    String stamp = computeStamp(headFile) + ":" + computeStamp(headLogFile);
+    if (changed || !stamp.equals(headFilesStamp)) {
+      changed = false;
+      headFilesStamp = stamp;
+      snapshot = read(repository);
+    }
+    return snapshot;
+  }
+
+  /**
+   * Forgets the kept repository.
+   */
+  public synchronized void clear() {
+    if (refsChangedHandle != null) {
+      refsChangedHandle.remove();
+      refsChangedHandle = null;
+    }
+    if (configChangedHandle != null) {
+      configChangedHandle.remove();
+      configChangedHandle = null;
+    }
+    repository = null;
+    changed = true;
+    headFilesStamp = null;
+    snapshot = Snapshot.EMPTY;
+  }
+
+  /**
+   * @param file A file.
+   * 
+   * @return Identifies the version of the file on disk.
+   */
+  private static String computeStamp(File file) {
+    return file.lastModified() + ":" + file.length();
+  }
+
+  /**
+   * Reads the state of HEAD.
+   *
+   * @param repository The repository.
+   *
+   * @return The state.
+   *
+   * @throws IOException When HEAD cannot be read.
+   */
+  private static Snapshot read(Repository repository) throws IOException {
+    Snapshot read = Snapshot.EMPTY;
+    Ref head = repository.exactRef(Constants.HEAD);
+    if (head != null) {
+      ObjectId headId = head.getObjectId();
+      if (head.isSymbolic()) {
+        String fullBranchName = head.getTarget().getName();
+        String branchName = Repository.shortenRefName(fullBranchName);
+        String upstreamBranch = new BranchConfig(repository.getConfig(), branchName).getRemoteTrackingBranch();
+        read = new Snapshot(branchName, fullBranchName, false, headId, upstreamBranch);
+      } else if (headId != null) {
+        read = new Snapshot(headId.name(), null, true, headId, null);
+      }
+    }
+    return read;
+  }
+}
@@ -0,0 +1,165 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revplot.PlotCommitList;
+import org.eclipse.jgit.revplot.PlotWalk;
+
+import com.oxygenxml.git.view.history.CommitCharacteristics;
+import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualLane;
+
+/**
+ * Loads the commits of a history graph one page at a time.
+ * <br><br>
+ * The revision iterator and the commits list are kept open between pages,
+ * so the lanes computed for the commits already loaded are continued by the next pages.
+ * Only the commits of the requested page are converted to {@link CommitCharacteristics}.
+ * The converted commits release their bodies. Their messages are read again, on demand,
+ * by a {@link CommitMessageLoader} shared by all the pages.
+ * <br><br>
+ * The loader must be closed when it is no longer needed.
+ */
+public class PagedCommitsLoader implements AutoCloseable {
+
+  /**
+   * The default number of commits loaded at once.
+   */
+  public static final int DEFAULT_PAGE_SIZE = 500;
+
+  /**
+   * Revision iterator. <code>null</code> when there is no history to load.
+   */
+  private PlotWalk plotWalk;
+
+  /**
+   * Lays out the commits. <code>null</code> when there is no history to load.
+   */
+  private final PlotCommitList<VisualLane> plotCommitList;
+
+  /**
+   * Reads the messages of the loaded commits. <code>null</code> when there is no history to load.
+   */
+  private final CommitMessageLoader messageLoader;
+
+  /**
+   * Rows presented before the commits, like the uncommitted changes. They are returned with the first page.
+   */
+  private final List<CommitCharacteristics> leadingCommits = new ArrayList<>(1);
+
+  /**
+   * The number of commits from the list that were already converted and returned.
+   */
+  private int loadedCount;
+
+  /**
+   * <code>true</code> while there are still commits to walk. Read without locking, 
+   * so the AWT thread doesn't wait for a page being loaded.
+   */
+  private volatile boolean hasMore;
+
+  /**
+   * Constructor.
+   *
+   * @param plotWalk       Revision iterator, already configured with the start points and filters.
+   *                       <code>null</code> when there is no history to load.
+   * @param plotCommitList The commits list, already using the given iterator as a source.
+   * @param repository     The repository from which the messages of the commits are read.
+   */
+  PagedCommitsLoader(PlotWalk plotWalk, PlotCommitList<VisualLane> plotCommitList, Repository repository) {
+    this.plotWalk = plotWalk;
+    this.plotCommitList = plotCommitList;
+    this.messageLoader = repository != null ? new CommitMessageLoader(repository) : null;
+    this.hasMore = plotWalk != null;
+  }
+
+  /**
+   * Creates a loader for an empty history, like a new repository without any commit.
+   *
+   * @return An empty loader.
+   */
+  static PagedCommitsLoader empty() {
+    return new PagedCommitsLoader(null, null, null);
+  }
+
+  /**
+   * Adds a row that will be presented before all the commits.
+   *
+   * @param commit The row to add. It is returned together with the first page.
+   */
+  synchronized void addLeadingCommit(CommitCharacteristics commit) {
+    leadingCommits.add(commit);
+  }
+
+  /**
+   * Loads the next commits.
+   *
+   * @param pageSize The maximum number of commits to load.
+   *
+   * @return The loaded commits. Empty if there are no more commits.
+   * 
+   * @throws IOException When the commits cannot be read.
+   */
+  public synchronized List<CommitCharacteristics> loadNextPage(int pageSize) throws IOException {
+    List<CommitCharacteristics> page = new ArrayList<>(leadingCommits);
+    leadingCommits.clear();
+
+    if (plotWalk != null) {
+      // fillTo() stops after the commit with the given index is added.
+      plotCommitList.fillTo(loadedCount + pageSize - 1);
+      int size = plotCommitList.size();
+      for (int i = loadedCount; i < size; i++) {
+        page.add(new CommitCharacteristics(plotCommitList.get(i), messageLoader));
+      }
+      loadedCount = size;
+
+      if (!plotCommitList.isPending()) {
+        // Everything was walked. Release the resources right away.
+        close();
+      }
+    }
+
+    return page.isEmpty() ? Collections.emptyList() : page;
+  }
+
+  /**
+   * Loads all the remaining commits.
+   *
+   * @return The loaded commits.
+   * 
+   * @throws IOException When the commits cannot be read.
+   */
+  public synchronized List<CommitCharacteristics> loadAll() throws IOException {
+    return loadNextPage(Integer.MAX_VALUE - loadedCount);
+  }
+
+  /**
+   * @return <code>true</code> if there are more commits to walk.
+   */
+  public boolean hasMore() {
+    return hasMore;
+  }
+
+  /**
+   * @return The number of commits loaded so far.
+   */
+  public synchronized int getLoadedCount() {
+    return loadedCount;
+  }
+
+  /**
+   * Releases the revision iterator. No more commits are loaded after this call.
+   */
+  @Override
+  public synchronized void close() {
+    hasMore = false;
+    leadingCommits.clear();
+    if (plotWalk != null) {
+      plotWalk.close();
+      plotWalk = null;
+    }
+  }
+}
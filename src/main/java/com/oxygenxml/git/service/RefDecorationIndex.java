@@ -0,0 +1,279 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jgit.events.ListenerHandle;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefDatabase;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Indexes the tags and the branches of a repository by the commit they point to, so that the
+ * history can decorate a commit without searching through the references.
+ * <br><br>
+ * The index is built in a single pass over the references. Afterwards, it is rebuilt only when
+ * the repository notifies that the references changed, and only the new or moved tags are peeled again.
+ */
+public class RefDecorationIndex {
+
+  /**
+   * The tags, local branches and remote branches, indexed by the commit they point to.
+   * Immutable, so it can be read while the index is rebuilt.
+   */
+  public static class Decorations {
+    /**
+     * No decorations.
+     */
+    static final Decorations EMPTY = new Decorations(
+        Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * The tag names. The key is the peeled commit.
+     */
+    private final Map<ObjectId, List<String>> tags;
+    /**
+     * The local branch names. The key is the commit.
+     */
+    private final Map<ObjectId, List<String>> localBranches;
+    /**
+     * The remote branch names. The key is the commit.
+     */
+    private final Map<ObjectId, List<String>> remoteBranches;
+
+    /**
+     * Constructor.
+     *
+     * @param tags           The tag names, by commit.
+     * @param localBranches  The local branch names, by commit.
+     * @param remoteBranches The remote branch names, by commit.
+     */
+    private Decorations(
+        Map<ObjectId, List<String>> tags,
+        Map<ObjectId, List<String>> localBranches,
+        Map<ObjectId, List<String>> remoteBranches) {
+      this.tags = tags;
+      this.localBranches = localBranches;
+      this.remoteBranches = remoteBranches;
+    }
+
+    /**
+     * @param commit A commit.
+     *
+     * @return The names of the tags of the commit. Never <code>null</code>.
+     */
+    public List<String> getTags(AnyObjectId commit) {
+      return tags.getOrDefault(commit, Collections.emptyList());
+    }
+
+    /**
+     * @param commit A commit.
+     *
+     * @return The names of the local branches that point to the commit. Never <code>null</code>.
+     */
+    public List<String> getLocalBranches(AnyObjectId commit) {
+      return localBranches.getOrDefault(commit, Collections.emptyList());
+    }
+
+    /**
+     * @param commit A commit.
+     *
+     * @return The names of the remote branches that point to the commit, like "origin/main".
+     * Never <code>null</code>.
+     */
+    public List<String> getRemoteBranches(AnyObjectId commit) {
+      return remoteBranches.getOrDefault(commit, Collections.emptyList());
+    }
+
+    /**
+     * @return The tag names, by commit, in the order of the tag names.
+     */
+    public Map<ObjectId, List<String>> getAllTags() {
+      return tags;
+    }
+
+    /**
+     * @return The local branch names, by commit, in the order of the branch names.
+     */
+    public Map<ObjectId, List<String>> getAllLocalBranches() {
+      return localBranches;
+    }
+
+    /**
+     * @return The remote branch names, by commit, in the order of the branch names.
+     */
+    public Map<ObjectId, List<String>> getAllRemoteBranches() {
+      return remoteBranches;
+    }
+  }
+
+  /**
+   * Singleton instance.
+   */
+  private static final RefDecorationIndex INSTANCE = new RefDecorationIndex();
+
+  /**
+   * The indexed repository.
+   */
+  private Repository repository;
+
+  /**
+   * The registration of the listener that is notified when the references of the repository change.
+   */
+  private ListenerHandle refsChangedHandle;
+
+  /**
+   * <code>true</code> if the references changed since the index was built.
+   */
+  private final AtomicBoolean refsChanged = new AtomicBoolean(true);
+
+  /**
+   * The tags peeled when the index was built. The key is the tag reference name. Used to avoid
+   * peeling again the tags that didn't move.
+   */
+  private Map<String, PeeledTag> peeledTags = new HashMap<>();
+
+  /**
+   * The current decorations.
+   */
+  private volatile Decorations decorations = Decorations.EMPTY;
+
+  /**
+   * A tag and the commit it points to.
+   */
+  private static class PeeledTag {
+    /**
+     * The object to which the tag reference points. For annotated tags, it is the tag object.
+     */
+    private final ObjectId objectId;
+    /**
+     * The commit to which the tag points.
+     */
+    private final ObjectId target;
+
+    /**
+     * Constructor.
+     *
+     * @param objectId The object to which the tag reference points.
+     * @param target   The commit to which the tag points.
+     */
+    PeeledTag(ObjectId objectId, ObjectId target) {
+      this.objectId = objectId;
+      this.target = target;
+    }
+  }
+
+  /**
+   * Hidden constructor.
+   */
+  private RefDecorationIndex() {
+    // Singleton.
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static RefDecorationIndex getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Brings the index up to date with the references of the given repository.
+   * If another repository was indexed before, the index is built from scratch.
+   *
+   * @param repository The repository.
+   *
+   * @return The decorations of the repository.
+   *
+   * @throws IOException When the references cannot be read.
+   */
+  public synchronized Decorations update(Repository repository) throws IOException {
+    if (this.repository != repository) {
+      clear();
+      this.repository = repository;
+      refsChangedHandle = repository.getListenerList().addRefsChangedListener(event -> refsChanged.set(true));
+    }
+
+    // Reading the references is what makes JGit detect and notify their changes.
+    List<Ref> refs = repository.getRefDatabase().getRefs();
+    if (refsChanged.getAndSet(false)) {
+      decorations = build(repository.getRefDatabase(), refs);
+    }
+    return decorations;
+  }
+
+  /**
+   * @return The decorations computed on the last update. Never <code>null</code>.
+   */
+  public Decorations getDecorations() {
+    return decorations;
+  }
+
+  /**
+   * Forgets the indexed repository.
+   */
+  public synchronized void clear() {
+    if (refsChangedHandle != null) {
+      refsChangedHandle.remove();
+      refsChangedHandle = null;
+    }
+    repository = null;
+    peeledTags = new HashMap<>();
+    refsChanged.set(true);
+    decorations = Decorations.EMPTY;
+  }
+
+  /**
+   * Builds the decorations.
+   *
+   * @param refDatabase The references database.
+   * @param refs        All the references, sorted by name.
+   *
+   * @return The decorations.
+   *
+   * @throws IOException When a tag cannot be peeled.
+   */
+  private Decorations build(RefDatabase refDatabase, List<Ref> refs) throws IOException {
+    Map<ObjectId, List<String>> tags = new LinkedHashMap<>();
+    Map<ObjectId, List<String>> localBranches = new LinkedHashMap<>();
+    Map<ObjectId, List<String>> remoteBranches = new LinkedHashMap<>();
+    Map<String, PeeledTag> newPeeledTags = new HashMap<>();
+
+    for (Ref ref : refs) {
+      String name = ref.getName();
+      ObjectId objectId = ref.getObjectId();
+      if (objectId != null) {
+        if (name.startsWith(Constants.R_TAGS)) {
+          PeeledTag peeledTag = peeledTags.get(name);
+          if (peeledTag == null || !peeledTag.objectId.equals(objectId)) {
+            Ref peeled = refDatabase.peel(ref);
+            ObjectId target = peeled.getPeeledObjectId() != null ? peeled.getPeeledObjectId() : objectId;
+            peeledTag = new PeeledTag(objectId, target);
+          }
+          newPeeledTags.put(name, peeledTag);
+          // Only the last segment of the tag name is presented.
+          tags.computeIfAbsent(peeledTag.target, k -> new ArrayList<>(1)).add(name.substring(name.lastIndexOf('/') + 1));
+        } else if (name.startsWith(Constants.R_HEADS)) {
+          localBranches.computeIfAbsent(objectId, k -> new ArrayList<>(1)).add(name.substring(Constants.R_HEADS.length()));
+        } else if (name.startsWith(Constants.R_REMOTES)) {
+          remoteBranches.computeIfAbsent(objectId, k -> new ArrayList<>(1)).add(name.substring(Constants.R_REMOTES.length()));
+        }
+      }
+    }
+
+    peeledTags = newPeeledTags;
+    return new Decorations(
+        Collections.unmodifiableMap(tags),
+        Collections.unmodifiableMap(localBranches),
+        Collections.unmodifiableMap(remoteBranches));
+  }
+}
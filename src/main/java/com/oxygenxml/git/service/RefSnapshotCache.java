@@ -0,0 +1,253 @@
+package com.oxygenxml.git.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jgit.events.ListenerHandle;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Keeps the branches of a repository and the details of the commits they point to, so that
+ * the branches view can list them and present their tooltips without reading them again.
+ * <br><br>
+ * The references are read again only when the repository notifies that they changed. The details
+ * of a commit are read once, when first requested, and kept while a branch points to the commit.
+ */
+public class RefSnapshotCache {
+
+  /**
+   * The details of the commit to which a branch points. Immutable.
+   */
+  public static class TipCommit {
+    /**
+     * The author of the commit.
+     */
+    private final PersonIdent author;
+    /**
+     * The first line of the commit message.
+     */
+    private final String subject;
+
+    /**
+     * Constructor.
+     *
+     * @param author  The author.
+     * @param subject The first line of the commit message.
+     */
+    TipCommit(PersonIdent author, String subject) {
+      this.author = author;
+      this.subject = subject;
+    }
+
+    /**
+     * @return The author of the commit, with the time of the commit.
+     */
+    public PersonIdent getAuthor() {
+      return author;
+    }
+
+    /**
+     * @return The first line of the commit message.
+     */
+    public String getSubject() {
+      return subject;
+    }
+  }
+
+  /**
+   * The branches of a repository at a given moment. Immutable.
+   */
+  public static class Snapshot {
+    /**
+     * No branches.
+     */
+    static final Snapshot EMPTY = new Snapshot(Collections.emptyMap());
+
+    /**
+     * The local and remote branches, sorted by their full name.
+     */
+    private final Map<String, Ref> branches;
+
+    /**
+     * Constructor.
+     *
+     * @param branches The branches, sorted by their full name.
+     */
+    private Snapshot(Map<String, Ref> branches) {
+      this.branches = branches;
+    }
+
+    /**
+     * @param fullName The full name of a branch, like "refs/heads/main".
+     *
+     * @return The branch, or <code>null</code> if it does not exist.
+     */
+    public Ref getBranch(String fullName) {
+      return branches.get(fullName);
+    }
+
+    /**
+     * @return A new list with the local branches, sorted by name.
+     */
+    public List<Ref> getLocalBranches() {
+      return getBranches(Constants.R_HEADS);
+    }
+
+    /**
+     * @return A new list with the remote branches, sorted by name.
+     */
+    public List<Ref> getRemoteBranches() {
+      return getBranches(Constants.R_REMOTES);
+    }
+
+    /**
+     * @param prefix The prefix of the branches names.
+     *
+     * @return A new list with the branches whose name starts with the prefix.
+     */
+    private List<Ref> getBranches(String prefix) {
+      List<Ref> refs = new ArrayList<>();
+      for (Ref ref : branches.values()) {
+        if (ref.getName().startsWith(prefix)) {
+          refs.add(ref);
+        }
+      }
+      return refs;
+    }
+  }
+
+  /**
+   * Singleton instance.
+   */
+  private static final RefSnapshotCache INSTANCE = new RefSnapshotCache();
+
+  /**
+   * The repository whose branches are kept.
+   */
+  private Repository repository;
+
+  /**
+   * The registration of the listener that is notified when the references of the repository change.
+   */
+  private ListenerHandle refsChangedHandle;
+
+  /**
+   * <code>true</code> if the references changed since they were read.
+   */
+  private final AtomicBoolean refsChanged = new AtomicBoolean(true);
+
+  /**
+   * The branches read last.
+   */
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+  /**
+   * The details of the commits to which the branches point. The key is the commit ID.
+   */
+  private final Map<ObjectId, TipCommit> tipCommits = new HashMap<>();
+
+  /**
+   * Hidden constructor.
+   */
+  private RefSnapshotCache() {
+    // Singleton.
+  }
+
+  /**
+   * @return The singleton instance.
+   */
+  public static RefSnapshotCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Brings the branches up to date with the references of the given repository.
+   *
+   * @param repository The repository.
+   *
+   * @return The branches.
+   *
+   * @throws IOException When the references cannot be read.
+   */
+  public synchronized Snapshot update(Repository repository) throws IOException {
+    if (this.repository != repository) {
+      clear();
+      this.repository = repository;
+      refsChangedHandle = repository.getListenerList().addRefsChangedListener(event -> refsChanged.set(true));
+    }
+
+    // Reading the references is what makes JGit detect and notify their changes.
+    List<Ref> refs = repository.getRefDatabase().getRefsByPrefix(Constants.R_HEADS, Constants.R_REMOTES);
+    if (refsChanged.getAndSet(false)) {
+      Map<String, Ref> branches = new TreeMap<>();
+      Set<ObjectId> tips = new HashSet<>();
+      for (Ref ref : refs) {
+        branches.put(ref.getName(), ref);
+        if (ref.getObjectId() != null) {
+          tips.add(ref.getObjectId());
+        }
+      }
+      // Forget the commits to which no branch points anymore.
+      tipCommits.keySet().retainAll(tips);
+      snapshot = new Snapshot(Collections.unmodifiableMap(branches));
+    }
+    return snapshot;
+  }
+
+  /**
+   * Get the details of the commit to which a branch points. The branches are not read again,
+   * unless they were not read for this repository yet or the repository notified that they changed.
+   *
+   * @param repository The repository.
+   * @param fullName   The full name of the branch, like "refs/remotes/origin/main".
+   *
+   * @return The details of the commit, or <code>null</code> if the branch does not exist.
+   *
+   * @throws IOException When the commit cannot be read.
+   */
+  public synchronized TipCommit getTipCommit(Repository repository, String fullName) throws IOException {
+    Snapshot current = this.repository == repository && !refsChanged.get() ? snapshot : update(repository);
+    Ref branch = current.getBranch(fullName);
+    ObjectId commitId = branch != null ? branch.getObjectId() : null;
+    TipCommit tipCommit = null;
+    if (commitId != null) {
+      tipCommit = tipCommits.get(commitId);
+      if (tipCommit == null) {
+        try (RevWalk walk = new RevWalk(repository)) {
+          RevCommit commit = walk.parseCommit(commitId);
+          tipCommit = new TipCommit(commit.getAuthorIdent(), commit.getShortMessage());
+        }
+        tipCommits.put(commitId, tipCommit);
+      }
+    }
+    return tipCommit;
+  }
+
+  /**
+   * Forgets the kept repository.
+   */
+  public synchronized void clear() {
+    if (refsChangedHandle != null) {
+      refsChangedHandle.remove();
+      refsChangedHandle = null;
+    }
+    repository = null;
+    refsChanged.set(true);
+    snapshot = Snapshot.EMPTY;
+    tipCommits.clear();
+  }
+}
@@ -242,7 +242,7 @@ public class RemoteRepositoryChangeWatcher {
     try {
       GitAccess gitAccess = GitAccess.getInstance();
       if (fetch) {
-        gitAccess.fetch();
+        FetchCoordinator.getInstance().fetch();
       }
       Repository repository = gitAccess.getRepository();
       CommitsAheadAndBehind commitsAheadAndBehind = RevCommitUtil.getCommitsAheadAndBehind(repository, repository.getFullBranch());
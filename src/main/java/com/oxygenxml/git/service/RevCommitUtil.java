@@ -8,6 +8,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -24,26 +25,25 @@ import org.eclipse.jgit.diff.DiffConfig;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
 import org.eclipse.jgit.errors.CorruptObjectException;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.RevisionSyntaxException;
 import org.eclipse.jgit.lib.BranchConfig;
-import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.revplot.PlotCommit;
 import org.eclipse.jgit.revplot.PlotCommitList;
 import org.eclipse.jgit.revplot.PlotWalk;
 import org.eclipse.jgit.revwalk.FollowFilter;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.revwalk.RevWalkUtils;
-import org.eclipse.jgit.revwalk.filter.RevFilter;
 import org.eclipse.jgit.treewalk.AbstractTreeIterator;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.EmptyTreeIterator;
@@ -55,6 +55,7 @@ import org.eclipse.jgit.util.io.NullOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.oxygenxml.git.options.OptionsManager;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.FileStatusOverDiffEntry;
 import com.oxygenxml.git.service.entities.FileStatusUtil;
@@ -62,6 +63,7 @@ import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.view.history.CommitCharacteristics;
 import com.oxygenxml.git.view.history.CommitsAheadAndBehind;
+import com.oxygenxml.git.view.history.HistoryStrategy;
 import com.oxygenxml.git.view.history.RenameTracker;
 import com.oxygenxml.git.view.history.graph.GraphColorUtil;
 import com.oxygenxml.git.view.history.graph.VisualCommitsList;
@@ -237,7 +239,7 @@ public class RevCommitUtil {
             .call();
 
         // Identify potential renames.
-        RenameDetector rd = new RenameDetector(git.getRepository());
+        RenameDetector rd = createRenameDetector(git.getRepository());
         rd.addAll(diffs);
         collect = rd.compute();
       }
@@ -342,7 +344,7 @@ public class RevCommitUtil {
       Repository repository,
       RenameTracker renameTracker) throws IOException {
 	  
-	  collectCurrentBranchRevisions(filePath, revisions, repository, renameTracker, false);
+    collectRevisions(HistoryStrategy.CURRENT_LOCAL_BRANCH, filePath, revisions, repository, renameTracker);
   }
   
   /**
@@ -362,7 +364,7 @@ public class RevCommitUtil {
       Repository repository,
       RenameTracker renameTracker) throws IOException {
 	  
-	  collectAllBranchRevisions(filePath, revisions, repository, renameTracker, false);
+    collectRevisions(HistoryStrategy.ALL_LOCAL_BRANCHES, filePath, revisions, repository, renameTracker);
   }
   
   
@@ -383,7 +385,7 @@ public class RevCommitUtil {
       Repository repository,
       RenameTracker renameTracker) throws IOException {
 	  
-	  collectAllBranchRevisions(filePath, revisions, repository, renameTracker, true);
+    collectRevisions(HistoryStrategy.ALL_BRANCHES, filePath, revisions, repository, renameTracker);
   }
   
   
@@ -404,98 +406,155 @@ public class RevCommitUtil {
       Repository repository,
       RenameTracker renameTracker) throws IOException {
 	  
-	  collectCurrentBranchRevisions(filePath, revisions, repository, renameTracker, true);
+    collectRevisions(HistoryStrategy.CURRENT_BRANCH, filePath, revisions, repository, renameTracker);
   }
   
-
+  
   /**
-   * Collects the revisions from the current branch and the remote branch linked to it, if this option is selected .
+   * Collects all the revisions presented by the given strategy.
    * 
+   * @param strategy         Which branches to present.
    * @param filePath         An optional resource path. If not null, only the revisions that changed this resource are collected.
    * @param revisions        Revisions are collected in here.
    * @param repository       Loaded repository.
    * @param renameTracker    Track the renames for current file path.
-   * @param includeRemote    <code>true</code> if the remote branch should be also presented.
    * 
-   * @throws IOException 
-   * @throws GitAPIException
+   * @throws IOException
    */
-  private static void collectCurrentBranchRevisions(
+  private static void collectRevisions(
+      HistoryStrategy strategy,
       String filePath, 
       List<CommitCharacteristics> revisions, 
       Repository repository,
-      RenameTracker renameTracker,
-      boolean includeRemote) throws IOException {
+      RenameTracker renameTracker) throws IOException {
+    try (PagedCommitsLoader loader = createCommitsLoader(strategy, filePath, repository, renameTracker)) {
+      revisions.addAll(loader.loadAll());
+    }
+  }
+  
+  
+  /**
+   * Creates a loader that presents the revisions page by page, according to the given strategy.
+   * 
+   * @param strategy         Which branches to present.
+   * @param filePath         An optional resource path. If not null, only the revisions that changed this resource are collected.
+   * @param repository       Loaded repository.
+   * @param renameTracker    Track the renames for current file path.
+   * 
+   * @return The loader. Must be closed when no longer needed.
+   * 
+   * @throws IOException
+   */
+  public static PagedCommitsLoader createCommitsLoader(
+      HistoryStrategy strategy,
+      String filePath, 
+      Repository repository,
+      RenameTracker renameTracker) throws IOException {
+    List<Ref> tips = getHistoryTips(strategy, repository);
+    if (tips.isEmpty()) {
+      // Probably a new repository without any history. 
+      return PagedCommitsLoader.empty();
+    }
 
-    // a RevWalk allows to walk over commits based on some filtering that is defined
-    // EXM-44307 Show current branch commits only.
-    String fullBranch = repository.getFullBranch();
-    Ref branchHead = repository.exactRef(fullBranch);
-    if (branchHead != null) {
-      try (PlotWalk plotWalk = new PlotWalk(repository)) {
-    	  RevCommit root = plotWalk.parseCommit(branchHead.getObjectId());
-		  plotWalk.markStart(root);
-		  if(filePath != null && renameTracker != null) {
-			  renameTracker.reset(filePath);
-			  plotWalk.setRevFilter(renameTracker.getFilter());
-		  }
-		
-		if(includeRemote) {
-			 // If we have a remote, put it as well.
-	        String fullRemoteBranchName = getUpstreamBranchName(repository, repository.getBranch());
-	        if (fullRemoteBranchName != null) {
-	          Ref fullRemoteBranchHead = repository.exactRef(fullRemoteBranchName);
-	          if (fullRemoteBranchHead != null) {
-	            plotWalk.markStart(plotWalk.parseCommit(fullRemoteBranchHead.getObjectId()));
-	          }
-	        }
-		}  
-		
-        collectRevisions(filePath, revisions, repository, plotWalk, renameTracker);
+    PlotWalk plotWalk = VisualCommitsList.createWalk(repository);
+    try {
+      for (Ref tip : tips) {
+        plotWalk.markStart(plotWalk.parseCommit(tip.getObjectId()));
       }
-
-    } else {
-      // Probably a new repository without any history. 
+      if(filePath != null && renameTracker != null) {
+        renameTracker.reset(filePath);
+        plotWalk.setRevFilter(renameTracker.getFilter());
+      }
+      return createCommitsLoader(filePath, repository, plotWalk, renameTracker);
+    } catch (IOException | RuntimeException e) {
+      plotWalk.close();
+      throw e;
     }
   }
   
   
+  /**
+   * Gets the branches from which the history presented by the given strategy starts.
+   * The presented commits change only when the heads of these branches change.
+   * 
+   * @param strategy         Which branches to present.
+   * @param repository       Loaded repository.
+   * 
+   * @return The presented branches. Empty if there is no history to present.
+   * 
+   * @throws IOException
+   */
+  public static List<Ref> getHistoryTips(HistoryStrategy strategy, Repository repository) throws IOException {
+    List<Ref> tips = new ArrayList<>();
+    switch (strategy) {
+      case ALL_BRANCHES:
+        addTips(GitAccess.getInstance().getLocalBranchList(), tips);
+        addTips(GitAccess.getInstance().getRemoteBrachListForCurrentRepo(), tips);
+        break;
+      case ALL_LOCAL_BRANCHES:
+        addTips(GitAccess.getInstance().getLocalBranchList(), tips);
+        break;
+      case CURRENT_BRANCH:
+        addCurrentBranchTips(repository, tips, true);
+        break;
+      case CURRENT_LOCAL_BRANCH:
+        addCurrentBranchTips(repository, tips, false);
+        break;
+      default:
+        break;
+    }
+    return tips;
+  }
+  
   
+  /**
+   * Adds the branches that point to a commit.
+   * 
+   * @param refs The branches.
+   * @param tips The branches are added here.
+   */
+  private static void addTips(List<Ref> refs, List<Ref> tips) {
+    for (Ref ref : refs) {
+      if (ref.getObjectId() != null) {
+        tips.add(ref);
+      }
+    }
+  }
   
+
   /**
-   * Collects the revisions from all repository branches.
+   * Adds the head of the current branch and the head of the remote branch linked to it, if this option is selected .
    * 
-   * @param filePath         An optional resource path. If not null, only the revisions that changed this resource are collected.
-   * @param revisions        Revisions are collected in here.
    * @param repository       Loaded repository.
-   * @param renameTracker    Track the renames for current file path.
-   * @param includeRemote    <code>true</code> if the remote branches should be also presented.
+   * @param tips             The branches are added here.
+   * @param includeRemote    <code>true</code> if the remote branch should be also presented.
    * 
    * @throws IOException 
-   * @throws GitAPIException
    */
-  private static void collectAllBranchRevisions(
-      String filePath, 
-      List<CommitCharacteristics> revisions, 
+  private static void addCurrentBranchTips(
       Repository repository,
-      RenameTracker renameTracker,
+      List<Ref> tips,
       boolean includeRemote) throws IOException {
 
-	  List<Ref> allRefs = GitAccess.getInstance().getLocalBranchList();
-	  if(includeRemote) {
-		  allRefs.addAll(GitAccess.getInstance().getRemoteBrachListForCurrentRepo());
-	  }
-	  
-	  try (PlotWalk plotWalk = new PlotWalk(repository)) {
-		  for (Ref ref : allRefs) {
-			  plotWalk.markStart(plotWalk.parseCommit(ref.getObjectId()));
-			}
-		  if(filePath != null && renameTracker != null) {
-			  renameTracker.reset(filePath);
-			  plotWalk.setRevFilter(renameTracker.getFilter());
-		  }
-		  collectRevisions(filePath, revisions, repository, plotWalk, renameTracker);
-	  }
+    // EXM-44307 Show current branch commits only.
+    String fullBranch = repository.getFullBranch();
+    Ref branchHead = repository.exactRef(fullBranch);
+    if (branchHead != null) {
+      tips.add(branchHead);
+
+      if(includeRemote) {
+        // If we have a remote, put it as well.
+        String fullRemoteBranchName = getUpstreamBranchName(repository, repository.getBranch());
+        if (fullRemoteBranchName != null) {
+          Ref fullRemoteBranchHead = repository.exactRef(fullRemoteBranchName);
+          if (fullRemoteBranchHead != null) {
+            tips.add(fullRemoteBranchHead);
+          }
+        }
+      }
+    } else {
+      // Probably a new repository without any history. 
+    }
   }
   
   
@@ -516,21 +575,19 @@ public class RevCommitUtil {
  
   
   /**
-   * Collects all the revisions by waking the revision iterator.
+   * Creates a loader that lays out the revisions by walking the revision iterator.
    * 
    * @param filePath An optional resource path. If not null, only the revisions that changed this resource are collected.
-   * @param commits Revisions/Commits are collected in here.
    * @param repository Loaded repository.
-   * @param plotWalk Revision iterator.
+   * @param plotWalk Revision iterator. It is closed by the returned loader.
+   * @param renameTracker Track the renames for current file path.
    * 
-   * @throws IOException
-   * @throws GitAPIException
+   * @return The loader.
    */
-  private static void collectRevisions(
+  private static PagedCommitsLoader createCommitsLoader(
 		  String filePath,
-		  List<CommitCharacteristics> commits,
 		  Repository repository,
-		  PlotWalk plotWalk, RenameTracker renameTracker) throws IOException {
+		  PlotWalk plotWalk, RenameTracker renameTracker) {
 
 	  if (filePath != null) {
 		  FollowFilter filter = FollowFilter.create(filePath, repository.getConfig().get(DiffConfig.KEY));
@@ -543,15 +600,8 @@ public class RevCommitUtil {
 	  boolean isDarkTheme = PluginWorkspaceProvider.getPluginWorkspace().getColorTheme().isDarkTheme();
 	  PlotCommitList<VisualLane> plotCommitList = new VisualCommitsList(GraphColorUtil.createColorDispatcher(isDarkTheme));
 	  plotCommitList.source(plotWalk);
-	  plotCommitList.fillTo(Integer.MAX_VALUE);
-
-	  Iterator<PlotCommit<VisualLane>> commitListIterator = plotCommitList.iterator();
-
-	  while (commitListIterator.hasNext()) {
-		  PlotCommit<VisualLane> commit = commitListIterator.next();
-		  commits.add(new CommitCharacteristics(commit));
-	  }
 
+	  return new PagedCommitsLoader(plotWalk, plotCommitList, repository);
   }
   
   
@@ -883,7 +933,7 @@ public class RevCommitUtil {
             .call();
 
         // Search for renames.
-        RenameDetector rd = new RenameDetector(repository);
+        RenameDetector rd = createRenameDetector(repository);
         rd.addAll(diffs);
         List<DiffEntry> collect = rd.compute();
 
@@ -902,7 +952,8 @@ public class RevCommitUtil {
   }
 
   /**
-   * Get commits ahead and behind.
+   * Get commits ahead and behind. The result is shared with the push and the toolbar,
+   * and computed again only when the branch or its upstream move.
    * 
    * @param repository Current repo.
    * @param branchName Current branch.
@@ -913,42 +964,11 @@ public class RevCommitUtil {
    */
   public static CommitsAheadAndBehind getCommitsAheadAndBehind(Repository repository, String branchName)
       throws IOException {
-
-    String shortBranchName = Repository.shortenRefName(branchName);
-    String fullBranchName = Constants.R_HEADS + shortBranchName;
-    BranchConfig branchConfig = new BranchConfig(repository.getConfig(), shortBranchName);
-
-    String trackingBranch = branchConfig.getTrackingBranch();
-    if (trackingBranch == null) {
-      return null;
-    }
-
-    Ref tracking = repository.exactRef(trackingBranch);
-    if (tracking == null) {
-      return null;
-    }
-
-    Ref local = repository.exactRef(fullBranchName);
-    if (local == null) {
+    AheadBehindCache.AheadBehind aheadBehind = AheadBehindCache.getInstance().getAheadBehind(repository, branchName);
+    if (aheadBehind == null) {
       return null;
     }
-
-    try (RevWalk walk = new RevWalk(repository)) {
-      RevCommit localCommit = walk.parseCommit(local.getObjectId());
-      RevCommit trackingCommit = walk.parseCommit(tracking.getObjectId());
-
-      walk.setRevFilter(RevFilter.MERGE_BASE);
-      walk.markStart(localCommit);
-      walk.markStart(trackingCommit);
-      RevCommit mergeBase = walk.next();
-
-      walk.reset();
-      walk.setRevFilter(RevFilter.ALL);
-      List<RevCommit> commitsAhead = RevWalkUtils.find(walk, localCommit, mergeBase);
-      List<RevCommit> commitsBehind = RevWalkUtils.find(walk, trackingCommit, mergeBase);
-
-      return new CommitsAheadAndBehind(commitsAhead, commitsBehind);
-    }
+    return new CommitsAheadAndBehind(aheadBehind.getCommitsAhead(), aheadBehind.getCommitsBehind());
   }
 
 
@@ -965,20 +985,7 @@ public class RevCommitUtil {
    * @throws GitAPIException 
    */
   public static ObjectId getBaseCommit(Git git, String filePath) throws IOException, GitAPIException {
-    ObjectId toReturn = null;
-    if(git != null) {
-      List<DiffEntry> entries = git.diff().setPathFilter(PathFilter.create(filePath)).call();
-      if (!entries.isEmpty()) {
-        toReturn = entries.get(0).getOldId().toObjectId();
-      } else { 
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("No BASE commit for: '{}'", filePath);
-        }
-        toReturn = getLastLocalCommitForPath(git, filePath);
-      }
-    }
-  
-    return toReturn;
+    return FileVersionCache.getInstance().getIndexVersion(git, Commit.BASE, filePath);
   }
 
   /**
@@ -994,25 +1001,7 @@ public class RevCommitUtil {
    * @throws GitAPIException 
    */
   public static ObjectId getTheirCommit(Git git, String filePath) throws IOException, GitAPIException {
-    ObjectId toReturn = null;
-    if(git != null) {
-      List<DiffEntry> entries = git.diff().setPathFilter(PathFilter.create(filePath)).call();
-      int noOfDiffEntries = entries.size();
-      boolean isTwoWayDiff = noOfDiffEntries < THREE_DIFF_ENTRIES;
-      int indexOfTheirs = isTwoWayDiff ? 1 : 2;
-      if (indexOfTheirs < noOfDiffEntries) {
-        toReturn =  entries.get(indexOfTheirs).getOldId().toObjectId();
-      } else {
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("No THEIRS commit available for: '{}'."
-              + " Falling back to the last commit for this path.",
-              filePath);
-        }
-        toReturn = getLastLocalCommitForPath(git, filePath);
-      }
-    }
-   
-    return toReturn;
+    return FileVersionCache.getInstance().getIndexVersion(git, Commit.THEIRS, filePath);
   }
 
   /**
@@ -1028,25 +1017,7 @@ public class RevCommitUtil {
    * @throws GitAPIException 
    */
   public static ObjectId getMyCommit(Git git, String path) throws IOException, GitAPIException {
-    ObjectId toReturn = null;
-    if(git != null) {
-      List<DiffEntry> entries = git.diff().setPathFilter(PathFilter.create(path)).call();
-      int noOfDiffEntries = entries.size();
-      boolean isTwoWayDiff = noOfDiffEntries < THREE_DIFF_ENTRIES;
-      int indexOfMine = isTwoWayDiff ? 0 : 1;
-      if (indexOfMine < noOfDiffEntries) {
-        toReturn =  entries.get(indexOfMine).getOldId().toObjectId();
-      } else {
-        if (LOGGER.isDebugEnabled()) {
-          LOGGER.debug("No MINE commit available for: '{}'. "
-              + "Falling back to the last commit for this path.",
-            path);
-        }
-        toReturn = getLastLocalCommitForPath(git, path);
-      }
-    }
-   
-    return toReturn;
+    return FileVersionCache.getInstance().getIndexVersion(git, Commit.MINE, path);
   }
 
   /**
@@ -1060,26 +1031,91 @@ public class RevCommitUtil {
    * @throws IOException
    */
   public static ObjectId getLastLocalCommitForPath(Git git, String path) throws IOException {
-    ObjectId toReturn = null;
+    return FileVersionCache.getInstance().getLastCommitVersion(git, path);
+  }
 
-    if(git != null) {
-      ObjectId lastLocalCommit = getLastLocalCommitInRepo(git);
-      RevWalk revWalk = new RevWalk(git.getRepository());
-      RevCommit revCommit = revWalk.parseCommit(lastLocalCommit);
-      RevTree tree = revCommit.getTree();
-      TreeWalk treeWalk = new TreeWalk(git.getRepository());
-      treeWalk.addTree(tree);
-      treeWalk.setRecursive(true);
-      treeWalk.setFilter(PathFilter.create(path));
-      if (treeWalk.next()) {
-        toReturn = treeWalk.getObjectId(0);
-      }
-      treeWalk.close();
-      revWalk.close();
+  /**
+   * Get the ID of a file from the tree of a commit.
+   * 
+   * @param repository The repository.
+   * @param commitId   The commit.
+   * @param path       The file path.
+   * 
+   * @return the file ID or <code>null</code> if the commit does not contain the file.
+   * 
+   * @throws IOException
+   */
+  static ObjectId getObjectIdInCommit(Repository repository, ObjectId commitId, String path) throws IOException {
+    ObjectId toReturn = null;
+    RevWalk revWalk = new RevWalk(repository);
+    RevCommit revCommit = revWalk.parseCommit(commitId);
+    RevTree tree = revCommit.getTree();
+    TreeWalk treeWalk = new TreeWalk(repository);
+    treeWalk.addTree(tree);
+    treeWalk.setRecursive(true);
+    treeWalk.setFilter(PathFilter.create(path));
+    if (treeWalk.next()) {
+      toReturn = treeWalk.getObjectId(0);
     }
-   
+    treeWalk.close();
+    revWalk.close();
+    
     return toReturn;
   }
+
+  /**
+   * Get the IDs from the index entries of a file that differ from the file in the working tree.
+   * A file in conflict has an entry for each of its versions: BASE, MINE and THEIRS,
+   * or only MINE and THEIRS when the versions have no common base.
+   * 
+   * @param git   Git access.
+   * @param index The index. It is not modified.
+   * @param path  The file path.
+   * 
+   * @return the IDs, in the order of the index entries.
+   * 
+   * @throws GitAPIException
+   */
+  static List<ObjectId> getIndexIdsDifferentFromWorkingTree(Git git, DirCache index, String path) throws GitAPIException {
+    List<DiffEntry> entries = git.diff()
+        .setOldTree(new DirCacheIterator(index))
+        .setPathFilter(PathFilter.create(path))
+        .call();
+    List<ObjectId> ids = new ArrayList<>(entries.size());
+    for (DiffEntry entry : entries) {
+      ids.add(entry.getOldId().toObjectId());
+    }
+    return ids;
+  }
+
+  /**
+   * Picks a version of a file from the IDs of its index entries that differ from the working tree.
+   * 
+   * @param indexIds The IDs, as returned by {@link #getIndexIdsDifferentFromWorkingTree(Git, DirCache, String)}.
+   * @param version  {@link Commit#MINE}, {@link Commit#THEIRS} or {@link Commit#BASE}.
+   * 
+   * @return the ID of the version or <code>null</code> if there is no such entry.
+   */
+  static ObjectId getIndexVersion(List<ObjectId> indexIds, Commit version) {
+    int noOfDiffEntries = indexIds.size();
+    boolean isTwoWayDiff = noOfDiffEntries < THREE_DIFF_ENTRIES;
+    int indexOfVersion;
+    switch (version) {
+      case BASE:
+        indexOfVersion = 0;
+        break;
+      case MINE:
+        indexOfVersion = isTwoWayDiff ? 0 : 1;
+        break;
+      case THEIRS:
+        indexOfVersion = isTwoWayDiff ? 1 : 2;
+        break;
+      default:
+        indexOfVersion = noOfDiffEntries;
+        break;
+    }
+    return indexOfVersion < noOfDiffEntries ? indexIds.get(indexOfVersion) : null;
+  }
     
   /**
    * Find in the log the last local commit for a file.
@@ -1263,7 +1299,9 @@ public class RevCommitUtil {
     final List<FileStatus> filesToReturn = new ArrayList<>();
 
     if (parents.length > 0) {
-      walk.reset(trees(commit, parents));
+      // A merge commit is presented by its changes over the first parent, the one from which the previous
+      // versions of the files are taken. A single walk over the two trees skips the unchanged subtrees.
+      walk.reset(parents[0].getTree(), commit.getTree());
     } else {
       walk.reset();
       walk.addTree(new EmptyTreeIterator());
@@ -1272,49 +1310,64 @@ public class RevCommitUtil {
 
     final String commitName     = commit.getName();
     final String oldCommitName  = oldCommit !=null ? oldCommit.getName() : null;
-    if (walk.getTreeCount() <= 2) {
-      List<DiffEntry> entries = DiffEntry.scan(walk, false, markTreeFilters);
-      List<DiffEntry> xentries = new LinkedList<>(entries);
-      RenameDetector detector = new RenameDetector(repository);
-      detector.addAll(entries);
-      List<DiffEntry> renames = detector.compute(walk.getObjectReader(),NullProgressMonitor.INSTANCE);
-
-      for (DiffEntry fileDiff : renames) { 
-        final FileStatus currentFileStatus = new FileStatusOverDiffEntry
-            (fileDiff, commitName, oldCommitName);
-        filesToReturn.add(currentFileStatus);
-        cleanDiffEntries(fileDiff, xentries);
-      }
-
-      addFiles(filesToReturn, xentries, commitName, oldCommitName);
+    List<DiffEntry> entries = DiffEntry.scan(walk, false, markTreeFilters);
+    RenameDetector detector = createRenameDetector(repository);
+    detector.addAll(entries);
+    List<DiffEntry> renames = detector.compute(walk.getObjectReader(),NullProgressMonitor.INSTANCE);
+
+    Set<String> oldPaths = new HashSet<>();
+    Set<String> newPaths = new HashSet<>();
+    for (DiffEntry fileDiff : renames) { 
+      final FileStatus currentFileStatus = new FileStatusOverDiffEntry
+          (fileDiff, commitName, oldCommitName);
+      filesToReturn.add(currentFileStatus);
+      oldPaths.add(fileDiff.getOldPath());
+      newPaths.add(fileDiff.getNewPath());
+    }
 
-    } else { 
-      // This case is for merge commits, this file extraction method is a bit slower than before. 
-      // It should be seen in the future if a faster way can be found to generate affected files in merge commits.
-      try {
-        filesToReturn.addAll(getChanges(repository, commit, oldCommit));
-      } catch (IOException | GitAPIException e) {
-        LOGGER.error(e.getMessage(), e);
-      }
-    }    
+    addFiles(filesToReturn, cleanDiffEntries(entries, oldPaths, newPaths), commitName, oldCommitName);
 
     return filesToReturn;
   }
   
   /**
-   * Clean diff entries from xentries list raported to file diff. If the list has an element with the same old and new path, this element will be removed from list.
+   * Collects the diff entries not already reported. An entry is reported if its old path 
+   * or its new path was already reported.
    * 
-   * @param fileDiff The diff entry to delete from xentries.
    * @param xentries The list with diff entry.
+   * @param oldPaths The reported old paths.
+   * @param newPaths The reported new paths.
+   * 
+   * @return The entries not reported yet.
    */
-  private static void cleanDiffEntries(DiffEntry fileDiff, List<DiffEntry> xentries) {
-    for (Iterator<DiffEntry> xentriesIterator = xentries.iterator(); xentriesIterator.hasNext();) {
-      DiffEntry n = xentriesIterator.next();
-      if (fileDiff.getOldPath().equals(n.getOldPath()) || 
-          fileDiff.getNewPath().equals(n.getNewPath())) {
-        xentriesIterator.remove();
+  private static List<DiffEntry> cleanDiffEntries(List<DiffEntry> xentries, Set<String> oldPaths, Set<String> newPaths) {
+    List<DiffEntry> notReported = new ArrayList<>();
+    for (DiffEntry n : xentries) {
+      if (!oldPaths.contains(n.getOldPath()) && !newPaths.contains(n.getNewPath())) {
+        notReported.add(n);
       }
     }
+    return notReported;
+  }
+  
+  /**
+   * Creates a rename detector. The renamed files with the same content are always detected. 
+   * The renames by content similarity are searched only if the number of added or deleted files is 
+   * under a limit: the "diff.renameLimit" from the repository configuration, if set, 
+   * otherwise the one from the options.
+   * 
+   * @param repository The repository.
+   * 
+   * @return The rename detector.
+   */
+  static RenameDetector createRenameDetector(Repository repository) {
+    RenameDetector detector = new RenameDetector(repository);
+    String configuredLimit = repository.getConfig().getString(
+        ConfigConstants.CONFIG_DIFF_SECTION, null, ConfigConstants.CONFIG_KEY_RENAMELIMIT);
+    if (configuredLimit == null) {
+      detector.setRenameLimit(OptionsManager.getInstance().getRenameDetectionLimit());
+    }
+    return detector;
   }
 
 
@@ -1333,45 +1386,6 @@ public class RevCommitUtil {
     }
   }
 
-  /**
-   * Gets all the files changed between two revisions.
-   * 
-   * @param repository Repository.
-   * @param newCommit The new commit.
-   * @param oldCommit The previous commit. Maybe <code>null<code>.
-   * 
-   * @return A list with changed files. Never <code>null</code>.
-   * @throws IOException
-   * @throws GitAPIException
-   */
-  private static List<FileStatus> getChanges(Repository repository, RevCommit newCommit, RevCommit oldCommit) throws IOException, GitAPIException {
-    List<DiffEntry> diffs = diff(repository, newCommit, oldCommit);
-
-    return diffs
-        .stream()
-        .map(t -> new FileStatusOverDiffEntry(t, newCommit.getId().name(), oldCommit != null ? oldCommit.getId().name() : null))
-        .collect(Collectors.toList());
-  }
-  
-  /**
-   * Compute and return the objects id of current commit trees.
-   *   
-   * @param commit   Current commit.
-   * @param parents  Parents for this commit.
-   * 
-   * @return The trees objects id.
-   */
-  private static ObjectId[] trees(final RevCommit commit, final RevCommit[] parents) {
-    final ObjectId[] toReturn = new ObjectId[parents.length + 1];
-
-    for (int i = 0; i < toReturn.length - 1; i++) {
-      toReturn[i] = parents[i].getTree().getId();
-    }
-    toReturn[toReturn.length - 1] = commit.getTree().getId();
-
-    return toReturn;
-  }
-  
   /**
    * Computer files statues for specified tree walk and commit.
    *
@@ -1,23 +1,43 @@
 package com.oxygenxml.git.service;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.errors.NoWorkTreeException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
+import com.oxygenxml.git.utils.FileUtil;
 import com.oxygenxml.git.utils.RepoUtil;
 import com.oxygenxml.git.view.event.GitEventInfo;
 import com.oxygenxml.git.view.event.GitOperation;
 
 import ro.sync.exml.workspace.api.PluginWorkspace;
+import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
 import ro.sync.exml.workspace.api.editor.WSEditor;
 import ro.sync.exml.workspace.api.listeners.WSEditorChangeListener;
 import ro.sync.exml.workspace.api.listeners.WSEditorListener;
 
 /**
  * A cache intended to avoid reading the file system too often.
+ * <br><br>
+ * While the working tree is watched, the files changed on disk are detected and the status 
+ * is recomputed only for them.
+ * 
  * @author alex_jitianu
  */
 public class StatusCache {
@@ -25,6 +45,10 @@ public class StatusCache {
    * Logger for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(StatusCache.class);
+  /**
+   * Over this number of changed paths, the status is computed for the entire working tree.
+   */
+  private static final int MAX_PATHS_FOR_INCREMENTAL_STATUS = 500;
   /**
    * Inner cache.
    */
@@ -33,6 +57,20 @@ public class StatusCache {
    * A supplier of a newly computed status.
    */
   private Supplier<Git> statusComputer;
+  /**
+   * Detects the files changed in the working tree. <code>null</code> if the working tree is not watched.
+   */
+  private WorkingTreeWatcher watcher;
+  /**
+   * Identifies the index and HEAD for which the cached status was computed. 
+   * They might be changed by external tools.
+   */
+  private String repositoryStamp;
+  /**
+   * Paths known to be changed since the status was computed, like the saved files. 
+   * Their status is recomputed on the next request.
+   */
+  private final Set<String> changedPaths = new HashSet<>();
   
   /**
    * Constructor.
@@ -51,6 +89,9 @@ public class StatusCache {
             info.getGitOperation() != GitOperation.DELETE_BRANCH) {
           resetCache();
         }
+        if (info.getGitOperation() == GitOperation.OPEN_WORKING_COPY) {
+          startWatching();
+        }
       }
     });
   }
@@ -59,11 +100,202 @@ public class StatusCache {
    * @return A status of the currently loaded Git repository.
    */
   public synchronized GitStatus getStatus() {
+    if (cache != null && (watcher != null || !changedPaths.isEmpty())) {
+      updateChangedPaths();
+    }
+    
     if (cache == null) {
+      changedPaths.clear();
+      if (watcher != null) {
+        // The changes detected so far are included in the new status.
+        watcher.pollChanges();
+        repositoryStamp = computeRepositoryStamp();
+      }
       cache = new GitStatusCommand(statusComputer).getStatus();
     }
     return cache;
   }
+  
+  /**
+   * Recomputes the status for the paths changed since the last time. 
+   * The cache is reset if the changes cannot be tracked.
+   */
+  private void updateChangedPaths() {
+    boolean changesTracked = true;
+    if (watcher != null) {
+      Set<String> detectedPaths = watcher.pollChanges();
+      if (detectedPaths != null) {
+        changedPaths.addAll(detectedPaths);
+      }
+      // The index might have been changed by another tool.
+      changesTracked = detectedPaths != null && Objects.equals(repositoryStamp, computeRepositoryStamp());
+    }
+    
+    if (!changesTracked
+        || changedPaths.size() > MAX_PATHS_FOR_INCREMENTAL_STATUS
+        // An ignore rule changed.
+        || changedPaths.stream().anyMatch(path -> path.endsWith(Constants.DOT_GIT_IGNORE))) {
+      cache = null;
+    } else if (!changedPaths.isEmpty()) {
+      addContainingSubmodules(changedPaths);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Update the status for: {}", changedPaths);
+      }
+      GitStatus changes = new GitStatusCommand(statusComputer).getStatus(changedPaths);
+      List<FileStatus> unstaged = merge(cache.getUnstagedFiles(), changes.getUnstagedFiles(), changedPaths);
+      List<FileStatus> staged = merge(cache.getStagedFiles(), changes.getStagedFiles(), changedPaths);
+      if (!unstaged.equals(cache.getUnstagedFiles()) || !staged.equals(cache.getStagedFiles())) {
+        boolean hasUncommittedChanges = !staged.isEmpty() 
+            || unstaged.stream().anyMatch(file -> file.getChangeType() != GitChangeType.UNTRACKED);
+        cache = new GitStatus(unstaged, staged, hasUncommittedChanges);
+      }
+    }
+    changedPaths.clear();
+  }
+  
+  /**
+   * Marks a file as changed. Only its status will be recomputed on the next request.
+   * 
+   * @param path The file path, relative to the working copy.
+   */
+  public synchronized void invalidatePath(String path) {
+    if (cache != null) {
+      changedPaths.add(path);
+    }
+  }
+  
+  /**
+   * Replaces the status of the changed paths.
+   * 
+   * @param previous     The previous status of the files.
+   * @param recomputed   The status recomputed for the changed paths.
+   * @param changedPaths The changed paths.
+   * 
+   * @return The updated status of the files. The files whose status didn't change keep their position.
+   */
+  private static List<FileStatus> merge(List<FileStatus> previous, List<FileStatus> recomputed, Set<String> changedPaths) {
+    List<FileStatus> toAdd = new ArrayList<>();
+    for (FileStatus file : recomputed) {
+      if (isAffected(file.getFileLocation(), changedPaths)) {
+        toAdd.add(file);
+      }
+    }
+    
+    List<FileStatus> merged = new ArrayList<>(previous.size() + toAdd.size());
+    for (FileStatus file : previous) {
+      if (!isAffected(file.getFileLocation(), changedPaths)) {
+        merged.add(file);
+      } else {
+        int index = toAdd.indexOf(file);
+        if (index >= 0) {
+          merged.add(toAdd.remove(index));
+        }
+      }
+    }
+    merged.addAll(toAdd);
+    return merged;
+  }
+  
+  /**
+   * Adds the submodules that contain changed paths. The status of a submodule is 
+   * recomputed only if its own path is among the changed ones.
+   * 
+   * @param changedPaths The changed files and directories. Receives the submodules.
+   */
+  private void addContainingSubmodules(Set<String> changedPaths) {
+    Git git = statusComputer.get();
+    if (git != null) {
+      try {
+        File workTree = git.getRepository().getWorkTree();
+        Set<String> checkedDirs = new HashSet<>();
+        Set<String> submodules = new HashSet<>();
+        for (String path : changedPaths) {
+          int index = path.lastIndexOf('/');
+          while (index > 0) {
+            String dir = path.substring(0, index);
+            if (checkedDirs.add(dir) && new File(new File(workTree, dir), Constants.DOT_GIT).exists()) {
+              // A submodule has its own ".git" file or directory.
+              submodules.add(dir);
+            }
+            index = path.lastIndexOf('/', index - 1);
+          }
+        }
+        changedPaths.addAll(submodules);
+      } catch (NoWorkTreeException e) {
+        LOGGER.debug(e.getMessage(), e);
+      }
+    }
+  }
+  
+  /**
+   * @param path         A file path.
+   * @param changedPaths The changed files and directories.
+   * 
+   * @return <code>true</code> if the file or one of its parent directories changed.
+   */
+  private static boolean isAffected(String path, Set<String> changedPaths) {
+    boolean affected = changedPaths.contains(path);
+    int index = path.lastIndexOf('/');
+    while (!affected && index > 0) {
+      affected = changedPaths.contains(path.substring(0, index));
+      index = path.lastIndexOf('/', index - 1);
+    }
+    return affected;
+  }
+  
+  /**
+   * @return Identifies the state of the index and HEAD, or <code>null</code> if they cannot be read.
+   */
+  private String computeRepositoryStamp() {
+    String stamp = null;
+    Git git = statusComputer.get();
+    if (git != null) {
+      Repository repository = git.getRepository();
+      try {
+        File index = repository.getIndexFile();
+        ObjectId head = repository.resolve(Constants.HEAD);
+        stamp = index.lastModified() + ":" + index.length() + ":" + repository.getFullBranch() + ":" + head;
+      } catch (IOException | NoWorkTreeException e) {
+        LOGGER.debug(e.getMessage(), e);
+      }
+    }
+    return stamp;
+  }
+  
+  /**
+   * Starts watching the working tree of the current repository. 
+   * The working tree previously watched, if any, is no longer watched.
+   */
+  public synchronized void startWatching() {
+    stopWatching();
+    Git git = statusComputer.get();
+    if (git != null) {
+      try {
+        watcher = WorkingTreeWatcher.watch(git.getRepository());
+      } catch (NoWorkTreeException e) {
+        LOGGER.debug(e.getMessage(), e);
+      }
+    }
+  }
+  
+  /**
+   * Stops watching the working tree.
+   */
+  public synchronized void stopWatching() {
+    if (watcher != null) {
+      watcher.close();
+      watcher = null;
+    }
+  }
+  
+  /**
+   * Reset the inner cache, unless the changes done in the working tree are detected as they happen.
+   */
+  public synchronized void resetCacheIfNotWatching() {
+    if (watcher == null || !watcher.isNative()) {
+      resetCache();
+    }
+  }
 
   /**
    * Reset inner cache.
@@ -103,11 +335,39 @@ public class StatusCache {
       editorAccess.addEditorListener(new WSEditorListener() {
         @Override
         public void editorSaved(int operationType) {
-          if (RepoUtil.isFileFromRepository(editorAccess.getEditorLocation())) {
-            resetCache();
+          URL editorLocation = editorAccess.getEditorLocation();
+          if (RepoUtil.isFileFromRepository(editorLocation)) {
+            String path = getPathInWorkingCopy(editorLocation);
+            if (path != null) {
+              invalidatePath(path);
+            } else {
+              resetCache();
+            }
           }
         }
       });
     }
   }
+
+  /**
+   * @param editorLocation The location of a file from the working copy.
+   * 
+   * @return The path of the file, relative to the working copy, or <code>null</code> if it cannot be determined.
+   */
+  private static String getPathInWorkingCopy(URL editorLocation) {
+    String path = null;
+    File file = PluginWorkspaceProvider.getPluginWorkspace().getUtilAccess().locateFile(editorLocation);
+    if (file != null) {
+      try {
+        path = FileUtil.rewriteSeparator(
+            RepoUtil.getFilePathRelativeToRepo(file, GitAccess.getInstance().getWorkingCopy().getAbsolutePath()));
+        if (path.isEmpty() || path.startsWith("..")) {
+          path = null;
+        }
+      } catch (NoRepositorySelected e) {
+        LOGGER.debug(e.getMessage(), e);
+      }
+    }
+    return path;
+  }
 }
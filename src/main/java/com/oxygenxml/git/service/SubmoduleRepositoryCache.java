@@ -0,0 +1,84 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.submodule.SubmoduleWalk;
+
+/**
+ * Keeps the submodule repositories open between two status computations, so the
+ * repositories are not opened again, with their configuration and references, on every refresh.
+ * <br><br>
+ * Only the submodules of one main repository are kept. They are released when another main
+ * repository is used or when the main repository is closed. A released repository is closed
+ * only after the callers that still use it, like a pending submodule description, close it too.
+ */
+public class SubmoduleRepositoryCache {
+  /**
+   * Singleton instance.
+   */
+  private static final SubmoduleRepositoryCache INSTANCE = new SubmoduleRepositoryCache();
+
+  /**
+   * The directory of the main repository to which the cached submodules belong.
+   */
+  private File mainRepositoryDir;
+
+  /**
+   * The opened submodule repositories. The key is the submodule path.
+   */
+  private final Map<String, Repository> repositories = new HashMap<>();
+
+  /**
+   * @return The singleton instance.
+   */
+  public static SubmoduleRepositoryCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Gets an opened submodule repository. The caller must close the returned repository when it
+   * no longer uses it. This only releases the caller's use, the repository stays open in the cache.
+   *
+   * @param main          The main repository.
+   * @param submodulePath The submodule path.
+   *
+   * @return The submodule repository or <code>null</code> if the submodule is not initialized.
+   *
+   * @throws IOException When the submodule repository cannot be opened.
+   */
+  public synchronized Repository getRepository(Repository main, String submodulePath) throws IOException {
+    if (!main.getDirectory().equals(mainRepositoryDir)) {
+      clear();
+      mainRepositoryDir = main.getDirectory();
+    }
+
+    Repository repository = repositories.get(submodulePath);
+    if (repository == null) {
+      repository = SubmoduleWalk.getSubmoduleRepository(main, submodulePath);
+      if (repository != null) {
+        repositories.put(submodulePath, repository);
+      }
+    }
+    if (repository != null) {
+      // The use of the caller. The cache keeps its own.
+      repository.incrementOpen();
+    }
+    return repository;
+  }
+
+  /**
+   * Releases all the cached repositories. Each one is closed now, if not used, 
+   * or when its last user closes it.
+   */
+  public synchronized void clear() {
+    for (Repository repository : repositories.values()) {
+      repository.close();
+    }
+    repositories.clear();
+    mainRepositoryDir = null;
+  }
+}
@@ -0,0 +1,381 @@
+package com.oxygenxml.git.service;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheIterator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.submodule.SubmoduleWalk;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.oxygenxml.git.utils.FileUtil;
+import com.oxygenxml.git.utils.PlatformDetectionUtil;
+import com.sun.nio.file.ExtendedWatchEventModifier;
+
+/**
+ * Watches the files from a working tree, so that the status can be recomputed only for the changed paths.
+ * <br><br>
+ * The changes are collected when requested, through {@link #pollChanges()}, there is no dedicated thread.
+ * The Git directories and the ignored directories, like build outputs, are not watched, unless they contain tracked files.
+ * On Windows only the root of the working tree is watched, because the system reports the changes from the entire tree,
+ * and the changes from the ignored directories are dropped.
+ */
+public class WorkingTreeWatcher implements AutoCloseable {
+  /**
+   * Logger for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(WorkingTreeWatcher.class);
+
+  /**
+   * The repository.
+   */
+  private final Repository repository;
+
+  /**
+   * The working tree.
+   */
+  private final Path workTree;
+
+  /**
+   * Receives the file system events.
+   */
+  private final WatchService watchService;
+
+  /**
+   * <code>true</code> if the entire working tree is watched from its root.
+   */
+  private final boolean fileTree;
+
+  /**
+   * The watched directories.
+   */
+  private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+  /**
+   * When the entire working tree is watched, tells for the directories in which changes were detected
+   * whether they are ignored. The key is the path relative to the working tree.
+   */
+  private final Map<String, Boolean> ignoredDirectories = new HashMap<>();
+
+  /**
+   * <code>true</code> if some changes might have been lost since the last poll.
+   */
+  private boolean changesLost;
+
+  /**
+   * Constructor.
+   *
+   * @param repository   The repository.
+   * @param watchService Receives the file system events.
+   * @param fileTree     <code>true</code> to watch the entire working tree from its root.
+   */
+  private WorkingTreeWatcher(Repository repository, WatchService watchService, boolean fileTree) {
+    this.repository = repository;
+    this.workTree = repository.getWorkTree().toPath();
+    this.watchService = watchService;
+    this.fileTree = fileTree;
+  }
+
+  /**
+   * Starts watching the working tree of a repository.
+   *
+   * @param repository The repository.
+   *
+   * @return The watcher, or <code>null</code> if the working tree cannot be watched,
+   * for example when the limit of watched directories imposed by the system is reached.
+   */
+  public static WorkingTreeWatcher watch(Repository repository) {
+    WorkingTreeWatcher watcher = null;
+    try {
+      Path root = repository.getWorkTree().toPath();
+      watcher = new WorkingTreeWatcher(repository, root.getFileSystem().newWatchService(), PlatformDetectionUtil.isWin());
+      if (watcher.fileTree) {
+        WatchKey key = root.register(
+            watcher.watchService,
+            new WatchEvent.Kind<?>[] {ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY},
+            ExtendedWatchEventModifier.FILE_TREE);
+        watcher.watchedDirectories.put(key, root);
+      } else {
+        watcher.registerAll(repository, "");
+      }
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Watching {} directories from {}", watcher.watchedDirectories.size(), root);
+      }
+    } catch (IOException | UnsupportedOperationException e) {
+      LOGGER.debug(e.getMessage(), e);
+      if (watcher != null) {
+        watcher.close();
+        watcher = null;
+      }
+    }
+    return watcher;
+  }
+
+  /**
+   * Watches a directory of a working tree and all its sub-directories, except the Git ones and the ignored ones 
+   * without tracked files. The submodules are watched too, following their own ignore rules.
+   *
+   * @param repository The repository whose working tree contains the directory.
+   * @param directory  The directory, relative to the working tree of the repository. Empty for the working tree.
+   *
+   * @throws IOException When a directory cannot be watched.
+   */
+  private void registerAll(Repository repository, String directory) throws IOException {
+    Path root = repository.getWorkTree().toPath();
+    if (directory.isEmpty()) {
+      register(root);
+    }
+    // The walk below does not enter the nested repositories that contain the directory.
+    int separator = directory.indexOf('/');
+    while (separator != -1) {
+      String ancestor = directory.substring(0, separator);
+      if (Files.exists(root.resolve(ancestor).resolve(Constants.DOT_GIT), LinkOption.NOFOLLOW_LINKS)) {
+        try (Repository nested = SubmoduleWalk.getSubmoduleRepository(repository, ancestor)) {
+          if (nested != null) {
+            registerAll(nested, directory.substring(separator + 1));
+          }
+        }
+        return;
+      }
+      separator = directory.indexOf('/', separator + 1);
+    }
+    
+    try (TreeWalk walk = new TreeWalk(repository)) {
+      walk.addTree(new FileTreeIterator(repository));
+      walk.addTree(new DirCacheIterator(getIndex(repository)));
+      if (!directory.isEmpty()) {
+        walk.setFilter(PathFilter.create(directory));
+      }
+      while (walk.next()) {
+        WorkingTreeIterator workingTreeEntry = walk.getTree(0, WorkingTreeIterator.class);
+        if (workingTreeEntry == null) {
+          // Only in the index. Deleted from the working tree.
+          continue;
+        }
+        String path = walk.getPathString();
+        if (walk.getFileMode(0) == FileMode.GITLINK) {
+          // A submodule or a nested repository, with its own ignore rules.
+          try (Repository nested = SubmoduleWalk.getSubmoduleRepository(repository, path)) {
+            if (nested != null) {
+              registerAll(nested, "");
+            }
+          }
+        } else if (walk.isSubtree()) {
+          boolean isAncestor = directory.startsWith(path + "/");
+          if (isAncestor) {
+            // Already watched.
+            walk.enterSubtree();
+          } else if (!workingTreeEntry.isEntryIgnored() || walk.getTree(1, DirCacheIterator.class) != null) {
+            register(root.resolve(path));
+            walk.enterSubtree();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Watches a directory.
+   *
+   * @param directory The directory.
+   *
+   * @throws IOException When the directory cannot be watched.
+   */
+  private void register(Path directory) throws IOException {
+    WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+    watchedDirectories.put(key, directory);
+  }
+
+  /**
+   * @param repository The main repository or a nested one.
+   *
+   * @return The index of the repository. The one of the main repository is shared.
+   *
+   * @throws IOException When the index cannot be read.
+   */
+  private DirCache getIndex(Repository repository) throws IOException {
+    return repository == this.repository ? DirCacheSnapshot.getInstance().getIndex(repository) : repository.readDirCache();
+  }
+
+  /**
+   * @param path A path relative to the working tree.
+   *
+   * @return <code>true</code> if the path is inside a Git directory.
+   */
+  private static boolean isInGitDirectory(String path) {
+    return path.equals(Constants.DOT_GIT) 
+        || path.startsWith(Constants.DOT_GIT + "/") 
+        || path.endsWith("/" + Constants.DOT_GIT)
+        || path.contains("/" + Constants.DOT_GIT + "/");
+  }
+
+  /**
+   * Tells if a path is inside an ignored directory without tracked files. Used when the entire 
+   * working tree is watched. The ignored state of each directory is checked once.
+   *
+   * @param path A path relative to the working tree.
+   *
+   * @return <code>true</code> if one of the parent directories of the path is ignored.
+   */
+  private boolean isInIgnoredDirectory(String path) {
+    boolean ignored = false;
+    int separator = path.indexOf('/');
+    while (!ignored && separator != -1) {
+      String directory = path.substring(0, separator);
+      Boolean isIgnored = ignoredDirectories.get(directory);
+      if (isIgnored == null) {
+        isIgnored = isIgnoredDirectory(directory);
+        ignoredDirectories.put(directory, isIgnored);
+      }
+      ignored = isIgnored;
+      separator = path.indexOf('/', separator + 1);
+    }
+    return ignored;
+  }
+
+  /**
+   * @param directory A directory relative to the working tree, whose parent is not ignored.
+   *
+   * @return <code>true</code> if the directory is ignored and does not contain tracked files.
+   */
+  private boolean isIgnoredDirectory(String directory) {
+    boolean ignored = false;
+    try (TreeWalk walk = new TreeWalk(repository)) {
+      walk.addTree(new FileTreeIterator(repository));
+      walk.addTree(new DirCacheIterator(getIndex(repository)));
+      walk.setFilter(PathFilter.create(directory));
+      while (walk.next()) {
+        WorkingTreeIterator workingTreeEntry = walk.getTree(0, WorkingTreeIterator.class);
+        if (workingTreeEntry != null && walk.isSubtree()) {
+          if (directory.equals(walk.getPathString())) {
+            ignored = workingTreeEntry.isEntryIgnored() && walk.getTree(1, DirCacheIterator.class) == null;
+            break;
+          }
+          walk.enterSubtree();
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+    return ignored;
+  }
+
+  /**
+   * Collects the changes detected since the last call.
+   *
+   * @return The changed paths, relative to the working tree, or <code>null</code> if some changes
+   * were lost, for example when too many events were received, and the entire working tree must be checked.
+   */
+  public synchronized Set<String> pollChanges() {
+    Set<String> changedPaths = new HashSet<>();
+    WatchKey key = watchService.poll();
+    while (key != null) {
+      Path directory = watchedDirectories.get(key);
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == OVERFLOW) {
+          changesLost = true;
+        } else if (directory != null) {
+          handleEvent(directory.resolve((Path) event.context()), event.kind() == ENTRY_CREATE, changedPaths);
+        }
+      }
+
+      if (!key.reset()) {
+        // The directory is no longer accessible.
+        watchedDirectories.remove(key);
+      }
+      key = watchService.poll();
+    }
+
+    Set<String> toReturn = changedPaths;
+    if (changesLost) {
+      changesLost = false;
+      toReturn = null;
+    }
+    return toReturn;
+  }
+
+  /**
+   * Records a changed path.
+   *
+   * @param path         The changed path.
+   * @param created      <code>true</code> if the path was created.
+   * @param changedPaths Receives the changed paths, relative to the working tree.
+   */
+  private void handleEvent(Path path, boolean created, Set<String> changedPaths) {
+    String relativePath = FileUtil.rewriteSeparator(workTree.relativize(path).toString());
+    if (!isInGitDirectory(relativePath) && !(fileTree && isInIgnoredDirectory(relativePath))) {
+      changedPaths.add(relativePath);
+      if (Constants.GITIGNORE_FILENAME.equals(path.getFileName().toString())) {
+        // The ignored files changed.
+        changesLost = true;
+        ignoredDirectories.clear();
+        if (!fileTree) {
+          int separator = relativePath.lastIndexOf('/');
+          watchNotIgnored(separator != -1 ? relativePath.substring(0, separator) : "");
+        }
+      } else if (created && !fileTree && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+        watchNotIgnored(relativePath);
+      }
+    }
+  }
+
+  /**
+   * Watches a directory of the working tree and its sub-directories that are not ignored.
+   * The ones that are already watched stay watched.
+   *
+   * @param directory The directory, relative to the working tree. Empty for the working tree.
+   */
+  private void watchNotIgnored(String directory) {
+    try {
+      registerAll(repository, directory);
+    } catch (IOException e) {
+      LOGGER.debug(e.getMessage(), e);
+      // The changes inside this directory will not be detected.
+      changesLost = true;
+    }
+  }
+
+  /**
+   * Some implementations poll the file system periodically, so the changes are detected with a delay.
+   *
+   * @return <code>true</code> if the changes are reported by the operating system, as soon as they happen.
+   */
+  public boolean isNative() {
+    return !watchService.getClass().getSimpleName().startsWith("Polling");
+  }
+
+  /**
+   * Stops watching.
+   */
+  @Override
+  public synchronized void close() {
+    watchedDirectories.clear();
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+  }
+}
@@ -2114,5 +2114,16 @@ public class Tags {
    * Error shown if the transform fails.
    */
   public static final String POSITRON_NOT_CONFIGURED = "Positron_Not_Configured";
+  
+  /**
+   * English: Rename detection limit (files):
+   */
+  public static final String RENAME_DETECTION_LIMIT = "Rename_Detection_Limit";
+  
+  /**
+   * English: Over this number of added or deleted files, only the renamed files with unchanged content are detected. 
+   * The "diff.renameLimit" repository setting takes precedence.
+   */
+  public static final String RENAME_DETECTION_LIMIT_TOOLTIP = "Rename_Detection_Limit_Tooltip";
 }
 
@@ -376,11 +376,33 @@ public static boolean isRepoRebasing(RepositoryState repoState) {
    * @return A description about the submodule currently tracked commit and the previously tracked commit.
    */
   public static String extractSubmoduleChangeDescription(Repository main, SubmoduleStatus submoduleStatus) {
+    String description = "";
+    try (Repository submoduleRepository = SubmoduleWalk.getSubmoduleRepository(main, submoduleStatus.getPath())) {
+      description = extractSubmoduleChangeDescription(main, submoduleRepository, submoduleStatus);
+    } catch (IOException e) {
+      LOGGER.error(e.getMessage(), e);
+    }
+    return description;
+  }
+  
+  /**
+   * Extracts a description about the submodule currently tracked commit and the previously tracked commit.
+   * 
+   * @param main The main repository.
+   * @param submoduleRepository The already opened submodule repository. It is not closed.
+   * @param submoduleStatus Submodule status.
+   * 
+   * @return A description about the submodule currently tracked commit and the previously tracked commit.
+   */
+  public static String extractSubmoduleChangeDescription(
+      Repository main,
+      Repository submoduleRepository,
+      SubmoduleStatus submoduleStatus) {
     StringBuilder b = new StringBuilder();
     String url = main.getConfig().getString(ConfigConstants.CONFIG_SUBMODULE_SECTION, submoduleStatus.getPath(), "url");
     b.append(Translator.getInstance().getTranslation(Tags.SUBMODULE)).append(": ").append(url).append("\n");
     b.append("\n");
-    try (Repository submoduleRepository = SubmoduleWalk.getSubmoduleRepository(main, submoduleStatus.getPath())) {
+    try {
       b.append(Translator.getInstance().getTranslation(Tags.SUBMODULE_NEW_TRACKED_COMMIT)).append("\n");
       b.append(Translator.getInstance().getTranslation(Tags.COMMIT))
         .append(": ")
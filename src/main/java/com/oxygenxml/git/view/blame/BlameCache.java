@@ -0,0 +1,154 @@
+package com.oxygenxml.git.view.blame;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Keeps the latest computed blames, so presenting the blame again for an unchanged file
+ * doesn't walk the history again. The least recently used blames are evicted first.
+ */
+public class BlameCache {
+  /**
+   * The maximum number of blames kept.
+   */
+  static final int MAX_ENTRIES = 20;
+
+  /**
+   * Identifies a blame: the file, its content and the HEAD commit.
+   */
+  public static final class Key {
+    /**
+     * The repository directory.
+     */
+    private final File repositoryDir;
+    /**
+     * The file path, relative to the working copy.
+     */
+    private final String filePath;
+    /**
+     * The id of the blob with the content of the file from the working copy.
+     */
+    private final ObjectId contentId;
+    /**
+     * The HEAD commit. <code>null</code> if there is no commit yet.
+     */
+    private final ObjectId headId;
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryDir The repository directory.
+     * @param filePath      The file path, relative to the working copy.
+     * @param contentId     The id of the blob with the content of the file.
+     * @param headId        The HEAD commit.
+     */
+    Key(File repositoryDir, String filePath, ObjectId contentId, ObjectId headId) {
+      this.repositoryDir = repositoryDir;
+      this.filePath = filePath;
+      this.contentId = contentId;
+      this.headId = headId;
+    }
+
+    /**
+     * Identifies the blame for the current content of the file.
+     *
+     * @param repository The repository.
+     * @param filePath   The file path, relative to the working copy.
+     *
+     * @return The key, or <code>null</code> if the file is not in the working copy.
+     *
+     * @throws IOException When the file or HEAD cannot be read.
+     */
+    public static Key create(Repository repository, String filePath) throws IOException {
+      Key key = null;
+      File file = new File(repository.getWorkTree(), filePath); // NOSONAR findsecbugs:PATH_TRAVERSAL_IN
+      if (file.isFile()) {
+        ObjectId contentId;
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+          contentId = new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB, file.length(), in);
+        }
+        key = new Key(repository.getDirectory(), filePath, contentId, repository.resolve(Constants.HEAD));
+      }
+      return key;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(repositoryDir, filePath, contentId, headId);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      boolean equals = false;
+      if (this == obj) {
+        equals = true;
+      } else if (obj instanceof Key) {
+        Key other = (Key) obj;
+        equals = Objects.equals(repositoryDir, other.repositoryDir)
+            && Objects.equals(filePath, other.filePath)
+            && Objects.equals(contentId, other.contentId)
+            && Objects.equals(headId, other.headId);
+      }
+      return equals;
+    }
+  }
+
+  /**
+   * Singleton instance.
+   */
+  private static final BlameCache INSTANCE = new BlameCache();
+
+  /**
+   * The blames, in the access order.
+   */
+  private final Map<Key, List<BlameRange>> blames = new LinkedHashMap<Key, List<BlameRange>>(MAX_ENTRIES, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, List<BlameRange>> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+
+  /**
+   * @return The singleton instance.
+   */
+  public static BlameCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @param key Identifies the blame.
+   *
+   * @return The cached blame, or <code>null</code> if it is not cached.
+   */
+  public synchronized List<BlameRange> get(Key key) {
+    return blames.get(key);
+  }
+
+  /**
+   * Caches a blame.
+   *
+   * @param key    Identifies the blame.
+   * @param ranges The blame.
+   */
+  public synchronized void put(Key key, List<BlameRange> ranges) {
+    blames.put(key, ranges);
+  }
+
+  /**
+   * Removes all the cached blames.
+   */
+  public synchronized void clear() {
+    blames.clear();
+  }
+}
@@ -49,6 +49,7 @@ public class BlameManager {
     @Override
     public void operationSuccessfullyEnded(GitEventInfo info) {
       if (info.getGitOperation() == GitOperation.OPEN_WORKING_COPY) {
+        BlameCache.getInstance().clear();
         // Dispose all blames from the previous repository.
         Iterator<String> iterator = activeBlames.keySet().iterator();
         while (iterator.hasNext()) {
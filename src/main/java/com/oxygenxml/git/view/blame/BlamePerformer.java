@@ -3,13 +3,16 @@ package com.oxygenxml.git.view.blame;
 import java.awt.Color;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
+import java.io.IOException;
 import java.security.SecureRandom;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.JTextArea;
 import javax.swing.SwingUtilities;
@@ -26,6 +29,7 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.Equaler;
@@ -45,6 +49,10 @@ public class BlamePerformer {
    * Alpha for the color of the highlight painter.
    */
   private static final float HIGHLIGHT_PAINTER_COLOR_ALPHA = (float) 0.4;
+  /**
+   * The number of highlights added at once.
+   */
+  private static final int HIGHLIGHTS_CHUNK_SIZE = 200;
   /**
    * Caret listener delay.
    */
@@ -78,7 +86,7 @@ public class BlamePerformer {
   /**
    * Line to Revision mapping.
    */
-  private  Map<Integer, RevCommit> lineIndicesToRevCommits = new HashMap<>();
+  private  Map<Integer, RevCommit> lineIndicesToRevCommits = new ConcurrentHashMap<>();
   /**
    * The bind text page.
    */
@@ -95,9 +103,14 @@ public class BlamePerformer {
    * Random number generator.
    */
   private Random rand = new SecureRandom();
+  /**
+   * <code>true</code> after the blame was disposed. The pending highlights are no longer added.
+   */
+  private volatile boolean disposed;
   
   /**
-   * Computes the blame for the given resource and adds highlights on the editor.
+   * Computes the blame for the given resource and adds highlights on the editor. 
+   * The blame is computed in the background.
    * 
    * @param repository The repository that contains the file.
    * @param filePath File for which to compute the path.
@@ -122,59 +135,119 @@ public class BlamePerformer {
   }
 
   /**
-   * Computes the blame for the given resource and adds highlights on the editor.
+   * Computes the blame for the given resource on the Git thread and then adds highlights on the editor.
    * 
    * @param repository The repository that contains the file.
    * @param filePath File for which to compute the path.
    * @param historyController Interface to history support.
    * @param currentPage Editor that presents the file.
-   * 
-   * @throws GitAPIException if it fails.
    */
   private void doBlame(
       Repository repository,
       String filePath, 
       HistoryController historyController, 
-      WSTextEditorPage currentPage) throws GitAPIException {
-    BlameCommand blamer = new BlameCommand(repository);
-    
-    // This is how you do it on a specific commit. If left out, it's performed on the WC instance.
-    //    ObjectId commitID = repository.resolve("HEAD~~"); NOSONAR
-    //    blamer.setStartCommit(commitID); NOSONAR
-    
-    blamer.setFilePath(filePath);
-    BlameResult blame = blamer.call();
+      WSTextEditorPage currentPage) {
     textpage = currentPage;
-    JTextArea textArea = (JTextArea) textpage.getTextComponent();
-    Highlighter highlighter = textArea.getHighlighter();
+    // The blame can take long, so it does not start before a due commit or pull.
+    GitOperationScheduler.getInstance().scheduleLowPriorityRead(() -> {
+      try {
+        List<BlameRange> ranges = computeBlame(repository, filePath);
+        SwingUtilities.invokeLater(() -> {
+          // The editor might have been closed in the meantime.
+          if (!disposed) {
+            if (ranges != null) {
+              JTextArea textArea = (JTextArea) textpage.getTextComponent();
+              installSyncListeners(filePath, historyController, textArea);
 
-    // Add highlights for each interval.
-    if (blame != null) {
-      int lines = blame.getResultContents().size();
-      for (int i = 0; i < lines; i++) {
-        RevCommit commit = blame.getSourceCommit(i);
-        lineIndicesToRevCommits.put(i, commit);
-        if (commit != null) {
-          try {
-            int offsetOfLineStart = textpage.getOffsetOfLineStart(i + 1);
-            int offsetOfLineEnd = textpage.getOffsetOfLineEnd(i + 1);
+              // Present the history for the given resource.
+              historyController.showResourceHistory(filePath);
 
-            Object addHighlight = highlighter.addHighlight(offsetOfLineStart, offsetOfLineEnd, getPainter(commit, textpage));
-            highlightsToRevCommits.put(addHighlight, commit);
-          } catch (BadLocationException e) {
-            LOGGER.error(e.getMessage(), e);
+              addHighlights(ranges, 0, textArea.getHighlighter());
+            } else {
+              PluginWorkspaceProvider.getPluginWorkspace().showInformationMessage(
+                  Translator.getInstance().getTranslation(Tags.NOTHING_TO_SHOW_FOR_NEW_FILES));
+            }
           }
+        });
+      } catch (IOException | GitAPIException e) {
+        LOGGER.error(e.getMessage(), e);
+        SwingUtilities.invokeLater(() -> PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(e.getMessage()));
+      }
+    });
+  }
+
+  /**
+   * Computes the blame, or takes it from the cache if the file and HEAD didn't change since the last time.
+   * 
+   * @param repository The repository that contains the file.
+   * @param filePath File for which to compute the blame.
+   * 
+   * @return The lines grouped by the commit in which they were last changed, 
+   * or <code>null</code> if the file is not tracked.
+   * 
+   * @throws IOException When the file cannot be read.
+   * @throws GitAPIException Git related issues.
+   */
+  private List<BlameRange> computeBlame(Repository repository, String filePath) throws IOException, GitAPIException {
+    BlameCache cache = BlameCache.getInstance();
+    BlameCache.Key key = BlameCache.Key.create(repository, filePath);
+    List<BlameRange> ranges = key != null ? cache.get(key) : null;
+    if (ranges == null) {
+      BlameCommand blamer = new BlameCommand(repository);
+
+      // This is how you do it on a specific commit. If left out, it's performed on the WC instance.
+      //    ObjectId commitID = repository.resolve("HEAD~~"); NOSONAR
+      //    blamer.setStartCommit(commitID); NOSONAR
+
+      blamer.setFilePath(filePath);
+      BlameResult blame = blamer.call();
+      if (blame != null) {
+        ranges = BlameRange.fromBlameResult(blame);
+        if (key != null) {
+          cache.put(key, ranges);
         }
       }
+    }
 
-      installSyncListeners(filePath, historyController, textArea);
-      
-      // Present the history for the given resource.
-      historyController.showResourceHistory(filePath);
-    } else {
-      PluginWorkspaceProvider.getPluginWorkspace().showInformationMessage(
-          Translator.getInstance().getTranslation(Tags.NOTHING_TO_SHOW_FOR_NEW_FILES));
-    } 
+    if (ranges != null) {
+      for (BlameRange range : ranges) {
+        for (int i = range.getStartLine(); i < range.getEndLine(); i++) {
+          lineIndicesToRevCommits.put(i, range.getCommit());
+        }
+      }
+    }
+    return ranges;
+  }
+
+  /**
+   * Adds a chunk of highlights and schedules the next one, so the editor stays responsive for large files.
+   * One highlight covers consecutive lines changed in the same commit.
+   * 
+   * @param ranges The lines grouped by commit.
+   * @param from The index of the first range to highlight.
+   * @param highlighter The highlighter of the text page.
+   */
+  private void addHighlights(List<BlameRange> ranges, int from, Highlighter highlighter) {
+    if (!disposed) {
+      int to = Math.min(from + HIGHLIGHTS_CHUNK_SIZE, ranges.size());
+      for (int i = from; i < to; i++) {
+        BlameRange range = ranges.get(i);
+        RevCommit commit = range.getCommit();
+        try {
+          int offsetOfLineStart = textpage.getOffsetOfLineStart(range.getStartLine() + 1);
+          int offsetOfLineEnd = textpage.getOffsetOfLineEnd(range.getEndLine());
+
+          Object addHighlight = highlighter.addHighlight(offsetOfLineStart, offsetOfLineEnd, getPainter(commit, textpage));
+          highlightsToRevCommits.put(addHighlight, commit);
+        } catch (BadLocationException e) {
+          LOGGER.error(e.getMessage(), e);
+        }
+      }
+
+      if (to < ranges.size()) {
+        SwingUtilities.invokeLater(() -> addHighlights(ranges, to, highlighter));
+      }
+    }
   }
 
   /**
@@ -274,6 +347,7 @@ public class BlamePerformer {
    * Clears all internal buffers and removes all listeners added on the editor.
    */
   public void dispose() {
+    disposed = true;
     if (textpage != null) {
       cancelCaretSyncTask();
       
@@ -0,0 +1,93 @@
+package com.oxygenxml.git.view.blame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.revwalk.RevCommit;
+
+/**
+ * Consecutive lines last changed in the same commit.
+ */
+public class BlameRange {
+  /**
+   * The first line, 0 based.
+   */
+  private final int startLine;
+  /**
+   * The line after the last one, 0 based.
+   */
+  private final int endLine;
+  /**
+   * The commit in which the lines were last changed.
+   */
+  private final RevCommit commit;
+
+  /**
+   * Constructor.
+   *
+   * @param startLine The first line, 0 based.
+   * @param endLine   The line after the last one, 0 based.
+   * @param commit    The commit in which the lines were last changed.
+   */
+  public BlameRange(int startLine, int endLine, RevCommit commit) {
+    this.startLine = startLine;
+    this.endLine = endLine;
+    this.commit = commit;
+  }
+
+  /**
+   * Groups the consecutive lines that were last changed in the same commit.
+   *
+   * @param blame The blame result.
+   *
+   * @return The ranges. The lines without a commit, like the uncommitted ones, are not included.
+   */
+  public static List<BlameRange> fromBlameResult(BlameResult blame) {
+    List<BlameRange> ranges = new ArrayList<>();
+    int lines = blame.getResultContents().size();
+    int start = 0;
+    RevCommit current = null;
+    for (int i = 0; i < lines; i++) {
+      RevCommit commit = blame.getSourceCommit(i);
+      if (!Objects.equals(commit, current)) {
+        if (current != null) {
+          ranges.add(new BlameRange(start, i, current));
+        }
+        start = i;
+        current = commit;
+      }
+    }
+    if (current != null) {
+      ranges.add(new BlameRange(start, lines, current));
+    }
+    return ranges;
+  }
+
+  /**
+   * @return The first line, 0 based.
+   */
+  public int getStartLine() {
+    return startLine;
+  }
+
+  /**
+   * @return The line after the last one, 0 based.
+   */
+  public int getEndLine() {
+    return endLine;
+  }
+
+  /**
+   * @return The commit in which the lines were last changed.
+   */
+  public RevCommit getCommit() {
+    return commit;
+  }
+
+  @Override
+  public String toString() {
+    return "[" + startLine + ", " + endLine + ") " + commit.getId().name();
+  }
+}
@@ -171,7 +171,14 @@ public class CommitHighlightPainter extends LayeredHighlighter.LayerPainter {
 
     Rectangle rect;
 
-    if (stOffs == view.getStartOffset() && endOffs == view.getEndOffset()) {
+    // A highlight spanning multiple lines also covers the line terminators.
+    // Paint only up to the end of the text, like for a highlight on a single line.
+    int textEndOffs = endOffs;
+    if (endOffs > stOffs && endOffs == view.getEndOffset() && isLineTerminator(textComp, endOffs - 1)) {
+      textEndOffs--;
+    }
+
+    if (stOffs == view.getStartOffset() && textEndOffs == view.getEndOffset()) {
       // Contained in view, can just use bounds.
       if (bounds instanceof Rectangle) {
         rect = (Rectangle) bounds;
@@ -183,7 +190,7 @@ public class CommitHighlightPainter extends LayeredHighlighter.LayerPainter {
       try {
         // --- determine locations ---
         Shape shape = view.modelToView(stOffs, Position.Bias.Forward,
-            endOffs,Position.Bias.Backward,
+            textEndOffs,Position.Bias.Backward,
             bounds);
         rect = (shape instanceof Rectangle) ?
             (Rectangle)shape : shape.getBounds();
@@ -206,6 +213,24 @@ public class CommitHighlightPainter extends LayeredHighlighter.LayerPainter {
     return rect;
   }
 
+  /**
+   * Checks if the character at the given offset ends a line.
+   * 
+   * @param textComp The text component.
+   * @param offset   The offset.
+   * 
+   * @return <code>true</code> if the character is a line terminator.
+   */
+  private static boolean isLineTerminator(JTextComponent textComp, int offset) {
+    boolean isLineTerminator = false;
+    try {
+      isLineTerminator = "\n".equals(textComp.getDocument().getText(offset, 1));
+    } catch (BadLocationException e) {
+      LOGGER.debug(e.getMessage(), e);
+    }
+    return isLineTerminator;
+  }
+
   /**
    * A small correction on the Y axis. If the line that contains this offset has a different revision than the previous line then we 
    * leave a gap between them.
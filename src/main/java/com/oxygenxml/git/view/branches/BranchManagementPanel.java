@@ -145,7 +145,7 @@ public class BranchManagementPanel extends JPanel {
             || operation == GitOperation.CHECKOUT_COMMIT) {
           
           if(isShowing()) {
-            GitOperationScheduler.getInstance().schedule(BranchManagementPanel.this::refreshBranches);
+            GitOperationScheduler.getInstance().scheduleRead(BranchManagementPanel.this::refreshBranches);
           } else {
             shouldRefresh = true;
           }
@@ -153,7 +153,7 @@ public class BranchManagementPanel extends JPanel {
         
         } else if (operation == GitOperation.OPEN_WORKING_COPY) {
           if(isShowing()) {
-            GitOperationScheduler.getInstance().schedule(BranchManagementPanel.this::showBranches);
+            GitOperationScheduler.getInstance().scheduleRead(BranchManagementPanel.this::showBranches);
           } else {
             forceShowBranches = true;
             shouldRefresh = true;
@@ -488,7 +488,7 @@ public class BranchManagementPanel extends JPanel {
   /**
    * Refresh branches.
    */
-  public void refreshBranches() {
+  public synchronized void refreshBranches() {
     cache.reset();
     currentBranchName = GitAccess.getInstance().getBranchInfo().getBranchName();
     allBranches = getAllBranches();
@@ -5,13 +5,14 @@ import java.text.SimpleDateFormat;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.RefSnapshotCache;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
@@ -50,13 +51,12 @@ public class BranchesTooltipsCache {
 	 * 
 	 * @throws NoRepositorySelected 
 	 * @throws IOException 
-	 * @throws GitAPIException 
 	 */
 	public String getToolTip(boolean leaf, String path, String branchName) {
 		return !branchName.isEmpty() ? nodesTooltips.computeIfAbsent(path, s -> {
 			try {
 				return ToolTipContentProvider.computeToolTipText(leaf, path, branchName);
-			} catch (GitAPIException | IOException | NoRepositorySelected e) {
+			} catch (IOException | NoRepositorySelected e) {
 				LOGGER.error(e.getMessage(), e);
 				return null;
 			}
@@ -73,7 +73,8 @@ public class BranchesTooltipsCache {
 
 
 	/**
-	 * Inner class with generate tool tip responsibility.
+	 * Inner class with generate tool tip responsibility. The details of the last commits 
+	 * are taken from the branches kept by {@link RefSnapshotCache}, without walking the history.
 	 * 
 	 * @author alex_smarandache
 	 *
@@ -89,21 +90,26 @@ public class BranchesTooltipsCache {
 		 * 
 		 * @return the computed tooltip.
 		 * 
-		 * @throws GitAPIException
 		 * @throws IOException
 		 * @throws NoRepositorySelected
 		 */
-		static String computeToolTipText(boolean leaf, String path, String text) throws GitAPIException, IOException, NoRepositorySelected {
+		static String computeToolTipText(boolean leaf, String path, String text) throws IOException, NoRepositorySelected {
 			String toolTipText = null;
 			if (GitAccess.getInstance().isRepoInitialized() && leaf) {
+				Repository repository = GitAccess.getInstance().getRepository();
 				if(path.contains(Constants.R_REMOTES)) {
-					toolTipText = constructRemoteBranchToolTip(text, path);
+					RefSnapshotCache.TipCommit tipCommit = RefSnapshotCache.getInstance().getTipCommit(repository, path);
+					if (tipCommit != null) {
+						toolTipText = constructRemoteBranchToolTip(text, path, tipCommit.getAuthor());
+					}
 				} else if (path.contains(Constants.R_HEADS)) {
 					String branchName = BranchesUtil.createBranchPath(
 							path,
 							BranchManagementConstants.LOCAL_BRANCH_NODE_TREE_LEVEL);
-					if(BranchesUtil.existsLocalBranch(branchName)) {
-						toolTipText = constructLocalBranchToolTip(branchName);
+					RefSnapshotCache.TipCommit tipCommit = RefSnapshotCache.getInstance().getTipCommit(
+							repository, Constants.R_HEADS + branchName);
+					if(tipCommit != null) {
+						toolTipText = constructLocalBranchToolTip(branchName, tipCommit.getAuthor());
 					}    
 				}
 			}
@@ -114,18 +120,14 @@ public class BranchesTooltipsCache {
 		/**
 		 * Construct message for local branches.
 		 * 
-		 * @param nameBranch name of the branch.
+		 * @param nameBranch    name of the branch.
+		 * @param authorDetails the author of the last commit.
 		 * 
 		 * @return the message.
-		 * 
-		 * @throws GitAPIException
-		 * @throws IOException
-		 * @throws NoRepositorySelected 
 		 */
-		private static String constructLocalBranchToolTip(String nameBranch) throws GitAPIException, IOException, NoRepositorySelected {
+		private static String constructLocalBranchToolTip(String nameBranch, PersonIdent authorDetails) {
 			StringBuilder toolTipText = new StringBuilder();
 			final SimpleDateFormat dateFormat = new SimpleDateFormat(UIUtil.DATE_FORMAT_PATTERN);
-			PersonIdent authorDetails = GitAccess.getInstance().getLatestCommitForBranch(nameBranch).getAuthorIdent();
 			String remoteBranchName = GitAccess.getInstance().getUpstreamBranchShortNameFromConfig(nameBranch);
 			boolean foundRemoteBranch = remoteBranchName != null;
 			toolTipText.append("<html><p>")
@@ -159,19 +161,15 @@ public class BranchesTooltipsCache {
 		/**
 		 * Construct message for remote branches.
 		 * 
-		 * @param branchName name of the branch.
-		 * @param path       the location of the branch.
+		 * @param branchName    name of the branch.
+		 * @param path          the location of the branch.
+		 * @param authorDetails the author of the last commit.
 		 * 
 		 * @return the message.
-		 * 
-		 * @throws GitAPIException
-		 * @throws IOException
-		 * @throws NoRepositorySelected
 		 */
-		private static String constructRemoteBranchToolTip(String branchName, String path) throws GitAPIException, IOException, NoRepositorySelected {
+		private static String constructRemoteBranchToolTip(String branchName, String path, PersonIdent authorDetails) {
 			StringBuilder toolTipText = new StringBuilder();
 			final SimpleDateFormat dateFormat = new SimpleDateFormat(UIUtil.DATE_FORMAT_PATTERN);
-			PersonIdent authorDetails = GitAccess.getInstance().getLatestCommitForBranch(path).getAuthorIdent();
 			String[] pathDetails = path.split("/");
 			String remoteURL = GitAccess.getInstance().getRemoteURLFromConfig(pathDetails[2]);
 			toolTipText.append("<html><p>")
@@ -6,12 +6,17 @@ import java.util.List;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.revplot.PlotCommit;
 
+import com.oxygenxml.git.service.CommitMessageLoader;
 import com.oxygenxml.git.service.RevCommitUtil;
 import com.oxygenxml.git.service.RevCommitUtilBase;
 import com.oxygenxml.git.view.history.graph.VisualCommitsList;
 
 /**
  * Class for Commit Characteristics shown in historyTable.
+ * <br><br>
+ * The rows created for the commits of a history keep only the plot commit, which is needed
+ * anyway to paint the graph, the author date and the interned author and committer names. The ids are
+ * computed from the plot commit and the message is read on demand, by a {@link CommitMessageLoader}.
  * 
  * @Alexandra_Dinisor
  *
@@ -19,14 +24,19 @@ import com.oxygenxml.git.view.history.graph.VisualCommitsList;
 public class CommitCharacteristics {
 
 	/**
-	 * The commit message.
+	 * Marks a missing date.
+	 */
+	private static final long NO_DATE = Long.MIN_VALUE;
+
+	/**
+	 * The commit message. <code>null</code> when it is read on demand.
 	 */
 	private final String commitMessage;
 
 	/**
-	 * The commit date.
+	 * The commit date, in milliseconds. {@link #NO_DATE} if there is no date.
 	 */
-	private final Date date;
+	private final long date;
 
 	/**
 	 * The commit author with its email.
@@ -34,12 +44,12 @@ public class CommitCharacteristics {
 	private final String author;
 
 	/**
-	 * The abbreviated commitId.
+	 * The abbreviated commitId. <code>null</code> when it is computed from the plot commit.
 	 */
 	private final String commitAbbreviatedId;
 
 	/**
-	 * The long version of the commitId.
+	 * The long version of the commitId. <code>null</code> when it is computed from the plot commit.
 	 */
 	private final String commitId;
 
@@ -49,7 +59,7 @@ public class CommitCharacteristics {
 	private final String committer;
 
 	/**
-	 * The abbreviated commitId of the parent.
+	 * The abbreviated commitId of the parent. <code>null</code> when it is computed from the plot commit.
 	 */
 	private final List<String> parentCommitId;
 	
@@ -58,23 +68,34 @@ public class CommitCharacteristics {
 	 */
 	private final PlotCommit<VisualCommitsList.VisualLane> plotCommit;
 	
+	/**
+	 * Reads the commit message on demand. <code>null</code> when the message is given.
+	 */
+	private final CommitMessageLoader messageLoader;
+	
 	
 	/**
 	 * Constructor.
+	 * <br><br>
+	 * The body of the plot commit is released after the details are extracted,
+	 * so the message is read again from the repository when needed.
 	 * 
-	 * @param plotCommit The plot commit from which the details are extracted.
-	 */
-	public CommitCharacteristics(PlotCommit<VisualCommitsList.VisualLane> plotCommit) {
-		commitMessage = plotCommit.getFullMessage();
-	    PersonIdent authorIdent = plotCommit.getAuthorIdent();
-	    author = authorIdent.getName() + " <" + authorIdent.getEmailAddress() + ">";
-	    date = authorIdent.getWhen();
-	    commitAbbreviatedId = plotCommit.getId().abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name();
-	    commitId = plotCommit.getId().getName();
-	    PersonIdent committerIdent = plotCommit.getCommitterIdent();
-	    committer = committerIdent.getName();
-	    parentCommitId = RevCommitUtil.getParentsId(plotCommit);
-        this.plotCommit = plotCommit;
+	 * @param plotCommit    The plot commit from which the details are extracted.
+	 * @param messageLoader Reads the message on demand and interns the names.
+	 */
+	public CommitCharacteristics(PlotCommit<VisualCommitsList.VisualLane> plotCommit, CommitMessageLoader messageLoader) {
+		PersonIdent authorIdent = plotCommit.getAuthorIdent();
+		author = messageLoader.intern(authorIdent.getName() + " <" + authorIdent.getEmailAddress() + ">");
+		date = authorIdent.getWhen().getTime();
+		committer = messageLoader.intern(plotCommit.getCommitterIdent().getName());
+		commitMessage = null;
+		commitAbbreviatedId = null;
+		commitId = null;
+		parentCommitId = null;
+		this.plotCommit = plotCommit;
+		this.messageLoader = messageLoader;
+		
+		plotCommit.disposeBody();
 	}
 
 	/**
@@ -92,19 +113,20 @@ public class CommitCharacteristics {
 			String commitAbbreviatedId, String commitId, String committer, List<String> parentCommitId) {
 
 		this.commitMessage = commitMessage;
-		this.date = authorDate;
+		this.date = authorDate != null ? authorDate.getTime() : NO_DATE;
 		this.author = author;
 		this.commitAbbreviatedId = commitAbbreviatedId;
 		this.commitId = commitId;
 		this.committer = committer;
 		this.parentCommitId = parentCommitId;
 		this.plotCommit = null;
+		this.messageLoader = null;
 	}
 
 	@Override
 	public String toString() {
-		return "[ " + commitMessage + " , " + date + " , " + author + " , " + commitAbbreviatedId + " , " + commitId + " , "
-				+ committer + " , " + parentCommitId + " ]";
+		return "[ " + getCommitMessage() + " , " + getDate() + " , " + author + " , " + getCommitAbbreviatedId() + " , " 
+				+ getCommitId() + " , " + committer + " , " + getParentCommitId() + " ]";
 
 	}
 
@@ -113,7 +135,7 @@ public class CommitCharacteristics {
 	 * @return The message of commit.
 	 */
 	public String getCommitMessage() {
-		return commitMessage;
+		return messageLoader != null ? messageLoader.getMessage(plotCommit) : commitMessage;
 	}
 
 	
@@ -121,7 +143,7 @@ public class CommitCharacteristics {
 	 * @return The commit date.
 	 */
 	public Date getDate() {
-		return date;
+		return date != NO_DATE ? new Date(date) : null;
 	}
 
 	
@@ -137,14 +159,14 @@ public class CommitCharacteristics {
 	 * @return The abbreviated commit id.
 	 */
 	public String getCommitAbbreviatedId() {
-		return commitAbbreviatedId;
+		return plotCommit != null ? plotCommit.abbreviate(RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH).name() : commitAbbreviatedId;
 	}
 
 	/**
 	 * @return The commit id.
 	 */
 	public String getCommitId() {
-		return commitId;
+		return plotCommit != null ? plotCommit.getName() : commitId;
 	}
 
 	
@@ -162,7 +184,7 @@ public class CommitCharacteristics {
 	 * @return List with parents id.
 	 */
 	public List<String> getParentCommitId() {
-		return parentCommitId;
+		return plotCommit != null ? RevCommitUtil.getParentsId(plotCommit) : parentCommitId;
 	}
 	
 	
@@ -188,6 +210,8 @@ public class CommitCharacteristics {
 
 	
 	/**
+	 * The body of the plot commit is released, so its message cannot be read from it. 
+	 * The operations that need the message must read the commit again, from its ID.
 	 *
 	 * @return The plot commit.
 	 */ 
@@ -10,6 +10,8 @@ import java.awt.Insets;
 import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,11 +24,11 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableColumnModel;
 
-import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.oxygenxml.git.service.RefDecorationIndex;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.view.RoundedLineBorder;
@@ -81,17 +83,9 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
    */
   private final String currentBranchName;
   /**
-   * Commit ID to a list of tags.
+   * The tags and the branches of each commit.
    */
-  private final Map<String, List<String>> tagMap;
-  /**
-   * Commit ID to a list of branch labels.
-   */
-  private final Map<String, List<String>> localBranchMap;
-  /**
-   * Commit ID to a list of branch labels.
-   */
-  private final Map<String, List<String>> remoteBranchMap;
+  private final RefDecorationIndex.Decorations decorations;
 
   /**
    * Table for this render.
@@ -109,9 +103,65 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
   private int column;
   
   /**
-   * The list of labels for current commit.
+   * The maximum number of commits whose layout is cached.
+   */
+  private static final int LAYOUTS_CACHE_SIZE = 500;
+
+  /**
+   * The insets of the arrow and commit message labels.
+   */
+  private static final Insets MESSAGE_INSETS = new Insets(0, HORIZONTAL_INSET, 0, HORIZONTAL_INSET);
+
+  /**
+   * The insets of the tag and branch labels.
+   */
+  private static final Insets NO_INSETS = new Insets(0, 0, 0, 0);
+
+  /**
+   * The tag and branch labels, reused from one cell to another. A commit uses the first ones.
+   */
+  private final List<JLabel> badgesPool = new ArrayList<>();
+
+  /**
+   * The font of the tag and branch labels.
    */
-  private List<JLabel> commitLabels = new ArrayList<>();
+  private Font badgeFont;
+
+  /**
+   * The font of the label for the current branch.
+   */
+  private Font currentBranchBadgeFont;
+
+  /**
+   * The label that shows the outgoing and incoming commits using arrows.
+   */
+  private final JLabel arrowLabel = new JLabel();
+
+  /**
+   * The label for the commit message.
+   */
+  private final JLabel messageLabel = new ApplicationLabel();
+
+  /**
+   * The label for the values which are not commits.
+   */
+  private final JLabel valueLabel = new JLabel();
+
+  /**
+   * The constraints used to add the labels of a cell. Copied by the layout on each add.
+   */
+  private final GridBagConstraints constr = new GridBagConstraints();
+
+  /**
+   * The layout of the recently rendered commits. The key is the commit ID. 
+   * The least recently used commit is removed first.
+   */
+  private final Map<String, CommitLayout> layoutsCache = new LinkedHashMap<String, CommitLayout>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, CommitLayout> eldest) {
+      return size() > LAYOUTS_CACHE_SIZE;
+    }
+  };
   
   /**
    * The delta for current message.
@@ -125,25 +175,20 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
    * @param repository            The current repository
    * @param commitsAheadAndBehind Commits ahead (to push) and behind (to pull).
    * @param branchName            Branch name.
-   * @param tagMap                Tags map.
-   * @param localBranchMap        Local branches map.
-   * @param remoteBranchMap       Remote branches map.
+   * @param decorations           The tags and the branches of each commit.
    */
   public CommitMessageTableRenderer(
       Repository repository, 
       CommitsAheadAndBehind commitsAheadAndBehind,
       String branchName,
-      Map<String, List<String>> tagMap,
-      Map<String, List<String>> localBranchMap,
-      Map<String, List<String>> remoteBranchMap) {
+      RefDecorationIndex.Decorations decorations) {
     this.repository = repository;
     this.commitsAheadAndBehind = commitsAheadAndBehind;
     this.currentBranchName = branchName;
-    this.tagMap = tagMap;
-    this.localBranchMap = localBranchMap;
-    this.remoteBranchMap = remoteBranchMap;
+    this.decorations = decorations;
 
     setLayout(new GridBagLayout());
+    arrowLabel.setFont(new Font("Dialog", Font.PLAIN, ARROWS_FONT_SIZE));
   }
 
   @Override
@@ -159,25 +204,23 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
       setup(table, isSelected, row);
       
       // adding constraints for commit message label when wrapping
-      final GridBagConstraints constr = new GridBagConstraints();
       constr.fill = GridBagConstraints.NONE;
       constr.anchor = GridBagConstraints.WEST;
       constr.gridy = 0;
       constr.gridx = 0;
-      constr.insets = new Insets(0, HORIZONTAL_INSET, 0, HORIZONTAL_INSET);
+      constr.weightx = 0;
+      constr.insets = MESSAGE_INSETS;
 
       if (value instanceof CommitCharacteristics) {
-        addAllRenderingInfoForCurrentCommit(value, constr, table);
+        addAllRenderingInfoForCurrentCommit((CommitCharacteristics) value, table);
       } else {
         final String toRender = value != null ? value.toString() : "";
         constr.fill = GridBagConstraints.HORIZONTAL;
         constr.weightx = 1;
-        final JLabel comp = new JLabel(toRender);
-        comp.setForeground(getForeground());
-        if(!toRender.isEmpty()) {
-          comp.setToolTipText(toRender);
-        }
-        add(comp, constr);
+        valueLabel.setText(toRender);
+        valueLabel.setForeground(getForeground());
+        valueLabel.setToolTipText(toRender.isEmpty() ? null : toRender);
+        add(valueLabel, constr);
       }
       
     }
@@ -193,6 +236,7 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
    * @param row         The current row.
    */
   private void setup(JTable table, boolean isSelected, int row) {
+    // The labels are pooled, so removing them doesn't discard anything.
     removeAll();
 
     // keep the selection for whole columns of the row when selecting.
@@ -216,20 +260,71 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
   }
 
   /**
-   * Get the text to render for a commit.
+   * Add the arrow, the tag and branch labels and the message of a commit.
+   * <br><br>
+   * The texts are taken from the commit layout, so the labels are measured and shortened
+   * only the first time the commit is rendered at the current column width.
    * 
-   * @param value  The commit characteristics.
-   * @param constr Grid bag constraints.
-   * @param table  The table.
+   * @param commitCharacteristics The commit characteristics.
+   * @param table                 The table.
+   */
+  private void addAllRenderingInfoForCurrentCommit(final CommitCharacteristics commitCharacteristics, final JTable table) {
+    final CommitLayout layout = getLayout(commitCharacteristics);
+    
+    if (!layout.arrow.isEmpty()) {
+      arrowLabel.setText(layout.arrow);
+      arrowLabel.setForeground(getForeground());
+      constr.gridx ++;
+      add(arrowLabel, constr);
+    }
+    
+    messageLabel.setText(layout.message);
+    
+    final int labelsCount = layout.names.size();
+    if (labelsCount > 0) {
+      prepareCommitLabels(layout, table);
+      final int availableWidth = table.getColumnModel().getColumn(column).getWidth();
+      if (layout.width != availableWidth) {
+        layout.labelTexts = computeLabelTexts(labelsCount, availableWidth, !layout.arrow.isEmpty());
+        layout.width = availableWidth;
+      } else {
+        for (int i = 0; i < labelsCount; i++) {
+          badgesPool.get(i).setText(layout.labelTexts[i]);
+        }
+      }
+      
+      addAllCommitLabels(labelsCount);
+    }
+    
+    constr.fill = GridBagConstraints.HORIZONTAL;
+    constr.weightx = 1;
+    constr.gridx++;
+    messageLabel.setForeground(getForeground());
+    messageLabel.setToolTipText(layout.message.isEmpty() ? null : layout.message);
+    add(messageLabel, constr);
+  }
+
+  /**
+   * Get the layout of a commit, from the cache if the commit was rendered recently.
    * 
-   * @return the text to render.
+   * @param commitCharacteristics The commit characteristics.
+   * 
+   * @return The layout of the commit.
    */
-  private void addAllRenderingInfoForCurrentCommit(Object value, GridBagConstraints constr, JTable table) {
-    final CommitCharacteristics commitCharacteristics = (CommitCharacteristics) value;
-    int availableWidth = table.getColumnModel().getColumn(column).getWidth();
+  private CommitLayout getLayout(final CommitCharacteristics commitCharacteristics) {
+    return layoutsCache.computeIfAbsent(commitCharacteristics.getCommitId(), id -> createLayout(commitCharacteristics));
+  }
+
+  /**
+   * Compute what is rendered for a commit, except the texts of the tag and branch labels,
+   * which depend on the column width.
+   * 
+   * @param commitCharacteristics The commit characteristics.
+   * 
+   * @return The layout of the commit.
+   */
+  private CommitLayout createLayout(final CommitCharacteristics commitCharacteristics) {
     String commitMessageToRender = commitCharacteristics.getCommitMessage().replaceAll("\\n+", " ").trim();
-    
-    commitLabels.clear();
 
     // Show outgoing and incoming commits using arrows
     String arrow = "";
@@ -241,68 +336,117 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
       arrow = "\u2193";
     }
     
-    if (!arrow.isEmpty()) {
-      final JLabel arrowLabel = new JLabel(arrow);
-      arrowLabel.setFont(new Font("Dialog", Font.PLAIN, ARROWS_FONT_SIZE));
-      arrowLabel.setForeground(getForeground());
-      constr.gridx ++;
-      add(arrowLabel, constr);
-      availableWidth -= arrowLabel.getPreferredSize().width;
-    }
-    
-    JLabel comp = new ApplicationLabel(commitMessageToRender);
-
+    List<String> names = Collections.emptyList();
+    int tagsCount = 0;
+    int localBranchesCount = 0;
     // bold the text for uncommitted changes
     final String uncommittedChangesMessage = Translator.getInstance().getTranslation(Tags.UNCOMMITTED_CHANGES);
     if (commitMessageToRender.equals(uncommittedChangesMessage)) {
       commitMessageToRender = "<html><body><b>" + uncommittedChangesMessage + "</b></body></html>";
-      comp = new ApplicationLabel(commitMessageToRender); 
     } else if (repository != null) {
-      commitLabels = computeLabelsForCurrentCommit(table, commitCharacteristics);
-      
-      comp = new ApplicationLabel(commitMessageToRender); 
-      if(!commitMessageToRender.trim().isEmpty()) {
-        comp.setToolTipText(commitMessageToRender);
+      final RevCommit commit = commitCharacteristics.getPlotCommit();
+      // The uncommitted changes have no commit.
+      if (commit != null) {
+        final List<String> tags = decorations.getTags(commit);
+        final List<String> localBranches = decorations.getLocalBranches(commit);
+        final List<String> remoteBranches = decorations.getRemoteBranches(commit);
+        tagsCount = tags.size();
+        localBranchesCount = localBranches.size();
+        names = new ArrayList<>(tagsCount + localBranchesCount + remoteBranches.size());
+        names.addAll(tags);
+        names.addAll(localBranches);
+        names.addAll(remoteBranches);
       }
-      
-      int labelsTotalWidth = commitLabels.stream().mapToInt(label -> label.getPreferredSize().width).sum();
-      final int commitMessageWidth = comp.getPreferredSize().width;
-      if((labelsTotalWidth + commitMessageWidth) > availableWidth) {
-        int labelsMaxWidth = availableWidth / 2;
-        if(commitMessageWidth < labelsMaxWidth) {
-          labelsMaxWidth = Math.max(availableWidth - commitMessageWidth - MESSAGE_DELTA, labelsMaxWidth);
-        }
-        processingCommitLabelsToFitByWidth(commitLabels, labelsMaxWidth);
+    }
+    
+    return new CommitLayout(arrow, commitMessageToRender, names, tagsCount, localBranchesCount);
+  }
+
+  /**
+   * Set on the first pooled labels the names, colors and fonts of the tags and branches of a commit.
+   * The texts are set later, after they are shortened to fit the column.
+   * 
+   * @param layout The commit layout.
+   * @param table  The table.
+   */
+  private void prepareCommitLabels(final CommitLayout layout, final JTable table) {
+    final boolean isDarkTheme = PluginWorkspaceProvider.getPluginWorkspace().getColorTheme().isDarkTheme();
+    final Color tagBackgroundColor = isDarkTheme ? UIUtil.TAG_GRAPHITE_BACKGROUND 
+        : UIUtil.TAG_LIGHT_BACKGROUND;
+    final Color remoteBackgroundColor = isDarkTheme ? UIUtil.REMOTE_BRANCH_GRAPHITE_BACKGROUND 
+        : UIUtil.REMOTE_BRANCH_LIGHT_BACKGROUND;
+    
+    for (int i = 0; i < layout.names.size(); i++) {
+      final String name = layout.names.get(i);
+      final Color backgroundColor;
+      if (i < layout.tagsCount) {
+        backgroundColor = tagBackgroundColor;
+      } else if (i < layout.tagsCount + layout.localBranchesCount) {
+        backgroundColor = table.getBackground();
+      } else {
+        backgroundColor = remoteBackgroundColor;
       }
       
-      addAllCommitLabels(constr);
+      final JLabel label = getPooledLabel(i);
+      label.setFont(name.equals(currentBranchName) ? currentBranchBadgeFont : badgeFont);
+      label.setBackground(backgroundColor);
+      label.setForeground(table.getForeground());
+      label.setToolTipText(name);
+    }
+  }
+
+  /**
+   * Shorten the tag and branch labels of the current commit so that they fit the column 
+   * together with the commit message. The arrow and message labels must be already updated.
+   * 
+   * @param labelsCount    The number of tag and branch labels of the commit.
+   * @param availableWidth The width of the column.
+   * @param hasArrow       <code>true</code> if the commit is rendered with an arrow.
+   * 
+   * @return The text of each label.
+   */
+  private String[] computeLabelTexts(final int labelsCount, int availableWidth, final boolean hasArrow) {
+    if (hasArrow) {
+      availableWidth -= arrowLabel.getPreferredSize().width;
     }
     
-    constr.fill = GridBagConstraints.HORIZONTAL;
-    constr.weightx = 1;
-    constr.gridx++;
-    comp.setForeground(getForeground());
-    if(!commitMessageToRender.isEmpty()) {
-      comp.setToolTipText(commitMessageToRender);
+    final List<JLabel> commitLabels = badgesPool.subList(0, labelsCount);
+    int labelsTotalWidth = 0;
+    for (JLabel label : commitLabels) {
+      label.setText(label.getToolTipText());
+      labelsTotalWidth += label.getPreferredSize().width;
+    }
+    
+    final int commitMessageWidth = messageLabel.getPreferredSize().width;
+    if((labelsTotalWidth + commitMessageWidth) > availableWidth) {
+      int labelsMaxWidth = availableWidth / 2;
+      if(commitMessageWidth < labelsMaxWidth) {
+        labelsMaxWidth = Math.max(availableWidth - commitMessageWidth - MESSAGE_DELTA, labelsMaxWidth);
+      }
+      processingCommitLabelsToFitByWidth(commitLabels, labelsMaxWidth);
     }
-    add(comp, constr);
+    
+    final String[] texts = new String[labelsCount];
+    for (int i = 0; i < labelsCount; i++) {
+      texts[i] = commitLabels.get(i).getText();
+    }
+    return texts;
   }
 
   /**
-   * Add to UI all commit labels.
+   * Add to UI the first pooled labels, which were prepared for the current commit.
    * 
-   * @param constr The initial constraints.
+   * @param labelsCount The number of labels of the current commit.
    */
-  private void addAllCommitLabels(final GridBagConstraints constr) {
-    final Insets oldInsets = constr.insets;
-    constr.insets = new Insets(0, 0, 0, 0);
+  private void addAllCommitLabels(final int labelsCount) {
+    constr.insets = NO_INSETS;
     
-    commitLabels.forEach(label -> {
+    for (int i = 0; i < labelsCount; i++) {
       constr.gridx++;
-      CommitMessageTableRenderer.this.add(label, constr); 
-    });
+      add(badgesPool.get(i), constr);
+    }
     
-    constr.insets = oldInsets;
+    constr.insets = MESSAGE_INSETS;
   }
 
   /**
@@ -344,38 +488,6 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
 
   }
 
-  /**
-   * Put on list of labels for current commit all the branches or tags labels.
-   * 
-   * @param table                  The current table.
-   * @param commitCharacteristics  The current commit.
-   * 
-   * @return The computed list with all commit labels or an empty list.
-   */
-  @NonNull
-  private List<JLabel> computeLabelsForCurrentCommit(final JTable table,
-      final CommitCharacteristics commitCharacteristics) {
-    final List<JLabel> commitLabelsList = new ArrayList<>();
-    String abbreviatedId = commitCharacteristics.getCommitAbbreviatedId();
-    boolean isDarkTheme = PluginWorkspaceProvider.getPluginWorkspace().getColorTheme().isDarkTheme();
-
-    List<String> tagList = tagMap.get(abbreviatedId);
-    Color tagBackgroundColor = isDarkTheme ? UIUtil.TAG_GRAPHITE_BACKGROUND 
-        : UIUtil.TAG_LIGHT_BACKGROUND;
-    createAndPutBranchOrTagLabelOnList(commitLabelsList, tagList, tagBackgroundColor, table.getForeground());
-
-    List<String> localBranchList = localBranchMap.get(abbreviatedId);
-    createAndPutBranchOrTagLabelOnList(commitLabelsList, localBranchList, table.getBackground(), table.getForeground());
-
-    List<String> remoteBranchList = remoteBranchMap.get(abbreviatedId);
-    Color remoteBackgroundColor = isDarkTheme ? UIUtil.REMOTE_BRANCH_GRAPHITE_BACKGROUND 
-        : UIUtil.REMOTE_BRANCH_LIGHT_BACKGROUND;
-
-    createAndPutBranchOrTagLabelOnList(commitLabelsList, remoteBranchList, remoteBackgroundColor, table.getForeground());
-    
-    return commitLabelsList;
-  }
-
   /**
    * Short all label texts which are biggest than given maximum length.
    * <br><br>
@@ -398,40 +510,81 @@ public class CommitMessageTableRenderer extends JPanel implements TableCellRende
   }
 
   /**
-   * Add Label to "Commit Message" column: tag or local/remote branch to te list of current commit labels.
+   * Get a tag or branch label from the pool, creating the missing labels.
    * 
-   * @param commitLabels     The collection to add the commit labels.
-   * @param nameForLabelList List of tags or branches corresponding the commit.
-   * @param backgroundColor  The background color.
-   * @param foregroundColor  The foreground color.
-   */
-  private void createAndPutBranchOrTagLabelOnList(
-      List<JLabel> commitLabels,
-      List<String> nameForLabelList,
-      Color backgroundColor,
-      Color foregroundColor) {
-    if (nameForLabelList != null && !nameForLabelList.isEmpty()) {
-      int lineSize = 1;
-
-      for (String name : nameForLabelList) {
-        final RoundedLineBorder border = new RoundedLineBorder(null, lineSize, LABEL_BORDER_CORNER_SIZE, true);
-        final JLabel label = new ApplicationLabel(name) {
-
-          @Override
-          protected void paintComponent(Graphics g) {
-            border.fillBorder(this, g, 0, 0, getWidth(), getHeight());
-            super.paintComponent(g);
-          }
-        };
-        if (name.equals(currentBranchName)) {
-          label.setFont(label.getFont().deriveFont(Font.BOLD));
+   * @param index The index of the label in the pool.
+   * 
+   * @return The label.
+   */
+  private JLabel getPooledLabel(final int index) {
+    while (badgesPool.size() <= index) {
+      final RoundedLineBorder border = new RoundedLineBorder(null, 1, LABEL_BORDER_CORNER_SIZE, true);
+      final JLabel label = new ApplicationLabel() {
+
+        @Override
+        protected void paintComponent(Graphics g) {
+          border.fillBorder(this, g, 0, 0, getWidth(), getHeight());
+          super.paintComponent(g);
         }
-        label.setBackground(backgroundColor);
-        label.setForeground(foregroundColor);
-        label.setBorder(border);
-        label.setToolTipText(name);
-        commitLabels.add(label);
+      };
+      label.setBorder(border);
+      if (badgeFont == null) {
+        badgeFont = label.getFont();
+        currentBranchBadgeFont = badgeFont.deriveFont(Font.BOLD);
       }
+      badgesPool.add(label);
+    }
+    return badgesPool.get(index);
+  }
+
+  /**
+   * What is rendered for a commit.
+   */
+  private static class CommitLayout {
+    /**
+     * The arrow for the outgoing and incoming commits. Empty for the other commits.
+     */
+    private final String arrow;
+    /**
+     * The commit message, on a single line.
+     */
+    private final String message;
+    /**
+     * The names of the tags, local branches and remote branches, in this order.
+     */
+    private final List<String> names;
+    /**
+     * The number of tags.
+     */
+    private final int tagsCount;
+    /**
+     * The number of local branches.
+     */
+    private final int localBranchesCount;
+    /**
+     * The column width for which the label texts were computed. -1 if they were not computed.
+     */
+    private int width = -1;
+    /**
+     * The text of each tag or branch label, shortened to fit the column width.
+     */
+    private String[] labelTexts;
+
+    /**
+     * Constructor.
+     * 
+     * @param arrow              The arrow for the outgoing and incoming commits.
+     * @param message            The commit message, on a single line.
+     * @param names              The names of the tags, local branches and remote branches.
+     * @param tagsCount          The number of tags.
+     * @param localBranchesCount The number of local branches.
+     */
+    CommitLayout(String arrow, String message, List<String> names, int tagsCount, int localBranchesCount) {
+      this.arrow = arrow;
+      this.message = message;
+      this.names = names;
+      this.tagsCount = tagsCount;
+      this.localBranchesCount = localBranchesCount;
     }
   }
 
@@ -0,0 +1,300 @@
+package com.oxygenxml.git.view.history;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.jgit.lib.AbbreviatedObjectId;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectIdOwnerMap;
+import org.eclipse.jgit.revplot.PlotCommit;
+
+import com.oxygenxml.git.service.RevCommitUtilBase;
+
+/**
+ * An inverted index over the words of the commits presented in the history, used by the history filter.
+ * <br><br>
+ * Each word from the message, the author and the date of a commit points to the commits that contain it.
+ * A filter word matches the commits that have a word starting with it, or an ID starting with it, and a commit
+ * is presented only if it matches all the filter words.
+ * <br><br>
+ * A commit is indexed only once, even if it is presented again after a refresh of the history.
+ * Thread safe.
+ */
+final class CommitsSearchIndex {
+  /**
+   * Separates the words of the indexed texts and of the filter.
+   */
+  private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  /**
+   * A filter word that might be the prefix of a commit ID.
+   */
+  private static final Pattern ID_PREFIX = Pattern.compile(
+      "[0-9a-f]{" + RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH + "," + Constants.OBJECT_ID_STRING_LENGTH + "}");
+
+  /**
+   * The indexed commits that have a plot commit.
+   */
+  private final ObjectIdOwnerMap<IndexedCommit> commitsById = new ObjectIdOwnerMap<>();
+
+  /**
+   * The indexed commits without a plot commit, like the uncommitted changes. The key is the commit ID.
+   */
+  private final Map<String, Integer> otherCommits = new HashMap<>();
+
+  /**
+   * The commits that contain each word.
+   */
+  private final NavigableMap<String, Postings> words = new TreeMap<>();
+
+  /**
+   * The number of indexed commits. The indexed commits are numbered in the order they were indexed.
+   */
+  private int documentsCount;
+
+  /**
+   * The number of an indexed commit.
+   */
+  private static class IndexedCommit extends ObjectIdOwnerMap.Entry {
+    /**
+     * The number of the commit in the index.
+     */
+    private final int document;
+
+    /**
+     * Constructor.
+     *
+     * @param id       The commit ID.
+     * @param document The number of the commit in the index.
+     */
+    IndexedCommit(AnyObjectId id, int document) {
+      super(id);
+      this.document = document;
+    }
+  }
+
+  /**
+   * The commits that contain a word, in increasing order.
+   */
+  private static class Postings {
+    /**
+     * The numbers of the commits.
+     */
+    private int[] documents = new int[1];
+    /**
+     * How many numbers are used.
+     */
+    private int size;
+
+    /**
+     * @param document A commit number, not smaller than the ones already added.
+     */
+    void add(int document) {
+      if (size == 0 || documents[size - 1] != document) {
+        if (size == documents.length) {
+          documents = Arrays.copyOf(documents, size * 2);
+        }
+        documents[size++] = document;
+      }
+    }
+
+    /**
+     * @param bits Receives the commit numbers.
+     */
+    void addTo(BitSet bits) {
+      for (int i = 0; i < size; i++) {
+        bits.set(documents[i]);
+      }
+    }
+  }
+
+  /**
+   * A filter, prepared for evaluation. The commits indexed after the query was created do not match it.
+   */
+  static final class Query {
+    /**
+     * Matches all the commits.
+     */
+    static final Query ALL = new Query(new BitSet[0], new AbbreviatedObjectId[0], new String[0]);
+
+    /**
+     * For each filter word, the commits that have a word that starts with it.
+     */
+    private final BitSet[] documents;
+    /**
+     * For each filter word, the commit ID prefix, or <code>null</code> if the word cannot be part of an ID.
+     */
+    private final AbbreviatedObjectId[] idPrefixes;
+    /**
+     * The filter words.
+     */
+    private final String[] filterWords;
+
+    /**
+     * Constructor.
+     *
+     * @param documents   The commits matched by each word.
+     * @param idPrefixes  The ID prefixes.
+     * @param filterWords The filter words.
+     */
+    private Query(BitSet[] documents, AbbreviatedObjectId[] idPrefixes, String[] filterWords) {
+      this.documents = documents;
+      this.idPrefixes = idPrefixes;
+      this.filterWords = filterWords;
+    }
+
+    /**
+     * @return <code>true</code> if the query matches all the commits.
+     */
+    boolean matchesAll() {
+      return filterWords.length == 0;
+    }
+  }
+
+  /**
+   * Indexes a commit, if it was not indexed before. It might read the message from the repository.
+   *
+   * @param commit The commit.
+   */
+  synchronized void index(CommitCharacteristics commit) {
+    if (getDocument(commit) == -1) {
+      int document = documentsCount++;
+      PlotCommit<?> plotCommit = commit.getPlotCommit();
+      if (plotCommit != null) {
+        commitsById.add(new IndexedCommit(plotCommit, document));
+      } else {
+        otherCommits.put(commit.getCommitId(), document);
+      }
+
+      addWords(commit.getCommitMessage(), document);
+      addWords(commit.getAuthor(), document);
+      Date date = commit.getDate();
+      if (date != null) {
+        addWords(date.toString(), document);
+      }
+    }
+  }
+
+  /**
+   * Prepares a filter for evaluation.
+   *
+   * @param filter The filter text.
+   *
+   * @return The query.
+   */
+  synchronized Query createQuery(String filter) {
+    String[] filterWords = splitWords(filter);
+    if (filterWords.length == 0) {
+      return Query.ALL;
+    }
+
+    BitSet[] documents = new BitSet[filterWords.length];
+    AbbreviatedObjectId[] idPrefixes = new AbbreviatedObjectId[filterWords.length];
+    for (int i = 0; i < filterWords.length; i++) {
+      String word = filterWords[i];
+      documents[i] = new BitSet(documentsCount);
+      // All the words that start with the filter word.
+      for (Postings postings : words.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+        postings.addTo(documents[i]);
+      }
+      if (ID_PREFIX.matcher(word).matches()) {
+        idPrefixes[i] = AbbreviatedObjectId.fromString(word);
+      }
+    }
+    return new Query(documents, idPrefixes, filterWords);
+  }
+
+  /**
+   * Checks if a commit matches a query.
+   *
+   * @param query  The query.
+   * @param commit The commit.
+   *
+   * @return <code>true</code> if the commit matches all the filter words.
+   */
+  boolean matches(Query query, CommitCharacteristics commit) {
+    boolean matches = true;
+    if (!query.matchesAll()) {
+      int document = getDocument(commit);
+      for (int i = 0; matches && i < query.filterWords.length; i++) {
+        matches = document != -1 && query.documents[i].get(document)
+            || query.idPrefixes[i] != null && hasIdPrefix(commit, query.idPrefixes[i], query.filterWords[i]);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * @param commit   A commit.
+   * @param idPrefix The ID prefix.
+   * @param word     The ID prefix, as text.
+   *
+   * @return <code>true</code> if the commit ID starts with the prefix.
+   */
+  private static boolean hasIdPrefix(CommitCharacteristics commit, AbbreviatedObjectId idPrefix, String word) {
+    PlotCommit<?> plotCommit = commit.getPlotCommit();
+    boolean hasPrefix;
+    if (plotCommit != null) {
+      hasPrefix = plotCommit.startsWith(idPrefix);
+    } else {
+      String id = commit.getCommitId();
+      hasPrefix = id != null && id.toLowerCase(Locale.ENGLISH).startsWith(word);
+    }
+    return hasPrefix;
+  }
+
+  /**
+   * @param commit A commit.
+   *
+   * @return The number of the commit in the index, or -1 if it is not indexed.
+   */
+  private synchronized int getDocument(CommitCharacteristics commit) {
+    int document = -1;
+    PlotCommit<?> plotCommit = commit.getPlotCommit();
+    if (plotCommit != null) {
+      IndexedCommit indexed = commitsById.get(plotCommit);
+      if (indexed != null) {
+        document = indexed.document;
+      }
+    } else {
+      Integer indexed = otherCommits.get(commit.getCommitId());
+      if (indexed != null) {
+        document = indexed;
+      }
+    }
+    return document;
+  }
+
+  /**
+   * Indexes the words of a text.
+   *
+   * @param text     The text. May be <code>null</code>.
+   * @param document The number of the commit that contains the text.
+   */
+  private void addWords(String text, int document) {
+    if (text != null) {
+      for (String word : splitWords(text)) {
+        words.computeIfAbsent(word, k -> new Postings()).add(document);
+      }
+    }
+  }
+
+  /**
+   * @param text A text.
+   *
+   * @return The lower case words of the text.
+   */
+  private static String[] splitWords(String text) {
+    String[] split = WORD_SEPARATORS.split(text.toLowerCase(Locale.ENGLISH));
+    // A leading separator produces an empty first word.
+    return split.length > 0 && split[0].isEmpty() ? Arrays.copyOfRange(split, 1, split.length) : split;
+  }
+}
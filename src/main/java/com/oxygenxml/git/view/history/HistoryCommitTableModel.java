@@ -2,17 +2,25 @@ package com.oxygenxml.git.view.history;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import javax.swing.SwingUtilities;
 import javax.swing.table.AbstractTableModel;
 
 import org.eclipse.jgit.revplot.PlotCommit;
 
+import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.utils.Equaler;
+import com.oxygenxml.git.view.history.graph.VisualCommitsList;
+import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualLane;
 
 
 /**
@@ -27,11 +35,6 @@ public class HistoryCommitTableModel extends AbstractTableModel {
    */
   private static final int COLUMN_COUNT = 5;
   
-  /**
-   * Length of the short commit id
-   */
-  private static final int SHORT_COMMIT_ID_LENGTH = 7;
-  
   /**
 	 * Commit graph table column index.
 	 */
@@ -58,9 +61,9 @@ public class HistoryCommitTableModel extends AbstractTableModel {
 	public static final int COMMIT_ABBREVIATED_ID = 4;
 	
 	/**
-   * Text from filter field
+   * Text from filter field. Changed only on the AWT thread.
    */
-  private String textToFilter = "";
+  private volatile String textToFilter = "";
 
 	/**
 	 * The internal representation of the model.
@@ -71,6 +74,98 @@ public class HistoryCommitTableModel extends AbstractTableModel {
    * The internal representation of the model filtered.
    */
   private transient List<CommitCharacteristics> allCommitsCharacteristicsFiltered;
+  
+  /**
+   * The words of the commits, used by the filter. The commits are indexed when a filter is first applied on them.
+   * Shared by the models that present the history of the same repository.
+   */
+  private final transient CommitsSearchIndex searchIndex;
+  
+  /**
+   * Incremented on each filter request. A filter computed in the background is applied only 
+   * if no other filter was requested meanwhile.
+   */
+  private final AtomicLong filterRequests = new AtomicLong();
+  
+  /**
+   * The filter computed in the background. Accessed only on the AWT thread.
+   */
+  private transient Future<?> pendingFilter;
+  
+  /**
+   * Incremented each time the presented rows change. Accessed only on the AWT thread.
+   */
+  private int rowsVersion;
+  
+  /**
+   * Incremented on each update request. Accessed only on the AWT thread.
+   */
+  private long updateRequests;
+  
+  /**
+   * The changes that transform the presented rows into the ones of a newer version of the history.
+   */
+  private static class RowsUpdate {
+    /**
+     * All the commits of the new history.
+     */
+    private final List<CommitCharacteristics> commits;
+    /**
+     * The rows to present.
+     */
+    private final List<CommitCharacteristics> rows;
+    /**
+     * The ranges of rows to remove or insert, in the order they must be applied. 
+     * <code>null</code> if the rows must be presented from scratch.
+     */
+    private List<RowsChange> changes = new ArrayList<>();
+    /**
+     * <code>true</code> if the graph lanes of the presented commits moved.
+     */
+    private boolean lanesMoved;
+
+    /**
+     * Constructor.
+     * 
+     * @param commits All the commits of the new history.
+     * @param rows    The rows to present.
+     */
+    RowsUpdate(List<CommitCharacteristics> commits, List<CommitCharacteristics> rows) {
+      this.commits = commits;
+      this.rows = rows;
+    }
+  }
+  
+  /**
+   * A range of rows removed or inserted.
+   */
+  private static class RowsChange {
+    /**
+     * The first row of the range.
+     */
+    private final int firstRow;
+    /**
+     * The last row of the range.
+     */
+    private final int lastRow;
+    /**
+     * The inserted rows, or <code>null</code> if the rows are removed.
+     */
+    private final List<CommitCharacteristics> insertedRows;
+
+    /**
+     * Constructor.
+     * 
+     * @param firstRow     The first row of the range.
+     * @param lastRow      The last row of the range.
+     * @param insertedRows The inserted rows, or <code>null</code> if the rows are removed.
+     */
+    RowsChange(int firstRow, int lastRow, List<CommitCharacteristics> insertedRows) {
+      this.firstRow = firstRow;
+      this.lastRow = lastRow;
+      this.insertedRows = insertedRows;
+    }
+  }
 
 	/**
 	 * Construct the Table Model with a Vector containing all commitCharacteristics.
@@ -78,8 +173,22 @@ public class HistoryCommitTableModel extends AbstractTableModel {
 	 * @param commitVector The computed commitVector
 	 */
 	public HistoryCommitTableModel(List<CommitCharacteristics> commitVector) {
-		this.allCommitsCharacteristicsFiltered = new ArrayList<>(commitVector);
+		this(commitVector, new CommitsSearchIndex(), "");
+	}
+	
+	/**
+	 * Construct the Table Model with the commits that match a filter. The commits are indexed, 
+	 * if needed, so the model should be created in the background.
+	 * 
+	 * @param commitVector The computed commitVector
+	 * @param searchIndex  The words of the commits already indexed for the same repository.
+	 * @param text         The filter text.
+	 */
+	HistoryCommitTableModel(List<CommitCharacteristics> commitVector, CommitsSearchIndex searchIndex, String text) {
+		this.searchIndex = searchIndex;
 		this.allCommitsCharacteristics = new ArrayList<>(commitVector);
+		this.allCommitsCharacteristicsFiltered = computeFilteredCommits(allCommitsCharacteristics, text, filterRequests.get());
+		this.textToFilter = text;
 	}
 	
 	/**
@@ -200,109 +309,358 @@ public class HistoryCommitTableModel extends AbstractTableModel {
   }
 	
 	/**
-	 * Filters the table
+	 * Appends commits at the end of the table, like the next page of history.
+	 * The current filter is applied on the new commits. Must be called on the AWT thread, 
+	 * after {@link #prepareCommits(List)}.
+	 *
+	 * @param commits The commits to add.
+	 */
+	public void addCommits(List<CommitCharacteristics> commits) {
+	  if (!commits.isEmpty()) {
+	    rowsVersion++;
+	    allCommitsCharacteristics.addAll(commits);
+	    int firstRow = allCommitsCharacteristicsFiltered.size();
+	    CommitsSearchIndex.Query query = prepareFilter(textToFilter, commits);
+	    for (CommitCharacteristics commit : commits) {
+	      if (searchIndex.matches(query, commit)) {
+	        allCommitsCharacteristicsFiltered.add(commit);
+	      }
+	    }
+	    int lastRow = allCommitsCharacteristicsFiltered.size() - 1;
+	    if (lastRow >= firstRow) {
+	      fireTableRowsInserted(firstRow, lastRow);
+	    }
+	  }
+	}
+
+	/**
+	 * Indexes the commits that will be added to the table, if a filter is applied, so that they are 
+	 * not indexed on the AWT thread. Called in the background, before {@link #addCommits(List)}.
+	 *
+	 * @param commits The commits to add.
+	 */
+	public void prepareCommits(List<CommitCharacteristics> commits) {
+	  prepareFilter(textToFilter, commits);
+	}
+
+	/**
+	 * @return The number of commits in the model, including the ones hidden by the filter.
+	 */
+	public int getUnfilteredCommitsCount() {
+	  return allCommitsCharacteristics.size();
+	}
+	
+	/**
+	 * Replaces the commits of the model with a newer version of the same history, like the one
+	 * computed after a pull. Only the rows that were added or removed are notified, so the selection 
+	 * and the scroll position are preserved. Must be called on the AWT thread.
+	 *
+	 * @param commits The new commits.
 	 * 
-	 * @param text The text to user for filtering.
+	 * @return <code>true</code> if the graph lanes of the presented commits moved, so the visible rows must be repainted.
 	 */
-	public void filterChanged(String text) {
-	  if (!Equaler.verifyEquals(text, this.textToFilter)) {
-	    this.textToFilter = text;
-	    if (text != null && text.length() > 0) {
-	      allCommitsCharacteristicsFiltered.clear();
-	      for (Iterator<CommitCharacteristics> iterator = allCommitsCharacteristics.iterator(); iterator.hasNext();) {
-	        CommitCharacteristics comitCharac = iterator.next();
-	        if(!shouldFilter(comitCharac, textToFilter)) {
-	          allCommitsCharacteristicsFiltered.add(comitCharac);
+	public boolean updateCommits(List<CommitCharacteristics> commits) {
+	  return applyUpdate(computeUpdate(
+	      allCommitsCharacteristics, new ArrayList<>(allCommitsCharacteristicsFiltered), commits, textToFilter));
+	}
+	
+	/**
+	 * Replaces the commits of the model with a newer version of the same history, computing the 
+	 * changed rows in the background. An update requested before this one is ignored. 
+	 * Must be called on the AWT thread.
+	 *
+	 * @param commits   The new commits.
+	 * @param onUpdated Called on the AWT thread after the rows are updated. Receives <code>true</code> if 
+	 * the graph lanes of the presented commits moved, so the visible rows must be repainted.
+	 */
+	public void scheduleUpdate(List<CommitCharacteristics> commits, Consumer<Boolean> onUpdated) {
+	  long request = ++updateRequests;
+	  int version = rowsVersion;
+	  List<CommitCharacteristics> previousCommits = new ArrayList<>(allCommitsCharacteristics);
+	  List<CommitCharacteristics> previousRows = new ArrayList<>(allCommitsCharacteristicsFiltered);
+	  String text = textToFilter;
+	  GitOperationScheduler.getInstance().scheduleRead(() -> {
+	    RowsUpdate update = computeUpdate(previousCommits, previousRows, commits, text);
+	    SwingUtilities.invokeLater(() -> {
+	      if (request == updateRequests) {
+	        if (version == rowsVersion) {
+	          onUpdated.accept(applyUpdate(update));
+	        } else {
+	          // The rows changed meanwhile, like when the next page was loaded.
+	          scheduleUpdate(commits, onUpdated);
 	        }
 	      }
-	    } else {
-	      allCommitsCharacteristicsFiltered = new ArrayList<>(allCommitsCharacteristics);
+	    });
+	  });
+	}
+	
+	/**
+	 * Computes the changes that transform the presented rows into the ones of a newer version of the history.
+	 * The filter is evaluated only for the new commits. Can be called on any thread.
+	 * 
+	 * @param previousCommits The commits of the model.
+	 * @param rows            A copy of the presented rows. It is modified.
+	 * @param commits         The new commits.
+	 * @param text            The filter text.
+	 * 
+	 * @return The changes.
+	 */
+	private RowsUpdate computeUpdate(
+	    List<CommitCharacteristics> previousCommits,
+	    List<CommitCharacteristics> rows,
+	    List<CommitCharacteristics> commits,
+	    String text) {
+	  Set<String> previousIds = getIds(previousCommits);
+	  Set<String> previousVisibleIds = getIds(rows);
+	  List<CommitCharacteristics> visibleCommits = new ArrayList<>(commits.size());
+	  // The commits already indexed are skipped.
+	  CommitsSearchIndex.Query query = prepareFilter(text, commits);
+	  for (CommitCharacteristics commit : commits) {
+	    String id = commit.getCommitId();
+	    boolean isVisible = previousIds.contains(id) ? previousVisibleIds.contains(id) : searchIndex.matches(query, commit);
+	    if (isVisible) {
+	      visibleCommits.add(commit);
 	    }
-	    
-	    //update model
-	    if (SwingUtilities.isEventDispatchThread()) {
-	      fireTableDataChanged();
+	  }
+	  
+	  RowsUpdate update = new RowsUpdate(new ArrayList<>(commits), visibleCommits);
+	  if (!computeDelta(rows, visibleCommits, previousVisibleIds, update)) {
+	    // The commits were reordered. Present the new ones from scratch.
+	    update.changes = null;
+	    update.lanesMoved = false;
+	  }
+	  return update;
+	}
+	
+	/**
+	 * Computes the ranges of rows to remove and to insert to transform the presented rows into the new ones. 
+	 * The commits present in both lists must be in the same order.
+	 * 
+	 * @param rows        A copy of the presented rows. It is transformed into the new rows.
+	 * @param newRows     The rows to present.
+	 * @param previousIds The ids of the presented rows.
+	 * @param update      Receives the changes.
+	 * 
+	 * @return <code>true</code> if the changes were computed, <code>false</code> if the common commits have
+	 * a different order.
+	 */
+	private static boolean computeDelta(
+	    List<CommitCharacteristics> rows, 
+	    List<CommitCharacteristics> newRows, 
+	    Set<String> previousIds, 
+	    RowsUpdate update) {
+	  Set<String> newIds = getIds(newRows);
+	  int row = 0;
+	  int newRow = 0;
+	  while (row < rows.size() || newRow < newRows.size()) {
+	    if (row < rows.size() && !newIds.contains(rows.get(row).getCommitId())) {
+	      // Commits no longer in the history, like the ones dropped by a reset.
+	      int end = row;
+	      while (end < rows.size() && !newIds.contains(rows.get(end).getCommitId())) {
+	        end++;
+	      }
+	      rows.subList(row, end).clear();
+	      update.changes.add(new RowsChange(row, end - 1, null));
+	    } else if (newRow < newRows.size() && !previousIds.contains(newRows.get(newRow).getCommitId())) {
+	      // New commits, like the ones brought by a pull.
+	      int end = newRow;
+	      while (end < newRows.size() && !previousIds.contains(newRows.get(end).getCommitId())) {
+	        end++;
+	      }
+	      List<CommitCharacteristics> inserted = newRows.subList(newRow, end);
+	      rows.addAll(row, inserted);
+	      update.changes.add(new RowsChange(row, row + end - newRow - 1, new ArrayList<>(inserted)));
+	      row += end - newRow;
+	      newRow = end;
+	    } else if (row < rows.size() && newRow < newRows.size() 
+	        && Objects.equals(rows.get(row).getCommitId(), newRows.get(newRow).getCommitId())) {
+	      // The same commit. The new instance has the graph lanes of the new history.
+	      PlotCommit<VisualLane> plotCommit = rows.get(row).getPlotCommit();
+	      PlotCommit<VisualLane> newPlotCommit = newRows.get(newRow).getPlotCommit();
+	      if (plotCommit != null && newPlotCommit != null && !VisualCommitsList.isPaintedAlike(plotCommit, newPlotCommit)) {
+	        update.lanesMoved = true;
+	      }
+	      row++;
+	      newRow++;
 	    } else {
-	      // Usually in automated tests
-	      SwingUtilities.invokeLater(this::fireTableDataChanged);
+	      return false;
 	    }
 	  }
+	  return true;
 	}
 	
 	/**
-	 * Tells if a commit should be removed or not.
+	 * Presents the rows of a newer version of the history. Called on the AWT thread.
 	 * 
-	 * @param commitCharac The commit with details
-	 * @param textFilter The filter that should be applied
+	 * @param update The changes computed for the presented rows.
 	 * 
-	 * @return <code>true</code> if the commit should be removed, false otherwise
+	 * @return <code>true</code> if the graph lanes of the presented commits moved.
 	 */
-	private static boolean shouldFilter(CommitCharacteristics commitCharac, String textFilter) {
-	  boolean shouldFilter = false;
-	  if( textFilter != null &&  !textFilter.isEmpty()) {
-	    String date = "";
-	    String author = ""; 
-	    String message = "";
-	    String longCommitId = "";
-      String shortCommitId = "";
-
-	    String authorTemp = commitCharac.getAuthor();
-	    if(authorTemp != null) {
-	      author = authorTemp.toLowerCase();
+	private boolean applyUpdate(RowsUpdate update) {
+	  rowsVersion++;
+	  allCommitsCharacteristics = update.commits;
+	  if (update.changes == null) {
+	    allCommitsCharacteristicsFiltered = update.rows;
+	    fireTableDataChanged();
+	  } else {
+	    List<CommitCharacteristics> rows = allCommitsCharacteristicsFiltered;
+	    for (RowsChange change : update.changes) {
+	      if (change.insertedRows != null) {
+	        rows.addAll(change.firstRow, change.insertedRows);
+	        fireTableRowsInserted(change.firstRow, change.lastRow);
+	      } else {
+	        rows.subList(change.firstRow, change.lastRow + 1).clear();
+	        fireTableRowsDeleted(change.firstRow, change.lastRow);
+	      }
 	    }
-	    Date dateTemp = commitCharac.getDate();
-	    if(dateTemp != null) {
-	      date = dateTemp.toString();
+	    // The same commits, with the graph lanes of the new history.
+	    allCommitsCharacteristicsFiltered = update.rows;
+	  }
+	  return update.lanesMoved;
+	}
+	
+	/**
+	 * @param commits The commits.
+	 * 
+	 * @return The ids of the given commits.
+	 */
+	private static Set<String> getIds(List<CommitCharacteristics> commits) {
+	  Set<String> ids = new HashSet<>(commits.size() * 2);
+	  for (CommitCharacteristics commit : commits) {
+	    ids.add(commit.getCommitId());
+	  }
+	  return ids;
+	}
+	
+	/**
+	 * Filters the table
+	 *
+	 * @param text The text to user for filtering.
+	 */
+	public void filterChanged(String text) {
+	  if (!Equaler.verifyEquals(text, this.textToFilter)) {
+	    // Any filter computed in the background is now obsolete.
+	    long request = filterRequests.incrementAndGet();
+	    cancelPendingFilter();
+	    applyFilter(text, computeFilteredCommits(allCommitsCharacteristics, text, request));
+	  }
+	}
+	
+	/**
+	 * Filters the table, computing the presented commits in the background. 
+	 * A filter requested before this one is canceled, so only the last filter is applied.
+	 * Must be called on the AWT thread.
+	 *
+	 * @param text       The text to user for filtering.
+	 * @param onFiltered Called on the AWT thread after the filter is applied.
+	 */
+	public void scheduleFilter(String text, Runnable onFiltered) {
+	  long request = filterRequests.incrementAndGet();
+	  cancelPendingFilter();
+	  if (Equaler.verifyEquals(text, this.textToFilter)) {
+	    onFiltered.run();
+	  } else {
+	    List<CommitCharacteristics> commits = allCommitsCharacteristics;
+	    List<CommitCharacteristics> snapshot = new ArrayList<>(commits);
+	    pendingFilter = GitOperationScheduler.getInstance().scheduleRead(() -> {
+	      List<CommitCharacteristics> filtered = computeFilteredCommits(snapshot, text, request);
+	      if (filtered != null) {
+	        SwingUtilities.invokeLater(() -> {
+	          if (request == filterRequests.get()) {
+	            pendingFilter = null;
+	            if (commits == allCommitsCharacteristics && commits.size() == snapshot.size()) {
+	              applyFilter(text, filtered);
+	              onFiltered.run();
+	            } else {
+	              // The history was refreshed or more commits were loaded meanwhile. 
+	              // The commits already indexed are skipped.
+	              scheduleFilter(text, onFiltered);
+	            }
+	          }
+	        });
+	      }
+	    });
+	  }
+	}
+	
+	/**
+	 * Cancels the filter computed in the background, if any.
+	 */
+	private void cancelPendingFilter() {
+	  if (pendingFilter != null) {
+	    pendingFilter.cancel(false);
+	    pendingFilter = null;
+	  }
+	}
+	
+	/**
+	 * Computes the commits that match a filter. The commits are indexed first, if needed.
+	 * 
+	 * @param commits The commits to filter.
+	 * @param text    The filter text.
+	 * @param request The filter request. 
+	 * 
+	 * @return The commits that match the filter, or <code>null</code> if another filter was requested meanwhile.
+	 */
+	private List<CommitCharacteristics> computeFilteredCommits(List<CommitCharacteristics> commits, String text, long request) {
+	  List<CommitCharacteristics> filtered;
+	  if (text != null && !text.isEmpty()) {
+	    for (CommitCharacteristics commit : commits) {
+	      if (request != filterRequests.get()) {
+	        return null;
+	      }
+	      searchIndex.index(commit);
 	    }
-	    String commitIdTemp = commitCharac.getCommitId();
-	    if(commitIdTemp != null) {
-        longCommitId = commitIdTemp.toLowerCase();
-        if(longCommitId.length() >= SHORT_COMMIT_ID_LENGTH) {
-          shortCommitId = longCommitId.substring(0,SHORT_COMMIT_ID_LENGTH);
-        }
-      }
-	    String messageTemp = commitCharac.getCommitMessage();
-	    if(messageTemp != null) {
-	      message = messageTemp.toLowerCase();
+	    CommitsSearchIndex.Query query = searchIndex.createQuery(text);
+	    filtered = new ArrayList<>();
+	    for (CommitCharacteristics commit : commits) {
+	      if (searchIndex.matches(query, commit)) {
+	        filtered.add(commit);
+	      }
 	    }
-	    shouldFilter = shouldFilterCommit(textFilter, date, author, shortCommitId, longCommitId, message);
-	  } 
-	  return shouldFilter;
+	  } else {
+	    filtered = new ArrayList<>(commits);
+	  }
+	  return filtered;
 	}
 	
 	/**
-	 * Tells if a commit should be removed or not.
+	 * Presents the commits that match a filter.
 	 * 
-	 * @param textFilter The text from filter field
-	 * @param date The date of the commit
-	 * @param author The author of the commit
-	 * @param shortCommitId The short commit id
-	 * @param longCommitId The full commit id 
-	 * @param message The message of the commit
+	 * @param text     The filter text.
+	 * @param filtered The commits that match the filter.
+	 */
+	private void applyFilter(String text, List<CommitCharacteristics> filtered) {
+	  this.textToFilter = text;
+	  allCommitsCharacteristicsFiltered = filtered;
+	  rowsVersion++;
+	  
+	  //update model
+	  if (SwingUtilities.isEventDispatchThread()) {
+	    fireTableDataChanged();
+	  } else {
+	    // Usually in automated tests
+	    SwingUtilities.invokeLater(this::fireTableDataChanged);
+	  }
+	}
+	
+	/**
+	 * Indexes the given commits, if a filter is applied, and prepares the filter for evaluation.
+	 * 
+	 * @param text    The filter text.
+	 * @param commits The commits on which the filter will be evaluated.
 	 * 
-	 * @return <code>true</code> if commit should be filtered
+	 * @return The prepared filter.
 	 */
-	private static boolean shouldFilterCommit(
-      String textFilter,
-      String date,
-      String author,
-      String shortCommitId,
-      String longCommitId,
-      String message) {
-	  boolean shouldFilter = false;
-	  String[] tokens = textFilter.split("[, .!-]+");
-	  for (int i = 0; i < tokens.length; i++) {
-	    String token = tokens[i].trim();
-	    String lowercaseToken = token.toLowerCase();
-	    if(!author.contains(lowercaseToken) &&
-          !date.contains(token) &&
-          !message.contains(lowercaseToken) &&
-          !longCommitId.equals(lowercaseToken) &&
-          !shortCommitId.equals(lowercaseToken)){
-        return true;
-      }
+	private CommitsSearchIndex.Query prepareFilter(String text, List<CommitCharacteristics> commits) {
+	  CommitsSearchIndex.Query query = CommitsSearchIndex.Query.ALL;
+	  if (text != null && !text.isEmpty()) {
+	    for (CommitCharacteristics commit : commits) {
+	      searchIndex.index(commit);
+	    }
+	    query = searchIndex.createQuery(text);
 	  }
-	  return shouldFilter;
+	  return query;
 	}
 
 }
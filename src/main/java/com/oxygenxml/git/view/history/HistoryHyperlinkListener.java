@@ -1,7 +1,5 @@
 package com.oxygenxml.git.view.history;
 
-import java.util.List;
-
 import javax.swing.JTable;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
@@ -15,31 +13,27 @@ public class HistoryHyperlinkListener implements HyperlinkListener {
 	 * Table for showing commit history.
 	 */
 	private JTable historyTable;
-	
-	/**
-	 * The Vector with CommitCharcteristics.
-	 */
-	private List<CommitCharacteristics> commits;
 
 	/**
 	 * Construct HyperlinkListener parent commit id shown in commitDescriptionPane.
+	 * The commits are taken from the table model, which grows as the history pages are loaded.
 	 * 
 	 * @param historyTable   The historyTable
-	 * @param commits        The list with commitCharacterstics.
 	 */
-	public HistoryHyperlinkListener(JTable historyTable, List<CommitCharacteristics> commits) {
+	public HistoryHyperlinkListener(JTable historyTable) {
 		this.historyTable = historyTable;
-		this.commits = commits;
 	}
 
 	@Override
 	public void hyperlinkUpdate(HyperlinkEvent event) {
 		// select the row of parent commit in history Table
-		if (event.getEventType() == HyperlinkEvent.EventType.ACTIVATED) {
+		if (event.getEventType() == HyperlinkEvent.EventType.ACTIVATED
+		    && historyTable.getModel() instanceof HistoryCommitTableModel) {
 			String query = event.getURL().getQuery();
 			int parentStringIdx = query.indexOf('=') + 1;
 			String parentCommitId = query.substring(parentStringIdx);
-			int parentTableIndex = CommitCharacteristics.getCommitTableIndex(commits, parentCommitId);
+			int parentTableIndex = CommitCharacteristics.getCommitTableIndex(
+			    ((HistoryCommitTableModel) historyTable.getModel()).getAllCommits(), parentCommitId);
 			if (parentTableIndex != -1) {
 				historyTable.getSelectionModel().setSelectionInterval(parentTableIndex, parentTableIndex);
 			}
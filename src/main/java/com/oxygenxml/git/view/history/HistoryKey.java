@@ -0,0 +1,153 @@
+package com.oxygenxml.git.view.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+
+import com.oxygenxml.git.service.RevCommitUtil;
+
+/**
+ * Identifies the data presented in the history view: the repository, the strategy, the resource,
+ * the heads of the presented branches and the tags.
+ * <br><br>
+ * When the key of a refresh is equal to the key of the presented history, the commits graph
+ * doesn't need to be walked again.
+ */
+public class HistoryKey {
+
+  /**
+   * The repository directory.
+   */
+  private final File repositoryDir;
+
+  /**
+   * The strategy used to present the history.
+   */
+  private final HistoryStrategy strategy;
+
+  /**
+   * The resource for which the history is presented. <code>null</code> for the entire repository.
+   */
+  private final String filePath;
+
+  /**
+   * The current branch, or the checked out commit when on a detached HEAD.
+   */
+  private final String fullBranch;
+
+  /**
+   * The presented branches and the tags. Key: full ref name, value: the commit.
+   */
+  private final Map<String, ObjectId> refs;
+
+  /**
+   * <code>true</code> if the uncommitted changes are presented.
+   */
+  private final boolean hasUncommittedChanges;
+
+  /**
+   * Constructor.
+   *
+   * @param repositoryDir         The repository directory.
+   * @param strategy              The strategy used to present the history.
+   * @param filePath              The resource for which the history is presented. <code>null</code> for the entire repository.
+   * @param fullBranch            The current branch.
+   * @param refs                  The presented branches and the tags.
+   * @param hasUncommittedChanges <code>true</code> if the uncommitted changes are presented.
+   */
+  HistoryKey(
+      File repositoryDir,
+      HistoryStrategy strategy,
+      String filePath,
+      String fullBranch,
+      Map<String, ObjectId> refs,
+      boolean hasUncommittedChanges) {
+    this.repositoryDir = repositoryDir;
+    this.strategy = strategy;
+    this.filePath = filePath;
+    this.fullBranch = fullBranch;
+    this.refs = refs;
+    this.hasUncommittedChanges = hasUncommittedChanges;
+  }
+
+  /**
+   * Computes the key for the current state of the repository.
+   *
+   * @param strategy              The strategy used to present the history.
+   * @param filePath              The resource for which the history is presented. <code>null</code> for the entire repository.
+   * @param repository            The current repository.
+   * @param hasUncommittedChanges <code>true</code> if the uncommitted changes are presented.
+   *
+   * @return The key.
+   *
+   * @throws IOException When the refs cannot be read.
+   */
+  public static HistoryKey create(
+      HistoryStrategy strategy,
+      String filePath,
+      Repository repository,
+      boolean hasUncommittedChanges) throws IOException {
+    Map<String, ObjectId> refs = new HashMap<>();
+    addRefs(RevCommitUtil.getHistoryTips(strategy, repository), refs);
+    // The tags are presented next to the commits.
+    addRefs(repository.getRefDatabase().getRefsByPrefix(Constants.R_TAGS), refs);
+
+    return new HistoryKey(
+        repository.getDirectory(), strategy, filePath, repository.getFullBranch(), refs, hasUncommittedChanges);
+  }
+
+  /**
+   * Adds the refs to the map.
+   *
+   * @param toAdd The refs to add.
+   * @param refs  Key: full ref name, value: the referred object.
+   */
+  private static void addRefs(List<Ref> toAdd, Map<String, ObjectId> refs) {
+    for (Ref ref : toAdd) {
+      refs.put(ref.getName(), ref.getObjectId());
+    }
+  }
+
+  /**
+   * Checks if the other key presents the history of the same resource, in the same way. 
+   * Only the commits might differ, so the presented history can be updated incrementally.
+   *
+   * @param other The other key. Can be <code>null</code>.
+   *
+   * @return <code>true</code> if both keys present the same repository, strategy and resource.
+   */
+  public boolean hasSameScope(HistoryKey other) {
+    return other != null
+        && strategy == other.strategy
+        && Objects.equals(repositoryDir, other.repositoryDir)
+        && Objects.equals(filePath, other.filePath);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(repositoryDir, strategy, filePath, fullBranch, refs, hasUncommittedChanges);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    boolean equals = false;
+    if (this == obj) {
+      equals = true;
+    } else if (obj instanceof HistoryKey) {
+      HistoryKey other = (HistoryKey) obj;
+      equals = hasSameScope(other)
+          && hasUncommittedChanges == other.hasUncommittedChanges
+          && Objects.equals(fullBranch, other.fullBranch)
+          && refs.equals(other.refs);
+    }
+    return equals;
+  }
+}
@@ -8,6 +8,7 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
@@ -16,15 +17,15 @@ import java.awt.event.MouseEvent;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -49,7 +50,6 @@ import javax.swing.table.TableColumnModel;
 import javax.swing.table.TableModel;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
@@ -62,9 +62,12 @@ import com.jidesoft.swing.JideSplitPane;
 import com.oxygenxml.git.constants.Icons;
 import com.oxygenxml.git.constants.UIConstants;
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.FetchCoordinator;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitEventAdapter;
 import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.PagedCommitsLoader;
+import com.oxygenxml.git.service.RefDecorationIndex;
 import com.oxygenxml.git.service.RevCommitUtil;
 import com.oxygenxml.git.service.annotation.TestOnly;
 import com.oxygenxml.git.service.entities.FileStatus;
@@ -109,7 +112,12 @@ public class HistoryPanel extends JPanel {
    * History label right inset.
    */
   private static final int INFO_HISTORY_WIDTH_INSET = 20;
-  
+
+  /**
+   * The next page of commits is loaded when the user scrolls this close (in rows) to the last loaded commit.
+   */
+  private static final int COMMITS_PREFETCH_ROWS = 50;
+
   /**
    * Logger for logging.
    */
@@ -155,6 +163,17 @@ public class HistoryPanel extends JPanel {
    */
   private RowHistoryTableSelectionListener revisionDataUpdater;
   
+  /**
+   * The words of the presented commits, used by the filter. Kept between the refreshes 
+   * of the history of the same repository.
+   */
+  private CommitsSearchIndex searchIndex;
+  
+  /**
+   * The directory of the repository whose commits are indexed.
+   */
+  private File searchIndexRepository;
+  
   /**
    * The changed files from a commit.
    */
@@ -227,6 +246,26 @@ public class HistoryPanel extends JPanel {
    */
   private ObjectId selectedCommitId = null;
   
+  /**
+   * Loads the next pages of the presented history.
+   */
+  private transient volatile PagedCommitsLoader commitsLoader = null;
+  
+  /**
+   * <code>true</code> while a page of commits is being loaded.
+   */
+  private final AtomicBoolean isLoadingCommitsPage = new AtomicBoolean(false);
+  
+  /**
+   * Identifies the presented history. <code>null</code> if nothing is presented yet.
+   */
+  private volatile HistoryKey presentedHistoryKey = null;
+  
+  /**
+   * A commit to select as soon as the page that contains it gets loaded.
+   */
+  private volatile ObjectId commitToReveal = null;
+  
 
   /**
    * Constructor.
@@ -263,6 +302,8 @@ public class HistoryPanel extends JPanel {
 
     JScrollPane historyTableScrollPane = new JScrollPane(historyTable);
     historyTable.setFillsViewportHeight(true);
+    // Load the next commits when the user scrolls near the end of the loaded ones.
+    historyTableScrollPane.getViewport().addChangeListener(e -> loadMoreCommitsIfNeeded());
 
     commitDescriptionPane = new JEditorPane();
     initEditorPane(commitDescriptionPane);
@@ -315,8 +356,9 @@ public class HistoryPanel extends JPanel {
           switch (operation) {
           case OPEN_WORKING_COPY:
             clearCommitsCache();
+            presentedHistoryKey = null;
             selectedCommitId = null;
-            GitOperationScheduler.getInstance().schedule(HistoryPanel.this::showRepositoryHistory);
+            GitOperationScheduler.getInstance().scheduleRead(HistoryPanel.this::showRepositoryHistory);
             break;
           case PULL:
           case PUSH:
@@ -431,7 +473,7 @@ public class HistoryPanel extends JPanel {
         public void editorSaved(int operationType) {
           boolean newHasUncommitedChanges = GitAccess.getInstance().getStatusCache().getStatus().hasUncommittedChanges();
           if(hasUncommitedChanges != newHasUncommitedChanges) {
-            GitOperationScheduler.getInstance().schedule(() -> treatEditorSavedEvent(editorLocation));
+            GitOperationScheduler.getInstance().scheduleRead(() -> treatEditorSavedEvent(editorLocation));
           }
           hasUncommitedChanges = newHasUncommitedChanges;
         }
@@ -462,6 +504,7 @@ public class HistoryPanel extends JPanel {
 				button.setText(strategy.toString());
 				OptionsManager.getInstance().setHistoryStrategy(strategy);
 				scheduleRefreshHistory();
+				scheduleUpstreamFetch();
 			}
 			
 		   };
@@ -699,8 +742,12 @@ public class HistoryPanel extends JPanel {
         TableModel tableModel = historyTable.getModel();
         if(tableModel instanceof HistoryCommitTableModel) {
           HistoryCommitTableModel historyTableModel = (HistoryCommitTableModel) tableModel;
-          graphCellRender.setShouldBePainted(text == null || text.isEmpty());
-          historyTableModel.filterChanged(text);
+          // The commits are filtered in the background, so typing is not blocked on long histories.
+          historyTableModel.scheduleFilter(text, () -> {
+            graphCellRender.setShouldBePainted(text == null || text.isEmpty());
+            // The filtered rows might not fill the view anymore.
+            loadMoreCommitsIfNeeded();
+          });
         }
       }
     };
@@ -714,6 +761,9 @@ public class HistoryPanel extends JPanel {
         }
         clearCommitsCache();
         scheduleRefreshHistory();
+        // Explicitly requested. Contact the remote even if it was fetched recently.
+        FetchCoordinator.getInstance().invalidate();
+        scheduleUpstreamFetch();
       }
     };
     
@@ -746,6 +796,7 @@ public class HistoryPanel extends JPanel {
    */
   public void showRepositoryHistory() {
     showHistory(null, true);
+    scheduleUpstreamFetch();
   }
   
 
@@ -755,15 +806,35 @@ public class HistoryPanel extends JPanel {
    * @param filePath File for which to present the commit that changed him.
    */
   public void showHistory(String filePath) {
+    boolean isNewResource = !Equaler.verifyEquals(filePath, activeFilePath);
     showHistory(filePath, false);
+    if (isNewResource) {
+      scheduleUpstreamFetch();
+    }
   }
 
   
   /**
-   * Schedules commit history to show for the active file.
+   * Schedules commit history to show for the active file. The history is computed
+   * from the local refs, without contacting the remote.
    */
   public void scheduleRefreshHistory() {
-    GitOperationScheduler.getInstance().schedule(() -> showHistory(activeFilePath, true));
+    GitOperationScheduler.getInstance().scheduleRead(() -> showHistory(activeFilePath, true));
+  }
+  
+
+  /**
+   * Schedules a fetch, to learn about the upstream commits. The history is already presented
+   * from the local refs, so when the fetch brings new commits they are merged into the
+   * presented history. Nothing is recomputed if no presented branch moved.
+   */
+  private void scheduleUpstreamFetch() {
+    // The fetch moves the remote-tracking branches, so it runs on the write lane.
+    GitOperationScheduler.getInstance().schedule(() -> {
+      if (tryFetch()) {
+        GitOperationScheduler.getInstance().scheduleRead(() -> showHistory(activeFilePath, true));
+      }
+    });
   }
   
 
@@ -773,8 +844,10 @@ public class HistoryPanel extends JPanel {
    * @param filePath File for which to present the commit that changed him.
    * @param force    <code>true</code> to recompute the history data, even if the
    *                 view already presents the history for the given resource.
+   *                 
+   * Synchronized because the history is computed on the read lane, where the operations run in parallel.
    */
-  private void showHistory(String filePath, boolean force) {
+  private synchronized void showHistory(String filePath, boolean force) {
 	 
     SwingUtilities.invokeLater(() -> updateSelectionMode(filePath));
 
@@ -784,18 +857,58 @@ public class HistoryPanel extends JPanel {
       this.activeFilePath = filePath;
 
       try {
-        // Make sure we know about the remote as well, to present data about the
-        // upstream branch.
-        tryFetch();
-
+        // The remote is contacted separately, in scheduleUpstreamFetch(). 
+        // The local graph is presented right away.
         final Repository repository = gitAccess.getRepository();
+        final HistoryKey historyKey = HistoryKey.create(currentStrategy, filePath, repository, 
+            filePath == null && gitAccess.getStatusCache().getStatus().hasUncommittedChanges());
+        if (!commitsCache.isEmpty() && historyKey.equals(presentedHistoryKey)) {
+          // No presented branch moved since the last time. The graph doesn't need to be walked again.
+          return;
+        }
+        
         final RenameTracker renameTracker = new RenameTracker();
-        final List<CommitCharacteristics> commitCharacteristicsVector = gitAccess.getCommitsCharacteristics(
-            currentStrategy, filePath, renameTracker);
+        // Only the first page is computed up-front. The rest are loaded while scrolling.
+        final PagedCommitsLoader loader = gitAccess.createCommitsLoader(currentStrategy, filePath, renameTracker);
+        final List<CommitCharacteristics> commitCharacteristicsVector;
+        try {
+          commitCharacteristicsVector = loader.loadNextPage(PagedCommitsLoader.DEFAULT_PAGE_SIZE);
+        } catch (IOException e) {
+          loader.close();
+          throw e;
+        }
         final boolean shouldRefreshHistory = checkForCommitsUpdate(commitCharacteristicsVector);
-        if(shouldRefreshHistory) {
+        final TableModel presentedModel = historyTable.getModel();
+        if(shouldRefreshHistory 
+            && historyKey.hasSameScope(presentedHistoryKey) 
+            && presentedModel instanceof HistoryCommitTableModel) {
+          // Only the commits changed, like after a commit or a pull. Update the presented rows.
+          // Load as many commits as presented, so the pages loaded so far are not dropped.
+          final int presentedCount = ((HistoryCommitTableModel) presentedModel).getUnfilteredCommitsCount();
+          final List<CommitCharacteristics> commits = new ArrayList<>(commitCharacteristicsVector);
+          try {
+            while (commits.size() < presentedCount && loader.hasMore()) {
+              commits.addAll(loader.loadNextPage(PagedCommitsLoader.DEFAULT_PAGE_SIZE));
+            }
+          } catch (IOException e) {
+            loader.close();
+            throw e;
+          }
+          setCommitsLoader(loader);
+          updateHistoryViewIncrementally(filePath, repository, renameTracker, commits);
+        } else if(shouldRefreshHistory) {
+          setCommitsLoader(loader);
         	updateHistoryView(filePath, repository, renameTracker, commitCharacteristicsVector);    
-        } 
+        } else {
+          // The view already presents these commits, together with the pages loaded so far.
+          loader.close();
+          if (historyKey.hasSameScope(presentedHistoryKey)) {
+            // The branches or the tags might have moved.
+            final CommitMessageTableRenderer renderer = createCommitMessageRenderer(repository);
+            SwingUtilities.invokeLater(() -> historyTable.setDefaultRenderer(CommitCharacteristics.class, renderer));
+          }
+        }
+        presentedHistoryKey = historyKey;
       } catch (NoRepositorySelected | IOException e) {
         LOGGER.debug(e.getMessage(), e);
         PluginWorkspaceProvider.getPluginWorkspace()
@@ -821,22 +934,7 @@ public class HistoryPanel extends JPanel {
 			final RenameTracker renameTracker,
 			final List<CommitCharacteristics> actualCommits) 
 					throws NoRepositorySelected, IOException {
-		File directory = gitAccess.getWorkingCopy();
-		final ObjectId branchHeadObjectId = getLocalBranchHead(actualCommits, repository);
-		if(branchHeadObjectId != null) {
-			graphCellRender.setLastCommitIdForCurrentBranch(branchHeadObjectId.getName());
-    }
-		historyLabelMessage = TRANSLATOR.getTranslation(Tags.REPOSITORY) + ": " + directory.getName() + ". "
-		    + TRANSLATOR.getTranslation(Tags.BRANCH) + ": " + gitAccess.getBranchInfo().getBranchName() + ".";
-		if (filePath != null) {
-		  directory = new File(directory, filePath); // NOSONAR findsecbugs:PATH_TRAVERSAL_IN
-		  historyLabelMessage += " " + TRANSLATOR.getTranslation(Tags.FILE) + ": " + directory.getName() + ".";
-		}
-    
-		updateTopPanelComponentsSize();
-		
-		historyInfoLabel.setToolTipText(historyLabelMessage);
-		historyInfoLabel.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 0));
+		updateHistoryLabel(filePath, repository, actualCommits);
 
 		// Install selection listener.
 		if (revisionDataUpdater != null) {
@@ -862,26 +960,23 @@ public class HistoryPanel extends JPanel {
 
 		hasUncommitedChanges = GitAccess.getInstance().getStatusCache().getStatus().hasUncommittedChanges();
     
-		final CommitsAheadAndBehind commitsAheadAndBehind = RevCommitUtil.getCommitsAheadAndBehind(repository,
-		    repository.getFullBranch());
-		Optional.ofNullable(contextualMenuPresenter).ifPresent(
-		    menuPresenter -> menuPresenter.setCommitsAheadAndBehind(commitsAheadAndBehind));
-		// Compute the row height.
-		final String currentBranchName = gitAccess.getBranchInfo().getBranchName();
-		final Map<String, List<String>> localBranchesMap = gitAccess.getBranchMap(repository, ConfigConstants.CONFIG_KEY_LOCAL);
-		CommitMessageTableRenderer renderer = new CommitMessageTableRenderer(repository, commitsAheadAndBehind,
-		    currentBranchName, getTagMap(repository),
-		    localBranchesMap,
-		    gitAccess.getBranchMap(repository, ConfigConstants.CONFIG_KEY_REMOTE));
+		CommitMessageTableRenderer renderer = createCommitMessageRenderer(repository);
 		
+		// Compute the row height.
 		final int rh = getRowHeight(renderer, getFirstCommit(actualCommits));
 
+		if (searchIndex == null || !repository.getDirectory().equals(searchIndexRepository)) {
+		  searchIndex = new CommitsSearchIndex();
+		  searchIndexRepository = repository.getDirectory();
+		}
+		// The commits are indexed here, in the background, if a filter is applied.
 		final HistoryCommitTableModel historyModel = new HistoryCommitTableModel(
-		    actualCommits);
+		    actualCommits, searchIndex, filter.getText());
 		
 		SwingUtilities.invokeLater(() -> { 
-		  historyModel.filterChanged(filter.getText());
 		  historyTable.setModel(historyModel);
+		  // The filter might have changed meanwhile.
+		  filter.filterChanged(filter.getText());
 		  updateHistoryTableWidths();
 		  historyTable.setDefaultRenderer(PlotCommit.class, graphCellRender);
 		  historyTable.setDefaultRenderer(CommitCharacteristics.class, renderer);
@@ -889,6 +984,7 @@ public class HistoryPanel extends JPanel {
 		  TableColumn authorColumn = historyTable.getColumn(TRANSLATOR.getTranslation(Tags.AUTHOR));
 		  authorColumn.setCellRenderer(createAuthorColumnRenderer());
 		  historyTable.setRowHeight(rh);
+		  loadMoreCommitsIfNeeded();
 		});
 
 		revisionDataUpdater = new RowHistoryTableSelectionListener(getUpdateDelay(), 
@@ -903,7 +999,7 @@ public class HistoryPanel extends JPanel {
 		if (hyperlinkListener != null) {
 		  commitDescriptionPane.removeHyperlinkListener(hyperlinkListener);
 		}
-		hyperlinkListener = new HistoryHyperlinkListener(historyTable, actualCommits);
+		hyperlinkListener = new HistoryHyperlinkListener(historyTable);
 		commitDescriptionPane.addHyperlinkListener(hyperlinkListener);
 		
 		SwingUtilities.invokeLater(() -> { 
@@ -920,6 +1016,112 @@ public class HistoryPanel extends JPanel {
 		
 	}
 
+	/**
+	 * Updates the presented history with a newer version of it, computed for the same resource 
+	 * and strategy. Only the rows of the added or removed commits are processed, the selection, 
+	 * the scroll position and the listeners are preserved.
+	 * 
+	 * @param filePath                      File for which to present the commit that changed him.
+	 * @param repository                    The current repository.
+	 * @param renameTracker                 The rename tracker for the current file path presented.
+	 * @param actualCommits                 The actual commits for the given repository.
+	 * 
+	 * @throws NoRepositorySelected  When no repository is loaded.
+	 * @throws IOException           When IO problems occur.
+	 */
+	private void updateHistoryViewIncrementally(
+	    final String filePath, 
+	    final Repository repository, 
+	    final RenameTracker renameTracker,
+	    final List<CommitCharacteristics> actualCommits) 
+	        throws NoRepositorySelected, IOException {
+	  updateHistoryLabel(filePath, repository, actualCommits);
+	  
+	  hasUncommitedChanges = GitAccess.getInstance().getStatusCache().getStatus().hasUncommittedChanges();
+	  
+	  // The branches and tags might have moved.
+	  final CommitMessageTableRenderer renderer = createCommitMessageRenderer(repository);
+	  final RowHistoryTableSelectionListener selectionListener = revisionDataUpdater;
+	  
+	  SwingUtilities.invokeLater(() -> {
+	    if (selectionListener != null) {
+	      selectionListener.setRenameTracker(renameTracker);
+	    }
+	    historyTable.setDefaultRenderer(CommitCharacteristics.class, renderer);
+	    TableModel model = historyTable.getModel();
+	    if (model instanceof HistoryCommitTableModel) {
+	      // The changed rows are computed in the background.
+	      ((HistoryCommitTableModel) model).scheduleUpdate(actualCommits, lanesMoved -> {
+	        if (lanesMoved.booleanValue()) {
+	          // Only the visible rows are painted again.
+	          historyTable.repaint(historyTable.getVisibleRect());
+	        }
+	        if (historyTable.getSelectedRow() == -1) {
+	          // The selected commit is no longer presented. Select the local branch HEAD.
+	          try {
+	            selectLocalBranchHead(actualCommits, repository);
+	          } catch (IOException ex) {
+	            LOGGER.error(ex.getMessage(), ex);
+	          }
+	        }
+	        loadMoreCommitsIfNeeded();
+	      });
+	    }
+	  });
+	}
+	
+	/**
+	 * Updates the label that shows information about the presented history.
+	 * 
+	 * @param filePath                      File for which to present the commit that changed him.
+	 * @param repository                    The current repository.
+	 * @param actualCommits                 The actual commits for the given repository.
+	 * 
+	 * @throws NoRepositorySelected  When no repository is loaded.
+	 * @throws IOException           When IO problems occur.
+	 */
+	private void updateHistoryLabel(
+	    final String filePath, 
+	    final Repository repository, 
+	    final List<CommitCharacteristics> actualCommits) throws NoRepositorySelected, IOException {
+	  File directory = gitAccess.getWorkingCopy();
+	  final ObjectId branchHeadObjectId = getLocalBranchHead(actualCommits, repository);
+	  if(branchHeadObjectId != null) {
+	    graphCellRender.setLastCommitIdForCurrentBranch(branchHeadObjectId.getName());
+	  }
+	  historyLabelMessage = TRANSLATOR.getTranslation(Tags.REPOSITORY) + ": " + directory.getName() + ". "
+	      + TRANSLATOR.getTranslation(Tags.BRANCH) + ": " + gitAccess.getBranchInfo().getBranchName() + ".";
+	  if (filePath != null) {
+	    directory = new File(directory, filePath); // NOSONAR findsecbugs:PATH_TRAVERSAL_IN
+	    historyLabelMessage += " " + TRANSLATOR.getTranslation(Tags.FILE) + ": " + directory.getName() + ".";
+	  }
+
+	  updateTopPanelComponentsSize();
+
+	  historyInfoLabel.setToolTipText(historyLabelMessage);
+	  historyInfoLabel.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 0));
+	}
+	
+	/**
+	 * Creates the renderer for the commit message column, with the current tags and branches.
+	 * 
+	 * @param repository The current repository.
+	 * 
+	 * @return The renderer.
+	 * 
+	 * @throws IOException When IO problems occur.
+	 */
+	private CommitMessageTableRenderer createCommitMessageRenderer(final Repository repository) throws IOException {
+	  final CommitsAheadAndBehind commitsAheadAndBehind = RevCommitUtil.getCommitsAheadAndBehind(repository,
+	      repository.getFullBranch());
+	  Optional.ofNullable(contextualMenuPresenter).ifPresent(
+	      menuPresenter -> menuPresenter.setCommitsAheadAndBehind(commitsAheadAndBehind));
+	  final String currentBranchName = gitAccess.getBranchInfo().getBranchName();
+	  // Rebuilt only if the references changed since the last refresh.
+	  return new CommitMessageTableRenderer(repository, commitsAheadAndBehind,
+	      currentBranchName, RefDecorationIndex.getInstance().update(repository));
+	}
+
 	/**
 	 * Creates a listener for commits selection changes.
 	 * 
@@ -943,6 +1145,87 @@ public class HistoryPanel extends JPanel {
 		};
 	}
 
+  /**
+   * Sets the loader for the presented history and releases the previous one.
+   * 
+   * @param loader The new loader.
+   */
+  private void setCommitsLoader(PagedCommitsLoader loader) {
+    PagedCommitsLoader previousLoader = commitsLoader;
+    commitsLoader = loader;
+    if (previousLoader != null) {
+      previousLoader.close();
+    }
+  }
+  
+  /**
+   * Loads the next page of commits if the user scrolled near the last loaded commit 
+   * or if the loaded commits don't fill the view. Called on the AWT thread.
+   */
+  private void loadMoreCommitsIfNeeded() {
+    if (historyTable.isShowing()) {
+      Rectangle visibleRect = historyTable.getVisibleRect();
+      int lastVisibleRow = historyTable.rowAtPoint(new Point(0, visibleRect.y + visibleRect.height - 1));
+      if (lastVisibleRow == -1 || lastVisibleRow >= historyTable.getRowCount() - COMMITS_PREFETCH_ROWS) {
+        scheduleNextCommitsPage();
+      }
+    }
+  }
+  
+  /**
+   * Schedules the loading of the next page of commits, unless one is already being loaded.
+   */
+  private void scheduleNextCommitsPage() {
+    final PagedCommitsLoader loader = commitsLoader;
+    final TableModel model = historyTable.getModel();
+    if (loader != null && loader.hasMore() && isLoadingCommitsPage.compareAndSet(false, true)) {
+      GitOperationScheduler.getInstance().scheduleRead(() -> {
+        List<CommitCharacteristics> page = Collections.emptyList();
+        synchronized (HistoryPanel.this) {
+          try {
+            page = loader.loadNextPage(PagedCommitsLoader.DEFAULT_PAGE_SIZE);
+          } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+            loader.close();
+          }
+        }
+        
+        if (model instanceof HistoryCommitTableModel) {
+          ((HistoryCommitTableModel) model).prepareCommits(page);
+        }
+        
+        final List<CommitCharacteristics> loadedCommits = page;
+        SwingUtilities.invokeLater(() -> {
+          isLoadingCommitsPage.set(false);
+          // Ignore the page if meanwhile the history was recomputed.
+          if (loader == commitsLoader && historyTable.getModel() instanceof HistoryCommitTableModel) {
+            ((HistoryCommitTableModel) historyTable.getModel()).addCommits(loadedCommits);
+            // The lanes of the new commits might pass through the presented rows.
+            historyTable.repaint(historyTable.getVisibleRect());
+            revealPendingCommit();
+            loadMoreCommitsIfNeeded();
+          }
+        });
+      });
+    }
+  }
+  
+  /**
+   * Selects the commit requested through {@link #showCommit(String, RevCommit)}, 
+   * loading more pages if it is not yet loaded. Called on the AWT thread.
+   */
+  private void revealPendingCommit() {
+    final ObjectId id = commitToReveal;
+    if (id != null) {
+      final PagedCommitsLoader loader = commitsLoader;
+      if (selectCommit(id) || loader == null || !loader.hasMore()) {
+        commitToReveal = null;
+      } else {
+        scheduleNextCommitsPage();
+      }
+    }
+  }
+
   /**
    * This method checks for commits update.
    * 
@@ -1005,24 +1288,6 @@ public class HistoryPanel extends JPanel {
   }
   
 
-  /**
-   * Gets the tags from the current repository.
-   * 
-   * @param repo Git repository.
-   * 
-   * @return The tags or an empty map. Never null.
-   */
-  private Map<String, List<String>> getTagMap(Repository repo) {
-    Map<String, List<String>> tagMap = new HashMap<>();
-    try {
-      tagMap = gitAccess.getTagMap(repo);
-    } catch (GitAPIException | IOException e) {
-      LOGGER.debug(e.getMessage(), e);
-    }
-
-    return tagMap;
-  }
-
   
   /**
    * Gets the preferred height needed to render the commit information.
@@ -1107,15 +1372,20 @@ public class HistoryPanel extends JPanel {
 
   /**
    * Tries a fetch to update remote information.
+   * 
+   * @return <code>true</code> if the fetch was performed.
    */
-  private void tryFetch() {
+  private boolean tryFetch() {
+    boolean fetched = false;
     try {
-      gitAccess.fetch();
+      FetchCoordinator.getInstance().fetch();
+      fetched = true;
     } catch (SSHPassphraseRequiredException | PrivateRepositoryException | RepositoryUnavailableException e) {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug(e.getMessage(), e);
       }
     }
+    return fetched;
   }
 
   
@@ -1168,11 +1438,10 @@ public class HistoryPanel extends JPanel {
    * @param activeRevCommit The commit to select in the view.
    */
   public void showCommit(String filePath, RevCommit activeRevCommit) {
+    commitToReveal = activeRevCommit != null ? activeRevCommit.getId() : null;
     showHistory(filePath);
-    if (activeRevCommit != null) {
-      ObjectId id = activeRevCommit.getId();
-      selectCommit(id);
-    }
+    // The commit might be in a page that is not yet loaded.
+    SwingUtilities.invokeLater(this::revealPendingCommit);
   }
 
   
@@ -243,7 +243,7 @@ public class HistoryViewContextualMenuPresenter {
     if (!GitAccess.UNCOMMITED_CHANGES.getCommitId().equals(commitId)) {
       jPopupMenu.add(new CreateBranchFromCommitAction(gitCtrl, commitId));
       jPopupMenu.add(new CreateTagAction(commitId));
-      jPopupMenu.add(new CheckoutCommitAction(commitCharacteristics.getPlotCommit()));
+      jPopupMenu.add(new CheckoutCommitAction(commitId));
       jPopupMenu.addSeparator();
       jPopupMenu.add(new RevertCommitAction(commitCharacteristics));
       jPopupMenu.add(new ResetBranchToCommitAction(commitCharacteristics));
@@ -5,6 +5,7 @@ import java.awt.event.ActionListener;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import javax.swing.JEditorPane;
 import javax.swing.JTable;
@@ -17,8 +18,9 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.oxygenxml.git.service.ChangedFilesCache;
 import com.oxygenxml.git.service.GitAccess;
-import com.oxygenxml.git.service.RevCommitUtil;
+import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
@@ -47,8 +49,6 @@ public class RowHistoryTableSelectionListener implements ListSelectionListener {
     @SuppressWarnings("java:S1192")
     private void setCommitDescription() {
       int selectedRow = historyTable.getSelectedRow();
-      HistoryTableAffectedFilesModel dataModel = (HistoryTableAffectedFilesModel) changesTable.getModel();
-      dataModel.setFilesStatus(new ArrayList<>());
       if (selectedRow != -1) {
         CommitCharacteristics commitCharacteristics = ((HistoryCommitTableModel) historyTable.getModel())
             .getAllCommits().get(selectedRow);
@@ -80,7 +80,7 @@ public class RowHistoryTableSelectionListener implements ListSelectionListener {
         commitDescriptionPane.setText(commitDescription.toString());
         commitDescriptionPane.setCaretPosition(0);
 
-       updateDataModel(commitCharacteristics);
+       updateDataModel(commitCharacteristics, selectedRow);
       }
     }
 
@@ -125,26 +125,92 @@ public class RowHistoryTableSelectionListener implements ListSelectionListener {
     }
 
     /**
-     * Update data model.
+     * Update data model. The changed files are computed on a background thread, unless
+     * they are already cached. The neighbor commits, in the direction in which the selection moved,
+     * are computed in advance.
      * 
      * @param commitCharacteristics Details about the current commit.
+     * @param selectedRow           The row of the commit.
      */
-    private void updateDataModel(CommitCharacteristics commitCharacteristics) {
+    private void updateDataModel(CommitCharacteristics commitCharacteristics, int selectedRow) {
+      // The computations requested for the previous selection are no longer needed.
+      cancelPendingLoads();
+      requestedCommit = commitCharacteristics;
+      
       HistoryTableAffectedFilesModel dataModel = (HistoryTableAffectedFilesModel) changesTable.getModel();
-      List<FileStatus> files = new ArrayList<>();
-      if(GitAccess.UNCOMMITED_CHANGES != commitCharacteristics) {
-        try {
-          files.addAll(RevCommitUtil.getChangedFiles(commitCharacteristics.getCommitId()));
-        } catch (IOException | GitAPIException e) {
-        LOGGER.error(e.getMessage(), e);
-      }
+      List<FileStatus> cached = GitAccess.UNCOMMITED_CHANGES != commitCharacteristics 
+          ? ChangedFilesCache.getInstance().getCachedChangedFiles(commitCharacteristics.getCommitId()) : null;
+      if (cached != null) {
+        dataModel.setFilesStatus(cached);
       } else {
-        files.addAll(GitAccess.getInstance().getUnstagedFiles());
+        pendingLoads.add(GitOperationScheduler.getInstance().scheduleRead(() -> {
+          List<FileStatus> files = computeChangedFiles(commitCharacteristics);
+          SwingUtilities.invokeLater(() -> {
+            // Present the files only if the commit is still selected.
+            if (requestedCommit == commitCharacteristics) {
+              dataModel.setFilesStatus(files);
+            }
+          });
+        }));
+      }
+      
+      prefetchNeighbors(selectedRow);
+      lastSelectedRow = selectedRow;
+    }
+    
+    /**
+     * Computes in advance the changed files of the commits that will probably be selected next, the
+     * ones that follow the selected commit in the direction in which the selection moved.
+     * 
+     * @param selectedRow The selected row.
+     */
+    private void prefetchNeighbors(int selectedRow) {
+      int direction = selectedRow >= lastSelectedRow ? 1 : -1;
+      List<CommitCharacteristics> commits = ((HistoryCommitTableModel) historyTable.getModel()).getAllCommits();
+      for (int i = 1; i <= PREFETCHED_COMMITS; i++) {
+        int row = selectedRow + direction * i;
+        if (row >= 0 && row < commits.size()) {
+          CommitCharacteristics neighbor = commits.get(row);
+          if (GitAccess.UNCOMMITED_CHANGES != neighbor && ChangedFilesCache.getInstance().getCachedChangedFiles(neighbor.getCommitId()) == null) {
+            pendingLoads.add(GitOperationScheduler.getInstance().scheduleLowPriorityRead(() -> computeChangedFiles(neighbor)));
+          }
+        }
+      }
+    }
+    
+    /**
+     * Cancels the computations that haven't started yet. The running ones are left to finish 
+     * because their result is cached.
+     */
+    private void cancelPendingLoads() {
+      for (Future<?> pendingLoad : pendingLoads) {
+        pendingLoad.cancel(false);
       }
-      SwingUtilities.invokeLater(() -> dataModel.setFilesStatus(files));
+      pendingLoads.clear();
     }
   }
   
+  /**
+   * Computes the files changed by a commit. The files of a commit are cached for the repository.
+   * 
+   * @param commitCharacteristics The commit.
+   * 
+   * @return The changed files.
+   */
+  private List<FileStatus> computeChangedFiles(CommitCharacteristics commitCharacteristics) {
+    List<FileStatus> files = new ArrayList<>();
+    if (GitAccess.UNCOMMITED_CHANGES != commitCharacteristics) {
+      try {
+        files.addAll(ChangedFilesCache.getInstance().getChangedFiles(commitCharacteristics.getCommitId()));
+      } catch (IOException | GitAPIException e) {
+        LOGGER.error(e.getMessage(), e);
+      }
+    } else {
+      files.addAll(GitAccess.getInstance().getUnstagedFiles());
+    }
+    return files;
+  }
+  
     
    /**
     * Logger for logging.
@@ -154,6 +220,10 @@ public class RowHistoryTableSelectionListener implements ListSelectionListener {
 	 * Fake commit URL to search for parents when using hyperlink.
 	 */
 	private static final String PARENT_COMMIT_URL = "http://gitplugin.com/parent/commit?id=";
+	/**
+	 * The number of commits, next to the selected one, whose changed files are computed in advance.
+	 */
+	private static final int PREFETCHED_COMMITS = 2;
 	/**
 	 * Table for Commit History.
 	 */
@@ -183,7 +253,22 @@ public class RowHistoryTableSelectionListener implements ListSelectionListener {
   /**
    * The rename tracker for presented file.
    */
-  private final RenameTracker renameTracker;
+  private RenameTracker renameTracker;
+  
+  /**
+   * The computations of changed files requested for the current selection. Accessed only on AWT.
+   */
+  private final List<Future<?>> pendingLoads = new ArrayList<>();
+  
+  /**
+   * The commit whose changed files must be presented. Accessed only on AWT.
+   */
+  private CommitCharacteristics requestedCommit;
+  
+  /**
+   * The previously selected row. Gives the direction in which the selection moves. Accessed only on AWT.
+   */
+  private int lastSelectedRow = -1;
     
     
     
@@ -216,9 +301,22 @@ public class RowHistoryTableSelectionListener implements ListSelectionListener {
 	    this.renameTracker = renameTracker;
 	}
 
+	/**
+	 * Sets the rename tracker computed when the presented history was updated.
+	 * 
+	 * @param renameTracker The rename tracker for presented file.
+	 */
+	public void setRenameTracker(RenameTracker renameTracker) {
+	  this.renameTracker = renameTracker;
+	}
+
 	@Override
 	public void valueChanged(ListSelectionEvent e) {
 	  if (!e.getValueIsAdjusting()) {
+	    // The files of the previous selection are removed right away. The ones of the new selection 
+	    // are presented when they are known.
+	    requestedCommit = null;
+	    ((HistoryTableAffectedFilesModel) changesTable.getModel()).setFilesStatus(new ArrayList<>());
 	    if (descriptionUpdateTimer.getDelay() == 0) {
 	      // Probably from tests.
 	      descriptionUpdateListener.actionPerformed(null);
@@ -16,6 +16,7 @@ import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
 import com.oxygenxml.git.view.tags.CreateTagDialog;
+import com.oxygenxml.git.view.tags.GitTagsManager;
 
 import ro.sync.exml.workspace.api.PluginWorkspaceProvider;
 import ro.sync.exml.workspace.api.standalone.ui.OKCancelDialog;
@@ -61,6 +62,7 @@ public class CreateTagAction extends AbstractAction {
           GitAccess.getInstance().tagCommit(tagTitle, tagMessage, commitId);
           if(dialog.shouldPushNewTag()) {
             GitAccess.getInstance().pushTag(tagTitle);
+            GitTagsManager.invalidateRemoteTags();
           }
         } catch (GitAPIException | RevisionSyntaxException | NoRepositorySelected | IOException ex) {
           LOGGER.debug(ex.getMessage(), ex);
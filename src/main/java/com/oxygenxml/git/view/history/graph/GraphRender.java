@@ -1,134 +1,277 @@
 package com.oxygenxml.git.view.history.graph;
- 
+
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.revplot.AbstractPlotRenderer;
 import org.eclipse.jgit.revplot.PlotCommit;
 
+import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualCommit;
 import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualLane;
 
 /**
- * 
+ *
  * Render for commits graph in GitHistory.
  * <br>
  * Is responsible for painting the graph for a commit.
- *  
+ * <br><br>
+ * The lines and the dot of a commit are computed once, as a {@link LaneGeometry} kept by the commit,
+ * and the following paints only draw them.
+ *
  * @author alex_smarandache
- * 
- */
-public class GraphRender extends AbstractPlotRenderer<VisualCommitsList.VisualLane, Color> { 
- 
-/**
- * Graphics for paint.
+ *
  */
- private Graphics2D g;  
- 
+public class GraphRender extends AbstractPlotRenderer<VisualCommitsList.VisualLane, Color> {
+
  /**
-  * The commit.
+  * The strokes, by their width.
+  */
+ private static final BasicStroke[] STROKES = {
+     new BasicStroke(0), new BasicStroke(1), new BasicStroke(2), new BasicStroke(3),
+     new BasicStroke(4), new BasicStroke(5), new BasicStroke(6), new BasicStroke(7)
+ };
+
+ /**
+  * The commit whose geometry is computed.
   */
  private PlotCommit<VisualCommitsList.VisualLane> commit;
- 
+
  /**
   * The cell background.
   */
  private Color background;
- 
+
+ /**
+  * The lines recorded while computing a geometry. Reused between computations.
+  */
+ private int[] recordedLines = new int[LaneGeometry.LINE_VALUES * 8];
+
+ /**
+  * The number of values used from the recorded lines.
+  */
+ private int recordedLinesLength;
+
+ /**
+  * The colors of the recorded lines.
+  */
+ private final List<Color> recordedColors = new ArrayList<>();
+
+ /**
+  * The x coordinate of the recorded commit dot.
+  */
+ private int recordedDotX;
+
  /**
-  * <code>true</code> if the current commit is the last commit of current local branch.
+  * The y coordinate of the recorded commit dot.
   */
- private boolean isCurrentBranchLastCommit;
- 
- 
+ private int recordedDotY;
+
+ /**
+  * The size of the recorded commit dot. 0 if no dot was recorded.
+  */
+ private int recordedDotSize;
+
+ /**
+  * The color of the recorded commit dot.
+  */
+ private Color recordedDotColor;
+
+
 /**
   * Paints the part of the graph specific to a commit.
-  * 
+  *
   * @param commit                     The commit to paint. Must not be null.
-  * @param height                     Total height (in pixels) of this cell.   
+  * @param height                     Total height (in pixels) of this cell.
   * @param g                          The graphics.
   * @param isCurrentBranchLastCommit  <code>true</code> if the current commit is the last commit of current local branch.
   */
  public void paint(@NonNull final PlotCommit<VisualCommitsList.VisualLane> commit, final int height, final Graphics2D g, final boolean isCurrentBranchLastCommit) {
-	 this.g = g;
-	 this.g.setRenderingHint(
+	 g.setRenderingHint(
 		        RenderingHints.KEY_ANTIALIASING,
 		        RenderingHints.VALUE_ANTIALIAS_ON);
+	 final LaneGeometry geometry = getGeometry(commit, height);
+
+	 final int[] lines = geometry.lines;
+	 for (int i = 0; i < lines.length; i += LaneGeometry.LINE_VALUES) {
+		 g.setColor(geometry.colors[lines[i + LaneGeometry.COLOR]]);
+		 g.setStroke(getStroke(lines[i + LaneGeometry.WIDTH]));
+		 g.drawLine(lines[i], lines[i + 1], lines[i + 2], lines[i + 3]);
+	 }
+
+	 if (geometry.dotSize > 0) {
+		 paintCommitDot(g, geometry, isCurrentBranchLastCommit);
+	 }
+ }
+
+
+ /**
+  * Get the geometry of a commit, computing it if the commit was not painted yet at this height.
+  *
+  * @param commit The commit.
+  * @param height The row height.
+  *
+  * @return The geometry.
+  */
+ private LaneGeometry getGeometry(final PlotCommit<VisualCommitsList.VisualLane> commit, final int height) {
+	 final VisualCommit visualCommit = commit instanceof VisualCommit ? (VisualCommit) commit : null;
+	 LaneGeometry geometry = visualCommit != null ? visualCommit.getGeometry() : null;
+	 if (geometry == null || geometry.height != height) {
+		 if (visualCommit != null) {
+			 // The lanes are changed while the next page of commits is loaded.
+			 synchronized (visualCommit.getLanesLock()) {
+				 final int version = visualCommit.getGeometryVersion();
+				 geometry = computeGeometry(commit, height);
+				 visualCommit.setGeometry(geometry, version);
+			 }
+		 } else {
+			 geometry = computeGeometry(commit, height);
+		 }
+	 }
+	 return geometry;
+ }
+
+
+ /**
+  * Computes the geometry of a commit by recording what the plot renderer paints.
+  *
+  * @param commit The commit.
+  * @param height The row height.
+  *
+  * @return The geometry.
+  */
+ private LaneGeometry computeGeometry(final PlotCommit<VisualCommitsList.VisualLane> commit, final int height) {
 	 this.commit = commit;
-	 this.isCurrentBranchLastCommit = isCurrentBranchLastCommit;
+	 recordedLinesLength = 0;
+	 recordedColors.clear();
+	 recordedDotSize = 0;
+	 recordedDotColor = null;
+
 	 paintCommit(commit, height);
+
+	 this.commit = null;
+	 return new LaneGeometry(
+			 height,
+			 Arrays.copyOf(recordedLines, recordedLinesLength),
+			 recordedColors.toArray(new Color[0]),
+			 recordedDotX,
+			 recordedDotY,
+			 recordedDotSize,
+			 recordedDotColor);
  }
- 
- 
- protected void drawLine(final Color color, final int x1, final int y1, 
-		 final int x2, final int y2, final int width) { 
-	 g.setColor(color);
-	 g.setStroke(new BasicStroke(width));
-	 g.drawLine(x1, y1, x2, y2);
- } 
-
- 
- protected void drawCommitDot(final int x, final int y, final int w, 
-   final int h) { 
-	 Color color = laneColor(commit.getLane());
+
+
+ /**
+  * Paints the commit dot.
+  *
+  * @param g                         The graphics.
+  * @param geometry                  The commit geometry.
+  * @param isCurrentBranchLastCommit <code>true</code> if the current commit is the last commit of current local branch.
+  */
+ private void paintCommitDot(final Graphics2D g, final LaneGeometry geometry, final boolean isCurrentBranchLastCommit) {
+	 final int x = geometry.dotX;
+	 final int y = geometry.dotY;
+	 final int w = geometry.dotSize;
+	 final int h = geometry.dotSize;
 	 if(isCurrentBranchLastCommit) {
-     g.setColor(color);
-     g.setStroke(new BasicStroke(1));
      g.setColor(background);
-     g.setStroke(new BasicStroke(7));
+     g.setStroke(STROKES[7]);
      g.drawOval(x + 1, y, w, h);
-     g.setColor(color);
-     g.fillOval(x + 1, y, w + 1, h + 1); 
-     g.setStroke(new BasicStroke(5));
+     g.setColor(geometry.dotColor);
+     g.fillOval(x + 1, y, w + 1, h + 1);
+     g.setStroke(STROKES[5]);
      g.drawOval(x + 1, y, w, h);
      g.setColor(background);
-     g.setStroke(new BasicStroke(2));
-     g.drawOval(x + 1, y, w, h); 
+     g.setStroke(STROKES[2]);
+     g.drawOval(x + 1, y, w, h);
 	 } else {
-	   g.setColor(color);
-	   g.setStroke(new BasicStroke(2));
-	   g.fillOval(x + 1, y, w, h); 
+	   g.setColor(geometry.dotColor);
+	   g.setStroke(STROKES[2]);
+	   g.fillOval(x + 1, y, w, h);
 	   g.setColor(background);
-	   g.setStroke(new BasicStroke(1));
-	   g.drawOval(x + 1, y, w, h); 
+	   g.setStroke(STROKES[1]);
+	   g.drawOval(x + 1, y, w, h);
 	 }
- } 
- 
- 
- protected void drawBoundaryDot(final int x, final int y, final int w, 
-   final int h) { 
+ }
+
+
+ /**
+  * @param width The line width.
+  *
+  * @return The stroke with the given width.
+  */
+ private static BasicStroke getStroke(final int width) {
+	 return width >= 0 && width < STROKES.length ? STROKES[width] : new BasicStroke(width);
+ }
+
+
+ @Override
+ protected void drawLine(final Color color, final int x1, final int y1,
+		 final int x2, final int y2, final int width) {
+	 if (recordedLinesLength + LaneGeometry.LINE_VALUES > recordedLines.length) {
+		 recordedLines = Arrays.copyOf(recordedLines, recordedLines.length * 2);
+	 }
+	 int colorIndex = recordedColors.indexOf(color);
+	 if (colorIndex == -1) {
+		 colorIndex = recordedColors.size();
+		 recordedColors.add(color);
+	 }
+	 recordedLines[recordedLinesLength++] = x1;
+	 recordedLines[recordedLinesLength++] = y1;
+	 recordedLines[recordedLinesLength++] = x2;
+	 recordedLines[recordedLinesLength++] = y2;
+	 recordedLines[recordedLinesLength++] = width;
+	 recordedLines[recordedLinesLength++] = colorIndex;
+ }
+
+
+ @Override
+ protected void drawCommitDot(final int x, final int y, final int w,
+   final int h) {
+	 recordedDotX = x;
+	 recordedDotY = y;
+	 recordedDotSize = w;
+	 recordedDotColor = laneColor(commit.getLane());
+ }
+
+
+ @Override
+ protected void drawBoundaryDot(final int x, final int y, final int w,
+   final int h) {
 	// not needed
- } 
- 
- 
+ }
+
+
  @Override
- protected void drawText(final String msg, final int x, final int y) { 
+ protected void drawText(final String msg, final int x, final int y) {
 	 // not needed
- } 
- 
- 
- @Override 
- protected int drawLabel(int x, int y, Ref ref) { 
+ }
+
+
+ @Override
+ protected int drawLabel(int x, int y, Ref ref) {
 	 //not needed
   return 0;
- } 
- 
- 
+ }
+
+
+ @Override
  protected Color laneColor(final VisualLane myLane) {
-  return myLane != null ? myLane.color : GraphColorUtil.COMMIT_LINE_DEFAULT_COLOR; 
+  return myLane != null ? myLane.color : GraphColorUtil.COMMIT_LINE_DEFAULT_COLOR;
  }
 
  /**
-  * 
+  *
   * @param background The new background for render cell.
   */
  public void setBackground(Color background) {
    this.background = background;
  }
-       
-}
-
 
+}
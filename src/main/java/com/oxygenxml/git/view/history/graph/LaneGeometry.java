@@ -0,0 +1,86 @@
+package com.oxygenxml.git.view.history.graph;
+
+import java.awt.Color;
+
+/**
+ * The lines and the dot painted in the graph cell of a commit, for a given row height.
+ * <br>
+ * The lines are kept in a single array, {@link #LINE_VALUES} values for each line, so painting
+ * a row only reads the array.
+ *
+ * @author alex_smarandache
+ *
+ */
+final class LaneGeometry {
+
+  /**
+   * The number of values that describe a line: x1, y1, x2, y2, width and color index.
+   */
+  static final int LINE_VALUES = 6;
+
+  /**
+   * The index of the line width among the values of a line.
+   */
+  static final int WIDTH = 4;
+
+  /**
+   * The index of the line color among the values of a line. The value is an index in {@link #colors}.
+   */
+  static final int COLOR = 5;
+
+  /**
+   * The row height for which the geometry was computed.
+   */
+  final int height;
+
+  /**
+   * The lines, {@link #LINE_VALUES} values for each line, in the painting order.
+   */
+  final int[] lines;
+
+  /**
+   * The colors of the lines.
+   */
+  final Color[] colors;
+
+  /**
+   * The x coordinate of the commit dot.
+   */
+  final int dotX;
+
+  /**
+   * The y coordinate of the commit dot.
+   */
+  final int dotY;
+
+  /**
+   * The size of the commit dot. 0 when there is no dot to paint.
+   */
+  final int dotSize;
+
+  /**
+   * The color of the commit dot.
+   */
+  final Color dotColor;
+
+  /**
+   * Constructor.
+   *
+   * @param height   The row height.
+   * @param lines    The lines, {@link #LINE_VALUES} values for each line.
+   * @param colors   The colors of the lines.
+   * @param dotX     The x coordinate of the commit dot.
+   * @param dotY     The y coordinate of the commit dot.
+   * @param dotSize  The size of the commit dot. 0 if there is no dot.
+   * @param dotColor The color of the commit dot.
+   */
+  LaneGeometry(int height, int[] lines, Color[] colors, int dotX, int dotY, int dotSize, Color dotColor) {
+    this.height = height;
+    this.lines = lines;
+    this.colors = colors;
+    this.dotX = dotX;
+    this.dotY = dotY;
+    this.dotSize = dotSize;
+    this.dotColor = dotColor;
+  }
+}
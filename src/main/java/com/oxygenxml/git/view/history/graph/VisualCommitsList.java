@@ -1,9 +1,15 @@
 package com.oxygenxml.git.view.history.graph;
 
 import java.awt.Color;
+import java.util.Objects;
 
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revplot.PlotCommit;
 import org.eclipse.jgit.revplot.PlotCommitList;
 import org.eclipse.jgit.revplot.PlotLane;
+import org.eclipse.jgit.revplot.PlotWalk;
+import org.eclipse.jgit.revwalk.RevCommit;
 
 /**
  * A list of commits that is being rendered visually using different colors for each commit lane.
@@ -31,6 +37,75 @@ public class VisualCommitsList extends PlotCommitList<VisualCommitsList.VisualLa
 	} 
 	
 	
+	/**
+	 * Creates a revision iterator that produces {@link VisualCommit}s, 
+	 * so that the graph geometry of each commit is kept between paints.
+	 * 
+	 * @param repository The repository.
+	 * 
+	 * @return The revision iterator.
+	 */
+	public static PlotWalk createWalk(Repository repository) {
+		return new PlotWalk(repository) {
+			@Override
+			protected RevCommit createCommit(AnyObjectId id) {
+				return new VisualCommit(id);
+			}
+		};
+	}
+	
+	
+	/**
+	 * Checks if two versions of a commit, from two walks of the same history, are painted alike:
+	 * they are on lanes with the same position and color and have as many children and parents.
+	 * 
+	 * @param commit      A version of the commit.
+	 * @param otherCommit The other version of the commit.
+	 * 
+	 * @return <code>true</code> if the graph cells of the commits are painted alike.
+	 */
+	public static boolean isPaintedAlike(PlotCommit<VisualLane> commit, PlotCommit<VisualLane> otherCommit) {
+		final VisualLane lane = commit.getLane();
+		final VisualLane otherLane = otherCommit.getLane();
+		final boolean sameLane = lane == null ? otherLane == null 
+				: otherLane != null && lane.getPosition() == otherLane.getPosition() && Objects.equals(lane.color, otherLane.color);
+		return sameLane 
+				&& commit.getChildCount() == otherCommit.getChildCount() 
+				&& commit.getParentCount() == otherCommit.getParentCount();
+	}
+	
+	
+	/**
+	 * Lays out a new commit. It changes the lanes of the commits already presented, so it is synchronized 
+	 * on this list, like the computation of the geometry in {@link GraphRender}.
+	 */
+	@Override
+	protected synchronized void enter(int index, PlotCommit<VisualLane> currCommit) {
+		if (currCommit instanceof VisualCommit) {
+			((VisualCommit) currCommit).row = index;
+			((VisualCommit) currCommit).setLanesLock(this);
+		}
+		super.enter(index, currCommit);
+		
+		// When the commit has more children or its child is a merge, the lanes are routed 
+		// through the rows between the children and this commit, so their geometry changes.
+		final int nChildren = currCommit.getChildCount();
+		if (nChildren > 1 || nChildren == 1 && currCommit.getChild(0).getParentCount() > 1) {
+			int firstChangedRow = index;
+			for (int i = 0; i < nChildren; i++) {
+				final PlotCommit<?> child = currCommit.getChild(i);
+				firstChangedRow = Math.min(firstChangedRow, child instanceof VisualCommit ? ((VisualCommit) child).row : 0);
+			}
+			for (int row = firstChangedRow; row < index; row++) {
+				final PlotCommit<VisualLane> commit = get(row);
+				if (commit instanceof VisualCommit) {
+					((VisualCommit) commit).invalidateGeometry();
+				}
+			}
+		}
+	}
+	
+	
 	@Override 
 	protected VisualLane createLane() { 
 		final VisualLane lane = new VisualLane(); 
@@ -61,4 +136,98 @@ public class VisualCommitsList extends PlotCommitList<VisualCommitsList.VisualLa
 		}
 	} 
 	
+	
+	/**
+	 * A commit that keeps the geometry painted in its graph cell.
+	 * 
+	 * @author alex_smarandache
+	 *
+	 */
+	@SuppressWarnings("java:S2160")
+	public static class VisualCommit extends PlotCommit<VisualLane> {
+		/**
+		 * The row of the commit in the list.
+		 */
+		int row;
+		
+		/**
+		 * The painted geometry. <code>null</code> if the commit was not painted yet.
+		 */
+		private LaneGeometry geometry;
+		
+		/**
+		 * Incremented each time the geometry is invalidated.
+		 */
+		private int geometryVersion;
+		
+		/**
+		 * Held while the lanes of the commit are changed. The list in which the commit was laid out.
+		 */
+		private Object lanesLock = this;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param id The commit id.
+		 */
+		protected VisualCommit(AnyObjectId id) {
+			super(id);
+		}
+		
+		/**
+		 * @return The painted geometry, or <code>null</code> if it must be computed.
+		 */
+		synchronized LaneGeometry getGeometry() {
+			return geometry;
+		}
+		
+		/**
+		 * @return The lock held while the lanes of the commit are changed.
+		 */
+		synchronized Object getLanesLock() {
+			return lanesLock;
+		}
+		
+		/**
+		 * @param lanesLock The lock held while the lanes of the commit are changed.
+		 */
+		synchronized void setLanesLock(Object lanesLock) {
+			this.lanesLock = lanesLock;
+		}
+		
+		/**
+		 * @return The current version of the geometry. Used to detect that the lanes 
+		 * changed while the geometry was computed.
+		 */
+		synchronized int getGeometryVersion() {
+			return geometryVersion;
+		}
+		
+		/**
+		 * Keeps the computed geometry, unless the lanes changed meanwhile.
+		 * 
+		 * @param geometry The geometry.
+		 * @param version  The geometry version read before computing the geometry.
+		 */
+		synchronized void setGeometry(LaneGeometry geometry, int version) {
+			if (version == geometryVersion) {
+				this.geometry = geometry;
+			}
+		}
+		
+		/**
+		 * Discards the geometry because lanes were added to this commit.
+		 */
+		synchronized void invalidateGeometry() {
+			geometry = null;
+			geometryVersion++;
+		}
+		
+		@Override
+		public void reset() {
+			invalidateGeometry();
+			super.reset();
+		}
+	}
+	
 }
@@ -20,6 +20,7 @@ import com.oxygenxml.git.ProjectHelper;
 import com.oxygenxml.git.auth.login.LoginMediator;
 import com.oxygenxml.git.auth.login.LoginStatusInfo;
 import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.FetchCoordinator;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.GitStatus;
@@ -203,7 +204,7 @@ public class PanelsRefreshSupport implements GitRefreshSupport {
 		// Connect to the remote.
 		RepositoryStatusInfo statusInfo = new RepositoryStatusInfo(RepositoryStatus.AVAILABLE);
 		try {
-			GitAccess.getInstance().fetch();
+			FetchCoordinator.getInstance().fetch();
 		} catch (RepositoryUnavailableException e) {
 			statusInfo = new RepositoryStatusInfo(RepositoryStatus.UNAVAILABLE, computeStatusExtraInfo(e));
 		} catch (SSHPassphraseRequiredException e) {
@@ -386,7 +386,7 @@ public class CommitAndStatusPanel extends JPanel {
       300,
       e -> {
         if (commitButtonAndMessageUpdateTask != null) {
-          GitOperationScheduler.getInstance().schedule(commitButtonAndMessageUpdateTask);
+          GitOperationScheduler.getInstance().scheduleRead(commitButtonAndMessageUpdateTask);
         } 
       });
 	
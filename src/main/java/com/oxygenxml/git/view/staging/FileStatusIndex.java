@@ -0,0 +1,116 @@
+package com.oxygenxml.git.view.staging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+
+/**
+ * Indexes the files presented in a staging model by their path, so that a file, or all the files
+ * from a folder, are found without scanning the entire model.
+ * <br><br>
+ * The same path can have more than one status, for example a file in conflict. Two statuses
+ * are considered the same if they are equal (see {@link FileStatus#equals(Object)}).
+ * <br><br>
+ * Not thread safe. The models synchronize the access.
+ */
+class FileStatusIndex {
+  /**
+   * The separator between the path segments.
+   */
+  private static final char SEPARATOR = '/';
+
+  /**
+   * The files, sorted by path.
+   */
+  private final NavigableMap<String, List<FileStatus>> filesByPath = new TreeMap<>();
+
+  /**
+   * Indexes a file, unless an equal one is already indexed.
+   *
+   * @param fileStatus The file.
+   *
+   * @return <code>true</code> if the file was added, <code>false</code> if it was already indexed.
+   */
+  boolean add(FileStatus fileStatus) {
+    List<FileStatus> statuses = filesByPath.computeIfAbsent(fileStatus.getFileLocation(), k -> new ArrayList<>(1));
+    boolean added = !statuses.contains(fileStatus);
+    if (added) {
+      statuses.add(fileStatus);
+    }
+    return added;
+  }
+
+  /**
+   * Removes all the indexed files equal to the given one.
+   *
+   * @param fileStatus The file to remove.
+   *
+   * @return The removed files, as they were indexed. Empty if there was no such file.
+   */
+  List<FileStatus> remove(FileStatus fileStatus) {
+    List<FileStatus> removed = Collections.emptyList();
+    List<FileStatus> statuses = filesByPath.get(fileStatus.getFileLocation());
+    if (statuses != null) {
+      removed = new ArrayList<>(1);
+      for (Iterator<FileStatus> iterator = statuses.iterator(); iterator.hasNext();) {
+        FileStatus indexed = iterator.next();
+        if (fileStatus.equals(indexed)) {
+          removed.add(indexed);
+          iterator.remove();
+        }
+      }
+      if (statuses.isEmpty()) {
+        filesByPath.remove(fileStatus.getFileLocation());
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * @param path A file path.
+   *
+   * @return The files with the given path. Empty if there is no such file.
+   */
+  List<FileStatus> get(String path) {
+    List<FileStatus> statuses = filesByPath.get(path);
+    return statuses != null ? Collections.unmodifiableList(statuses) : Collections.emptyList();
+  }
+
+  /**
+   * @param path A file or folder path.
+   *
+   * @return <code>true</code> if there is at least a file with the given path.
+   */
+  boolean containsPath(String path) {
+    return filesByPath.containsKey(path);
+  }
+
+  /**
+   * Collects the files with the given path or from the folder with the given path.
+   *
+   * @param path A file or folder path.
+   *
+   * @return The files, sorted by path.
+   */
+  List<FileStatus> getIncluded(String path) {
+    List<FileStatus> included = new ArrayList<>(get(path));
+    // All the paths that start with "path/" are between "path/" and "path0", the next character after the separator.
+    for (List<FileStatus> statuses : filesByPath.subMap(
+        path + SEPARATOR, true, path + (char) (SEPARATOR + 1), false).values()) {
+      included.addAll(statuses);
+    }
+    return included;
+  }
+
+  /**
+   * Removes all the files.
+   */
+  void clear() {
+    filesByPath.clear();
+  }
+}
@@ -393,7 +393,7 @@ public class StagingPanel extends JPanel {
       editorAccess.addEditorListener(new WSEditorListener() {
         @Override
         public void editorSaved(int operationType) {
-          GitOperationScheduler.getInstance().schedule(() -> treatEditorSavedEvent(editorLocation));
+          GitOperationScheduler.getInstance().scheduleRead(() -> treatEditorSavedEvent(editorLocation));
         }
       });
     }
@@ -1,11 +1,10 @@
 package com.oxygenxml.git.view.staging;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import javax.swing.table.AbstractTableModel;
 
@@ -48,6 +47,11 @@ public class StagingResourcesTableModel extends AbstractTableModel {
 	 */
 	private List<FileStatus> filesStatuses = Collections.synchronizedList(new ArrayList<>());
 	
+	/**
+	 * Indexes the files by path. Guarded by {@link #filesStatuses}.
+	 */
+	private final FileStatusIndex index = new FileStatusIndex();
+	
 
 	/**
 	 * Compares file statuses.
@@ -145,9 +149,18 @@ public class StagingResourcesTableModel extends AbstractTableModel {
 	public void setFilesStatus(List<FileStatus> filesStatuses) {
 	  fireTableRowsDeleted(0, getRowCount());
 	  
-		this.filesStatuses = Collections.synchronizedList(new ArrayList<>(filesStatuses));
-		removeDuplicates();
-		this.filesStatuses.sort(fileStatusComparator);
+	  List<FileStatus> newFilesStatuses = new ArrayList<>(filesStatuses.size());
+	  synchronized (this.filesStatuses) {
+	    index.clear();
+	    for (FileStatus fileStatus : filesStatuses) {
+	      // Removes the duplicates.
+	      if (index.add(fileStatus)) {
+	        newFilesStatuses.add(fileStatus);
+	      }
+	    }
+	    newFilesStatuses.sort(fileStatusComparator);
+	    this.filesStatuses = Collections.synchronizedList(newFilesStatuses);
+	  }
 		
 		fireTableRowsInserted(0, getRowCount());
 	}
@@ -201,10 +214,8 @@ public class StagingResourcesTableModel extends AbstractTableModel {
 	    
 	  }
 
+	  // The rows are inserted and deleted in place, so only the changed rows are notified.
 	  updateTableModel(changeEvent);
-	  removeDuplicates();
-	  filesStatuses.sort(fileStatusComparator);
-	  fireTableDataChanged();
 	}
 
 	/**
@@ -235,21 +246,21 @@ public class StagingResourcesTableModel extends AbstractTableModel {
       case COMMIT:
         if (inIndex) {
           // Committed files are removed from the INDEX.
-          filesStatuses.clear();
+          clearRows();
         }
         break;
       case DISCARD:
         deleteRows(((FileGitEventInfo) changeEvent).getAffectedFileStatuses());
         break;
       case MERGE_RESTART:
-        filesStatuses.clear();
+        clearRows();
         List<FileStatus> fileStatuses = inIndex ? GitAccess.getInstance().getStagedFiles()
             : GitAccess.getInstance().getUnstagedFiles();
         insertRows(fileStatuses);
         break;
       case ABORT_REBASE:
       case CONTINUE_REBASE:
-        filesStatuses.clear();
+        clearRows();
         break;
       case ABORT_MERGE:
         deleteRows(((FileGitEventInfo) changeEvent).getAffectedFileStatuses());
@@ -260,33 +271,142 @@ public class StagingResourcesTableModel extends AbstractTableModel {
   }
 
 	/**
-	 * Removes any duplicate entries
+	 * Removes all the rows.
 	 */
-	private void removeDuplicates() {
-		Set<FileStatus> set = new HashSet<>(this.filesStatuses);
-		this.filesStatuses.clear();
-		this.filesStatuses.addAll(set);
+	private void clearRows() {
+	  int size;
+	  synchronized (filesStatuses) {
+	    size = filesStatuses.size();
+	    filesStatuses.clear();
+	    index.clear();
+	  }
+	  if (size > 0) {
+	    fireTableRowsDeleted(0, size - 1);
+	  }
 	}
 
 	/**
-	 * Delete the given files from the model
+	 * Delete the given files from the model. Only the rows of the given files are visited, 
+	 * and a single event is fired for each block of consecutive deleted rows.
 	 * 
 	 * @param fileToBeUpdated
 	 *          - the files to be deleted from the model
 	 */
 	private void deleteRows(List<FileStatus> fileToBeUpdated) {
-		filesStatuses.removeAll(fileToBeUpdated);
+	  int[] deletedRows;
+	  synchronized (filesStatuses) {
+	    List<Integer> rows = new ArrayList<>(fileToBeUpdated.size());
+	    for (FileStatus fileStatus : fileToBeUpdated) {
+	      for (FileStatus removed : index.remove(fileStatus)) {
+	        int row = findRow(removed);
+	        if (row != -1) {
+	          rows.add(row);
+	        }
+	      }
+	    }
+	    deletedRows = rows.stream().mapToInt(Integer::intValue).toArray();
+	    Arrays.sort(deletedRows);
+	    
+	    // Compact the remaining rows in a single pass.
+	    int next = 0;
+	    int size = filesStatuses.size();
+	    int write = deletedRows.length > 0 ? deletedRows[0] : size;
+	    for (int read = write; read < size; read++) {
+	      if (next < deletedRows.length && deletedRows[next] == read) {
+	        next++;
+	      } else {
+	        filesStatuses.set(write++, filesStatuses.get(read));
+	      }
+	    }
+	    filesStatuses.subList(write, size).clear();
+	  }
+	  
+	  // Notify from the last block to the first, so the indices of the blocks not yet notified are still valid.
+	  int end = deletedRows.length - 1;
+	  while (end >= 0) {
+	    int start = end;
+	    while (start > 0 && deletedRows[start - 1] == deletedRows[start] - 1) {
+	      start--;
+	    }
+	    fireTableRowsDeleted(deletedRows[start], deletedRows[end]);
+	    end = start - 1;
+	  }
 	}
 
 	/**
-	 * Insert the given files to the model
+	 * Insert the given files to the model. The new files are sorted and merged into the sorted rows,
+	 * and a single event is fired for each block of consecutive inserted rows. 
+	 * The files already presented are ignored.
 	 * 
 	 * @param fileToBeUpdated
 	 *          - the files to be inserted in the model
 	 */
 	private void insertRows(List<FileStatus> fileToBeUpdated) {
-		filesStatuses.addAll(fileToBeUpdated);
-
+	  List<Integer> insertedRows = new ArrayList<>(fileToBeUpdated.size());
+	  synchronized (filesStatuses) {
+	    List<FileStatus> newFiles = new ArrayList<>(fileToBeUpdated.size());
+	    for (FileStatus fileStatus : fileToBeUpdated) {
+	      if (index.add(fileStatus)) {
+	        newFiles.add(fileStatus);
+	      }
+	    }
+	    
+	    if (!newFiles.isEmpty()) {
+	      newFiles.sort(fileStatusComparator);
+	      List<FileStatus> merged = new ArrayList<>(filesStatuses.size() + newFiles.size());
+	      int existing = 0;
+	      for (FileStatus newFile : newFiles) {
+	        while (existing < filesStatuses.size() 
+	            && fileStatusComparator.compare(filesStatuses.get(existing), newFile) <= 0) {
+	          merged.add(filesStatuses.get(existing++));
+	        }
+	        insertedRows.add(merged.size());
+	        merged.add(newFile);
+	      }
+	      merged.addAll(filesStatuses.subList(existing, filesStatuses.size()));
+	      
+	      filesStatuses.clear();
+	      filesStatuses.addAll(merged);
+	    }
+	  }
+	  
+	  // Notify from the first block to the last, so each block is notified at its final position.
+	  int start = 0;
+	  while (start < insertedRows.size()) {
+	    int end = start;
+	    while (end + 1 < insertedRows.size() && insertedRows.get(end + 1) == insertedRows.get(end) + 1) {
+	      end++;
+	    }
+	    fireTableRowsInserted(insertedRows.get(start), insertedRows.get(end));
+	    start = end + 1;
+	  }
+	}
+	
+	/**
+	 * Finds the row of a file, with a binary search over the sorted rows.
+	 * 
+	 * @param fileStatus A file from the model.
+	 * 
+	 * @return The row or -1 if the file is not in the model.
+	 */
+	private int findRow(FileStatus fileStatus) {
+	  int row = Collections.binarySearch(filesStatuses, fileStatus, fileStatusComparator);
+	  if (row >= 0 && filesStatuses.get(row) != fileStatus) {
+	    // Other files might be considered equal by the comparator. Look around.
+	    int found = -1;
+	    for (int i = row - 1; found == -1 && i >= 0 && fileStatusComparator.compare(filesStatuses.get(i), fileStatus) == 0; i--) {
+	      if (filesStatuses.get(i) == fileStatus) {
+	        found = i;
+	      }
+	    }
+	    for (int i = row + 1; found == -1 && i < filesStatuses.size() && fileStatusComparator.compare(filesStatuses.get(i), fileStatus) == 0; i++) {
+	      if (filesStatuses.get(i) == fileStatus) {
+	        found = i;
+	      }
+	    }
+	    row = found;
+	  }
+	  return row >= 0 ? row : -1;
 	}
 
 	public String getFileLocation(int convertedRow) {
@@ -324,19 +444,28 @@ public class StagingResourcesTableModel extends AbstractTableModel {
 	 * @return the row
 	 */
 	public int getRow(String fileLocation) {
+	  int row = -1;
 	  synchronized (filesStatuses) {
-	    for (int i = 0; i < filesStatuses.size(); i++) {
-	      if (filesStatuses.get(i).getFileLocation().equals(fileLocation)) {
-	        return i;
+	    for (FileStatus fileStatus : index.get(fileLocation)) {
+	      int candidate = findRow(fileStatus);
+	      if (candidate != -1 && (row == -1 || candidate < row)) {
+	        row = candidate;
 	      }
 	    }
 	  }
-	  return -1;
+	  return row;
 	}
 
 	
+	/**
+	 * Sets the comparator that sorts the rows and sorts the rows again.
+	 * 
+	 * @param comparator The comparator.
+	 */
 	public void setComparator(Comparator<FileStatus> comparator) {
 	  this.fileStatusComparator = comparator;
+	  filesStatuses.sort(comparator);
+	  fireTableDataChanged();
 	}
 	
 }
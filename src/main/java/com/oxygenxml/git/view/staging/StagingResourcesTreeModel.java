@@ -2,7 +2,9 @@ package com.oxygenxml.git.view.staging;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.tree.DefaultTreeModel;
 
@@ -33,6 +35,11 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	 * The files in the model
 	 */
 	private List<FileStatus> filesStatuses = Collections.synchronizedList(new ArrayList<>());
+	
+	/**
+	 * Indexes the files by path. Guarded by {@link #filesStatuses}.
+	 */
+	private final FileStatusIndex index = new FileStatusIndex();
 
   /**
    * <code>true</code> if this model presents the resources inside the index.
@@ -115,32 +122,54 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	      // Nothing
 	      break;
 	  }
-
-	  fireTreeStructureChanged(this, null, null, null);
 	}
 
 	/**
 	 * Clears all the nodes in the model and leaves an empty root.
 	 */
   private void clearModel() {
-    filesStatuses.clear();
+    synchronized (filesStatuses) {
+      filesStatuses.clear();
+      index.clear();
+    }
     // Rebuild the tree
     GitTreeNode root = (GitTreeNode) getRoot();
     root.removeAllChildren();
+    nodeStructureChanged(root);
   }
 
 	/**
-	 * Insert nodes to the tree based on the given files
+	 * Insert nodes to the tree based on the given files. The files already presented are ignored.
+	 * <br><br>
+	 * The nodes are inserted at their sorted position and only the inserted nodes are notified, so the
+	 * views keep the layout of the rest of the tree. An empty tree is built and sorted in one go.
 	 * 
 	 * @param fileToBeUpdated
 	 *          - the files on which the nodes will be created
 	 */
 	private void insertNodes(List<FileStatus> fileToBeUpdated) {
-		for (FileStatus fileStatus : fileToBeUpdated) {
-			TreeUtil.buildTreeFromString(this, fileStatus.getFileLocation());
-		}
-		filesStatuses.addAll(fileToBeUpdated);
-		TreeUtil.sortGitTree(this);
+	  GitTreeNode root = (GitTreeNode) getRoot();
+	  synchronized (filesStatuses) {
+	    boolean buildAll = root.getChildCount() == 0 && fileToBeUpdated.size() > 1;
+	    for (FileStatus fileStatus : fileToBeUpdated) {
+	      boolean hasNode = index.containsPath(fileStatus.getFileLocation());
+	      if (index.add(fileStatus)) {
+	        if (!hasNode) {
+	          if (buildAll) {
+	            TreeUtil.buildTreeFromString(this, fileStatus.getFileLocation());
+	          } else {
+	            TreeUtil.insertSortedPath(this, fileStatus.getFileLocation());
+	          }
+	        }
+	        filesStatuses.add(fileStatus);
+	      }
+	    }
+	    
+	    if (buildAll) {
+	      TreeUtil.sortGitTree(this);
+	      nodeStructureChanged(root);
+	    }
+	  }
 	}
 
 	/**
@@ -150,21 +179,30 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	 *          - the files on which the nodes will be deleted
 	 */
 	private void deleteNodes(List<FileStatus> fileToBeUpdated) {
-		for (FileStatus fileStatus : fileToBeUpdated) {
-			GitTreeNode node = TreeUtil.getTreeNodeFromString(this, fileStatus.getFileLocation());
-			while (node != null && node.getParent() != null) {
-				GitTreeNode parentNode = (GitTreeNode) node.getParent();
-				if (node.getSiblingCount() != 1) {
-					parentNode.remove(node);
-					break;
-				} else {
-					parentNode.remove(node);
-				}
-				node = parentNode;
-			}
-		}
-		filesStatuses.removeAll(fileToBeUpdated);
-		TreeUtil.sortGitTree(this);
+	  synchronized (filesStatuses) {
+	    Set<FileStatus> removedFiles = Collections.newSetFromMap(new IdentityHashMap<>());
+	    for (FileStatus fileStatus : fileToBeUpdated) {
+	      List<FileStatus> removed = index.remove(fileStatus);
+	      removedFiles.addAll(removed);
+	      // The node stays while the path has other statuses.
+	      if (!removed.isEmpty() && !index.containsPath(fileStatus.getFileLocation())) {
+	        deleteNode(fileStatus.getFileLocation());
+	      }
+	    }
+	    if (!removedFiles.isEmpty()) {
+	      // A single pass, instead of searching each removed file in the list.
+	      filesStatuses.removeIf(removedFiles::contains);
+	    }
+	  }
+	}
+	
+	/**
+	 * Deletes the node of a file, together with the parent folders left empty.
+	 * 
+	 * @param path The file path.
+	 */
+	private void deleteNode(String path) {
+	  TreeUtil.removeSortedPath(this, path);
 	}
 
 	/**
@@ -177,11 +215,9 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	public FileStatus getFileByPath(String path) {
 	  FileStatus toReturn = null;
 	  synchronized (filesStatuses) {
-	    for (FileStatus fileStatus : filesStatuses) {
-	      if (path.equals(fileStatus.getFileLocation())) {
-	        toReturn = fileStatus;
-	        break;
-	      }
+	    List<FileStatus> statuses = index.get(path);
+	    if (!statuses.isEmpty()) {
+	      toReturn = statuses.get(0);
 	    }
     }
 		return toReturn;
@@ -198,10 +234,9 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	  List<FileStatus> containingPaths = new ArrayList<>();
 	  for (String path : selectedPaths) {
 	    synchronized (filesStatuses) {
-	      for (FileStatus fileStatus : filesStatuses) {
-	        if (includePath(path, fileStatus.getFileLocation())) {
-	          containingPaths.add(new FileStatus(fileStatus));
-	        }
+	      // The file with the given path and the files from the folder with the given path.
+	      for (FileStatus fileStatus : index.getIncluded(path)) {
+	        containingPaths.add(new FileStatus(fileStatus));
 	      }
 	    }
 	  }
@@ -219,10 +254,8 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	  List<FileStatus> containingPaths = new ArrayList<>();
 	  for (String path : selectedPaths) {
 	    synchronized (filesStatuses) {
-	      for (FileStatus fileStatus : filesStatuses) {
-	        if (fileStatus.getFileLocation().equals(path)) {
-	          containingPaths.add(new FileStatus(fileStatus));
-	        }
+	      for (FileStatus fileStatus : index.get(path)) {
+	        containingPaths.add(new FileStatus(fileStatus));
 	      }
 	    }
 	  }
@@ -241,7 +274,7 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
 	    filesStatus = Collections.emptyList();
 	  }
 	  
-		deleteNodes(this.filesStatuses);
+		deleteNodes(new ArrayList<>(this.filesStatuses));
 		insertNodes(filesStatus);
 		
 		fireTreeStructureChanged(this, null, null, null);
@@ -274,23 +307,4 @@ public class StagingResourcesTreeModel extends DefaultTreeModel {
     }
   }
   
-  /**
-   * @param path            A file path.
-   * @param candidatePath   A candidate to be child or even the path.
-   * 
-   * @return <code>true</code> if the candidate path is equals or a child of the given path.
-   */
-  private boolean includePath(final String path, final String candidatePath) {
-    boolean toReturn = false;
-    final int pathLength = path.length();
-    final int candidatePathLength = candidatePath.length();
-    if(candidatePathLength == pathLength) {
-      toReturn = path.equals(candidatePath);
-    } else if(candidatePathLength > pathLength) {
-      toReturn = candidatePath.startsWith(path + "/");
-    }
-    
-    return toReturn;
-  }
-  
 }
@@ -3,10 +3,14 @@ package com.oxygenxml.git.view.tags;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ObjectId;
@@ -14,7 +18,6 @@ import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevObject;
-import org.eclipse.jgit.revwalk.RevSort;
 import org.eclipse.jgit.revwalk.RevTag;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.transport.CredentialsProvider;
@@ -31,11 +34,123 @@ import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
  */
 public class GitTagsManager {
   
+  /**
+   * For how long the tags listed from the remote repository are reused, in milliseconds.
+   */
+  private static final long REMOTE_TAGS_TTL_MILLIS = 60_000;
+  
+  /**
+   * The tags listed last from a remote repository. No lock is held while listing,
+   * so a new listing is swapped in only if the tags were not forgotten meanwhile.
+   */
+  private static final AtomicReference<RemoteTags> listedRemoteTags = new AtomicReference<>(RemoteTags.forgotten());
+  
+  /**
+   * The tags listed from a remote repository.
+   */
+  private static final class RemoteTags {
+    /**
+     * The repository for which the remote tags were listed.
+     */
+    private final Repository repository;
+    /**
+     * The remote from which the tags were listed.
+     */
+    private final String remote;
+    /**
+     * When the remote tags were listed.
+     */
+    private final long time;
+    /**
+     * The tags listed from the remote repository. The key is the tag name and the value is 
+     * the object to which the tag points. <code>null</code> if they must be listed again.
+     */
+    private final Map<String, ObjectId> tags;
+    
+    /**
+     * Constructor.
+     * 
+     * @param repository The repository for which the remote tags were listed.
+     * @param remote     The remote from which the tags were listed.
+     * @param time       When the remote tags were listed.
+     * @param tags       The listed tags.
+     */
+    private RemoteTags(Repository repository, String remote, long time, Map<String, ObjectId> tags) {
+      this.repository = repository;
+      this.remote = remote;
+      this.time = time;
+      this.tags = tags;
+    }
+    
+    /**
+     * @return A new instance that marks the listed tags as forgotten. 
+     * Each call returns a different instance, so a listing started before it cannot replace it.
+     */
+    private static RemoteTags forgotten() {
+      return new RemoteTags(null, null, 0, null);
+    }
+    
+    /**
+     * @param repository The current repository.
+     * @param remote     The remote of the current branch.
+     * 
+     * @return <code>true</code> if the tags can be reused for the given repository and remote.
+     */
+    private boolean isValidFor(Repository repository, String remote) {
+      return tags != null
+          && this.repository == repository
+          && remote.equals(this.remote)
+          && System.currentTimeMillis() - time <= REMOTE_TAGS_TTL_MILLIS;
+    }
+  }
+  
   /**
    * private constructor
    */
   private GitTagsManager() {}
   
+  /**
+   * Lists the tags of the remote repository, or reuses the ones listed recently.
+   * 
+   * @return The tags of the remote repository. The key is the tag name and the value is 
+   * the object to which the tag points.
+   * 
+   * @throws GitAPIException
+   */
+  private static Map<String, ObjectId> getRemoteTagIds() throws GitAPIException {
+    GitAccess gitAccess = GitAccess.getInstance();
+    Repository repository = gitAccess.getGit().getRepository();
+    String remote = gitAccess.getRemoteFromCurrentBranch();
+    RemoteTags previous = listedRemoteTags.get();
+    if (!previous.isValidFor(repository, remote)) {
+      CredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(gitAccess.getHostName());
+      Collection <Ref> refs = gitAccess
+          .getGit()
+          .lsRemote()
+          .setRemote(remote)
+          .setCredentialsProvider(credentialsProvider)
+          .setTags(true)
+          .call();
+      
+      Map<String, ObjectId> tags = new LinkedHashMap<>();
+      for (Ref ref : refs) {
+        tags.put(Repository.shortenRefName(ref.getName()), ref.getObjectId());
+      }
+      RemoteTags listed = new RemoteTags(repository, remote, System.currentTimeMillis(), Collections.unmodifiableMap(tags));
+      // Not kept if the tags were forgotten while listing, because the listing might miss the change.
+      listedRemoteTags.compareAndSet(previous, listed);
+      return listed.tags;
+    }
+    return previous.tags;
+  }
+  
+  /**
+   * Forgets the tags listed from the remote repository. Called after the tags of the remote repository change.
+   */
+  public static void invalidateRemoteTags() {
+    listedRemoteTags.set(RemoteTags.forgotten());
+  }
+  
   /**
    * Get the titles of the remote Tags
    * 
@@ -44,18 +159,18 @@ public class GitTagsManager {
    * @throws GitAPIException
    */
   public static List<String> getRemoteTagsTitle() throws GitAPIException{
-    
-    
-    CredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(GitAccess.getInstance().getHostName());
-    Collection <Ref> refs = GitAccess.getInstance()
-        .getGit()
-        .lsRemote()
-        .setRemote(GitAccess.getInstance().getRemoteFromCurrentBranch())
-        .setCredentialsProvider(credentialsProvider)
-        .setTags(true)
-        .call();
-    
-    return refs.stream().map(t -> Repository.shortenRefName(t.getName())).collect(Collectors.toList());
+    return new ArrayList<>(getRemoteTagIds().keySet());
+  }
+  
+  /**
+   * Get the names of the remote tags. The tags listed recently from the remote repository are reused.
+   * 
+   * @return The names of the remote tags.
+   * 
+   * @throws GitAPIException
+   */
+  public static Set<String> getRemoteTagNames() throws GitAPIException {
+    return getRemoteTagIds().keySet();
   }
   
   /**
@@ -71,13 +186,11 @@ public class GitTagsManager {
 
     List<GitTag> remoteTags = new ArrayList<>(); 
 
-    CredentialsProvider credentialsProvider = AuthUtil.getCredentialsProvider(GitAccess.getInstance().getHostName());
-    Collection <Ref> refs = GitAccess.getInstance().getGit().lsRemote().setCredentialsProvider(credentialsProvider).setTags(true).call();
+    Collection<ObjectId> ids = getRemoteTagIds().values();
 
     Repository repository = GitAccess.getInstance().getRepository();
     try (RevWalk walk = new RevWalk(repository)) {
-      for (Ref ref : refs) {
-        ObjectId objectIdOfTag = ref.getObjectId();
+      for (ObjectId objectIdOfTag : ids) {
         RevObject object = walk.parseAny(objectIdOfTag);
         if (object instanceof RevTag) {
           RevTag tag = (RevTag) object;
@@ -117,13 +230,27 @@ public class GitTagsManager {
    * @throws IOException 
    */
   public static List<GitTag> getLocalTags() throws GitAPIException, NoRepositorySelected, IOException {
+    return getLocalTags(getRemoteTagNames());
+  }
+  
+  /**
+   * Get all of the local tags, without contacting the remote repository.
+   * 
+   * @param remoteTagsTitle The names of the remote tags. Used to find the pushed tags.
+   * 
+   * @return A GitTag list with all the Tags
+   * 
+   * @throws GitAPIException 
+   * @throws NoRepositorySelected 
+   * @throws IOException 
+   */
+  public static List<GitTag> getLocalTags(Set<String> remoteTagsTitle) throws GitAPIException, NoRepositorySelected, IOException {
     List<GitTag> allTags = new ArrayList<>();
-    List<String> remoteTagsTitle = getRemoteTagsTitle();
     
     List<Ref> refs = GitAccess.getInstance().getGit().tagList().call();
     Repository repository = GitAccess.getInstance().getRepository();
+    // All the tags are parsed with the same walk.
     try (RevWalk walk = new RevWalk(repository)) {
-      walk.sort(RevSort.COMMIT_TIME_DESC);
       for (Ref ref : refs) {
         ObjectId objectIdOfTag = ref.getObjectId();
         RevObject object = walk.parseAny(objectIdOfTag);
@@ -10,7 +10,9 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.Action;
 import javax.swing.JButton;
@@ -34,6 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import com.oxygenxml.git.constants.UIConstants;
 import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitOperationScheduler;
 import com.oxygenxml.git.service.exceptions.NoRepositorySelected;
 import com.oxygenxml.git.translator.Tags;
 import com.oxygenxml.git.translator.Translator;
@@ -91,6 +94,17 @@ public class TagsDialog extends OKCancelDialog {
    */
   private JButton checkoutButton;
   
+  /**
+   * <code>true</code> after the tags of the remote repository were listed and the pushed tags are known.
+   */
+  private boolean isRemoteStateKnown;
+  
+  /**
+   * <code>true</code> while the tags of the remote repository are listed. A tag cannot be deleted meanwhile,
+   * because it is not known if it must be deleted from the remote repository too.
+   */
+  private boolean isRemoteStateLoading = true;
+  
 
   /**
    * Constructor
@@ -225,7 +239,8 @@ public class TagsDialog extends OKCancelDialog {
    * @throws IOException
    */
   private void createTagsTable() throws GitAPIException, NoRepositorySelected, IOException {
-    List<GitTag> localTagsList = GitTagsManager.getLocalTags();
+    // The local tags are presented right away. Which of them are pushed is found out in the background.
+    List<GitTag> localTagsList = GitTagsManager.getLocalTags(Collections.emptySet());
 
     String[] columnNames = {TRANSLATOR.getTranslation(Tags.TAGS_DIALOG_NAME_COLUMN),
         TRANSLATOR.getTranslation(Tags.MESSAGE_LABEL)};  
@@ -240,10 +255,12 @@ public class TagsDialog extends OKCancelDialog {
       checkoutButton.setEnabled(isSelectionValid);
       if(isSelectionValid) { 	
         final GitTag tag = model.getItemAt(selectedRow);
-        deleteButton.setEnabled(true);
-        pushButton.setEnabled(!tag.isPushed());
+        deleteButton.setEnabled(!isRemoteStateLoading);
+        pushButton.setEnabled(isRemoteStateKnown && !tag.isPushed());
       } 
     });
+    
+    loadRemoteState(model);
 
     //Add the listener for double clicked
     tagsTable.addMouseListener(new MouseAdapter() {
@@ -280,6 +297,48 @@ public class TagsDialog extends OKCancelDialog {
     tagsTable.setComponentPopupMenu(createTableComponentMenu());  
   }
 
+  /**
+   * Lists the tags of the remote repository in the background and marks the pushed tags.
+   * If the tags cannot be listed, every tag is handled as if it might be pushed.
+   * 
+   * @param model The model of the tags table.
+   */
+  private void loadRemoteState(TagsTableModel model) {
+    // Contacts the remote. On the read lane, it would hold back the operations scheduled after it.
+    GitOperationScheduler.getInstance().schedule(() -> {
+      try {
+        Set<String> remoteTags = GitTagsManager.getRemoteTagNames();
+        SwingUtilities.invokeLater(() -> {
+          for (GitTag tag : model.getAttrsItems()) {
+            tag.setPushed(remoteTags.contains(tag.getName()));
+          }
+          isRemoteStateKnown = true;
+          remoteStateLoaded(model);
+        });
+      } catch (GitAPIException ex) {
+        LOGGER.debug(ex.getMessage(), ex);
+        SwingUtilities.invokeLater(() -> {
+          remoteStateLoaded(model);
+          PluginWorkspaceProvider.getPluginWorkspace().showErrorMessage(ex.getMessage(), ex);
+        });
+      }
+    });
+  }
+  
+  /**
+   * Updates the buttons after the tags of the remote repository were listed or failed to be listed.
+   * 
+   * @param model The model of the tags table.
+   */
+  private void remoteStateLoaded(TagsTableModel model) {
+    isRemoteStateLoading = false;
+    int selectedRow = tagsTable.getSelectedRow();
+    if (selectedRow >= 0) {
+      deleteButton.setEnabled(true);
+      pushButton.setEnabled(isRemoteStateKnown && !model.getItemAt(selectedRow).isPushed());
+    }
+  }
+
   /**
    * Create the popup menu for the tagsTable
    * 
@@ -339,6 +398,7 @@ public class TagsDialog extends OKCancelDialog {
       if (!tag.isPushed()) {
         try {
           GitAccess.getInstance().pushTag(tag.getName());
+          GitTagsManager.invalidateRemoteTags();
           pushButton.setEnabled(false);
           deleteButton.setEnabled(true);
           tag.setPushed(true);
@@ -360,7 +420,9 @@ public class TagsDialog extends OKCancelDialog {
     return e -> {
       final int selectedRow = (tagsTable.getSelectedRow());
       final GitTag tag = ((TagsTableModel)tagsTable.getModel()).getItemAt(selectedRow);
-      final int result = tag.isPushed() ? questionAboutDeletingPushedTag(tag.getName()) 
+      // When the remote tags could not be listed, the tag might be pushed.
+      final boolean mightBePushed = !isRemoteStateKnown || tag.isPushed();
+      final int result = mightBePushed ? questionAboutDeletingPushedTag(tag.getName()) 
           : questionAboutDeletingLocalTag();
           
       if (result == OKCancelDialog.RESULT_OK) {
@@ -369,6 +431,9 @@ public class TagsDialog extends OKCancelDialog {
         String tagName = (String) tagsTable.getValueAt(selectedRow, 0);
         try {
           GitAccess.getInstance().deleteTags(true, tagName);
+          if (mightBePushed) {
+            GitTagsManager.invalidateRemoteTags();
+          }
           TagsTableModel model = (TagsTableModel) tagsTable.getModel();
           model.remove(tag);
           model.fireTableRowsDeleted(selectedRow,selectedRow);
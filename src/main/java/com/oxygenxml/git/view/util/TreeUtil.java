@@ -350,6 +350,148 @@ public class TreeUtil {
     }
   }
   
+  /**
+   * Adds the nodes for a forward slash delimited path to a tree whose children are sorted with 
+   * {@link NodeTreeComparator}. The missing nodes are inserted at their sorted position, found with
+   * a binary search, so the tree doesn't need to be sorted again. The model listeners are notified 
+   * about the inserted subtree.
+   * 
+   * @param model The tree model.
+   * @param path  The path.
+   */
+  public static void insertSortedPath(final DefaultTreeModel model, final String path) {
+    GitTreeNode node = (GitTreeNode) model.getRoot();
+    String[] segments = path.split("/");
+    GitTreeNode insertionParent = null;
+    int insertionIndex = -1;
+    for (int i = 0; i < segments.length; i++) {
+      boolean folder = i < segments.length - 1;
+      int index = insertionParent == null ? sortedChildIndex(node, segments[i], folder) : -1;
+      if (index >= 0) {
+        node = (GitTreeNode) node.getChildAt(index);
+      } else {
+        GitTreeNode newChild = new GitTreeNode(segments[i]);
+        if (insertionParent == null) {
+          // The first missing node. The ones below it are its only descendants.
+          insertionParent = node;
+          insertionIndex = -index - 1;
+          node.insert(newChild, insertionIndex);
+        } else {
+          node.add(newChild);
+        }
+        node = newChild;
+      }
+    }
+    
+    if (insertionParent != null) {
+      model.nodesWereInserted(insertionParent, new int[] {insertionIndex});
+    }
+  }
+  
+  /**
+   * Removes the node of a forward slash delimited path from a tree whose children are sorted with 
+   * {@link NodeTreeComparator}, together with the parent folders left empty. 
+   * The model listeners are notified about the removed subtree.
+   * 
+   * @param model The tree model.
+   * @param path  The path.
+   */
+  public static void removeSortedPath(final DefaultTreeModel model, final String path) {
+    GitTreeNode root = (GitTreeNode) model.getRoot();
+    GitTreeNode node = root;
+    String[] segments = path.split("/");
+    for (int i = 0; node != null && i < segments.length; i++) {
+      int index = sortedChildIndex(node, segments[i], i < segments.length - 1);
+      node = index >= 0 ? (GitTreeNode) node.getChildAt(index) : null;
+    }
+    
+    if (node != null && node != root) {
+      // Also remove the folders that contain only this node.
+      GitTreeNode toRemove = node;
+      while (toRemove.getParent() != root && toRemove.getParent().getChildCount() == 1) {
+        toRemove = (GitTreeNode) toRemove.getParent();
+      }
+      GitTreeNode parent = (GitTreeNode) toRemove.getParent();
+      int index = parent.getIndex(toRemove);
+      parent.remove(index);
+      model.nodesWereRemoved(parent, new int[] {index}, new Object[] {toRemove});
+    }
+  }
+  
+  /**
+   * Finds a child with a binary search. The children must be sorted with {@link NodeTreeComparator}.
+   * 
+   * @param node       The parent node.
+   * @param childValue The value of the child.
+   * @param folder     <code>true</code> if the child is a folder, <code>false</code> if it is a file.
+   * 
+   * @return The index of the child, if found. Otherwise <code>(-(insertion point) - 1)</code>, 
+   * like {@link Collections#binarySearch(List, Object)}.
+   */
+  public static int sortedChildIndex(final GitTreeNode node, final String childValue, final boolean folder) {
+    int low = 0;
+    int high = node.getChildCount() - 1;
+    int found = Integer.MIN_VALUE;
+    while (found == Integer.MIN_VALUE && low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compareToChild((GitTreeNode) node.getChildAt(mid), childValue, folder);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        found = findAmongEquivalentChildren(node, mid, childValue, folder);
+      }
+    }
+    return found != Integer.MIN_VALUE ? found : -(low + 1);
+  }
+  
+  /**
+   * The comparator ignores the case, so more children might be equivalent. Looks for the exact value among them.
+   * 
+   * @param node       The parent node.
+   * @param index      The index of a child equivalent with the searched one.
+   * @param childValue The value of the child.
+   * @param folder     <code>true</code> if the child is a folder, <code>false</code> if it is a file.
+   * 
+   * @return The index of the child, if found. Otherwise <code>(-(insertion point) - 1)</code>, 
+   * the insertion point being after the equivalent children.
+   */
+  private static int findAmongEquivalentChildren(GitTreeNode node, int index, String childValue, boolean folder) {
+    int start = index;
+    while (start > 0 && compareToChild((GitTreeNode) node.getChildAt(start - 1), childValue, folder) == 0) {
+      start--;
+    }
+    int found = -1;
+    int i = start;
+    for (; i < node.getChildCount() && compareToChild((GitTreeNode) node.getChildAt(i), childValue, folder) == 0; i++) {
+      if (found == -1 && childValue.equals(((GitTreeNode) node.getChildAt(i)).getUserObject())) {
+        found = i;
+      }
+    }
+    return found != -1 ? found : -(i + 1);
+  }
+  
+  /**
+   * Compares a child with a searched value, in the order given by {@link NodeTreeComparator}.
+   * 
+   * @param child      A child.
+   * @param childValue The searched value.
+   * @param folder     <code>true</code> if the searched value is a folder.
+   * 
+   * @return A negative number if the child is before the value, 0 if they are equivalent, a positive number otherwise.
+   */
+  private static int compareToChild(GitTreeNode child, String childValue, boolean folder) {
+    boolean childIsFolder = !child.isLeaf();
+    int cmp;
+    if (childIsFolder != folder) {
+      cmp = childIsFolder ? -1 : 1;
+    } else {
+      cmp = child.getUserObject().toString().compareToIgnoreCase(childValue);
+    }
+    return cmp;
+  }
+  
   /**
    * Sorts the given node
    * 
@@ -5,9 +5,11 @@ import java.net.URL;
 import java.util.Iterator;
 import java.util.List;
 
+import org.eclipse.jgit.dircache.DirCache;
 import org.eclipse.jgit.lib.Repository;
 import org.junit.Test;
 
+import com.oxygenxml.git.service.DirCacheSnapshot;
 import com.oxygenxml.git.service.GitAccess;
 import com.oxygenxml.git.service.GitTestBase;
 import com.oxygenxml.git.service.TestUtil;
@@ -152,6 +154,49 @@ public class GitRevisionURLHandlerTest extends GitTestBase {
     // This used to fail with java.io.IOException: Unable to obtain commit ID for: git://IndexOrLastCommit/folder%20with%20spaces/f.txt
     assertEquals("content", TestUtil.read(new URL(encodedURL)));
   }
-
-
+  
+  /**
+   * The index is read again only when it changes and the versions of a file follow the index.
+   * 
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testIndexVersionFollowsIndex() throws Exception {
+    String localTestRepository = "target/test-resources/GitRevisionURLHandlerTest_testIndexVersionFollowsIndex/local";
+    GitAccess gitAccess = GitAccess.getInstance();
+    Repository localRepo = createRepository(localTestRepository);
+    
+    File file = new File(localTestRepository + "/test.txt");
+    setFileContent(file, "initial content");
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "test.txt"));
+    gitAccess.commit("First version.");
+    
+    String indexVersionURL = "git://" + VersionIdentifier.INDEX_OR_LAST_COMMIT  + "/test.txt";
+    String mineVersionURL = "git://" + VersionIdentifier.MINE  + "/test.txt";
+    assertEquals("initial content", TestUtil.read(new URL(indexVersionURL)));
+    assertEquals("initial content", TestUtil.read(new URL(mineVersionURL)));
+    
+    // The unchanged index is not read again.
+    DirCache index = DirCacheSnapshot.getInstance().getIndex(localRepo);
+    assertSame(index, DirCacheSnapshot.getInstance().getIndex(localRepo));
+    
+    // Change the file in the working tree. MINE is now the index version.
+    setFileContent(file, "local content");
+    assertEquals("initial content", TestUtil.read(new URL(mineVersionURL)));
+    
+    // Add a new version to the index.
+    gitAccess.add(new FileStatus(GitChangeType.MODIFIED, "test.txt"));
+    assertNotSame(index, DirCacheSnapshot.getInstance().getIndex(localRepo));
+    assertEquals("local content", TestUtil.read(new URL(indexVersionURL)));
+    // The working tree file is the same as the index, so MINE is the last commit version.
+    assertEquals("initial content", TestUtil.read(new URL(mineVersionURL)));
+    
+    // The last commit did not change.
+    String headVersionURL = "git://" + VersionIdentifier.LAST_COMMIT  + "/test.txt";
+    assertEquals("initial content", TestUtil.read(new URL(headVersionURL)));
+    
+    gitAccess.commit("Second version.");
+    assertEquals("local content", TestUtil.read(new URL(headVersionURL)));
+    assertEquals("local content", TestUtil.read(new URL(mineVersionURL)));
+  }
 }
@@ -12,6 +12,8 @@ import javax.swing.JFrame;
 import javax.swing.JTextArea;
 import javax.swing.text.Highlighter.Highlight;
 
+import org.eclipse.jgit.api.BlameCommand;
+import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -23,7 +25,9 @@ import com.oxygenxml.git.service.entities.FileStatus;
 import com.oxygenxml.git.service.entities.GitChangeType;
 import com.oxygenxml.git.utils.FileUtil;
 import com.oxygenxml.git.utils.script.RepoGenerationScript;
+import com.oxygenxml.git.view.blame.BlameCache;
 import com.oxygenxml.git.view.blame.BlamePerformer;
+import com.oxygenxml.git.view.blame.BlameRange;
 import com.oxygenxml.git.view.history.HistoryController;
 import com.oxygenxml.git.view.staging.ChangesPanel.SelectedResourcesProvider;
 import com.oxygenxml.git.view.staging.actions.ShowBlameForUnstagedResourceAction;
@@ -125,6 +129,10 @@ public class BlameTest extends GitTestBase{
       new BlamePerformer().doit(
           GitAccess.getInstance().getRepository(), "file1.txt", wsEditor, historyController);
       
+      // The blame is computed in the background.
+      waitForScheduler();
+      flushAWT();
+      
       Highlight[] highlights = textArea.getHighlighter().getHighlights();
       assertEquals(5, highlights.length);
       
@@ -280,6 +288,10 @@ public class BlameTest extends GitTestBase{
       
       assertTrue(confirmDialogShown[0]);
       
+      // The blame is computed in the background.
+      waitForScheduler();
+      flushAWT();
+      
       Highlight[] highlights = textArea.getHighlighter().getHighlights();
       assertEquals(5, highlights.length);
       
@@ -449,6 +461,10 @@ public class BlameTest extends GitTestBase{
       assertTrue(confirmDialogShown[0]);
       assertTrue(editorSaved[0]);
       
+      // The blame is computed in the background.
+      waitForScheduler();
+      flushAWT();
+      
       Highlight[] highlights = textArea.getHighlighter().getHighlights();
       assertEquals(5, highlights.length);
       
@@ -462,6 +478,64 @@ public class BlameTest extends GitTestBase{
     }
   }
 
+  /**
+   * Consecutive lines changed in the same commit are grouped, and the blame of an unchanged file is cached.
+   * 
+   * @throws Exception If it fails.
+   */
+  @Test
+  public void testBlameRanges() throws Exception {
+    URL script = getClass().getClassLoader().getResource("scripts/blame_script.txt");
+    
+    File wcTree = new File("target/gen/BlameTest_testBlameRanges");
+    RepoGenerationScript.generateRepository(script, wcTree);
+    
+    try {
+      GitAccess.getInstance().setRepositorySynchronously(wcTree.getAbsolutePath());
+      Repository repository = GitAccess.getInstance().getRepository();
+      
+      // On "Change 3" the last lines are still from the first commit.
+      BlameCommand blamer = new BlameCommand(repository);
+      blamer.setFilePath("file1.txt");
+      blamer.setStartCommit(repository.resolve("HEAD~2"));
+      List<BlameRange> ranges = BlameRange.fromBlameResult(blamer.call());
+      StringBuilder dump = new StringBuilder();
+      for (BlameRange range : ranges) {
+        dump.append("[").append(range.getStartLine()).append(", ").append(range.getEndLine()).append(") ")
+          .append(range.getCommit().getFullMessage()).append("\n");
+      }
+      assertEquals(
+          "[0, 1) First commit.\n" + 
+          "[1, 2) Change 2\n" + 
+          "[2, 3) Change 3\n" + 
+          "[3, 5) First commit.\n", 
+          dump.toString());
+      
+      // The blame of the working copy file is cached.
+      BlameCache.Key key = BlameCache.Key.create(repository, "file1.txt");
+      BlameCache.getInstance().clear();
+      
+      WSEditor wsEditor = Mockito.mock(WSEditor.class);
+      WSXMLTextEditorPage page = Mockito.mock(WSXMLTextEditorPage.class);
+      Mockito.when(page.getTextComponent()).thenReturn(new JTextArea());
+      Mockito.when(wsEditor.getCurrentPage()).thenReturn(page);
+      new BlamePerformer().doit(repository, "file1.txt", wsEditor, Mockito.mock(HistoryController.class));
+      waitForScheduler();
+      flushAWT();
+      
+      List<BlameRange> cached = BlameCache.getInstance().get(key);
+      assertNotNull(cached);
+      assertEquals(5, cached.size());
+      
+      // A change in the file gives another key.
+      setFileContent(new File(wcTree, "file1.txt"), "Line 1\nLine 2");
+      assertNull(BlameCache.getInstance().get(BlameCache.Key.create(repository, "file1.txt")));
+    } finally {
+      GitAccess.getInstance().closeRepo();
+      FileUtil.deleteRecursivelly(wcTree);
+    }
+  }
+
   /**
    * Dumps commit messages.
    * 
@@ -0,0 +1,194 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.exceptions.PrivateRepositoryException;
+import com.oxygenxml.git.service.exceptions.RepositoryUnavailableException;
+
+/**
+ * Tests the coalescing of the automatic fetches.
+ */
+public class FetchCoordinatorTest {
+
+  /**
+   * The fetched repository.
+   */
+  private static final File REPOSITORY = new File("target/test-resources/FetchCoordinatorTest/.git");
+
+  /**
+   * A fetch is not repeated inside the freshness window.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testFreshnessWindow() throws Exception {
+    AtomicLong time = new AtomicLong(1000);
+    AtomicInteger fetches = new AtomicInteger();
+    FetchCoordinator coordinator = new FetchCoordinator(fetches::incrementAndGet, () -> REPOSITORY, time::get);
+    coordinator.setIntervals(10_000, 5_000);
+
+    coordinator.fetch();
+    time.addAndGet(2_000);
+    coordinator.fetch();
+    coordinator.fetch();
+    assertEquals(1, fetches.get());
+    assertEquals(1, coordinator.getPerformedFetchesCount());
+    assertEquals(2, coordinator.getSavedFetchesCount());
+
+    time.addAndGet(10_000);
+    coordinator.fetch();
+    assertEquals(2, fetches.get());
+
+    // Another repository is not fresh.
+    FetchCoordinator otherRepoCoordinator = new FetchCoordinator(fetches::incrementAndGet, () -> new File("other"), time::get);
+    otherRepoCoordinator.fetch();
+    assertEquals(3, fetches.get());
+
+    coordinator.invalidate();
+    coordinator.fetch();
+    assertEquals(4, fetches.get());
+  }
+
+  /**
+   * An unreachable remote is contacted again after an interval that doubles after each failure.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testBackoff() throws Exception {
+    AtomicLong time = new AtomicLong(1000);
+    AtomicInteger fetches = new AtomicInteger();
+    RepositoryUnavailableException failure = new RepositoryUnavailableException(new Exception("Unreachable"));
+    FetchCoordinator coordinator = new FetchCoordinator(() -> {
+      fetches.incrementAndGet();
+      throw failure;
+    }, () -> REPOSITORY, time::get);
+    coordinator.setIntervals(10_000, 5_000);
+
+    assertFetchFails(coordinator, failure);
+    assertEquals(1, fetches.get());
+
+    // Skipped during the first interval.
+    time.addAndGet(4_000);
+    assertFetchFails(coordinator, failure);
+    assertEquals(1, fetches.get());
+
+    time.addAndGet(1_000);
+    assertFetchFails(coordinator, failure);
+    assertEquals(2, fetches.get());
+
+    // The second interval is twice as long.
+    time.addAndGet(9_000);
+    assertFetchFails(coordinator, failure);
+    assertEquals(2, fetches.get());
+    time.addAndGet(1_000);
+    assertFetchFails(coordinator, failure);
+    assertEquals(3, fetches.get());
+  }
+
+  /**
+   * An authentication problem is not remembered. The fetch is retried right away, with the new credentials.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testAuthenticationFailure() throws Exception {
+    AtomicInteger fetches = new AtomicInteger();
+    FetchCoordinator coordinator = new FetchCoordinator(() -> {
+      if (fetches.incrementAndGet() == 1) {
+        throw new PrivateRepositoryException(new Exception("Not authorized"));
+      }
+    }, () -> REPOSITORY, () -> 1000);
+    coordinator.setIntervals(10_000, 5_000);
+
+    try {
+      coordinator.fetch();
+      fail("The authentication problem should be reported");
+    } catch (PrivateRepositoryException e) {
+      // Expected.
+    }
+    coordinator.fetch();
+    assertEquals(2, fetches.get());
+  }
+
+  /**
+   * A fetch requested while another one is running waits for it, instead of contacting the remote again.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testSharedFetch() throws Exception {
+    CountDownLatch fetchStarted = new CountDownLatch(1);
+    CountDownLatch releaseFetch = new CountDownLatch(1);
+    AtomicInteger fetches = new AtomicInteger();
+    FetchCoordinator coordinator = new FetchCoordinator(() -> {
+      fetches.incrementAndGet();
+      fetchStarted.countDown();
+      try {
+        releaseFetch.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, () -> REPOSITORY, System::currentTimeMillis);
+    // Without a freshness window, only the running fetch is shared.
+    coordinator.setIntervals(0, 0);
+
+    Thread first = new Thread(() -> fetchQuietly(coordinator));
+    first.start();
+    assertEquals(true, fetchStarted.await(5, TimeUnit.SECONDS));
+
+    Thread second = new Thread(() -> fetchQuietly(coordinator));
+    second.start();
+    // Wait for the second request to join the running fetch.
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (coordinator.getSavedFetchesCount() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    releaseFetch.countDown();
+    first.join(5_000);
+    second.join(5_000);
+    assertEquals(1, fetches.get());
+    assertEquals(1, coordinator.getSavedFetchesCount());
+  }
+
+  /**
+   * Fetches and ignores the problems.
+   *
+   * @param coordinator The fetch coordinator.
+   */
+  private static void fetchQuietly(FetchCoordinator coordinator) {
+    try {
+      coordinator.fetch();
+    } catch (Exception e) {
+      fail(e.getMessage());
+    }
+  }
+
+  /**
+   * Checks that the fetch fails with the given exception.
+   *
+   * @param coordinator The fetch coordinator.
+   * @param expected    The expected failure.
+   */
+  private static void assertFetchFails(FetchCoordinator coordinator, RepositoryUnavailableException expected) {
+    try {
+      coordinator.fetch();
+      fail("The fetch should fail");
+    } catch (RepositoryUnavailableException e) {
+      assertSame(expected, e);
+    } catch (Exception e) {
+      fail(e.getMessage());
+    }
+  }
+}
@@ -174,6 +174,27 @@ public class GitAccesTagsTest extends TestCase {
     assertFalse(gitAccess.existsTag("Tagul1"));
   }
   
+  /**
+   * <p><b>Description:</b> The tags map follows the created and deleted tags.</p>
+   * 
+   * @throws Exception
+   */
+  public void testTagMapUpdatedOnTagChanges() throws Exception {
+    List<CommitCharacteristics> commitsCharacteristics = gitAccess.getCommitsCharacteristics(HistoryStrategy.CURRENT_BRANCH, null, null);
+    String firstCommit = commitsCharacteristics.get(0).getCommitAbbreviatedId();
+    String secondCommit = commitsCharacteristics.get(1).getCommitAbbreviatedId();
+    
+    gitAccess.tagCommit("Moved", "annotated", commitsCharacteristics.get(0).getCommitId());
+    Map<String, List<String>> tagsMap = gitAccess.getTagMap(gitAccess.getRepository());
+    assertEquals("[Moved]", tagsMap.get(firstCommit).toString());
+    
+    gitAccess.deleteTags(false, "Moved");
+    gitAccess.tagCommit("Moved", "annotated", commitsCharacteristics.get(1).getCommitId());
+    tagsMap = gitAccess.getTagMap(gitAccess.getRepository());
+    assertNull(tagsMap.get(firstCommit));
+    assertEquals("[Moved]", tagsMap.get(secondCommit).toString());
+  }
+  
   /**
    * <p><b>Description:</b> Tests the delete remote tag method.</p>
    * <p><b>Bug ID:</b> EXM-50658</p>
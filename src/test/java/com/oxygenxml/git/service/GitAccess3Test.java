@@ -4,6 +4,7 @@ import java.io.File;
 import java.util.List;
 import java.util.Optional;
 
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.transport.RefSpec;
@@ -104,4 +105,112 @@ public class GitAccess3Test extends GitTestBase {
     
   }
   
+  /**
+   * <p><b>Description:</b> the branch info follows the changes of HEAD, 
+   * even if the state of HEAD is kept between calls.</p>
+   * 
+   * @throws Exception
+   */
+  public void testBranchInfoFollowsHead() throws Exception {
+    File file = new File(LOCAL_TEST_REPOSITORY, "local.txt");
+    file.createNewFile();
+    setFileContent(file, "local content");
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "local.txt"));
+    gitAccess.commit("First local commit.");
+    String firstCommit = localRepository.resolve("HEAD").name();
+    
+    BranchInfo branchInfo = gitAccess.getBranchInfo();
+    assertEquals(GitAccess.DEFAULT_BRANCH_NAME, branchInfo.getBranchName());
+    assertFalse(branchInfo.isDetached());
+    
+    setFileContent(file, "second content");
+    gitAccess.add(new FileStatus(GitChangeType.MODIFIED, "local.txt"));
+    gitAccess.commit("Second local commit.");
+    assertEquals(localRepository.resolve("HEAD"), HeadState.getInstance().getSnapshot(localRepository).getHeadId());
+    
+    gitAccess.getGit().checkout().setName(firstCommit).call();
+    branchInfo = gitAccess.getBranchInfo();
+    assertTrue(branchInfo.isDetached());
+    assertEquals(firstCommit, branchInfo.getBranchName());
+    assertEquals(firstCommit.substring(0, RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH), branchInfo.getShortBranchName());
+    
+    gitAccess.setBranch(GitAccess.DEFAULT_BRANCH_NAME, Optional.empty());
+    branchInfo = gitAccess.getBranchInfo();
+    assertFalse(branchInfo.isDetached());
+    assertEquals(GitAccess.DEFAULT_BRANCH_NAME, branchInfo.getBranchName());
+  }
+  
+  /**
+   * <p><b>Description:</b> the commits ahead are computed from the previous result when the 
+   * branch moves forward, and from scratch when it is rewritten.</p>
+   * 
+   * @throws Exception
+   */
+  public void testAheadBehindFollowsBranch() throws Exception {
+    File file = new File(LOCAL_TEST_REPOSITORY, "local.txt");
+    file.createNewFile();
+    setFileContent(file, "local content");
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "local.txt"));
+    gitAccess.commit("First local commit.");
+    push("", "");
+    assertEquals(0, gitAccess.getPushesAhead());
+    
+    for (int i = 0; i < 2; i++) {
+      setFileContent(file, "content " + i);
+      gitAccess.add(new FileStatus(GitChangeType.MODIFIED, "local.txt"));
+      gitAccess.commit("Local commit " + i);
+    }
+    assertEquals(2, gitAccess.getPushesAhead());
+    assertEquals(0, gitAccess.getPullsBehind());
+    AheadBehindCache.AheadBehind aheadBehind = 
+        AheadBehindCache.getInstance().getAheadBehind(localRepository, GitAccess.DEFAULT_BRANCH_NAME);
+    assertEquals(localRepository.resolve("HEAD"), aheadBehind.getCommitsAhead().get(0).getId());
+    assertEquals("Local commit 0", aheadBehind.getCommitsAhead().get(1).getFullMessage());
+    
+    // Rewrite the last commit.
+    gitAccess.commit("Amended local commit", true);
+    aheadBehind = AheadBehindCache.getInstance().getAheadBehind(localRepository, GitAccess.DEFAULT_BRANCH_NAME);
+    assertEquals(2, aheadBehind.getAheadCount());
+    assertEquals("Amended local commit", aheadBehind.getCommitsAhead().get(0).getFullMessage());
+    
+    push("", "");
+    assertEquals(0, gitAccess.getPushesAhead());
+    assertEquals(0, gitAccess.getPullsBehind());
+  }
+  
+  /**
+   * <p><b>Description:</b> the commits ahead are computed from scratch when the branch 
+   * was rewritten and its previous tip was pruned.</p>
+   * 
+   * @throws Exception
+   */
+  public void testAheadBehindAfterPreviousTipPruned() throws Exception {
+    File file = new File(LOCAL_TEST_REPOSITORY, "local.txt");
+    file.createNewFile();
+    setFileContent(file, "local content");
+    gitAccess.add(new FileStatus(GitChangeType.ADD, "local.txt"));
+    gitAccess.commit("First local commit.");
+    push("", "");
+    
+    setFileContent(file, "changed content");
+    gitAccess.add(new FileStatus(GitChangeType.MODIFIED, "local.txt"));
+    gitAccess.commit("Second local commit.");
+    assertEquals(1, gitAccess.getPushesAhead());
+    ObjectId previousTip = localRepository.resolve("HEAD");
+    
+    // Rewrite the last commit and prune the loose object of the previous one.
+    gitAccess.commit("Amended local commit", true);
+    String previousTipName = previousTip.getName();
+    File previousTipObject = new File(localRepository.getDirectory(),
+        "objects/" + previousTipName.substring(0, 2) + "/" + previousTipName.substring(2));
+    assertTrue(previousTipObject.delete());
+    
+    AheadBehindCache.AheadBehind aheadBehind = 
+        AheadBehindCache.getInstance().getAheadBehind(localRepository, GitAccess.DEFAULT_BRANCH_NAME);
+    assertEquals(localRepository.resolve("HEAD"), aheadBehind.getLocalTip());
+    assertEquals(1, aheadBehind.getAheadCount());
+    assertEquals(0, aheadBehind.getBehindCount());
+    assertEquals("Amended local commit", aheadBehind.getCommitsAhead().get(0).getFullMessage());
+  }
+  
 }
@@ -3,6 +3,7 @@ package com.oxygenxml.git.service;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -83,6 +84,98 @@ public class GitHistoryTest extends HistoryPanelTestBase {
     }
   }
   
+  /**
+   * Loads the history page by page. The pages must add up to the complete history 
+   * and the graph lanes must be the same as when loading everything at once.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testPagedHistory() throws Exception {
+    URL script = getClass().getClassLoader().getResource("scripts/history_script.txt");
+    
+    File wcTree = new File("target/gen/GitHistoryTest_testPagedHistory");
+    RepoGenerationScript.generateRepository(script, wcTree);
+    
+    try {
+      FileUtils.writeStringToFile(new File(wcTree, "root.txt"), "changed" , "UTF-8");
+      
+      GitAccess.getInstance().setRepositorySynchronously(wcTree.getAbsolutePath());
+
+      String expected = dumpHistory(GitAccess.getInstance()
+          .getCommitsCharacteristics(HistoryStrategy.CURRENT_BRANCH, null, new RenameTracker()));
+      
+      List<CommitCharacteristics> commits = new ArrayList<>();
+      try (PagedCommitsLoader loader = GitAccess.getInstance().createCommitsLoader(
+          HistoryStrategy.CURRENT_BRANCH, null, new RenameTracker())) {
+        // The uncommitted changes and the first commit.
+        List<CommitCharacteristics> page = loader.loadNextPage(1);
+        assertEquals(2, page.size());
+        assertTrue(loader.hasMore());
+        commits.addAll(page);
+        
+        page = loader.loadNextPage(2);
+        assertEquals(2, page.size());
+        commits.addAll(page);
+        
+        commits.addAll(loader.loadNextPage(2));
+        assertFalse(loader.hasMore());
+        assertTrue(loader.loadNextPage(2).isEmpty());
+      }
+      
+      assertEquals(expected, dumpHistory(commits));
+      
+      // A file history.
+      try (PagedCommitsLoader loader = GitAccess.getInstance().createCommitsLoader(
+          HistoryStrategy.CURRENT_BRANCH, "root.txt", new RenameTracker())) {
+        assertEquals(1, loader.loadNextPage(1).size());
+        assertEquals(1, loader.loadAll().size());
+        assertFalse(loader.hasMore());
+      }
+    } finally {
+      GitAccess.getInstance().closeRepo();
+      
+      FileUtil.deleteRecursivelly(wcTree);
+    }
+  }
+  
+  /**
+   * The loaded commits release their bodies. The messages are read again from the repository
+   * and the author names are shared between the commits.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testCommitDetailsReadOnDemand() throws Exception {
+    URL script = getClass().getClassLoader().getResource("scripts/history_script.txt");
+    
+    File wcTree = new File("target/gen/GitHistoryTest_testCommitDetailsReadOnDemand");
+    RepoGenerationScript.generateRepository(script, wcTree);
+    
+    try {
+      GitAccess.getInstance().setRepositorySynchronously(wcTree.getAbsolutePath());
+      
+      try (PagedCommitsLoader loader = GitAccess.getInstance().createCommitsLoader(
+          HistoryStrategy.CURRENT_BRANCH, null, new RenameTracker())) {
+        List<CommitCharacteristics> commits = loader.loadAll();
+        assertEquals(4, commits.size());
+        
+        CommitCharacteristics first = commits.get(0);
+        assertNull(first.getPlotCommit().getRawBuffer());
+        assertEquals("Root file changed.", first.getCommitMessage());
+        assertEquals(first.getPlotCommit().getName(), first.getCommitId());
+        assertEquals(first.getCommitId().substring(0, RevCommitUtilBase.ABBREVIATED_COMMIT_LENGTH), 
+            first.getCommitAbbreviatedId());
+        assertEquals("[" + commits.get(1).getCommitAbbreviatedId() + "]", first.getParentCommitId().toString());
+        assertSame(first.getAuthor(), commits.get(1).getAuthor());
+      }
+    } finally {
+      GitAccess.getInstance().closeRepo();
+      
+      FileUtil.deleteRecursivelly(wcTree);
+    }
+  }
+  
   /**
    * Tests the files that are contained in each commit.
    * 
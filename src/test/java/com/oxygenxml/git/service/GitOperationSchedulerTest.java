@@ -0,0 +1,137 @@
+package com.oxygenxml.git.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests the read and write lanes of the Git operations scheduler.
+ */
+public class GitOperationSchedulerTest {
+
+  /**
+   * The read operations run in parallel. A long one doesn't block the others.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testReadsRunInParallel() throws Exception {
+    GitOperationScheduler scheduler = GitOperationScheduler.getInstance();
+    CountDownLatch releaseLongRead = new CountDownLatch(1);
+    CountDownLatch longReadStarted = new CountDownLatch(1);
+    Future<?> longRead = scheduler.scheduleRead(() -> {
+      longReadStarted.countDown();
+      await(releaseLongRead);
+    });
+    assertTrue(longReadStarted.await(5, TimeUnit.SECONDS));
+
+    // A second read is executed while the first one is still running.
+    CountDownLatch shortReadDone = new CountDownLatch(1);
+    scheduler.scheduleRead(shortReadDone::countDown);
+    assertTrue(shortReadDone.await(5, TimeUnit.SECONDS));
+    assertFalse(longRead.isDone());
+
+    releaseLongRead.countDown();
+    longRead.get(5, TimeUnit.SECONDS);
+  }
+
+  /**
+   * A write operation waits for the read operations scheduled before it, and the read
+   * operations scheduled after it wait for the write one.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testWriteWaitsForReads() throws Exception {
+    GitOperationScheduler scheduler = GitOperationScheduler.getInstance();
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch releaseRead = new CountDownLatch(1);
+
+    scheduler.scheduleRead(() -> {
+      await(releaseRead);
+      events.add("read 1");
+    });
+    Future<?> write = scheduler.schedule(() -> events.add("write"));
+    Future<?> laterRead = scheduler.scheduleRead(() -> events.add("read 2"));
+
+    Thread.sleep(200);
+    assertFalse(write.isDone());
+    assertFalse(laterRead.isDone());
+
+    releaseRead.countDown();
+    laterRead.get(5, TimeUnit.SECONDS);
+    assertEquals("[read 1, write, read 2]", events.toString());
+  }
+
+  /**
+   * A low priority read operation that was not started yet lets the due write operations run first,
+   * even if they were scheduled after it.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testLowPriorityReadYieldsToWrites() throws Exception {
+    GitOperationScheduler scheduler = GitOperationScheduler.getInstance();
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch releaseRead = new CountDownLatch(1);
+
+    scheduler.scheduleRead(() -> {
+      await(releaseRead);
+      events.add("read");
+    });
+    // Keeps the other operations in the queue until the read ends.
+    scheduler.schedule(() -> events.add("write 1"));
+    Future<?> lowPriorityRead = scheduler.scheduleLowPriorityRead(() -> events.add("low priority read"));
+    Future<?> write = scheduler.schedule(() -> events.add("write 2"));
+
+    releaseRead.countDown();
+    write.get(5, TimeUnit.SECONDS);
+    lowPriorityRead.get(5, TimeUnit.SECONDS);
+    assertEquals("[read, write 1, write 2, low priority read]", events.toString());
+  }
+
+  /**
+   * The statistics of the lanes are updated.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testMetrics() throws Exception {
+    GitOperationScheduler scheduler = GitOperationScheduler.getInstance();
+    long reads = scheduler.getReadLaneMetrics().getExecutedCount();
+    long writes = scheduler.getWriteLaneMetrics().getExecutedCount();
+    int queuedReads = scheduler.getReadLaneMetrics().getQueueDepth();
+
+    scheduler.scheduleRead(() -> {}).get(5, TimeUnit.SECONDS);
+    scheduler.schedule(() -> {}).get(5, TimeUnit.SECONDS);
+    Future<?> cancelled = scheduler.scheduleRead(() -> {}, 60_000);
+    assertEquals(queuedReads + 1, scheduler.getReadLaneMetrics().getQueueDepth());
+    cancelled.cancel(false);
+
+    assertEquals(reads + 1, scheduler.getReadLaneMetrics().getExecutedCount());
+    assertEquals(writes + 1, scheduler.getWriteLaneMetrics().getExecutedCount());
+    assertEquals(queuedReads, scheduler.getReadLaneMetrics().getQueueDepth());
+  }
+
+  /**
+   * Waits for a latch to be released.
+   *
+   * @param latch The latch.
+   */
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
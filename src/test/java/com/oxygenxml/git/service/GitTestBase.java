@@ -440,6 +440,8 @@ public abstract class GitTestBase extends JFCTestCase { // NOSONAR
     gitInit();
     OptionsManager.getInstance().setValidateMainFilesBeforePush(false);
     OptionsManager.getInstance().setValidateFilesBeforeCommit(false);
+    // Every refresh from the tests must contact the remote.
+    FetchCoordinator.getInstance().setIntervals(0, 0);
     ResultsManager resultManager = Mockito.mock(ResultsManager.class);
     ColorTheme colorTheme = Mockito.mock(ColorTheme.class);
     Mockito.when(colorTheme.isDarkTheme()).thenReturn(false);
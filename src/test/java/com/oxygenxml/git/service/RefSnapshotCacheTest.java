@@ -0,0 +1,78 @@
+package com.oxygenxml.git.service;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+
+import com.oxygenxml.git.service.RefSnapshotCache.Snapshot;
+import com.oxygenxml.git.service.RefSnapshotCache.TipCommit;
+
+/**
+ * Tests when the branches kept for the branches view are read again.
+ */
+public class RefSnapshotCacheTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/RefSnapshotCacheTest";
+
+  /**
+   * The full name of the main branch.
+   */
+  private static final String MAIN_BRANCH = "refs/heads/" + GitAccess.DEFAULT_BRANCH_NAME;
+
+  /**
+   * The test repository.
+   */
+  private Repository repository;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    repository = createRepository(REPOSITORY_PATH);
+    GitAccess.getInstance().getGit().commit().setAllowEmpty(true).setMessage("First commit").call();
+  }
+
+  /**
+   * <p><b>Description:</b> the snapshot and the tip commits are reused while the references do not change.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testSnapshotReusedWhileRefsUnchanged() throws Exception {
+    RefSnapshotCache cache = RefSnapshotCache.getInstance();
+    Snapshot snapshot = cache.update(repository);
+    assertNotNull(snapshot.getBranch(MAIN_BRANCH));
+
+    assertSame(snapshot, cache.update(repository));
+    TipCommit tipCommit = cache.getTipCommit(repository, MAIN_BRANCH);
+    assertEquals("First commit", tipCommit.getSubject());
+    assertSame(tipCommit, cache.getTipCommit(repository, MAIN_BRANCH));
+    assertSame(snapshot, cache.update(repository));
+  }
+
+  /**
+   * <p><b>Description:</b> the snapshot is read again after a reference is created or moved.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testSnapshotInvalidatedAfterRefUpdate() throws Exception {
+    RefSnapshotCache cache = RefSnapshotCache.getInstance();
+    Snapshot snapshot = cache.update(repository);
+    assertEquals(1, snapshot.getLocalBranches().size());
+    assertEquals("First commit", cache.getTipCommit(repository, MAIN_BRANCH).getSubject());
+
+    Git git = GitAccess.getInstance().getGit();
+    git.branchCreate().setName("feature").call();
+    Snapshot afterCreate = cache.update(repository);
+    assertNotSame(snapshot, afterCreate);
+    assertEquals(2, afterCreate.getLocalBranches().size());
+    assertNotNull(afterCreate.getBranch("refs/heads/feature"));
+
+    git.commit().setAllowEmpty(true).setMessage("Second commit").call();
+    assertEquals("Second commit", cache.getTipCommit(repository, MAIN_BRANCH).getSubject());
+    Snapshot afterCommit = cache.update(repository);
+    assertNotSame(afterCreate, afterCommit);
+    assertEquals(repository.resolve(MAIN_BRANCH), afterCommit.getBranch(MAIN_BRANCH).getObjectId());
+    // The branch that did not move still points to the first commit.
+    assertEquals("First commit", cache.getTipCommit(repository, "refs/heads/feature").getSubject());
+  }
+}
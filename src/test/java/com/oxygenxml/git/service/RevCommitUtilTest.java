@@ -5,16 +5,24 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.lib.ConfigConstants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.junit.Test;
 
+import com.oxygenxml.git.options.OptionsManager;
+
 /**
  * Utility methods Test case.
  */
@@ -63,6 +71,79 @@ public class RevCommitUtilTest extends GitTestBase {
     }
   }
   
+  /**
+   * The "diff.renameLimit" from the repository configuration overrides the limit from the options.
+   * Over the limit, the renamed files with the same content are still detected.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testRenameLimit() throws Exception {
+    String repositoryPath = "target/test-resources/RevCommitUtilTest_testRenameLimit";
+    Repository repository = createRepository(repositoryPath);
+    OptionsManager.getInstance().setRenameDetectionLimit(1000);
+    assertEquals(1000, RevCommitUtil.createRenameDetector(repository).getRenameLimit());
+    
+    StoredConfig config = repository.getConfig();
+    config.setInt(ConfigConstants.CONFIG_DIFF_SECTION, null, ConfigConstants.CONFIG_KEY_RENAMELIMIT, 1);
+    config.save();
+    assertEquals(1, RevCommitUtil.createRenameDetector(repository).getRenameLimit());
+    
+    String[] names = {"a", "b", "c", "d"};
+    for (String name : names) {
+      setFileContent(new File(repositoryPath, name + ".txt"), getRenameTestContent(name));
+    }
+    Git git = GitAccess.getInstance().getGit();
+    git.add().addFilepattern(".").call();
+    RevCommit initial = git.commit().setMessage("Initial").call();
+    
+    // "a" and "b" are renamed with the same content. "c" and "d" are renamed and edited.
+    for (String name : names) {
+      File file = new File(repositoryPath, name + ".txt");
+      String content = getRenameTestContent(name);
+      if ("c".equals(name) || "d".equals(name)) {
+        content += "An added line.\n";
+      }
+      setFileContent(new File(repositoryPath, name + "_renamed.txt"), content);
+      assertTrue(file.delete());
+    }
+    git.add().addFilepattern(".").call();
+    git.rm().addFilepattern("a.txt").addFilepattern("b.txt").addFilepattern("c.txt").addFilepattern("d.txt").call();
+    RevCommit renames = git.commit().setMessage("Renames").call();
+    
+    RenameDetector detector = RevCommitUtil.createRenameDetector(repository);
+    try (TreeWalk treeWalk = new TreeWalk(repository)) {
+      treeWalk.setRecursive(true);
+      treeWalk.setFilter(TreeFilter.ANY_DIFF);
+      treeWalk.addTree(initial.getTree());
+      treeWalk.addTree(renames.getTree());
+      detector.addAll(DiffEntry.scan(treeWalk));
+    }
+    String entries = detector.compute().stream()
+        .map(entry -> entry.getChangeType() + " " + entry.getOldPath() + " " + entry.getNewPath())
+        .sorted()
+        .collect(Collectors.joining("\n"));
+    
+    assertTrue(detector.isOverRenameLimit());
+    assertEquals(
+        "ADD /dev/null c_renamed.txt\n" + 
+        "ADD /dev/null d_renamed.txt\n" + 
+        "DELETE c.txt /dev/null\n" + 
+        "DELETE d.txt /dev/null\n" + 
+        "RENAME a.txt a_renamed.txt\n" + 
+        "RENAME b.txt b_renamed.txt", 
+        entries);
+  }
+  
+  /**
+   * @param name The name of a file.
+   * 
+   * @return The content of the file, with a few lines.
+   */
+  private static String getRenameTestContent(String name) {
+    return "The content of the file " + name + ".\nIt has a few lines.\nSo that it is similar to its edited version.\n";
+  }
+  
   /**
    * Tests the utility method that merges a revision into a list of existing sorted revisions and sorts them all.
    */
@@ -1,5 +1,6 @@
 package com.oxygenxml.git.service;
 
+import java.io.File;
 import java.net.URL;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -8,11 +9,17 @@ import java.util.List;
 
 import javax.swing.JFrame;
 
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Repository;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import com.oxygenxml.git.OxygenGitPluginExtension;
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.utils.FileUtil;
 import com.oxygenxml.git.view.event.GitEventInfo;
 import com.oxygenxml.git.view.event.GitOperation;
 
@@ -60,6 +67,8 @@ public class StatusCacheTest extends GitTestBase {
     Mockito.when(pluginWorkspace.getParentFrame()).thenReturn(mockFrame);
     
     extension.applicationStarted((StandalonePluginWorkspace) pluginWorkspace);
+    // When the working tree is not watched, the changes done outside are not known.
+    GitAccess.getInstance().getStatusCache().stopWatching();
     
     GitStatus status = GitAccess.getInstance().getStatus();
     
@@ -70,6 +79,155 @@ public class StatusCacheTest extends GitTestBase {
     assertFalse("A window activated event should drop the cache", status == newstatus);
   }
   
+  /**
+   * <p><b>Description:</b> The files changed in a watched working tree are detected 
+   * and only their status is recomputed.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testWatchedWorkingTree() throws Exception {
+    StatusCache statusCache = GitAccess.getInstance().getStatusCache();
+    statusCache.startWatching();
+    File dir = new File(REPOSITORY_PATH, "dir");
+    FileUtil.deleteRecursivelly(dir);
+    File file = new File(dir, "a.txt");
+    file.getParentFile().mkdirs();
+    setFileContent(file, "a");
+    // Only the changes done after the status was computed are tracked.
+    statusCache.resetCache();
+    GitStatus status = GitAccess.getInstance().getStatus();
+    assertEquals("[(changeType=UNTRACKED, fileLocation=dir/a.txt)]", status.getUnstagedFiles().toString());
+    
+    // A new file, in a new directory.
+    File newFile = new File(REPOSITORY_PATH, "dir/sub/b.txt");
+    newFile.getParentFile().mkdirs();
+    setFileContent(newFile, "b");
+    
+    // The events are delivered asynchronously.
+    GitStatus newStatus = status;
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (newStatus.getUnstagedFiles().size() < 2 && System.currentTimeMillis() < deadline) {
+      sleep(50);
+      newStatus = GitAccess.getInstance().getStatus();
+    }
+    assertEquals(
+        "[(changeType=UNTRACKED, fileLocation=dir/a.txt), (changeType=UNTRACKED, fileLocation=dir/sub/b.txt)]",
+        newStatus.getUnstagedFiles().toString());
+    
+    // A deleted file.
+    FileUtil.deleteRecursivelly(file);
+    deadline = System.currentTimeMillis() + 10_000;
+    while (newStatus.getUnstagedFiles().size() > 1 && System.currentTimeMillis() < deadline) {
+      sleep(50);
+      newStatus = GitAccess.getInstance().getStatus();
+    }
+    assertEquals(
+        "[(changeType=UNTRACKED, fileLocation=dir/sub/b.txt)]",
+        newStatus.getUnstagedFiles().toString());
+    
+    FileUtil.deleteRecursivelly(dir);
+  }
+  
+  /**
+   * <p><b>Description:</b> A change inside a submodule recomputes the status of the submodule.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testChangeInSubmodule() throws Exception {
+    File submoduleDir = addSubmodule();
+    
+    StatusCache statusCache = GitAccess.getInstance().getStatusCache();
+    statusCache.stopWatching();
+    statusCache.resetCache();
+    FileStatus submoduleStatus = new FileStatus(GitChangeType.SUBMODULE, "sub");
+    assertFalse(GitAccess.getInstance().getStatus().getUnstagedFiles().contains(submoduleStatus));
+    
+    // Commit inside the submodule, so that it points to another commit.
+    try (Git submodule = Git.open(submoduleDir)) {
+      setFileContent(new File(submoduleDir, "x.txt"), "y");
+      submodule.add().addFilepattern("x.txt").call();
+      submodule.commit().setMessage("Second").call();
+    }
+    statusCache.invalidatePath("sub/x.txt");
+    
+    assertTrue(GitAccess.getInstance().getStatus().getUnstagedFiles().contains(submoduleStatus));
+    
+    FileUtil.deleteRecursivelly(submoduleDir);
+  }
+  
+  /**
+   * <p><b>Description:</b> The submodule repositories opened for a status computation are reused 
+   * by the next one, and stay usable by their users after they are released.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testSubmoduleRepositoriesReused() throws Exception {
+    File submoduleDir = addSubmodule();
+    // Commit inside the submodule, so that its status is described.
+    try (Git submodule = Git.open(submoduleDir)) {
+      setFileContent(new File(submoduleDir, "x.txt"), "y");
+      submodule.add().addFilepattern("x.txt").call();
+      submodule.commit().setMessage("Second").call();
+    }
+    
+    StatusCache statusCache = GitAccess.getInstance().getStatusCache();
+    statusCache.stopWatching();
+    statusCache.resetCache();
+    FileStatus submoduleStatus = new FileStatus(GitChangeType.SUBMODULE, "sub");
+    assertTrue(GitAccess.getInstance().getStatus().getUnstagedFiles().contains(submoduleStatus));
+    
+    Repository main = GitAccess.getInstance().getRepository();
+    SubmoduleRepositoryCache submoduleRepositories = SubmoduleRepositoryCache.getInstance();
+    Repository opened;
+    try (Repository repository = submoduleRepositories.getRepository(main, "sub")) {
+      opened = repository;
+    }
+    
+    // The second refresh uses the same repository.
+    statusCache.resetCache();
+    assertTrue(GitAccess.getInstance().getStatus().getUnstagedFiles().contains(submoduleStatus));
+    Repository inUse = submoduleRepositories.getRepository(main, "sub");
+    assertSame(opened, inUse);
+    
+    // Released while in use.
+    submoduleRepositories.clear();
+    assertNotNull(inUse.resolve(Constants.HEAD));
+    inUse.close();
+    try (Repository reopened = submoduleRepositories.getRepository(main, "sub")) {
+      assertNotSame(opened, reopened);
+    }
+    
+    FileUtil.deleteRecursivelly(submoduleDir);
+  }
+  
+  /**
+   * Adds a submodule with one commit to the test repository, at the "sub" path.
+   * 
+   * @return The directory of the submodule.
+   * 
+   * @throws Exception If it fails.
+   */
+  private File addSubmodule() throws Exception {
+    File submoduleSource = new File("target/test-resources/StatusCacheTest_submodule");
+    FileUtil.deleteRecursivelly(submoduleSource);
+    File submoduleDir = new File(REPOSITORY_PATH, "sub");
+    FileUtil.deleteRecursivelly(submoduleDir);
+    
+    try (Git source = Git.init().setDirectory(submoduleSource).call()) {
+      setFileContent(new File(submoduleSource, "x.txt"), "x");
+      source.add().addFilepattern("x.txt").call();
+      source.commit().setMessage("First").call();
+    }
+    
+    Repository repository = GitAccess.getInstance().getRepository();
+    try (Git git = new Git(repository)) {
+      git.submoduleAdd().setName("sub").setPath("sub")
+          .setURI(submoduleSource.getAbsoluteFile().toURI().toString()).call().close();
+      git.commit().setMessage("Submodule").call();
+    }
+    return submoduleDir;
+  }
+  
   /**
    * <p><b>Description:</b> A git event resets the cache.</p>
    * <p><b>Bug ID:</b> EXM-49363</p>
@@ -157,6 +315,10 @@ public class StatusCacheTest extends GitTestBase {
     
     // Make Git Client install all of its listeners on the workspace.
     extension.applicationStarted((StandalonePluginWorkspace) pluginWorkspace);
+    // Only the save events inform about the changes.
+    GitAccess.getInstance().getStatusCache().stopWatching();
+    File savedFile = new File(REPOSITORY_PATH, "a.txt");
+    FileUtil.deleteRecursivelly(savedFile);
     
     GitStatus status = GitAccess.getInstance().getStatus();
     
@@ -172,11 +334,18 @@ public class StatusCacheTest extends GitTestBase {
     assertTrue("The saved file is not from the repo. The status remains the same.", status == newstatus);
     
     // The file in the repo is saved.
+    setFileContent(savedFile, "a");
     inRepoListeners.stream().forEach(l -> l.editorSaved(WSEditorListener.SAVE_OPERATION));
     
     newstatus = GitAccess.getInstance().getStatus();
     
     assertFalse("The saved file is from the repo. The status is recomputed.", status == newstatus);
+    assertEquals("Only the status of the saved file is recomputed.", 
+        "[(changeType=UNTRACKED, fileLocation=a.txt)]", newstatus.getUnstagedFiles().toString());
+    
+    // Saved again, without changes. 
+    inRepoListeners.stream().forEach(l -> l.editorSaved(WSEditorListener.SAVE_OPERATION));
+    assertTrue("The status of the saved file didn't change.", newstatus == GitAccess.getInstance().getStatus());
   }
 
   /**
@@ -0,0 +1,82 @@
+package com.oxygenxml.git.service;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Tests the changes detected by the working tree watcher.
+ */
+public class WorkingTreeWatcherTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/WorkingTreeWatcherTest";
+
+  /**
+   * <p><b>Description:</b> The changes inside the ignored directories are not reported,
+   * while the ones from the other directories, including the directories created later, are.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testIgnoredDirectoriesNotWatched() throws Exception {
+    Repository repository = createRepository(REPOSITORY_PATH);
+    new File(REPOSITORY_PATH, "src").mkdirs();
+    new File(REPOSITORY_PATH, "build").mkdirs();
+    setFileContent(new File(REPOSITORY_PATH, ".gitignore"), "build/\n");
+    setFileContent(new File(REPOSITORY_PATH, "src/a.txt"), "a");
+    setFileContent(new File(REPOSITORY_PATH, "build/out.txt"), "out");
+    try (Git git = new Git(repository)) {
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("First").call();
+    }
+
+    WorkingTreeWatcher watcher = WorkingTreeWatcher.watch(repository);
+    assertNotNull(watcher);
+    try {
+      setFileContent(new File(REPOSITORY_PATH, "build/out.txt"), "changed out");
+      new File(REPOSITORY_PATH, "build/classes").mkdirs();
+      setFileContent(new File(REPOSITORY_PATH, "src/a.txt"), "changed a");
+      Set<String> changes = pollUntil(watcher, "src/a.txt");
+      assertTrue(changes.toString(), changes.contains("src/a.txt"));
+      assertFalse(changes.toString(), changes.contains("build/out.txt"));
+      assertFalse(changes.toString(), changes.contains("build/classes"));
+
+      // A new directory is watched too.
+      new File(REPOSITORY_PATH, "src/gen").mkdirs();
+      pollUntil(watcher, "src/gen");
+      setFileContent(new File(REPOSITORY_PATH, "src/gen/b.txt"), "b");
+      setFileContent(new File(REPOSITORY_PATH, "build/classes/b.class"), "b");
+      changes = pollUntil(watcher, "src/gen/b.txt");
+      assertTrue(changes.toString(), changes.contains("src/gen/b.txt"));
+      assertFalse(changes.toString(), changes.contains("build/classes/b.class"));
+    } finally {
+      watcher.close();
+    }
+  }
+
+  /**
+   * Collects the changes detected by a watcher until a path is detected. The events are delivered asynchronously.
+   *
+   * @param watcher The watcher.
+   * @param path    The expected path.
+   *
+   * @return The detected changes.
+   *
+   * @throws Exception If it fails.
+   */
+  private static Set<String> pollUntil(WorkingTreeWatcher watcher, String path) throws Exception {
+    Set<String> changes = new HashSet<>();
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!changes.contains(path) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+      Set<String> polled = watcher.pollChanges();
+      assertNotNull("No changes should be lost", polled);
+      changes.addAll(polled);
+    }
+    return changes;
+  }
+}
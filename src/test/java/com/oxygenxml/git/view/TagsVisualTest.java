@@ -142,6 +142,9 @@ public class TagsVisualTest extends GitTestBase {
       }
       
       assertNotNull(showTagsJDialog);
+      // The pushed tags are found out in the background.
+      waitForScheduler();
+      flushAWT();
       JTable tagsTable = showTagsJDialog.getTagsTable();
       //Should have 3 tags
       assertEquals(3, tagsTable.getModel().getRowCount());
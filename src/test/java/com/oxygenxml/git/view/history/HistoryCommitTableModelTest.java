@@ -0,0 +1,244 @@
+package com.oxygenxml.git.view.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+
+import org.junit.Test;
+
+/**
+ * Tests the incremental updates of the history table model.
+ */
+public class HistoryCommitTableModelTest {
+
+  /**
+   * Creates a commit.
+   *
+   * @param id      The commit id.
+   * @param message The commit message.
+   *
+   * @return The commit.
+   */
+  private static CommitCharacteristics commit(String id, String message) {
+    return new CommitCharacteristics(message, new Date(), "Alex <alex@sync.ro>", id, id, "Alex", null);
+  }
+
+  /**
+   * Creates commits, with the message equal to the id.
+   *
+   * @param ids The commit ids.
+   *
+   * @return The commits.
+   */
+  private static List<CommitCharacteristics> commits(String... ids) {
+    return Arrays.stream(ids).map(id -> commit(id, id)).collect(Collectors.toList());
+  }
+
+  /**
+   * @param model The model.
+   *
+   * @return The ids of the presented rows.
+   */
+  private static String dumpRows(HistoryCommitTableModel model) {
+    return model.getAllCommits().stream().map(CommitCharacteristics::getCommitId).collect(Collectors.joining(","));
+  }
+
+  /**
+   * Attaches a listener that records the events fired by the model.
+   *
+   * @param model The model.
+   *
+   * @return The recorded events, as "type:first-last".
+   */
+  private static List<String> recordEvents(HistoryCommitTableModel model) {
+    List<String> events = new ArrayList<>();
+    model.addTableModelListener(e -> {
+      String type = "";
+      if (e.getType() == TableModelEvent.INSERT) {
+        type = "insert";
+      } else if (e.getType() == TableModelEvent.DELETE) {
+        type = "delete";
+      } else if (e.getFirstRow() == 0 && e.getLastRow() == Integer.MAX_VALUE) {
+        type = "all";
+      } else {
+        type = "update";
+      }
+      events.add(type + ":" + e.getFirstRow() + "-" + e.getLastRow());
+    });
+    return events;
+  }
+
+  /**
+   * New commits on top and a dropped commit are notified as ranges of rows.
+   */
+  @Test
+  public void testUpdateCommits() {
+    HistoryCommitTableModel model = new HistoryCommitTableModel(commits("c", "b", "a"));
+    List<String> events = recordEvents(model);
+
+    // No graph lanes to repaint.
+    assertFalse(model.updateCommits(commits("e", "d", "c", "a")));
+
+    assertEquals("e,d,c,a", dumpRows(model));
+    // Only the inserted and the removed rows are notified.
+    assertEquals("[insert:0-1, delete:3-3]", events.toString());
+    assertEquals(4, model.getUnfilteredCommitsCount());
+  }
+
+  /**
+   * The filter is applied on the new commits and preserved for the existing ones.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testUpdateFilteredCommits() throws Exception {
+    // The filter notifies on the AWT thread.
+    SwingUtilities.invokeAndWait(HistoryCommitTableModelTest::checkUpdateFilteredCommits);
+  }
+
+  /**
+   * Checks the update of a filtered model. Called on the AWT thread.
+   */
+  private static void checkUpdateFilteredCommits() {
+    List<CommitCharacteristics> initial = new ArrayList<>();
+    initial.add(commit("c", "fix"));
+    initial.add(commit("b", "feature"));
+    initial.add(commit("a", "fix"));
+    HistoryCommitTableModel model = new HistoryCommitTableModel(initial);
+    model.filterChanged("fix");
+    assertEquals("c,a", dumpRows(model));
+    List<String> events = recordEvents(model);
+
+    List<CommitCharacteristics> updated = new ArrayList<>();
+    updated.add(commit("e", "fix"));
+    updated.add(commit("d", "feature"));
+    updated.addAll(initial);
+    model.updateCommits(updated);
+
+    assertEquals("e,c,a", dumpRows(model));
+    assertEquals("[insert:0-0]", events.toString());
+    assertEquals(5, model.getUnfilteredCommitsCount());
+  }
+
+  /**
+   * The changed rows are computed in the background and applied on the AWT thread.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testScheduleUpdate() throws Exception {
+    HistoryCommitTableModel model = new HistoryCommitTableModel(commits("c", "b", "a"));
+    List<String> events = recordEvents(model);
+    
+    CountDownLatch updated = new CountDownLatch(1);
+    SwingUtilities.invokeAndWait(() -> model.scheduleUpdate(commits("d", "c", "a"), lanesMoved -> {
+      assertTrue(SwingUtilities.isEventDispatchThread());
+      updated.countDown();
+    }));
+    assertTrue(updated.await(4, TimeUnit.SECONDS));
+    
+    assertEquals("d,c,a", dumpRows(model));
+    assertEquals("[insert:0-0, delete:2-2]", events.toString());
+  }
+
+  /**
+   * When the common commits are reordered, like after a rebase, the whole table is refreshed.
+   */
+  @Test
+  public void testUpdateReorderedCommits() {
+    HistoryCommitTableModel model = new HistoryCommitTableModel(commits("c", "b", "a"));
+    List<String> events = recordEvents(model);
+
+    model.updateCommits(commits("b", "c", "a"));
+
+    assertEquals("b,c,a", dumpRows(model));
+    assertEquals("all:0-" + Integer.MAX_VALUE, events.get(events.size() - 1));
+  }
+
+  /**
+   * A model created for a refreshed history presents only the commits that match the filter
+   * and reuses the words already indexed for the same repository.
+   */
+  @Test
+  public void testCreateFilteredModel() {
+    CommitsSearchIndex searchIndex = new CommitsSearchIndex();
+    List<CommitCharacteristics> initial = new ArrayList<>();
+    initial.add(commit("b", "feature"));
+    initial.add(commit("a", "fix"));
+    HistoryCommitTableModel model = new HistoryCommitTableModel(initial, searchIndex, "fix");
+    assertEquals("a", dumpRows(model));
+    
+    List<CommitCharacteristics> refreshed = new ArrayList<>();
+    refreshed.add(commit("c", "fix"));
+    refreshed.addAll(initial);
+    model = new HistoryCommitTableModel(refreshed, searchIndex, "fix");
+    assertEquals("c,a", dumpRows(model));
+    assertEquals(3, model.getUnfilteredCommitsCount());
+    
+    // The next page is indexed in the background.
+    List<CommitCharacteristics> nextPage = commits("docs");
+    nextPage.add(commit("0", "fix"));
+    model.prepareCommits(nextPage);
+    model.addCommits(nextPage);
+    assertEquals("c,a,0", dumpRows(model));
+  }
+
+  /**
+   * The next pages are appended at the end of the table.
+   */
+  @Test
+  public void testAddCommits() {
+    HistoryCommitTableModel model = new HistoryCommitTableModel(commits("c", "b"));
+    List<String> events = recordEvents(model);
+
+    model.addCommits(commits("a"));
+
+    assertEquals("c,b,a", dumpRows(model));
+    assertEquals("[insert:2-2]", events.toString());
+  }
+
+  /**
+   * The filter words match the beginning of the words from the commits, or the beginning of the commit ids.
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testFilterWords() throws Exception {
+    // The filter notifies on the AWT thread.
+    SwingUtilities.invokeAndWait(() -> {
+      List<CommitCharacteristics> commits = new ArrayList<>();
+      commits.add(commit("abcdef1234", "Fix the parser"));
+      commits.add(commit("1234567890", "Prefixed names"));
+      commits.add(commit("0000000abc", "Fixed typo in docs"));
+      HistoryCommitTableModel model = new HistoryCommitTableModel(commits);
+
+      model.filterChanged("fix");
+      assertEquals("abcdef1234,0000000abc", dumpRows(model));
+
+      // All the words must match.
+      model.filterChanged("FIX, docs");
+      assertEquals("0000000abc", dumpRows(model));
+
+      model.filterChanged("abcdef1");
+      assertEquals("abcdef1234", dumpRows(model));
+
+      // Too short to be an id.
+      model.filterChanged("abc");
+      assertEquals("", dumpRows(model));
+
+      model.filterChanged("");
+      assertEquals("abcdef1234,1234567890,0000000abc", dumpRows(model));
+    });
+  }
+}
@@ -0,0 +1,115 @@
+package com.oxygenxml.git.view.history;
+
+import java.io.File;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+
+import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitTestBase;
+
+/**
+ * Tests when the key of the presented history changes, so that the history is read again.
+ */
+public class HistoryKeyTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/HistoryKeyTest";
+
+  /**
+   * The test repository.
+   */
+  private Repository repository;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    repository = createRepository(REPOSITORY_PATH);
+    setFileContent(new File(REPOSITORY_PATH, "a.txt"), "a");
+    setFileContent(new File(REPOSITORY_PATH, "b.txt"), "b");
+    Git git = GitAccess.getInstance().getGit();
+    git.add().addFilepattern(".").call();
+    git.commit().setMessage("First commit").call();
+  }
+
+  /**
+   * <p><b>Description:</b> the keys computed for the same state of the repository are equal.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testSameState() throws Exception {
+    HistoryKey key = HistoryKey.create(HistoryStrategy.CURRENT_BRANCH, null, repository, false);
+    HistoryKey again = HistoryKey.create(HistoryStrategy.CURRENT_BRANCH, null, repository, false);
+    assertEquals(key, again);
+    assertEquals(key.hashCode(), again.hashCode());
+    assertTrue(key.hasSameScope(again));
+    assertFalse(key.equals(null));
+    assertFalse(key.hasSameScope(null));
+
+    HistoryKey allBranches = HistoryKey.create(HistoryStrategy.ALL_LOCAL_BRANCHES, null, repository, false);
+    assertFalse(key.equals(allBranches));
+    assertFalse(key.hasSameScope(allBranches));
+  }
+
+  /**
+   * <p><b>Description:</b> the history of a file has another key than the history of
+   * the repository or of another file.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testFilePathHistory() throws Exception {
+    HistoryKey repositoryKey = HistoryKey.create(HistoryStrategy.CURRENT_BRANCH, null, repository, false);
+    HistoryKey fileKey = HistoryKey.create(HistoryStrategy.CURRENT_BRANCH, "a.txt", repository, false);
+    assertFalse(repositoryKey.equals(fileKey));
+    assertFalse(repositoryKey.hasSameScope(fileKey));
+
+    assertEquals(fileKey, HistoryKey.create(HistoryStrategy.CURRENT_BRANCH, "a.txt", repository, false));
+    HistoryKey otherFileKey = HistoryKey.create(HistoryStrategy.CURRENT_BRANCH, "b.txt", repository, false);
+    assertFalse(fileKey.equals(otherFileKey));
+    assertFalse(fileKey.hasSameScope(otherFileKey));
+  }
+
+  /**
+   * <p><b>Description:</b> presenting the uncommitted changes changes the key, but not its scope,
+   * so the presented history is updated incrementally.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testUncommittedChanges() throws Exception {
+    HistoryKey clean = HistoryKey.create(HistoryStrategy.CURRENT_BRANCH, null, repository, false);
+    HistoryKey dirty = HistoryKey.create(HistoryStrategy.CURRENT_BRANCH, null, repository, true);
+    assertFalse(clean.equals(dirty));
+    assertTrue(clean.hasSameScope(dirty));
+  }
+
+  /**
+   * <p><b>Description:</b> the key changes when a presented branch moves, when a tag is created
+   * and when another branch is checked out. A branch that is not presented doesn't change it.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testMovedRef() throws Exception {
+    Git git = GitAccess.getInstance().getGit();
+    HistoryKey key = HistoryKey.create(HistoryStrategy.CURRENT_LOCAL_BRANCH, null, repository, false);
+
+    // Not presented with the current branch strategy.
+    git.branchCreate().setName("feature").call();
+    assertEquals(key, HistoryKey.create(HistoryStrategy.CURRENT_LOCAL_BRANCH, null, repository, false));
+
+    git.commit().setAllowEmpty(true).setMessage("Second commit").call();
+    HistoryKey afterCommit = HistoryKey.create(HistoryStrategy.CURRENT_LOCAL_BRANCH, null, repository, false);
+    assertFalse(key.equals(afterCommit));
+    assertTrue(key.hasSameScope(afterCommit));
+
+    git.tag().setName("v1").call();
+    HistoryKey afterTag = HistoryKey.create(HistoryStrategy.CURRENT_LOCAL_BRANCH, null, repository, false);
+    assertFalse(afterCommit.equals(afterTag));
+    assertTrue(afterCommit.hasSameScope(afterTag));
+
+    git.checkout().setName("feature").call();
+    HistoryKey afterCheckout = HistoryKey.create(HistoryStrategy.CURRENT_LOCAL_BRANCH, null, repository, false);
+    assertFalse(afterTag.equals(afterCheckout));
+    assertTrue(afterTag.hasSameScope(afterCheckout));
+  }
+}
@@ -0,0 +1,179 @@
+package com.oxygenxml.git.view.history;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.swing.JEditorPane;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+
+import org.eclipse.jgit.api.Git;
+
+import com.oxygenxml.git.options.OptionsManager;
+import com.oxygenxml.git.service.ChangedFilesCache;
+import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitOperationScheduler;
+import com.oxygenxml.git.service.GitTestBase;
+import com.oxygenxml.git.service.entities.FileStatus;
+
+/**
+ * Tests how the files changed by the selected commit are computed, cached and presented.
+ */
+public class RowHistoryTableSelectionListenerTest extends GitTestBase {
+  /**
+   * Path for the test repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/RowHistoryTableSelectionListenerTest";
+
+  /**
+   * The number of commits in the test repository.
+   */
+  private static final int COMMITS = 4;
+
+  /**
+   * The history table.
+   */
+  private JTable historyTable;
+
+  /**
+   * The table with the changed files.
+   */
+  private JTable changesTable;
+
+  /**
+   * The presented commits, newest first.
+   */
+  private List<CommitCharacteristics> commits;
+
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    createRepository(REPOSITORY_PATH);
+    Git git = GitAccess.getInstance().getGit();
+    for (int i = 1; i <= COMMITS; i++) {
+      String fileName = "file" + i + ".txt";
+      setFileContent(new File(REPOSITORY_PATH, fileName), "content " + i);
+      git.add().addFilepattern(fileName).call();
+      git.commit().setMessage("Add " + fileName).call();
+    }
+    ChangedFilesCache.getInstance().clear();
+
+    commits = GitAccess.getInstance().getCommitsCharacteristics(HistoryStrategy.CURRENT_BRANCH, null, new RenameTracker());
+    assertEquals(COMMITS, commits.size());
+    historyTable = new JTable(new HistoryCommitTableModel(commits));
+    changesTable = new JTable(new HistoryTableAffectedFilesModel());
+    RowHistoryTableSelectionListener listener = new RowHistoryTableSelectionListener(
+        0, historyTable, new JEditorPane(), commits, changesTable, new RenameTracker(), new FileHistoryPresenter());
+    historyTable.getSelectionModel().addListSelectionListener(listener);
+  }
+
+  /**
+   * Selects a row of the history table.
+   *
+   * @param row The row.
+   *
+   * @throws Exception If it fails.
+   */
+  private void select(int row) throws Exception {
+    SwingUtilities.invokeAndWait(() -> historyTable.setRowSelectionInterval(row, row));
+  }
+
+  /**
+   * @return The presented changed files.
+   */
+  private String dumpPresentedFiles() {
+    return ((HistoryTableAffectedFilesModel) changesTable.getModel()).getFilesStatuses().stream()
+        .map(FileStatus::getFileLocation).collect(Collectors.joining(","));
+  }
+
+  /**
+   * @param row A row of the history table.
+   *
+   * @return <code>true</code> if the changed files of the commit are cached.
+   */
+  private boolean isCached(int row) {
+    return ChangedFilesCache.getInstance().getCachedChangedFiles(commits.get(row).getCommitId()) != null;
+  }
+
+  /**
+   * <p><b>Description:</b> the cached files of a commit are presented as soon as it is selected.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testCacheHit() throws Exception {
+    ChangedFilesCache.getInstance().getChangedFiles(commits.get(1).getCommitId());
+
+    select(1);
+    // No background computation is needed.
+    assertEquals("file3.txt", dumpPresentedFiles());
+
+    // The cached files are not kept for another rename detection limit.
+    int renameLimit = OptionsManager.getInstance().getRenameDetectionLimit();
+    try {
+      OptionsManager.getInstance().setRenameDetectionLimit(renameLimit + 1);
+      assertFalse(isCached(1));
+    } finally {
+      OptionsManager.getInstance().setRenameDetectionLimit(renameLimit);
+    }
+  }
+
+  /**
+   * <p><b>Description:</b> the files of the selected commit are computed in the background,
+   * together with the ones of the next commits in the direction of the selection.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testPrefetch() throws Exception {
+    select(0);
+    waitForScheduler();
+    flushAWT();
+    assertEquals("file4.txt", dumpPresentedFiles());
+    assertTrue(isCached(1));
+    assertTrue(isCached(2));
+    assertFalse(isCached(3));
+
+    // The next commits are already known.
+    select(1);
+    assertEquals("file3.txt", dumpPresentedFiles());
+    select(2);
+    assertEquals("file2.txt", dumpPresentedFiles());
+  }
+
+  /**
+   * <p><b>Description:</b> the computations requested for a previous selection are canceled if
+   * they did not start, and the files of the previous selection are not presented meanwhile.</p>
+   *
+   * @throws Exception If it fails.
+   */
+  public void testCancelPreviousSelection() throws Exception {
+    // Keep the scheduler busy, so that the requested computations wait.
+    CountDownLatch busy = new CountDownLatch(1);
+    GitOperationScheduler.getInstance().schedule(() -> {
+      try {
+        busy.await(4, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    ChangedFilesCache.getInstance().getChangedFiles(commits.get(3).getCommitId());
+    select(3);
+    assertEquals("file1.txt", dumpPresentedFiles());
+    // Requests the second row and, moving up, the first one.
+    select(1);
+    assertEquals("", dumpPresentedFiles());
+    select(3);
+    assertEquals("file1.txt", dumpPresentedFiles());
+
+    busy.countDown();
+    waitForScheduler();
+    flushAWT();
+    // The computations for the second row and its neighbor were canceled.
+    assertFalse(isCached(0));
+    assertFalse(isCached(1));
+    assertEquals("file1.txt", dumpPresentedFiles());
+  }
+}
@@ -0,0 +1,158 @@
+package com.oxygenxml.git.view.history.graph;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revplot.PlotCommit;
+import org.junit.Test;
+
+import com.oxygenxml.git.service.GitAccess;
+import com.oxygenxml.git.service.GitTestBase;
+import com.oxygenxml.git.service.PagedCommitsLoader;
+import com.oxygenxml.git.view.history.CommitCharacteristics;
+import com.oxygenxml.git.view.history.HistoryStrategy;
+import com.oxygenxml.git.view.history.RenameTracker;
+import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualCommit;
+import com.oxygenxml.git.view.history.graph.VisualCommitsList.VisualLane;
+
+/**
+ * Tests the graph geometry of the commits loaded page by page.
+ */
+public class VisualCommitsListTest extends GitTestBase {
+
+  /**
+   * The local repository.
+   */
+  private static final String REPOSITORY_PATH = "target/test-resources/VisualCommitsListTest";
+
+  /**
+   * The height of a graph cell.
+   */
+  private static final int ROW_HEIGHT = 20;
+
+  /**
+   * The commits of the next page route their lanes through the rows painted before the page was loaded.
+   * The geometry of these rows is computed again and is the same as when all the commits are loaded at once.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testGeometryOfRowsPaintedBeforeNextPage() throws Exception {
+    Repository repository = createRepository(REPOSITORY_PATH);
+    Git git = GitAccess.getInstance().getGit();
+    commit(git, "root.txt");
+    String mainBranch = repository.getBranch();
+    // Each feature branch is merged back into the main branch, which also moved meanwhile.
+    for (int i = 1; i <= 4; i++) {
+      String feature = "feature" + i;
+      git.branchCreate().setName(feature).call();
+      git.checkout().setName(feature).call();
+      commit(git, feature + ".txt");
+      git.checkout().setName(mainBranch).call();
+      commit(git, "main" + i + ".txt");
+      git.merge()
+          .include(repository.resolve(feature))
+          .setFastForward(FastForwardMode.NO_FF)
+          .setMessage("Merge " + feature)
+          .call();
+    }
+
+    StringBuilder paged = new StringBuilder();
+    try (PagedCommitsLoader loader = GitAccess.getInstance().createCommitsLoader(
+        HistoryStrategy.CURRENT_BRANCH, null, new RenameTracker())) {
+      // The last merge and one of its parents.
+      List<PlotCommit<VisualLane>> firstPage = getPlotCommits(loader.loadNextPage(2));
+      assertEquals(2, firstPage.size());
+      GraphRender render = new GraphRender();
+      for (PlotCommit<VisualLane> commit : firstPage) {
+        assertNotNull(paint(render, commit));
+      }
+
+      List<PlotCommit<VisualLane>> commits = new ArrayList<>(firstPage);
+      commits.addAll(getPlotCommits(loader.loadAll()));
+      assertFalse(loader.hasMore());
+      // The lane of the other parent passes through the rows of the first page.
+      assertNull(((VisualCommit) firstPage.get(0)).getGeometry());
+
+      for (PlotCommit<VisualLane> commit : commits) {
+        paged.append(dumpGeometry(paint(render, commit))).append("\n");
+      }
+    }
+
+    StringBuilder loadedAtOnce = new StringBuilder();
+    try (PagedCommitsLoader loader = GitAccess.getInstance().createCommitsLoader(
+        HistoryStrategy.CURRENT_BRANCH, null, new RenameTracker())) {
+      GraphRender render = new GraphRender();
+      for (PlotCommit<VisualLane> commit : getPlotCommits(loader.loadAll())) {
+        loadedAtOnce.append(dumpGeometry(paint(render, commit))).append("\n");
+      }
+    }
+
+    assertEquals(loadedAtOnce.toString(), paged.toString());
+  }
+
+  /**
+   * Creates a file and commits it.
+   *
+   * @param git      Git access.
+   * @param fileName The name of the file.
+   *
+   * @throws Exception
+   */
+  private static void commit(Git git, String fileName) throws Exception {
+    FileUtils.writeStringToFile(new File(REPOSITORY_PATH, fileName), fileName, "UTF-8");
+    git.add().addFilepattern(fileName).call();
+    git.commit().setMessage("Add " + fileName).call();
+  }
+
+  /**
+   * @param commits The loaded rows.
+   *
+   * @return The plot commits of the rows, without the uncommitted changes.
+   */
+  private static List<PlotCommit<VisualLane>> getPlotCommits(List<CommitCharacteristics> commits) {
+    List<PlotCommit<VisualLane>> plotCommits = new ArrayList<>();
+    for (CommitCharacteristics commit : commits) {
+      if (commit.getPlotCommit() != null) {
+        plotCommits.add(commit.getPlotCommit());
+      }
+    }
+    return plotCommits;
+  }
+
+  /**
+   * Paints the graph cell of a commit.
+   *
+   * @param render The graph renderer.
+   * @param commit The commit.
+   *
+   * @return The geometry kept by the commit.
+   */
+  private static LaneGeometry paint(GraphRender render, PlotCommit<VisualLane> commit) {
+    BufferedImage image = new BufferedImage(200, ROW_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    try {
+      render.paint(commit, ROW_HEIGHT, g, false);
+    } finally {
+      g.dispose();
+    }
+    return ((VisualCommit) commit).getGeometry();
+  }
+
+  /**
+   * @param geometry The geometry of a graph cell.
+   *
+   * @return The lines and the dot of the geometry.
+   */
+  private static String dumpGeometry(LaneGeometry geometry) {
+    return Arrays.toString(geometry.lines) + " dot: " + geometry.dotX + ", " + geometry.dotY + ", " + geometry.dotSize;
+  }
+}
@@ -205,4 +205,38 @@ public class HistoryPanel3Test extends HistoryPanelTestBase {
     }
   }
   
+  /**
+   * <p><b>Description:</b> checkout a commit from a history row, creating a new branch. 
+   * The commits of the rows have no body.</p>
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testCheckoutCommitFromHistoryRow() throws Exception {
+    URL script = getClass().getClassLoader().getResource("scripts/history_script.txt");
+
+    File wcTree = new File("target/gen/HistoryPanelTest/testCheckoutCommitFromHistoryRow");
+    RepoGenerationScript.generateRepository(script, wcTree);
+
+    try {
+      GitAccess.getInstance().setRepositorySynchronously(wcTree.getAbsolutePath());
+
+      historyPanel.showRepositoryHistory();
+      flushAWT();
+
+      HistoryCommitTableModel model = (HistoryCommitTableModel) historyPanel.getHistoryTable().getModel();
+      CommitCharacteristics commitCharacteristics = model.getAllCommits().get(2);
+      assertEquals("Changes.", commitCharacteristics.getCommitMessage());
+
+      GitAccess.getInstance().checkoutCommit(commitCharacteristics.getPlotCommit(), "branch_from_row", Optional.empty());
+      waitForScheduler();
+
+      Repository repository = GitAccess.getInstance().getRepository();
+      assertEquals("branch_from_row", repository.getBranch());
+      assertEquals(commitCharacteristics.getCommitId(), repository.resolve("HEAD").name());
+    } finally {
+      GitAccess.getInstance().closeRepo();
+      FileUtil.deleteRecursivelly(wcTree);
+    }
+  }
 }
@@ -110,6 +110,8 @@ public abstract class HistoryPanelTestBase extends GitTestBase { // NOSONAR squi
     } finally {
       affectedTable.getModel().removeTableModelListener(l);
     }
+    // The affected files are computed in the background.
+    waitForScheduler();
     flushAWT();
     CommitCharacteristics selectedObject = (CommitCharacteristics) model.getValueAt(historyTable.getSelectedRow(), 1);
     assertEquals(replaceDate(expected), serializeCommit(selectedObject));
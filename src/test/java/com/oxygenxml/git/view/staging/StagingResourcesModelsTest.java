@@ -0,0 +1,149 @@
+package com.oxygenxml.git.view.staging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+
+import org.junit.Test;
+
+import com.oxygenxml.git.service.entities.FileStatus;
+import com.oxygenxml.git.service.entities.GitChangeType;
+import com.oxygenxml.git.view.GitTreeNode;
+import com.oxygenxml.git.view.event.FileGitEventInfo;
+import com.oxygenxml.git.view.event.GitOperation;
+import com.oxygenxml.git.view.util.TreeUtil;
+
+/**
+ * Tests the path lookups and the row events of the staging models.
+ */
+public class StagingResourcesModelsTest {
+
+  /**
+   * The deleted rows are notified in blocks of consecutive rows, from the last block to the first.
+   */
+  @Test
+  public void testTableModelDeleteRows() {
+    StagingResourcesTableModel model = new StagingResourcesTableModel(null, false);
+    model.setFilesStatus(Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "e.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "a.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "c.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "b.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "d.txt"),
+        // A duplicate.
+        new FileStatus(GitChangeType.MODIFIED, "a.txt")));
+    assertEquals("[(changeType=MODIFIED, fileLocation=a.txt), (changeType=MODIFIED, fileLocation=b.txt), "
+        + "(changeType=MODIFIED, fileLocation=c.txt), (changeType=MODIFIED, fileLocation=d.txt), "
+        + "(changeType=MODIFIED, fileLocation=e.txt)]", model.getFilesStatuses().toString());
+    assertEquals(3, model.getRow("d.txt"));
+
+    List<String> events = new ArrayList<>();
+    model.addTableModelListener(e -> events.add(
+        (e.getType() == TableModelEvent.DELETE ? "deleted " : "other ") + e.getFirstRow() + "-" + e.getLastRow()));
+    model.stateChanged(new FileGitEventInfo(GitOperation.DISCARD, Arrays.asList("a.txt", "d.txt", "b.txt", "x.txt")));
+
+    assertEquals("[deleted 3-3, deleted 0-1]", events.toString());
+    assertEquals("[(changeType=MODIFIED, fileLocation=c.txt), (changeType=MODIFIED, fileLocation=e.txt)]",
+        model.getFilesStatuses().toString());
+    assertEquals(1, model.getRow("e.txt"));
+    assertEquals(-1, model.getRow("a.txt"));
+  }
+
+  /**
+   * The files are found by path, including the ones from a folder.
+   */
+  @Test
+  public void testTreeModelLookup() {
+    StagingResourcesTreeModel model = new StagingResourcesTreeModel(null, "root", false, Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "dir/a.txt"),
+        new FileStatus(GitChangeType.UNTRACKED, "dir/sub/b.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "dir2/c.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "dir.txt")));
+
+    assertEquals("(changeType=UNTRACKED, fileLocation=dir/sub/b.txt)", model.getFileByPath("dir/sub/b.txt").toString());
+    assertNull(model.getFileByPath("dir"));
+    assertEquals("[(changeType=MODIFIED, fileLocation=dir/a.txt), (changeType=UNTRACKED, fileLocation=dir/sub/b.txt)]",
+        model.getFilesByPaths(Arrays.asList("dir")).toString());
+    assertEquals("[(changeType=MODIFIED, fileLocation=dir.txt)]",
+        model.getFileLeavesByPaths(Arrays.asList("dir.txt", "dir")).toString());
+
+    model.fileStatesChanged(new FileGitEventInfo(GitOperation.DISCARD, Arrays.asList("dir/sub/b.txt")));
+    assertEquals("[(changeType=MODIFIED, fileLocation=dir/a.txt)]",
+        model.getFilesByPaths(Arrays.asList("dir")).toString());
+    assertEquals(3, model.getFilesStatuses().size());
+  }
+
+  /**
+   * The nodes are inserted at their sorted position and only the changed subtrees are notified.
+   */
+  @Test
+  public void testTreeModelSortedInsertion() {
+    StagingResourcesTreeModel model = new StagingResourcesTreeModel(null, "root", false, Arrays.asList(
+        new FileStatus(GitChangeType.MODIFIED, "b/x.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "d.txt"),
+        new FileStatus(GitChangeType.MODIFIED, "B.txt")));
+
+    List<String> events = new ArrayList<>();
+    model.addTreeModelListener(new TreeModelListener() {
+      @Override
+      public void treeStructureChanged(TreeModelEvent e) {
+        events.add("structure " + e.getTreePath());
+      }
+      @Override
+      public void treeNodesRemoved(TreeModelEvent e) {
+        events.add("removed " + e.getTreePath() + " " + Arrays.toString(e.getChildIndices()));
+      }
+      @Override
+      public void treeNodesInserted(TreeModelEvent e) {
+        events.add("inserted " + e.getTreePath() + " " + Arrays.toString(e.getChildIndices()));
+      }
+      @Override
+      public void treeNodesChanged(TreeModelEvent e) {
+        events.add("changed " + e.getTreePath());
+      }
+    });
+
+    model.fileStatesChanged(new FileGitEventInfo(GitOperation.DISCARD, Arrays.asList("d.txt")));
+    assertEquals("[removed [root] [2]]", events.toString());
+    events.clear();
+
+    TreeUtil.insertSortedPath(model, "a/y/z.txt");
+    TreeUtil.insertSortedPath(model, "a.txt");
+    TreeUtil.insertSortedPath(model, "b/w.txt");
+    assertEquals("[inserted [root] [0], inserted [root] [2], inserted [root, b] [0]]", events.toString());
+    assertEquals("a, b, a.txt, B.txt", children(model, model.getRoot()));
+    assertEquals("w.txt, x.txt", children(model, model.getChild(model.getRoot(), 1)));
+
+    events.clear();
+    TreeUtil.removeSortedPath(model, "a/y/z.txt");
+    assertEquals("[removed [root] [0]]", events.toString());
+    assertEquals("b, a.txt, B.txt", children(model, model.getRoot()));
+    // The case matters only between equivalent names.
+    assertEquals(-4, TreeUtil.sortedChildIndex((GitTreeNode) model.getRoot(), "b.txt", false));
+    assertEquals(2, TreeUtil.sortedChildIndex((GitTreeNode) model.getRoot(), "B.txt", false));
+  }
+
+  /**
+   * @param model  The tree model.
+   * @param parent A node.
+   *
+   * @return The names of the children, separated by comma.
+   */
+  private static String children(StagingResourcesTreeModel model, Object parent) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < model.getChildCount(parent); i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(model.getChild(parent, i));
+    }
+    return sb.toString();
+  }
+}